@@ -7,9 +7,10 @@ from datetime import datetime
 
 URL_CSV = "https://docs.google.com/spreadsheets/d/1Zyzbrjd7mAFDaEKaXURGzA0o0cDA4p35MCcDW-2mwo8/export?format=csv&gid=1706485275"
 
-# Obtém o diretório do script
+# Diretório de dados da aplicação (app.data.dir), repassado pelo PythonScriptExecutor
 SCRIPT_DIR = os.path.dirname(os.path.abspath(__file__))
-JSON_FILE_RESOURCES = os.path.join(SCRIPT_DIR, "src", "main", "resources", "data", "cotacoes.json")
+DATA_DIR = os.environ.get("INVEST_DATA_DIR") or os.path.join(SCRIPT_DIR, "data")
+JSON_FILE = os.path.join(DATA_DIR, "cotacoes.json")
 
 print("🔄 Baixando dados mais recentes...")
 response = requests.get(URL_CSV)
@@ -23,10 +24,12 @@ for linha in reader:
     linha["atualizado_em"] = datetime.now().strftime("%d/%m/%Y %H:%M:%S")
     dados.append(linha)
 
-# Salva em src/main/resources/data/ (onde o Spring Boot lê)
-os.makedirs(os.path.dirname(JSON_FILE_RESOURCES), exist_ok=True)
-with open(JSON_FILE_RESOURCES, "w", encoding="utf-8") as f:
+# Grava em arquivo temporário e substitui por rename (leitores nunca veem o arquivo pela metade)
+os.makedirs(DATA_DIR, exist_ok=True)
+tmp_file = JSON_FILE + ".tmp"
+with open(tmp_file, "w", encoding="utf-8") as f:
     json.dump(dados, f, indent=2, ensure_ascii=False)
-print(f"✅ Arquivo salvo em '{JSON_FILE_RESOURCES}'")
+os.replace(tmp_file, JSON_FILE)
+print(f"✅ Arquivo salvo em '{JSON_FILE}'")
 
 print(f"✅ Pronto! {len(dados)} ativos atualizados")
\ No newline at end of file
@@ -0,0 +1,46 @@
+#!/bin/bash
+# Mede tempo de inicialização e memória (RSS máximo) do console (Unix/Linux)
+# Uso: ./medir-console.sh   (requer GNU time em /usr/bin/time)
+#
+# Cada execução sobe o console com H2 em memória e responde "0" (Sair) no menu de login:
+# o tempo medido vai do início do processo até a saída, quase todo ele inicialização.
+#   antes:        contexto completo (web, WebSocket, OpenAPI)
+#   console:      perfil console na JVM
+#   console+AOT:  perfil console com o código gerado pelo Spring AOT
+#   nativo:       executável gerado por mvn -Pnative,console native:compile (se existir)
+
+set -e
+
+JAR=target/investment-portfolio-1.0.0.jar
+NATIVO=target/investment-portfolio
+RODADAS=${RODADAS:-3}
+
+if [ ! -f "$JAR" ]; then
+    echo "📦 Empacotando projeto com o perfil console..."
+    mvn -q clean package -DskipTests -Pconsole
+fi
+
+medir() {
+    local nome=$1
+    shift
+    local total_tempo=0
+    local total_rss=0
+    for i in $(seq 1 "$RODADAS"); do
+        local saida
+        saida=$(echo "0" | /usr/bin/time -f "%e %M" "$@" 2>&1 >/dev/null | tail -n 1)
+        total_tempo=$(echo "$total_tempo + ${saida% *}" | bc)
+        total_rss=$((total_rss + ${saida#* }))
+    done
+    printf "   %-12s %6.2f s   %6d MB\n" "$nome" "$(echo "$total_tempo / $RODADAS" | bc -l)" \
+        $((total_rss / RODADAS / 1024))
+}
+
+echo "📊 Console: média de $RODADAS execuções (tempo até sair | RSS máximo)"
+medir "antes" java -jar "$JAR" --spring.profiles.active=h2
+medir "console" java -jar "$JAR" --spring.profiles.active=h2,console
+medir "console+AOT" java -Dspring.aot.enabled=true -jar "$JAR" --spring.profiles.active=h2,console
+if [ -x "$NATIVO" ]; then
+    medir "nativo" "$NATIVO" --spring.profiles.active=h2,console
+else
+    echo "   nativo       (não gerado: mvn -Pnative,console -DskipTests native:compile)"
+fi
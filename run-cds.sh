@@ -0,0 +1,50 @@
+#!/bin/bash
+# Script para executar a aplicação com Class Data Sharing (Unix/Linux/macOS)
+# Uso: ./run-cds.sh [perfis]        (padrão: server,rapido)
+#      AOT=true ./run-cds.sh        (também gera e usa o código do Spring AOT; perfis fixos no pom.xml)
+#
+# 1ª execução: gera target/cds/app.jsa com as classes carregadas até o contexto subir
+# (-Dspring.context.exit=onRefresh). O banco configurado no perfil precisa estar acessível.
+# Execuções seguintes reaproveitam o arquivo. Apague target/cds para gerar de novo (ex.: ao trocar AOT).
+
+set -e
+
+PERFIS=${1:-server,rapido}
+DIR=target/cds
+JAR=target/investment-portfolio-1.0.0.jar
+
+echo "🚀 Executando Sistema de Carteiras com CDS"
+echo "=========================================="
+
+OPCOES_AOT=""
+if [ "$AOT" = "true" ]; then
+    OPCOES_AOT="-Dspring.aot.enabled=true"
+fi
+
+if [ ! -f "$DIR/app.jsa" ]; then
+    echo "📦 Empacotando projeto..."
+    if [ "$AOT" = "true" ]; then
+        mvn -q clean package -DskipTests -Paot
+    else
+        mvn -q clean package -DskipTests
+    fi
+
+    # O CDS não arquiva classes de JARs aninhados nem de diretórios: extrai o JAR do Spring Boot
+    # em um JAR com as classes da aplicação e os JARs das dependências
+    echo "📂 Extraindo $JAR..."
+    mkdir -p "$DIR/extraido"
+    (cd "$DIR/extraido" && jar xf "../../../$JAR")
+    jar cf "$DIR/app.jar" -C "$DIR/extraido/BOOT-INF/classes" .
+    mv "$DIR/extraido/BOOT-INF/lib" "$DIR/lib"
+    rm -rf "$DIR/extraido"
+
+    echo "🧪 Gerando arquivo CDS (perfis: $PERFIS)..."
+    java -XX:ArchiveClassesAtExit="$DIR/app.jsa" -Dspring.context.exit=onRefresh $OPCOES_AOT \
+        -cp "$DIR/app.jar:$DIR/lib/*" com.invest.InvestmentPortfolioApplication \
+        --spring.profiles.active="$PERFIS"
+fi
+
+echo "🚀 Iniciando aplicação (perfis: $PERFIS)..."
+exec java -XX:SharedArchiveFile="$DIR/app.jsa" $OPCOES_AOT \
+    -cp "$DIR/app.jar:$DIR/lib/*" com.invest.InvestmentPortfolioApplication \
+    --spring.profiles.active="$PERFIS"
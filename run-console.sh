@@ -41,4 +41,4 @@ echo ""
 echo "⚠️  A aplicação será executada no console"
 echo ""
 
-mvn spring-boot:run -Dspring-boot.run.profiles=h2
+mvn spring-boot:run -Dspring-boot.run.profiles=h2,console
@@ -0,0 +1,174 @@
+package com.invest.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Bootstrap do banco MariaDB/MySQL: cria o schema se ele não existir e executa as migrações
+ * que o Hibernate (ddl-auto=update) não cobre.
+ *
+ * Modos (app.banco.bootstrap):
+ * - sincrono (padrão): antes do pool existir, com uma única conexão ao servidor
+ * - assincrono: o schema é criado pelo próprio driver na primeira conexão do pool
+ *   (createDatabaseIfNotExist) e as migrações rodam em segundo plano depois da inicialização
+ * - desligado: schema e migrações gerenciados fora da aplicação
+ */
+class BootstrapBanco {
+
+    private static final Logger logger = LoggerFactory.getLogger(BootstrapBanco.class);
+
+    enum Modo {
+        SINCRONO, ASSINCRONO, DESLIGADO;
+
+        static Modo of(String valor) {
+            return valor == null || valor.isBlank() ? SINCRONO : valueOf(valor.trim().toUpperCase());
+        }
+    }
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    BootstrapBanco(String url, String username, String password) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    boolean isMariaDbOrMySql() {
+        String urlLower = url != null ? url.toLowerCase() : "";
+        // Pelo prefixo: a URL do H2 dos testes também contém "mysql" (MODE=MySQL)
+        return urlLower.startsWith("jdbc:mariadb:") || urlLower.startsWith("jdbc:mysql:");
+    }
+
+    /**
+     * Modo síncrono: verifica/cria o schema e executa as migrações numa só conexão ao servidor
+     */
+    void executar() {
+        String databaseName = extrairNomeBanco();
+        if (databaseName == null) {
+            logger.debug("Não foi possível extrair o nome do banco da URL.");
+            return;
+        }
+
+        logger.info("🔍 Verificando se o banco de dados '{}' existe...", databaseName);
+        try (Connection connection = DriverManager.getConnection(criarUrlServidor(), username, password)) {
+            if (bancoExiste(connection, databaseName)) {
+                logger.info("✅ Banco de dados '{}' já existe.", databaseName);
+            } else {
+                logger.info("📦 Criando banco de dados '{}'...", databaseName);
+                criarBanco(connection, databaseName);
+                logger.info("✅ Banco de dados '{}' criado com sucesso!", databaseName);
+            }
+            executarMigracoes(connection, databaseName);
+        } catch (Exception e) {
+            logger.warn("⚠️ Não foi possível verificar/criar o banco de dados: " + e.getMessage());
+            logger.debug("Detalhes:", e);
+            // Não lança exceção para não impedir a inicialização
+        }
+    }
+
+    /**
+     * Modo assíncrono: executa as migrações com uma conexão do pool (o schema já existe)
+     */
+    void executarMigracoes(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            executarMigracoes(connection, connection.getCatalog());
+            // O pool do perfil perf entrega conexões sem auto-commit
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (Exception e) {
+            logger.warn("⚠️ Não foi possível executar migrações de schema: " + e.getMessage());
+            logger.debug("Detalhes:", e);
+        }
+    }
+
+    /**
+     * Migrações de schema, com nomes qualificados pelo banco para rodar em qualquer conexão do servidor
+     */
+    private void executarMigracoes(Connection connection, String databaseName) throws SQLException {
+        logger.info("🔄 Executando migrações de schema...");
+
+        // Adiciona coluna data_atualizacao na tabela investidores se não existir
+        String checkColumnSql = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_SCHEMA = ? AND TABLE_NAME = 'investidores' AND COLUMN_NAME = 'data_atualizacao'";
+        String checkTableSql = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                "WHERE TABLE_SCHEMA = ? AND TABLE_NAME = 'investidores'";
+        if (contar(connection, checkTableSql, databaseName) == 0) {
+            // Tabela ainda não existe (será criada pelo Hibernate)
+            logger.debug("Tabela 'investidores' ainda não existe");
+        } else if (contar(connection, checkColumnSql, databaseName) == 0) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("ALTER TABLE " + escapar(databaseName) +
+                        ".investidores ADD COLUMN data_atualizacao DATETIME(6) NULL");
+            }
+            logger.info("✅ Coluna 'data_atualizacao' adicionada à tabela 'investidores'");
+        } else {
+            logger.debug("Coluna 'data_atualizacao' já existe na tabela 'investidores'");
+        }
+
+        logger.info("✅ Migrações de schema concluídas.");
+    }
+
+    private int contar(Connection connection, String sql, String databaseName) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, databaseName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private boolean bancoExiste(Connection connection, String databaseName) throws SQLException {
+        String sql = "SELECT SCHEMA_NAME FROM INFORMATION_SCHEMA.SCHEMATA WHERE SCHEMA_NAME = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, databaseName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private void criarBanco(Connection connection, String databaseName) throws SQLException {
+        String sql = "CREATE DATABASE IF NOT EXISTS " + escapar(databaseName) +
+                " CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci";
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+
+    private static String escapar(String databaseName) {
+        return "`" + databaseName.replace("`", "``") + "`";
+    }
+
+    /**
+     * Nome do banco na URL: jdbc:mariadb://host:port/database?opcoes
+     */
+    String extrairNomeBanco() {
+        String urlSemQuery = url.split("\\?")[0];
+        int lastSlash = urlSemQuery.lastIndexOf('/');
+        if (lastSlash == -1 || urlSemQuery.charAt(lastSlash - 1) == '/') {
+            return null;
+        }
+        String databaseName = urlSemQuery.substring(lastSlash + 1).trim();
+        return databaseName.isEmpty() ? null : databaseName;
+    }
+
+    /**
+     * URL do servidor sem banco selecionado, mantendo as opções da URL original
+     */
+    String criarUrlServidor() {
+        String urlSemQuery = url.split("\\?")[0];
+        String queryParams = url.contains("?") ? url.substring(url.indexOf('?')) : "";
+        return urlSemQuery.substring(0, urlSemQuery.lastIndexOf('/') + 1) + queryParams;
+    }
+}
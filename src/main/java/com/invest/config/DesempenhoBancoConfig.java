@@ -0,0 +1,56 @@
+package com.invest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+
+/**
+ * Perfil de desempenho do banco (--spring.profiles.active=server,perf). O pool e o lote do Hibernate
+ * ficam em application-perf.properties; aqui entram as opções do driver em app.perf.driver.*
+ * (cache de prepared statements e envio em lote), aplicadas só a URLs MariaDB/MySQL: o H2 recusa
+ * propriedades de conexão que não conhece.
+ */
+@Configuration
+@Profile("perf")
+public class DesempenhoBancoConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DesempenhoBancoConfig.class);
+
+    @Bean
+    public static BeanPostProcessor opcoesDriverMariaDb(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    configurar(dataSource, Binder.get(environment)
+                            .bind("app.perf.driver", Bindable.mapOf(String.class, String.class))
+                            .orElse(Map.of()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static void configurar(HikariDataSource dataSource, Map<String, String> opcoesDriver) {
+        String url = dataSource.getJdbcUrl() != null ? dataSource.getJdbcUrl().toLowerCase() : "";
+        // Pelo prefixo: a URL do H2 dos testes também contém "mysql" (MODE=MySQL)
+        if (url.startsWith("jdbc:mariadb:") || url.startsWith("jdbc:mysql:")) {
+            opcoesDriver.forEach(dataSource::addDataSourceProperty);
+        } else if (!opcoesDriver.isEmpty()) {
+            logger.debug("Banco não é MariaDB/MySQL. Opções do driver ignoradas: {}", opcoesDriver.keySet());
+        }
+
+        logger.info("⚙️ Pool '{}': máximo {} conexões, mínimo ocioso {}, detecção de vazamento {} ms, opções do driver {}",
+                dataSource.getPoolName(), dataSource.getMaximumPoolSize(), dataSource.getMinimumIdle(),
+                dataSource.getLeakDetectionThreshold(), dataSource.getDataSourceProperties());
+    }
+}
@@ -0,0 +1,66 @@
+package com.invest.config;
+
+import com.invest.event.MetricasAssinantes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executores dos assinantes de CotacoesAtualizadasEvent.
+ *
+ * Cada assinante tem o seu executor de uma thread: eventos são processados em ordem e um
+ * assinante lento (ex.: gravação do histórico) não atrasa os demais nem quem publica. Com a
+ * fila cheia o evento mais antigo da fila é descartado (cada evento traz o snapshot completo,
+ * então o mais novo o substitui) e o descarte é contado em MetricasAssinantes.
+ */
+@Configuration
+@EnableAsync
+public class EventosConfig {
+
+    @Value("${app.eventos.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Autowired
+    private MetricasAssinantes metricasAssinantes;
+
+    @Bean
+    public ThreadPoolTaskExecutor historicoCotacoesExecutor() {
+        return executor("historico-cotacoes-", "historico");
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor cacheCotacoesExecutor() {
+        return executor("cache-cotacoes-", "cache");
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor valorCarteirasExecutor() {
+        return executor("valor-carteiras-", "carteiras");
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor websocketCotacoesExecutor() {
+        return executor("websocket-cotacoes-", "websocket");
+    }
+
+    private ThreadPoolTaskExecutor executor(String prefixo, String assinante) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(prefixo);
+        ThreadPoolExecutor.DiscardOldestPolicy descartarMaisAntigo = new ThreadPoolExecutor.DiscardOldestPolicy();
+        executor.setRejectedExecutionHandler((tarefa, pool) -> {
+            if (!pool.isShutdown()) {
+                metricasAssinantes.registrarDescarte(assinante);
+            }
+            descartarMaisAntigo.rejectedExecution(tarefa, pool);
+        });
+        return executor;
+    }
+}
@@ -0,0 +1,26 @@
+package com.invest.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+
+/**
+ * Inicialização preguiçosa só fora da camada web (perfil rapido, spring.main.lazy-initialization=true).
+ *
+ * Controllers e @ControllerAdvice, com as dependências deles, continuam sendo criados na inicialização:
+ * a primeira requisição não paga a criação. Os demais beans (console, relatórios, tempo real, fontes de
+ * cotação) são criados no primeiro uso. Beans com @Scheduled já são excluídos pelo Spring Boot.
+ */
+@Configuration
+public class InicializacaoConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter beansWebNaInicializacao() {
+        return (beanName, definition, type) -> type != null
+                && (AnnotatedElementUtils.hasAnnotation(type, Controller.class)
+                    || AnnotatedElementUtils.hasAnnotation(type, ControllerAdvice.class));
+    }
+}
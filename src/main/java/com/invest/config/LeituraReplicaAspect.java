@@ -0,0 +1,34 @@
+package com.invest.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Marca a thread enquanto executa um serviço com @LeituraReplica; o RoteamentoLeituraDataSource só manda
+ * para a réplica as transações somente leitura abertas com a marca
+ */
+@Aspect
+class LeituraReplicaAspect {
+
+    private static final ThreadLocal<Boolean> LEITURA_REPLICA = new ThreadLocal<>();
+
+    static boolean isLeituraReplica() {
+        return Boolean.TRUE.equals(LEITURA_REPLICA.get());
+    }
+
+    @Around("@within(com.invest.service.banco.LeituraReplica) || @annotation(com.invest.service.banco.LeituraReplica)")
+    public Object marcar(ProceedingJoinPoint chamada) throws Throwable {
+        Boolean anterior = LEITURA_REPLICA.get();
+        LEITURA_REPLICA.set(Boolean.TRUE);
+        try {
+            return chamada.proceed();
+        } finally {
+            if (anterior == null) {
+                LEITURA_REPLICA.remove();
+            } else {
+                LEITURA_REPLICA.set(anterior);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.invest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Réplica de leitura (app.banco.replica.url). Relatórios, rentabilidade e histórico de carteiras (serviços com
+ * @LeituraReplica) rodam em transações somente leitura e vão para a réplica; escritas e as demais leituras,
+ * inclusive as dos repositórios, ficam no primário.
+ *
+ * O pool da réplica é configurável em app.banco.replica.hikari.*. Sem app.banco.replica.url, tudo usa o primário.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.banco.replica.url")
+public class ReplicaLeituraConfig {
+
+    @Value("${app.banco.replica.url}")
+    private String url;
+
+    @Value("${app.banco.replica.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${app.banco.replica.password:${spring.datasource.password:}}")
+    private String password;
+
+    @Bean
+    @ConfigurationProperties("app.banco.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    /**
+     * DataSource usado pelo JPA e pelo JdbcTemplate
+     */
+    @Bean
+    @Primary
+    public DataSource roteamentoDataSource(@Qualifier("dataSource") HikariDataSource primario,
+                                           @Qualifier("replicaDataSource") HikariDataSource replica) {
+        RoteamentoLeituraDataSource roteamento = new RoteamentoLeituraDataSource();
+        roteamento.setTargetDataSources(Map.of(
+                RoteamentoLeituraDataSource.Destino.PRIMARIO, primario,
+                RoteamentoLeituraDataSource.Destino.REPLICA, replica));
+        roteamento.setDefaultTargetDataSource(primario);
+        roteamento.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    @Bean
+    LeituraReplicaAspect leituraReplicaAspect() {
+        return new LeituraReplicaAspect();
+    }
+
+    /**
+     * A sessão devolve a conexão ao fim de cada transação: com open-in-view, a mesma sessão atravessa
+     * transações de leitura e de escrita na mesma requisição e não pode continuar presa à réplica
+     */
+    @Bean
+    public HibernatePropertiesCustomizer liberarConexaoAposTransacao() {
+        return propriedades -> propriedades.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,26 @@
+package com.invest.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envia as conexões de transações somente leitura (@Transactional(readOnly = true)) abertas por serviços
+ * com @LeituraReplica para a réplica e todas as demais para o primário. Leituras sem a marca (ex: o
+ * SimpleJpaRepository, que também é somente leitura) precisam enxergar o que acabou de ser gravado.
+ *
+ * A decisão é tomada ao pedir a conexão. Por isso o DataSource fica atrás de um LazyConnectionDataSourceProxy:
+ * o JpaTransactionManager abre a conexão antes de marcar a transação como somente leitura, e o proxy só busca
+ * a conexão real no primeiro comando, quando a marca já existe.
+ */
+class RoteamentoLeituraDataSource extends AbstractRoutingDataSource {
+
+    enum Destino {
+        PRIMARIO, REPLICA
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && LeituraReplicaAspect.isLeituraReplica()
+                ? Destino.REPLICA : Destino.PRIMARIO;
+    }
+}
@@ -6,11 +6,13 @@ package com.invest.config;
  * Configurações CORS e outras configurações web
  */
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@ConditionalOnWebApplication
 public class WebConfig implements WebMvcConfigurer {
     
     @Override
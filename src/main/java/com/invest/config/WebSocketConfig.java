@@ -1,25 +1,141 @@
 package com.invest.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
 
 /**
  * Configuração WebSocket para streaming de cotações em tempo real
  * Permite que clientes se conectem e recebam atualizações automáticas
+ *
+ * Broker: app.websocket.broker=simple (em memória, padrão) ou relay (broker STOMP externo,
+ * ex.: RabbitMQ ou ActiveMQ Artemis, em app.websocket.relay.host/port). No relay, a sessão de sistema
+ * (app.websocket.relay.system-login/system-passcode) e as sessões dos clientes
+ * (app.websocket.relay.login/passcode) têm credenciais próprias, sem padrão: faltando alguma, a
+ * aplicação não sobe.
+ *
+ * Cada sessão tem limite de tempo de envio e de buffer: um cliente lento acumula mensagens no
+ * próprio buffer em vez de segurar as threads do canal de saída. Quando o buffer estoura,
+ * app.websocket.slow-consumer decide entre desconectar o cliente (disconnect, padrão) ou
+ * descartar as mensagens mais antigas do buffer (drop). Estourar o tempo de envio sempre desconecta.
+ * A infraestrutura STOMP vem de MensageriaWebSocketConfig (no lugar de @EnableWebSocketMessageBroker),
+ * que registra o handler de sessões com essa política.
  */
 @Configuration
-@EnableWebSocketMessageBroker
+@ConditionalOnWebApplication
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Value("${app.websocket.broker:simple}")
+    private String broker;
+
+    @Value("${app.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.relay.login:}")
+    private String relayLogin;
+
+    @Value("${app.websocket.relay.passcode:}")
+    private String relayPasscode;
+
+    @Value("${app.websocket.relay.system-login:}")
+    private String relaySystemLogin;
+
+    @Value("${app.websocket.relay.system-passcode:}")
+    private String relaySystemPasscode;
+
+    @Value("${app.websocket.inbound.core-pool-size:4}")
+    private int inboundCorePoolSize;
+
+    @Value("${app.websocket.inbound.max-pool-size:16}")
+    private int inboundMaxPoolSize;
+
+    @Value("${app.websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${app.websocket.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${app.websocket.outbound.max-pool-size:32}")
+    private int outboundMaxPoolSize;
+
+    @Value("${app.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${app.websocket.send-time-limit:10000}")
+    private int sendTimeLimit;
+
+    @Value("${app.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${app.websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Configura broker para enviar mensagens aos clientes
-        config.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equalsIgnoreCase(broker)) {
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(obrigatoria("app.websocket.relay.login", relayLogin))
+                    .setClientPasscode(obrigatoria("app.websocket.relay.passcode", relayPasscode))
+                    .setSystemLogin(obrigatoria("app.websocket.relay.system-login", relaySystemLogin))
+                    .setSystemPasscode(obrigatoria("app.websocket.relay.system-passcode", relaySystemPasscode));
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         // Prefixo para mensagens enviadas pelos clientes
         config.setApplicationDestinationPrefixes("/app");
+        // Mantém a ordem dos ticks por sessão mesmo com várias threads de saída
+        config.setPreservePublishOrder(true);
+    }
+
+    private static String obrigatoria(String propriedade, String valor) {
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalStateException(propriedade + " é obrigatória com app.websocket.broker=relay");
+        }
+        return valor;
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(inboundCorePoolSize)
+                .maxPoolSize(inboundMaxPoolSize)
+                .queueCapacity(inboundQueueCapacity);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimit)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit);
     }
 
     @Override
@@ -29,4 +145,52 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
+
+    /**
+     * Equivalente a @EnableWebSocketMessageBroker (aplica os WebSocketMessageBrokerConfigurer, como o de cima),
+     * trocando o handler de sessões pelo ClienteLentoWebSocketHandler
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication
+    static class MensageriaWebSocketConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+        @Value("${app.websocket.slow-consumer:disconnect}")
+        private String slowConsumer;
+
+        @Bean
+        @Override
+        public WebSocketHandler subProtocolWebSocketHandler(AbstractSubscribableChannel clientInboundChannel,
+                                                            AbstractSubscribableChannel clientOutboundChannel) {
+            OverflowStrategy estrategia = "drop".equalsIgnoreCase(slowConsumer)
+                    ? OverflowStrategy.DROP : OverflowStrategy.TERMINATE;
+            return new ClienteLentoWebSocketHandler(clientInboundChannel, clientOutboundChannel, estrategia);
+        }
+    }
+
+    /**
+     * Handler STOMP das sessões WebSocket que escolhe o que fazer quando o buffer de envio de um cliente
+     * estoura: TERMINATE encerra a sessão (padrão do Spring), DROP descarta as mensagens mais antigas.
+     * A política precisa ficar aqui: o SubProtocolWebSocketHandler envolve cada sessão no próprio
+     * ConcurrentWebSocketSessionDecorator, por fora de qualquer decorator de handler registrado antes
+     */
+    static class ClienteLentoWebSocketHandler extends SubProtocolWebSocketHandler {
+
+        private final OverflowStrategy estrategia;
+
+        ClienteLentoWebSocketHandler(MessageChannel clientInboundChannel, SubscribableChannel clientOutboundChannel,
+                                     OverflowStrategy estrategia) {
+            super(clientInboundChannel, clientOutboundChannel);
+            this.estrategia = estrategia;
+        }
+
+        OverflowStrategy getEstrategia() {
+            return estrategia;
+        }
+
+        @Override
+        protected WebSocketSession decorateSession(WebSocketSession session) {
+            return new ConcurrentWebSocketSessionDecorator(session, getSendTimeLimit(), getSendBufferSizeLimit(),
+                    estrategia);
+        }
+    }
 }
@@ -21,6 +21,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.stereotype.Component;
 
 import com.invest.model.Carteira;
@@ -36,10 +37,12 @@ import com.invest.service.external.GoogleSheetsService;
  * Aplicação de Console para Sistema de Carteiras
  * Interface amigável para o cliente
  * 
- * Só executa quando app.console.enabled=true (padrão) ou quando não está em modo servidor
+ * Só executa quando app.console.enabled=true (padrão) ou quando não está em modo servidor.
+ * Perfil console: contexto sem servidor web, WebSocket e OpenAPI (ver application-console.properties)
  */
 @Component
 @ConditionalOnProperty(name = "app.console.enabled", havingValue = "true", matchIfMissing = true)
+@ImportRuntimeHints(ConsoleRuntimeHints.class)
 public class ConsoleApplication implements CommandLineRunner {
 
     @Value("${app.mode:console}")
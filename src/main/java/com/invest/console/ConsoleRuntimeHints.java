@@ -0,0 +1,40 @@
+package com.invest.console;
+
+import com.invest.dto.RelatorioEmpresaResponse;
+import com.invest.model.*;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Hints do Spring AOT para o console como executável nativo (mvn -Pnative,console native:compile).
+ *
+ * Entidades, enums e o conversor JPA são acessados por reflexão pelo Hibernate; o relatório da empresa é
+ * gravado em JSON pelo Jackson; os arquivos de dados do classpath são lidos na inicialização.
+ */
+public class ConsoleRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> TIPOS_JPA = List.of(
+            Investidor.class, Carteira.class, Ativo.class, Transacao.class, ResumoImpostoMensal.class,
+            TipoAtivo.class, TipoTransacao.class, CategoriaImposto.class, ObjetivoCarteira.class,
+            PrazoCarteira.class, PerfilRisco.class, PerfilRiscoConverter.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> tipo : TIPOS_JPA) {
+            hints.reflection().registerType(tipo,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), RelatorioEmpresaResponse.class);
+
+        hints.resources()
+                .registerPattern("data/*")
+                .registerPattern("cache-segundo-nivel.conf");
+    }
+}
@@ -0,0 +1,30 @@
+package com.invest.controller;
+
+import com.invest.service.cache.CacheEntidadesService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Controller REST com o estado do cache de segundo nível das entidades
+ */
+@RestController
+@ConditionalOnWebApplication
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "*")
+public class CacheController {
+
+    @Autowired
+    private CacheEntidadesService cacheEntidadesService;
+
+    @Operation(summary = "Estado do cache de segundo nível",
+               description = "Retorna acertos, falhas e taxa de acerto por região (Investidor, Carteira, Ativo, Carteira.ativos) e do cache de consultas")
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(cacheEntidadesService.getStatus());
+    }
+}
@@ -3,6 +3,7 @@ package com.invest.controller;
 import com.invest.dto.CarteiraRequest;
 import com.invest.dto.CarteiraResponse;
 import com.invest.dto.AtivoResponse;
+import com.invest.dto.CarteiraValorResponse;
 import com.invest.exception.ResourceNotFoundException;
 import com.invest.model.Carteira;
 import com.invest.model.Investidor;
@@ -11,20 +12,24 @@ import com.invest.repository.CarteiraRepository;
 import com.invest.repository.InvestidorRepository;
 import com.invest.repository.AtivoRepository;
 import com.invest.service.CarteiraService;
+import com.invest.service.ValorCarteiraService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -34,6 +39,7 @@ import java.util.stream.Collectors;
  * Permite que cada investidor gerencie múltiplas carteiras
  */
 @RestController
+@ConditionalOnWebApplication
 @RequestMapping("/api/carteiras")
 @CrossOrigin(origins = "*")
 public class CarteiraController {
@@ -50,6 +56,9 @@ public class CarteiraController {
     @Autowired
     private AtivoRepository ativoRepository;
 
+    @Autowired
+    private ValorCarteiraService valorCarteiraService;
+
     @Operation(summary = "Lista todas as carteiras de um investidor",
                description = "Retorna uma página de carteiras de um investidor específico, com paginação e ordenação")
     @GetMapping("/investidor/{investidorId}")
@@ -166,6 +175,20 @@ public class CarteiraController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Valor da carteira em uma data",
+               description = "Calcula o valor da carteira na data informada (parâmetro data, padrão agora) a partir das posições naquela data e da cotação vigente de cada ativo")
+    @GetMapping("/{id}/valor")
+    public CarteiraValorResponse getValorCarteira(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime data) {
+        
+        if (!carteiraRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Carteira não encontrada: " + id);
+        }
+        
+        return valorCarteiraService.calcularValorEm(id, data != null ? data : LocalDateTime.now());
+    }
+
     @Operation(summary = "Atualiza preços de uma carteira",
                description = "Atualiza os preços de uma carteira específica usando dados do JSON ou serviço externo")
     @PostMapping("/{id}/atualizar-precos")
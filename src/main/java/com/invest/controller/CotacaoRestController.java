@@ -1,13 +1,17 @@
 package com.invest.controller;
 
+import com.invest.event.MetricasAssinantes;
 import com.invest.service.CotacaoStreamingService;
 import com.invest.service.CotacaoUpdateService;
 import com.invest.service.PythonScriptExecutor;
+import com.invest.service.agenda.AgendadorCotacoes;
+import com.invest.service.fonte.FonteCotacoesService;
 import com.invest.service.external.GoogleSheetsService;
 
 import io.swagger.v3.oas.annotations.Operation;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,6 +24,7 @@ import java.util.Map;
  * Permite acesso via HTTP às cotações atualizadas periodicamente
  */
 @RestController
+@ConditionalOnWebApplication
 @RequestMapping("/api/cotacoes")
 @CrossOrigin(origins = "*")
 public class CotacaoRestController {
@@ -36,6 +41,15 @@ public class CotacaoRestController {
     @Autowired
     private PythonScriptExecutor pythonScriptExecutor;
 
+    @Autowired
+    private MetricasAssinantes metricasAssinantes;
+
+    @Autowired(required = false)
+    private AgendadorCotacoes agendadorCotacoes;
+
+    @Autowired
+    private FonteCotacoesService fonteCotacoesService;
+
     @Operation(summary = "Listar todas as cotações",
                description = "Retorna todas as cotações disponíveis no JSON com timestamp e total de ativos")
     @GetMapping
@@ -125,14 +139,43 @@ public class CotacaoRestController {
         }
     }
 
+    @Operation(summary = "Lag dos assinantes de atualização de cotações",
+               description = "Retorna, por assinante (histórico, cache, carteiras, websocket), eventos processados, falhas e lag em ms")
+    @GetMapping("/eventos")
+    public ResponseEntity<Map<String, Map<String, Object>>> getMetricasEventos() {
+        return ResponseEntity.ok(metricasAssinantes.getMetricas());
+    }
+
+    @Operation(summary = "Agendamento da atualização de cotações",
+               description = "Retorna se o pregão da B3 está aberto, a próxima execução agendada e os contadores de execuções ignoradas")
+    @GetMapping("/agenda")
+    public ResponseEntity<Map<String, Object>> getAgenda() {
+        if (agendadorCotacoes == null) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("habilitado", false);
+            return ResponseEntity.ok(response);
+        }
+        Map<String, Object> response = new HashMap<>(agendadorCotacoes.getStatus());
+        response.put("habilitado", true);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Estado das fontes de cotações",
+               description = "Retorna, por fonte, o estado do circuit breaker, tentativas, falhas e usos do último snapshot válido")
+    @GetMapping("/fonte")
+    public ResponseEntity<Map<String, Map<String, Object>>> getStatusFonte() {
+        return ResponseEntity.ok(fonteCotacoesService.getStatus());
+    }
+
     @Operation(summary = "Verificar status do serviço de cotações",
-               description = "Retorna status do serviço, quantidade de cotações disponíveis e fonte de dados")
+               description = "Retorna status do serviço, quantidade de cotações disponíveis, fonte de dados e atualizações ignoradas por conteúdo repetido")
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getStatus() {
         Map<String, Object> status = new HashMap<>();
         status.put("status", "online");
         status.put("cotacoesDisponiveis", googleSheetsService.getAllCotacoes().size());
         status.put("fonte", "cotacoes.json");
+        status.put("atualizacao", cotacaoUpdateService.getStatus());
         status.put("timestamp", System.currentTimeMillis());
         
         return ResponseEntity.ok(status);
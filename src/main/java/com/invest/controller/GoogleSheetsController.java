@@ -9,6 +9,7 @@ import com.invest.service.CarteiraService;
 import com.invest.model.Carteira;
 import com.invest.repository.CarteiraRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,6 +23,7 @@ import java.util.List;
  * gerado por script Python a partir da planilha do Google Sheets.
  */
 @RestController
+@ConditionalOnWebApplication
 @RequestMapping("/api/google-sheets")
 @CrossOrigin(origins = "*")
 public class GoogleSheetsController {
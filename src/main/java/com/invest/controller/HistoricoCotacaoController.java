@@ -6,6 +6,7 @@ import com.invest.service.CarteiraHistoricoService;
 import com.invest.service.HistoricoCotacaoService;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,6 +17,7 @@ import java.util.List;
  * Endpoints para gerar gráficos de variação de ações no front-end
  */
 @RestController
+@ConditionalOnWebApplication
 @RequestMapping("/api/historico")
 @CrossOrigin(origins = "*")
 public class HistoricoCotacaoController {
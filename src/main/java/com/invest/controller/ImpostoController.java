@@ -0,0 +1,68 @@
+package com.invest.controller;
+
+import com.invest.dto.ImpostoAnualResponse;
+import com.invest.exception.ResourceNotFoundException;
+import com.invest.model.ResumoImpostoMensal;
+import com.invest.repository.CarteiraRepository;
+import com.invest.service.impostos.ResumoImpostoService;
+
+import io.swagger.v3.oas.annotations.Operation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Controller REST para consulta da apuração mensal de IR das carteiras
+ */
+@RestController
+@ConditionalOnWebApplication
+@RequestMapping("/api/impostos")
+@CrossOrigin(origins = "*")
+public class ImpostoController {
+
+    @Autowired
+    private ResumoImpostoService resumoImpostoService;
+
+    @Autowired
+    private CarteiraRepository carteiraRepository;
+
+    @Operation(summary = "Apuração mensal de IR de uma carteira",
+               description = "Retorna, para o ano informado (padrão: ano atual), vendas, resultado, prejuízo compensado/acumulado e imposto devido por mês e categoria")
+    @GetMapping("/carteira/{carteiraId}")
+    public ImpostoAnualResponse getImpostosCarteira(
+            @PathVariable Long carteiraId,
+            @RequestParam(required = false) Integer ano) {
+        
+        if (!carteiraRepository.existsById(carteiraId)) {
+            throw new ResourceNotFoundException("Carteira não encontrada: " + carteiraId);
+        }
+        
+        int anoConsulta = ano != null ? ano : Year.now().getValue();
+        List<ResumoImpostoMensal> resumos = resumoImpostoService.getResumosAno(carteiraId, anoConsulta);
+        
+        List<ImpostoAnualResponse.ResumoMensal> meses = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (ResumoImpostoMensal resumo : resumos) {
+            meses.add(new ImpostoAnualResponse.ResumoMensal(
+                    resumo.getMes(),
+                    resumo.getCategoria().name(),
+                    resumo.getTotalVendas(),
+                    resumo.getResultado(),
+                    resumo.getPrejuizoCompensado(),
+                    resumo.getPrejuizoAcumulado(),
+                    resumo.getBaseCalculo(),
+                    resumo.getImpostoDevido(),
+                    resumo.isIsento()
+            ));
+            total = total.add(resumo.getImpostoDevido());
+        }
+        
+        return new ImpostoAnualResponse(carteiraId, anoConsulta, total, meses);
+    }
+}
@@ -0,0 +1,30 @@
+package com.invest.controller;
+
+import com.invest.service.banco.PoolConexoesService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Controller REST com as métricas do pool de conexões do banco
+ */
+@RestController
+@ConditionalOnWebApplication
+@RequestMapping("/api/banco")
+@CrossOrigin(origins = "*")
+public class PoolConexoesController {
+
+    @Autowired
+    private PoolConexoesService poolConexoesService;
+
+    @Operation(summary = "Estado do pool de conexões",
+               description = "Retorna configuração do pool (máximo, mínimo ocioso, timeouts) e conexões ativas, ociosas e threads aguardando conexão")
+    @GetMapping("/pool")
+    public ResponseEntity<Map<String, Object>> getPool() {
+        return ResponseEntity.ok(poolConexoesService.getStatus());
+    }
+}
@@ -4,6 +4,7 @@ import com.invest.service.RealTimeUpdateService;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,6 +18,7 @@ import java.util.Map;
  * Só é criado quando app.realtime.enabled=true (modo servidor)
  */
 @RestController
+@ConditionalOnWebApplication
 @RequestMapping("/api/realtime")
 @CrossOrigin(origins = "*")
 @ConditionalOnProperty(name = "app.realtime.enabled", havingValue = "true", matchIfMissing = false)
@@ -7,6 +7,7 @@ import com.invest.service.RelatorioEmpresaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
  * Retorna JSON completo para uso no front-end
  */
 @RestController
+@ConditionalOnWebApplication
 @RequestMapping("/api/relatorio")
 @CrossOrigin(origins = "*")
 @Tag(name = "Relatórios", description = "Endpoints para geração de relatórios em JSON")
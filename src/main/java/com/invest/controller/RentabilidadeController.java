@@ -7,6 +7,7 @@ import com.invest.service.RentabilidadeService;
 import io.swagger.v3.oas.annotations.Operation;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,6 +17,7 @@ import java.util.List;
  * Controller REST para cálculos de rentabilidade
  */
 @RestController
+@ConditionalOnWebApplication
 @RequestMapping("/api/rentabilidade")
 @CrossOrigin(origins = "*")
 public class RentabilidadeController {
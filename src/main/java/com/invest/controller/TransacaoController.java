@@ -1,19 +1,25 @@
 package com.invest.controller;
 
+import com.invest.dto.PosicaoResponse;
 import com.invest.dto.TransacaoRequest;
 import com.invest.dto.TransacaoResponse;
 import com.invest.exception.ResourceNotFoundException;
 import com.invest.model.TipoTransacao;
 import com.invest.model.Transacao;
+import com.invest.repository.TransacaoResumo;
 import com.invest.service.TransacaoService;
+import com.invest.service.ledger.PosicaoSnapshot;
 
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,6 +30,7 @@ import java.util.stream.Collectors;
  * Permite registro de compras, vendas, proventos, etc.
  */
 @RestController
+@ConditionalOnWebApplication
 @RequestMapping("/api/transacoes")
 @CrossOrigin(origins = "*")
 public class TransacaoController {
@@ -31,20 +38,32 @@ public class TransacaoController {
     @Autowired
     private TransacaoService transacaoService;
 
-    @Operation(summary = "Lista todas as transações de uma carteira",
-               description = "Retorna todas as transações de uma carteira específica, paginadas e ordenadas")
+    @Operation(summary = "Lista as transações de uma carteira",
+               description = "Retorna uma página de transações em ordem cronológica (data, id). Para a página seguinte, "
+                       + "informe aposData e aposId da última transação recebida (também enviados no cabeçalho Link, rel=\"next\")")
     @GetMapping("/carteira/{carteiraId}")
-    public List<TransacaoResponse> getTransacoesByCarteira(
+    public ResponseEntity<List<TransacaoResponse>> getTransacoesByCarteira(
             @PathVariable Long carteiraId,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "dataTransacao") String sort) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime aposData,
+            @RequestParam(required = false) Long aposId,
+            @RequestParam(defaultValue = "20") int size) {
         
-        List<Transacao> transacoes = transacaoService.getTransacoesByCarteira(carteiraId);
-        
-        return transacoes.stream()
+        List<TransacaoResumo> transacoes = transacaoService.listarTransacoes(carteiraId, aposData, aposId, size);
+        List<TransacaoResponse> response = transacoes.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
+        
+        // Página cheia: pode haver mais transações depois da última
+        if (!transacoes.isEmpty() && transacoes.size() >= Math.min(size, TransacaoService.TAMANHO_MAXIMO_PAGINA)) {
+            TransacaoResumo ultima = transacoes.get(transacoes.size() - 1);
+            String proxima = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("aposData", ultima.getDataTransacao())
+                    .replaceQueryParam("aposId", ultima.getId())
+                    .encode()
+                    .toUriString();
+            return ResponseEntity.ok().header(HttpHeaders.LINK, "<" + proxima + ">; rel=\"next\"").body(response);
+        }
+        return ResponseEntity.ok(response);
     }
 
     @Operation(summary = "Busca uma transação específica",
@@ -93,6 +112,27 @@ public class TransacaoController {
                 .collect(Collectors.toList());
     }
 
+    @Operation(summary = "Busca a posição de um ativo",
+               description = "Retorna quantidade e preço médio de um ativo na carteira, atual ou em uma data (parâmetro data)")
+    @GetMapping("/carteira/{carteiraId}/ativo/{codigoAtivo}/posicao")
+    public PosicaoResponse getPosicaoAtivo(
+            @PathVariable Long carteiraId,
+            @PathVariable String codigoAtivo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime data) {
+        
+        PosicaoSnapshot posicao = transacaoService.getPosicaoAtivo(carteiraId, codigoAtivo, data);
+        
+        return new PosicaoResponse(
+                carteiraId,
+                codigoAtivo,
+                data != null ? data : LocalDateTime.now(),
+                posicao.getQuantidade(),
+                posicao.getPrecoMedio(),
+                posicao.getCustoTotal(),
+                posicao.getLancamentosAplicados()
+        );
+    }
+
     @Operation(summary = "Busca transações por período",
                description = "Filtra transações de uma carteira entre datas de início e fim")
     @GetMapping("/carteira/{carteiraId}/periodo")
@@ -202,6 +242,31 @@ public class TransacaoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Converte a projeção da listagem para DTO de resposta
+     */
+    private TransacaoResponse convertToResponse(TransacaoResumo transacao) {
+        return new TransacaoResponse(
+                transacao.getId(),
+                transacao.getTipoTransacao(),
+                transacao.getCodigoAtivo(),
+                transacao.getNomeAtivo(),
+                transacao.getTipoAtivo(),
+                transacao.getQuantidade(),
+                transacao.getPrecoUnitario(),
+                transacao.getValorTotal(),
+                transacao.getTaxasCorretagem(),
+                transacao.getImpostos(),
+                transacao.getValorLiquido(),
+                transacao.getDataTransacao(),
+                transacao.getDataLiquidacao(),
+                transacao.getObservacoes(),
+                transacao.getCarteiraId(),
+                transacao.getCarteiraNome(),
+                transacao.getAtivoId()
+        );
+    }
+
     /**
      * Converte entidade Transacao para DTO de resposta
      */
@@ -11,6 +11,7 @@ import io.swagger.v3.oas.annotations.Operation;
 
 import com.invest.dto.CotacaoDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +25,7 @@ import java.util.Map;
  * Usa cotações em tempo real automaticamente
  */
 @RestController
+@ConditionalOnWebApplication
 @RequestMapping("/api/transacoes/quick")
 @CrossOrigin(origins = "*")
 public class TransacaoQuickController {
@@ -16,6 +16,7 @@ public class CarteiraHistoricoResponse {
     private String investidorNome;
     private List<AtivoHistorico> ativos;
     private ResumoCarteira resumo;
+    private List<PontoCurva> curva;
     
     public CarteiraHistoricoResponse() {}
     
@@ -60,6 +61,14 @@ public class CarteiraHistoricoResponse {
         this.resumo = resumo;
     }
     
+    public List<PontoCurva> getCurva() {
+        return curva;
+    }
+    
+    public void setCurva(List<PontoCurva> curva) {
+        this.curva = curva;
+    }
+    
     /**
      * Histórico de um ativo específico na carteira
      */
@@ -249,5 +258,68 @@ public class CarteiraHistoricoResponse {
             this.ganhoPerdaPercentualTotal = ganhoPerdaPercentualTotal;
         }
     }
+    
+    /**
+     * Ponto da curva consolidada da carteira (soma de todos os ativos na data/hora)
+     */
+    public static class PontoCurva {
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime dataHora;
+        private BigDecimal valorTotal;
+        private BigDecimal custoTotal;
+        private BigDecimal ganhoPerda;
+        private BigDecimal ganhoPerdaPercentual;
+        
+        public PontoCurva() {}
+        
+        public PontoCurva(LocalDateTime dataHora, BigDecimal valorTotal, BigDecimal custoTotal,
+                          BigDecimal ganhoPerda, BigDecimal ganhoPerdaPercentual) {
+            this.dataHora = dataHora;
+            this.valorTotal = valorTotal;
+            this.custoTotal = custoTotal;
+            this.ganhoPerda = ganhoPerda;
+            this.ganhoPerdaPercentual = ganhoPerdaPercentual;
+        }
+        
+        // Getters e Setters
+        public LocalDateTime getDataHora() {
+            return dataHora;
+        }
+        
+        public void setDataHora(LocalDateTime dataHora) {
+            this.dataHora = dataHora;
+        }
+        
+        public BigDecimal getValorTotal() {
+            return valorTotal;
+        }
+        
+        public void setValorTotal(BigDecimal valorTotal) {
+            this.valorTotal = valorTotal;
+        }
+        
+        public BigDecimal getCustoTotal() {
+            return custoTotal;
+        }
+        
+        public void setCustoTotal(BigDecimal custoTotal) {
+            this.custoTotal = custoTotal;
+        }
+        
+        public BigDecimal getGanhoPerda() {
+            return ganhoPerda;
+        }
+        
+        public void setGanhoPerda(BigDecimal ganhoPerda) {
+            this.ganhoPerda = ganhoPerda;
+        }
+        
+        public BigDecimal getGanhoPerdaPercentual() {
+            return ganhoPerdaPercentual;
+        }
+        
+        public void setGanhoPerdaPercentual(BigDecimal ganhoPerdaPercentual) {
+            this.ganhoPerdaPercentual = ganhoPerdaPercentual;
+        }
+    }
 }
-
@@ -0,0 +1,77 @@
+package com.invest.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Mensagem WebSocket com o valor atual e o ganho/perda de uma carteira
+ */
+public class CarteiraValorMensagem {
+
+    private Long carteiraId;
+    private BigDecimal valorTotal;
+    private BigDecimal custoTotal;
+    private BigDecimal ganhoPerda;
+    private BigDecimal ganhoPerdaPercentual;
+    private long timestamp;
+
+    public CarteiraValorMensagem() {}
+
+    public CarteiraValorMensagem(Long carteiraId, BigDecimal valorTotal, BigDecimal custoTotal,
+                                 BigDecimal ganhoPerda, BigDecimal ganhoPerdaPercentual, long timestamp) {
+        this.carteiraId = carteiraId;
+        this.valorTotal = valorTotal;
+        this.custoTotal = custoTotal;
+        this.ganhoPerda = ganhoPerda;
+        this.ganhoPerdaPercentual = ganhoPerdaPercentual;
+        this.timestamp = timestamp;
+    }
+
+    // Getters e Setters
+    public Long getCarteiraId() {
+        return carteiraId;
+    }
+
+    public void setCarteiraId(Long carteiraId) {
+        this.carteiraId = carteiraId;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+
+    public void setValorTotal(BigDecimal valorTotal) {
+        this.valorTotal = valorTotal;
+    }
+
+    public BigDecimal getCustoTotal() {
+        return custoTotal;
+    }
+
+    public void setCustoTotal(BigDecimal custoTotal) {
+        this.custoTotal = custoTotal;
+    }
+
+    public BigDecimal getGanhoPerda() {
+        return ganhoPerda;
+    }
+
+    public void setGanhoPerda(BigDecimal ganhoPerda) {
+        this.ganhoPerda = ganhoPerda;
+    }
+
+    public BigDecimal getGanhoPerdaPercentual() {
+        return ganhoPerdaPercentual;
+    }
+
+    public void setGanhoPerdaPercentual(BigDecimal ganhoPerdaPercentual) {
+        this.ganhoPerdaPercentual = ganhoPerdaPercentual;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,164 @@
+package com.invest.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO para o valor de uma carteira em uma data
+ * Posições vêm do ledger de transações e preços da cotação vigente na data
+ */
+public class CarteiraValorResponse {
+
+    private Long carteiraId;
+    private String carteiraNome;
+    private LocalDateTime data;
+    private BigDecimal valorTotal;
+    private BigDecimal custoTotal;
+    private BigDecimal ganhoPerda;
+    private List<AtivoValor> ativos;
+
+    public CarteiraValorResponse() {}
+
+    public CarteiraValorResponse(Long carteiraId, String carteiraNome, LocalDateTime data,
+                                 BigDecimal valorTotal, BigDecimal custoTotal, BigDecimal ganhoPerda,
+                                 List<AtivoValor> ativos) {
+        this.carteiraId = carteiraId;
+        this.carteiraNome = carteiraNome;
+        this.data = data;
+        this.valorTotal = valorTotal;
+        this.custoTotal = custoTotal;
+        this.ganhoPerda = ganhoPerda;
+        this.ativos = ativos;
+    }
+
+    // Getters e Setters
+    public Long getCarteiraId() {
+        return carteiraId;
+    }
+
+    public void setCarteiraId(Long carteiraId) {
+        this.carteiraId = carteiraId;
+    }
+
+    public String getCarteiraNome() {
+        return carteiraNome;
+    }
+
+    public void setCarteiraNome(String carteiraNome) {
+        this.carteiraNome = carteiraNome;
+    }
+
+    public LocalDateTime getData() {
+        return data;
+    }
+
+    public void setData(LocalDateTime data) {
+        this.data = data;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+
+    public void setValorTotal(BigDecimal valorTotal) {
+        this.valorTotal = valorTotal;
+    }
+
+    public BigDecimal getCustoTotal() {
+        return custoTotal;
+    }
+
+    public void setCustoTotal(BigDecimal custoTotal) {
+        this.custoTotal = custoTotal;
+    }
+
+    public BigDecimal getGanhoPerda() {
+        return ganhoPerda;
+    }
+
+    public void setGanhoPerda(BigDecimal ganhoPerda) {
+        this.ganhoPerda = ganhoPerda;
+    }
+
+    public List<AtivoValor> getAtivos() {
+        return ativos;
+    }
+
+    public void setAtivos(List<AtivoValor> ativos) {
+        this.ativos = ativos;
+    }
+
+    /**
+     * Valor de um ativo da carteira na data
+     */
+    public static class AtivoValor {
+        private String codigo;
+        private BigDecimal quantidade;
+        private BigDecimal precoMedio;
+        private BigDecimal preco;
+        private LocalDateTime dataCotacao;
+        private BigDecimal valor;
+
+        public AtivoValor() {}
+
+        public AtivoValor(String codigo, BigDecimal quantidade, BigDecimal precoMedio,
+                          BigDecimal preco, LocalDateTime dataCotacao, BigDecimal valor) {
+            this.codigo = codigo;
+            this.quantidade = quantidade;
+            this.precoMedio = precoMedio;
+            this.preco = preco;
+            this.dataCotacao = dataCotacao;
+            this.valor = valor;
+        }
+
+        // Getters e Setters
+        public String getCodigo() {
+            return codigo;
+        }
+
+        public void setCodigo(String codigo) {
+            this.codigo = codigo;
+        }
+
+        public BigDecimal getQuantidade() {
+            return quantidade;
+        }
+
+        public void setQuantidade(BigDecimal quantidade) {
+            this.quantidade = quantidade;
+        }
+
+        public BigDecimal getPrecoMedio() {
+            return precoMedio;
+        }
+
+        public void setPrecoMedio(BigDecimal precoMedio) {
+            this.precoMedio = precoMedio;
+        }
+
+        public BigDecimal getPreco() {
+            return preco;
+        }
+
+        public void setPreco(BigDecimal preco) {
+            this.preco = preco;
+        }
+
+        public LocalDateTime getDataCotacao() {
+            return dataCotacao;
+        }
+
+        public void setDataCotacao(LocalDateTime dataCotacao) {
+            this.dataCotacao = dataCotacao;
+        }
+
+        public BigDecimal getValor() {
+            return valor;
+        }
+
+        public void setValor(BigDecimal valor) {
+            this.valor = valor;
+        }
+    }
+}
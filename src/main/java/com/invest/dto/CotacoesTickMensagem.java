@@ -0,0 +1,98 @@
+package com.invest.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Mensagem WebSocket com as cotações que mudaram em uma atualização (um frame por tick)
+ */
+public class CotacoesTickMensagem {
+
+    private long sequencia;
+    private long timestamp;
+    private List<Tick> cotacoes;
+
+    public CotacoesTickMensagem() {}
+
+    public CotacoesTickMensagem(long sequencia, long timestamp, List<Tick> cotacoes) {
+        this.sequencia = sequencia;
+        this.timestamp = timestamp;
+        this.cotacoes = cotacoes;
+    }
+
+    // Getters e Setters
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public void setSequencia(long sequencia) {
+        this.sequencia = sequencia;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public List<Tick> getCotacoes() {
+        return cotacoes;
+    }
+
+    public void setCotacoes(List<Tick> cotacoes) {
+        this.cotacoes = cotacoes;
+    }
+
+    /**
+     * Preço novo de um ativo e o preço anterior (null na primeira publicação)
+     */
+    public static class Tick {
+        private String codigo;
+        private BigDecimal preco;
+        private BigDecimal precoAnterior;
+        private long timestamp;
+
+        public Tick() {}
+
+        public Tick(String codigo, BigDecimal preco, BigDecimal precoAnterior, long timestamp) {
+            this.codigo = codigo;
+            this.preco = preco;
+            this.precoAnterior = precoAnterior;
+            this.timestamp = timestamp;
+        }
+
+        public String getCodigo() {
+            return codigo;
+        }
+
+        public void setCodigo(String codigo) {
+            this.codigo = codigo;
+        }
+
+        public BigDecimal getPreco() {
+            return preco;
+        }
+
+        public void setPreco(BigDecimal preco) {
+            this.preco = preco;
+        }
+
+        public BigDecimal getPrecoAnterior() {
+            return precoAnterior;
+        }
+
+        public void setPrecoAnterior(BigDecimal precoAnterior) {
+            this.precoAnterior = precoAnterior;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(long timestamp) {
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.invest.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO com a apuração mensal de IR de uma carteira em um ano (base para emissão de DARF)
+ */
+public class ImpostoAnualResponse {
+
+    private Long carteiraId;
+    private int ano;
+    private BigDecimal totalImpostoDevido;
+    private List<ResumoMensal> meses;
+
+    public ImpostoAnualResponse() {}
+
+    public ImpostoAnualResponse(Long carteiraId, int ano, BigDecimal totalImpostoDevido, List<ResumoMensal> meses) {
+        this.carteiraId = carteiraId;
+        this.ano = ano;
+        this.totalImpostoDevido = totalImpostoDevido;
+        this.meses = meses;
+    }
+
+    // Getters e Setters
+    public Long getCarteiraId() {
+        return carteiraId;
+    }
+
+    public void setCarteiraId(Long carteiraId) {
+        this.carteiraId = carteiraId;
+    }
+
+    public int getAno() {
+        return ano;
+    }
+
+    public void setAno(int ano) {
+        this.ano = ano;
+    }
+
+    public BigDecimal getTotalImpostoDevido() {
+        return totalImpostoDevido;
+    }
+
+    public void setTotalImpostoDevido(BigDecimal totalImpostoDevido) {
+        this.totalImpostoDevido = totalImpostoDevido;
+    }
+
+    public List<ResumoMensal> getMeses() {
+        return meses;
+    }
+
+    public void setMeses(List<ResumoMensal> meses) {
+        this.meses = meses;
+    }
+
+    /**
+     * Resumo de um mês e categoria de ativo
+     */
+    public static class ResumoMensal {
+        private int mes;
+        private String categoria;
+        private BigDecimal totalVendas;
+        private BigDecimal resultado;
+        private BigDecimal prejuizoCompensado;
+        private BigDecimal prejuizoAcumulado;
+        private BigDecimal baseCalculo;
+        private BigDecimal impostoDevido;
+        private boolean isento;
+
+        public ResumoMensal() {}
+
+        public ResumoMensal(int mes, String categoria, BigDecimal totalVendas, BigDecimal resultado,
+                            BigDecimal prejuizoCompensado, BigDecimal prejuizoAcumulado,
+                            BigDecimal baseCalculo, BigDecimal impostoDevido, boolean isento) {
+            this.mes = mes;
+            this.categoria = categoria;
+            this.totalVendas = totalVendas;
+            this.resultado = resultado;
+            this.prejuizoCompensado = prejuizoCompensado;
+            this.prejuizoAcumulado = prejuizoAcumulado;
+            this.baseCalculo = baseCalculo;
+            this.impostoDevido = impostoDevido;
+            this.isento = isento;
+        }
+
+        // Getters e Setters
+        public int getMes() {
+            return mes;
+        }
+
+        public void setMes(int mes) {
+            this.mes = mes;
+        }
+
+        public String getCategoria() {
+            return categoria;
+        }
+
+        public void setCategoria(String categoria) {
+            this.categoria = categoria;
+        }
+
+        public BigDecimal getTotalVendas() {
+            return totalVendas;
+        }
+
+        public void setTotalVendas(BigDecimal totalVendas) {
+            this.totalVendas = totalVendas;
+        }
+
+        public BigDecimal getResultado() {
+            return resultado;
+        }
+
+        public void setResultado(BigDecimal resultado) {
+            this.resultado = resultado;
+        }
+
+        public BigDecimal getPrejuizoCompensado() {
+            return prejuizoCompensado;
+        }
+
+        public void setPrejuizoCompensado(BigDecimal prejuizoCompensado) {
+            this.prejuizoCompensado = prejuizoCompensado;
+        }
+
+        public BigDecimal getPrejuizoAcumulado() {
+            return prejuizoAcumulado;
+        }
+
+        public void setPrejuizoAcumulado(BigDecimal prejuizoAcumulado) {
+            this.prejuizoAcumulado = prejuizoAcumulado;
+        }
+
+        public BigDecimal getBaseCalculo() {
+            return baseCalculo;
+        }
+
+        public void setBaseCalculo(BigDecimal baseCalculo) {
+            this.baseCalculo = baseCalculo;
+        }
+
+        public BigDecimal getImpostoDevido() {
+            return impostoDevido;
+        }
+
+        public void setImpostoDevido(BigDecimal impostoDevido) {
+            this.impostoDevido = impostoDevido;
+        }
+
+        public boolean isIsento() {
+            return isento;
+        }
+
+        public void setIsento(boolean isento) {
+            this.isento = isento;
+        }
+    }
+}
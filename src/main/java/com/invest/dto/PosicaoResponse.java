@@ -0,0 +1,90 @@
+package com.invest.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO para a posição de um ativo em uma carteira (atual ou em uma data)
+ */
+public class PosicaoResponse {
+
+    private Long carteiraId;
+    private String codigoAtivo;
+    private LocalDateTime dataReferencia;
+    private BigDecimal quantidade;
+    private BigDecimal precoMedio;
+    private BigDecimal custoTotal;
+    private int transacoesConsideradas;
+
+    // Construtores
+    public PosicaoResponse() {}
+
+    public PosicaoResponse(Long carteiraId, String codigoAtivo, LocalDateTime dataReferencia,
+                           BigDecimal quantidade, BigDecimal precoMedio, BigDecimal custoTotal,
+                           int transacoesConsideradas) {
+        this.carteiraId = carteiraId;
+        this.codigoAtivo = codigoAtivo;
+        this.dataReferencia = dataReferencia;
+        this.quantidade = quantidade;
+        this.precoMedio = precoMedio;
+        this.custoTotal = custoTotal;
+        this.transacoesConsideradas = transacoesConsideradas;
+    }
+
+    // Getters e Setters
+    public Long getCarteiraId() {
+        return carteiraId;
+    }
+
+    public void setCarteiraId(Long carteiraId) {
+        this.carteiraId = carteiraId;
+    }
+
+    public String getCodigoAtivo() {
+        return codigoAtivo;
+    }
+
+    public void setCodigoAtivo(String codigoAtivo) {
+        this.codigoAtivo = codigoAtivo;
+    }
+
+    public LocalDateTime getDataReferencia() {
+        return dataReferencia;
+    }
+
+    public void setDataReferencia(LocalDateTime dataReferencia) {
+        this.dataReferencia = dataReferencia;
+    }
+
+    public BigDecimal getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(BigDecimal quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public BigDecimal getPrecoMedio() {
+        return precoMedio;
+    }
+
+    public void setPrecoMedio(BigDecimal precoMedio) {
+        this.precoMedio = precoMedio;
+    }
+
+    public BigDecimal getCustoTotal() {
+        return custoTotal;
+    }
+
+    public void setCustoTotal(BigDecimal custoTotal) {
+        this.custoTotal = custoTotal;
+    }
+
+    public int getTransacoesConsideradas() {
+        return transacoesConsideradas;
+    }
+
+    public void setTransacoesConsideradas(int transacoesConsideradas) {
+        this.transacoesConsideradas = transacoesConsideradas;
+    }
+}
@@ -0,0 +1,84 @@
+package com.invest.event;
+
+import com.invest.dto.CotacoesTickMensagem;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Evento publicado a cada atualização de cotações, com o snapshot completo e os ativos alterados
+ * em relação à atualização anterior. Histórico, cache, valor das carteiras e WebSocket são assinantes
+ * independentes, cada um no seu executor.
+ */
+public class CotacoesAtualizadasEvent {
+
+    private final long sequencia;
+    private final LocalDateTime dataHora;
+    private final long publicadoEmNanos;
+    private final Map<String, BigDecimal> cotacoes;
+    private final List<CotacoesTickMensagem.Tick> alteracoes;
+
+    public CotacoesAtualizadasEvent(long sequencia, LocalDateTime dataHora, Map<String, BigDecimal> cotacoes,
+                                    List<CotacoesTickMensagem.Tick> alteracoes) {
+        this.sequencia = sequencia;
+        this.dataHora = dataHora;
+        this.publicadoEmNanos = System.nanoTime();
+        this.cotacoes = Collections.unmodifiableMap(new HashMap<>(cotacoes));
+        this.alteracoes = Collections.unmodifiableList(alteracoes);
+    }
+
+    /**
+     * Cria o evento comparando o snapshot novo com o anterior
+     */
+    public static CotacoesAtualizadasEvent de(long sequencia, Map<String, BigDecimal> anterior,
+                                              Map<String, BigDecimal> atual) {
+        LocalDateTime agora = LocalDateTime.now();
+        return new CotacoesAtualizadasEvent(sequencia, agora, atual,
+                diferencas(anterior, atual, System.currentTimeMillis()));
+    }
+
+    /**
+     * Ativos novos ou com preço diferente (ordem alfabética). Ativos que sumiram do snapshot são ignorados.
+     */
+    static List<CotacoesTickMensagem.Tick> diferencas(Map<String, BigDecimal> anterior,
+                                                      Map<String, BigDecimal> atual, long timestamp) {
+        List<CotacoesTickMensagem.Tick> ticks = new ArrayList<>();
+        for (Map.Entry<String, BigDecimal> entrada : new TreeMap<>(atual).entrySet()) {
+            BigDecimal preco = entrada.getValue();
+            BigDecimal precoAnterior = anterior.get(entrada.getKey());
+            if (preco != null && (precoAnterior == null || preco.compareTo(precoAnterior) != 0)) {
+                ticks.add(new CotacoesTickMensagem.Tick(entrada.getKey(), preco, precoAnterior, timestamp));
+            }
+        }
+        return ticks;
+    }
+
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public LocalDateTime getDataHora() {
+        return dataHora;
+    }
+
+    /**
+     * Instante da publicação (System.nanoTime), base do lag medido pelos assinantes
+     */
+    public long getPublicadoEmNanos() {
+        return publicadoEmNanos;
+    }
+
+    public Map<String, BigDecimal> getCotacoes() {
+        return cotacoes;
+    }
+
+    public List<CotacoesTickMensagem.Tick> getAlteracoes() {
+        return alteracoes;
+    }
+}
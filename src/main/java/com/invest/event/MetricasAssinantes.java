@@ -0,0 +1,94 @@
+package com.invest.event;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lag de cada assinante de CotacoesAtualizadasEvent: espera na fila (publicação → início)
+ * e lag total (publicação → fim do processamento), além dos eventos descartados com a fila cheia
+ */
+@Component
+public class MetricasAssinantes {
+
+    private final Map<String, Metrica> metricas = new ConcurrentHashMap<>();
+
+    /**
+     * Executa o processamento do assinante registrando lag e falhas.
+     * Exceções são registradas e não se propagam (um assinante não interfere nos demais).
+     */
+    public void medir(String assinante, CotacoesAtualizadasEvent evento, Runnable processamento) {
+        long inicio = System.nanoTime();
+        boolean sucesso = false;
+        try {
+            processamento.run();
+            sucesso = true;
+        } catch (RuntimeException e) {
+            System.err.println("Erro no assinante " + assinante + " (evento " + evento.getSequencia() + "): " + e.getMessage());
+        } finally {
+            long fim = System.nanoTime();
+            metricas.computeIfAbsent(assinante, a -> new Metrica())
+                    .registrar(evento.getSequencia(), inicio - evento.getPublicadoEmNanos(),
+                            fim - evento.getPublicadoEmNanos(), sucesso);
+        }
+    }
+
+    /**
+     * Conta um evento descartado da fila do assinante (fila cheia)
+     */
+    public void registrarDescarte(String assinante) {
+        metricas.computeIfAbsent(assinante, a -> new Metrica()).registrarDescarte();
+    }
+
+    /**
+     * Retrato das métricas por assinante (ordem alfabética)
+     */
+    public Map<String, Map<String, Object>> getMetricas() {
+        Map<String, Map<String, Object>> retrato = new TreeMap<>();
+        metricas.forEach((assinante, metrica) -> retrato.put(assinante, metrica.retrato()));
+        return retrato;
+    }
+
+    private static final class Metrica {
+        private long eventos;
+        private long falhas;
+        private long descartados;
+        private long ultimaSequencia;
+        private long ultimaEsperaNanos;
+        private long ultimoLagNanos;
+        private long maiorLagNanos;
+        private long somaLagNanos;
+
+        synchronized void registrar(long sequencia, long esperaNanos, long lagNanos, boolean sucesso) {
+            eventos++;
+            if (!sucesso) {
+                falhas++;
+            }
+            ultimaSequencia = sequencia;
+            ultimaEsperaNanos = esperaNanos;
+            ultimoLagNanos = lagNanos;
+            maiorLagNanos = Math.max(maiorLagNanos, lagNanos);
+            somaLagNanos += lagNanos;
+        }
+
+        synchronized void registrarDescarte() {
+            descartados++;
+        }
+
+        synchronized Map<String, Object> retrato() {
+            Map<String, Object> valores = new TreeMap<>();
+            valores.put("eventos", eventos);
+            valores.put("falhas", falhas);
+            valores.put("descartados", descartados);
+            valores.put("ultimaSequencia", ultimaSequencia);
+            valores.put("ultimaEsperaMs", TimeUnit.NANOSECONDS.toMillis(ultimaEsperaNanos));
+            valores.put("ultimoLagMs", TimeUnit.NANOSECONDS.toMillis(ultimoLagNanos));
+            valores.put("maiorLagMs", TimeUnit.NANOSECONDS.toMillis(maiorLagNanos));
+            valores.put("mediaLagMs", eventos > 0 ? TimeUnit.NANOSECONDS.toMillis(somaLagNanos / eventos) : 0L);
+            return valores;
+        }
+    }
+}
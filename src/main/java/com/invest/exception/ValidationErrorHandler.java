@@ -6,6 +6,7 @@ package com.invest.exception;
  * adaptação do contacts
  */
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -19,6 +20,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestControllerAdvice
+@ConditionalOnWebApplication
 public class ValidationErrorHandler {
     
     @ExceptionHandler(ResourceNotFoundException.class)
@@ -1,6 +1,9 @@
 package com.invest.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -10,9 +13,14 @@ import java.time.LocalDateTime;
 
 /**
  * Entidade Ativo - representa um ativo financeiro dentro de uma carteira
+ * Fica no cache de segundo nível porque a coleção Carteira.ativos em cache guarda só os IDs
  */
 @Entity
-@Table(name = "ativos")
+@Table(name = "ativos",
+       uniqueConstraints = @UniqueConstraint(name = "uk_ativos_carteira_codigo", columnNames = {"carteira_id", "codigo"}),
+       indexes = @Index(name = "idx_ativos_data_atualizacao", columnList = "data_atualizacao"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Ativo {
     
     @Id
@@ -50,6 +58,12 @@ public class Ativo {
     
     @Column(name = "data_atualizacao")
     private LocalDateTime dataAtualizacao;
+
+    // Lock otimista: quantidade e preço médio são lidos e regravados a cada transação
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    private Long versao;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "carteira_id", nullable = false)
@@ -142,6 +156,10 @@ public class Ativo {
     public void setDataAtualizacao(LocalDateTime dataAtualizacao) {
         this.dataAtualizacao = dataAtualizacao;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
     
     public Carteira getCarteira() {
         return carteira;
@@ -1,6 +1,9 @@
 package com.invest.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -14,7 +17,10 @@ import java.util.List;
  * Cada investidor pode ter múltiplas carteiras com objetivos distintos
  */
 @Entity
-@Table(name = "carteiras")
+@Table(name = "carteiras",
+       indexes = @Index(name = "idx_carteiras_data_atualizacao", columnList = "data_atualizacao"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Carteira {
     
     @Id
@@ -55,6 +61,12 @@ public class Carteira {
     
     @Column(name = "data_atualizacao")
     private LocalDateTime dataAtualizacao;
+
+    // Lock otimista: valorAtual é recalculado e regravado a cada transação
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    private Long versao;
     
     @Column(name = "google_sheets_id")
     private String googleSheetsId;
@@ -63,12 +75,17 @@ public class Carteira {
     @JoinColumn(name = "investidor_id", nullable = false)
     private Investidor investidor;
     
+    // Coleção inversa: ativos novos não passam por ela, o TransacaoService remove a entrada do cache ao criar um
     @OneToMany(mappedBy = "carteira", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Ativo> ativos = new ArrayList<>();
     
     @OneToMany(mappedBy = "carteira", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Transacao> transacoes = new ArrayList<>();
     
+    @OneToMany(mappedBy = "carteira", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    private List<ResumoImpostoMensal> resumosImposto = new ArrayList<>();
+    
     // Construtores
     public Carteira() {
         this.dataCriacao = LocalDateTime.now();
@@ -162,6 +179,10 @@ public class Carteira {
     public void setDataAtualizacao(LocalDateTime dataAtualizacao) {
         this.dataAtualizacao = dataAtualizacao;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
     
     public String getGoogleSheetsId() {
         return googleSheetsId;
@@ -205,6 +226,14 @@ public class Carteira {
         this.transacoes = transacoes;
     }
     
+    public List<ResumoImpostoMensal> getResumosImposto() {
+        return resumosImposto;
+    }
+    
+    public void setResumosImposto(List<ResumoImpostoMensal> resumosImposto) {
+        this.resumosImposto = resumosImposto;
+    }
+    
     public void adicionarTransacao(Transacao transacao) {
         transacoes.add(transacao);
         transacao.setCarteira(this);
@@ -0,0 +1,60 @@
+package com.invest.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Categorias de apuração de IR em renda variável.
+ * Prejuízos só são compensados dentro da mesma categoria.
+ *
+ * Alíquotas e isenção seguem as regras simplificadas de CalculadoraImpostos.
+ * Usado na apuração mensal (ApuracaoImposto) e no resumo persistido (ResumoImpostoMensal).
+ */
+public enum CategoriaImposto {
+    ACOES("Ações", new BigDecimal("0.15"), new BigDecimal("20000.00")),
+    FII("Fundos Imobiliários", new BigDecimal("0.20"), null),
+    ETF("ETFs", new BigDecimal("0.20"), null);
+
+    private final String descricao;
+    private final BigDecimal aliquota;
+    private final BigDecimal limiteIsencao;
+
+    CategoriaImposto(String descricao, BigDecimal aliquota, BigDecimal limiteIsencao) {
+        this.descricao = descricao;
+        this.aliquota = aliquota;
+        this.limiteIsencao = limiteIsencao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public BigDecimal getAliquota() {
+        return aliquota;
+    }
+
+    /**
+     * Total de vendas no mês até o qual (inclusive) o ganho é isento (null = sem isenção)
+     */
+    public BigDecimal getLimiteIsencao() {
+        return limiteIsencao;
+    }
+
+    /**
+     * Categoria de apuração do tipo de ativo, ou null se o tipo não entra na apuração
+     */
+    public static CategoriaImposto de(TipoAtivo tipoAtivo) {
+        if (tipoAtivo == null) {
+            return null;
+        }
+        switch (tipoAtivo) {
+            case ACAO:
+                return ACOES;
+            case FII:
+                return FII;
+            case ETF:
+                return ETF;
+            default:
+                return null;
+        }
+    }
+}
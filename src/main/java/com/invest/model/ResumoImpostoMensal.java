@@ -0,0 +1,179 @@
+package com.invest.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade ResumoImpostoMensal - apuração de IR (base da DARF) de uma carteira
+ * por mês e categoria de ativo, mantida a cada alteração de transação
+ */
+@Entity
+@Table(name = "resumo_imposto_mensal",
+       uniqueConstraints = @UniqueConstraint(name = "uk_resumo_imposto_carteira_mes_categoria",
+                                             columnNames = {"carteira_id", "ano", "mes", "categoria"}))
+public class ResumoImpostoMensal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "carteira_id", nullable = false)
+    private Carteira carteira;
+
+    @Column(name = "ano", nullable = false)
+    private int ano;
+
+    @Column(name = "mes", nullable = false)
+    private int mes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "categoria", nullable = false, length = 20)
+    private CategoriaImposto categoria;
+
+    @Column(name = "total_vendas", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalVendas;
+
+    @Column(name = "resultado", nullable = false, precision = 15, scale = 2)
+    private BigDecimal resultado;
+
+    @Column(name = "prejuizo_compensado", nullable = false, precision = 15, scale = 2)
+    private BigDecimal prejuizoCompensado;
+
+    @Column(name = "prejuizo_acumulado", nullable = false, precision = 15, scale = 2)
+    private BigDecimal prejuizoAcumulado;
+
+    @Column(name = "base_calculo", nullable = false, precision = 15, scale = 2)
+    private BigDecimal baseCalculo;
+
+    @Column(name = "imposto_devido", nullable = false, precision = 15, scale = 2)
+    private BigDecimal impostoDevido;
+
+    @Column(name = "isento", nullable = false)
+    private boolean isento;
+
+    @Column(name = "data_atualizacao")
+    private LocalDateTime dataAtualizacao;
+
+    // Construtores
+    public ResumoImpostoMensal() {}
+
+    public ResumoImpostoMensal(Carteira carteira, int ano, int mes, CategoriaImposto categoria) {
+        this.carteira = carteira;
+        this.ano = ano;
+        this.mes = mes;
+        this.categoria = categoria;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Carteira getCarteira() {
+        return carteira;
+    }
+
+    public void setCarteira(Carteira carteira) {
+        this.carteira = carteira;
+    }
+
+    public int getAno() {
+        return ano;
+    }
+
+    public void setAno(int ano) {
+        this.ano = ano;
+    }
+
+    public int getMes() {
+        return mes;
+    }
+
+    public void setMes(int mes) {
+        this.mes = mes;
+    }
+
+    public CategoriaImposto getCategoria() {
+        return categoria;
+    }
+
+    public void setCategoria(CategoriaImposto categoria) {
+        this.categoria = categoria;
+    }
+
+    public BigDecimal getTotalVendas() {
+        return totalVendas;
+    }
+
+    public void setTotalVendas(BigDecimal totalVendas) {
+        this.totalVendas = totalVendas;
+    }
+
+    public BigDecimal getResultado() {
+        return resultado;
+    }
+
+    public void setResultado(BigDecimal resultado) {
+        this.resultado = resultado;
+    }
+
+    public BigDecimal getPrejuizoCompensado() {
+        return prejuizoCompensado;
+    }
+
+    public void setPrejuizoCompensado(BigDecimal prejuizoCompensado) {
+        this.prejuizoCompensado = prejuizoCompensado;
+    }
+
+    public BigDecimal getPrejuizoAcumulado() {
+        return prejuizoAcumulado;
+    }
+
+    public void setPrejuizoAcumulado(BigDecimal prejuizoAcumulado) {
+        this.prejuizoAcumulado = prejuizoAcumulado;
+    }
+
+    public BigDecimal getBaseCalculo() {
+        return baseCalculo;
+    }
+
+    public void setBaseCalculo(BigDecimal baseCalculo) {
+        this.baseCalculo = baseCalculo;
+    }
+
+    public BigDecimal getImpostoDevido() {
+        return impostoDevido;
+    }
+
+    public void setImpostoDevido(BigDecimal impostoDevido) {
+        this.impostoDevido = impostoDevido;
+    }
+
+    public boolean isIsento() {
+        return isento;
+    }
+
+    public void setIsento(boolean isento) {
+        this.isento = isento;
+    }
+
+    public LocalDateTime getDataAtualizacao() {
+        return dataAtualizacao;
+    }
+
+    public void setDataAtualizacao(LocalDateTime dataAtualizacao) {
+        this.dataAtualizacao = dataAtualizacao;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void preSave() {
+        this.dataAtualizacao = LocalDateTime.now();
+    }
+}
@@ -12,7 +12,12 @@ import java.time.LocalDateTime;
  * Pode ser compra, venda, recebimento de proventos, etc.
  */
 @Entity
-@Table(name = "transacoes")
+@Table(name = "transacoes",
+       indexes = {
+           @Index(name = "idx_transacoes_carteira_ativo_data", columnList = "carteira_id, codigo_ativo, data_transacao, id"),
+           @Index(name = "idx_transacoes_carteira_tipo_data", columnList = "carteira_id, tipo_transacao, data_transacao"),
+           @Index(name = "idx_transacoes_carteira_data", columnList = "carteira_id, data_transacao, id")
+       })
 public class Transacao {
     
     @Id
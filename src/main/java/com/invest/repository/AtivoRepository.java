@@ -49,6 +49,19 @@ public interface AtivoRepository extends JpaRepository<Ativo, Long> {
      */
     long countByCarteira(Carteira carteira);
     
+    /**
+     * Pares (código do ativo em maiúsculas, id da carteira) das posições em aberto, para o índice
+     * reverso ativo → carteiras
+     */
+    @Query("SELECT UPPER(a.codigo), a.carteira.id FROM Ativo a WHERE a.quantidade > 0")
+    List<Object[]> findCodigosECarteirasComPosicao();
+    
+    /**
+     * Códigos (em maiúsculas) dos ativos com posição em aberto na carteira
+     */
+    @Query("SELECT UPPER(a.codigo) FROM Ativo a WHERE a.carteira.id = :carteiraId AND a.quantidade > 0")
+    List<String> findCodigosComPosicao(@Param("carteiraId") Long carteiraId);
+    
     /**
      * Busca ativos que precisam de atualização de preços
      */
@@ -66,4 +79,11 @@ public interface AtivoRepository extends JpaRepository<Ativo, Long> {
      */
     @Query("SELECT COALESCE(SUM(a.quantidade * COALESCE(a.precoAtual, a.precoCompra)), 0) FROM Ativo a WHERE a.carteira = :carteira")
     java.math.BigDecimal calcularValorTotalCarteira(@Param("carteira") Carteira carteira);
+    
+    /**
+     * Calcula o valor atual da carteira (ativos com quantidade positiva, preço atual ou de compra) pelo ID
+     */
+    @Query("SELECT COALESCE(SUM(a.quantidade * COALESCE(a.precoAtual, a.precoCompra)), 0) FROM Ativo a "
+            + "WHERE a.carteira.id = :carteiraId AND a.quantidade > 0")
+    java.math.BigDecimal calcularValorAtualCarteira(@Param("carteiraId") Long carteiraId);
 }
@@ -4,10 +4,13 @@ import com.invest.model.Carteira;
 import com.invest.model.Investidor;
 import com.invest.model.ObjetivoCarteira;
 import com.invest.model.PerfilRisco;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -21,8 +24,10 @@ import java.util.Optional;
 public interface CarteiraRepository extends JpaRepository<Carteira, Long> {
     
     /**
-     * Busca todas as carteiras de um investidor
+     * Busca todas as carteiras de um investidor (resultado no cache de consultas quando o cache de segundo
+     * nível está habilitado; invalidado por qualquer escrita na tabela carteiras)
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Carteira> findByInvestidor(Investidor investidor);
     
     /**
@@ -0,0 +1,35 @@
+package com.invest.repository;
+
+import com.invest.model.ResumoImpostoMensal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository para operações de banco de dados da entidade ResumoImpostoMensal
+ */
+@Repository
+public interface ResumoImpostoMensalRepository extends JpaRepository<ResumoImpostoMensal, Long> {
+    
+    /**
+     * Busca os resumos de uma carteira em um ano, em ordem de mês e categoria
+     */
+    List<ResumoImpostoMensal> findByCarteiraIdAndAnoOrderByMesAscCategoriaAsc(Long carteiraId, int ano);
+    
+    /**
+     * Busca os resumos de uma carteira a partir de um mês (inclusive)
+     */
+    @Query("SELECT r FROM ResumoImpostoMensal r WHERE r.carteira.id = :carteiraId " +
+           "AND (r.ano > :ano OR (r.ano = :ano AND r.mes >= :mes))")
+    List<ResumoImpostoMensal> findByCarteiraIdAPartirDe(@Param("carteiraId") Long carteiraId,
+                                                        @Param("ano") int ano,
+                                                        @Param("mes") int mes);
+    
+    /**
+     * Verifica se a carteira já tem resumos calculados
+     */
+    boolean existsByCarteiraId(Long carteiraId);
+}
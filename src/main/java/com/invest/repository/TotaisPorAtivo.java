@@ -0,0 +1,9 @@
+package com.invest.repository;
+
+/**
+ * Projeção com os totais das transações de uma carteira agrupados por ativo e tipo (TransacaoRepository.totalizarPorAtivo)
+ */
+public interface TotaisPorAtivo extends TotaisPorTipo {
+
+    String getCodigoAtivo();
+}
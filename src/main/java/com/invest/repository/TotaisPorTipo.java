@@ -0,0 +1,26 @@
+package com.invest.repository;
+
+import com.invest.model.TipoTransacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projeção com os totais das transações de uma carteira agrupados por tipo (TransacaoRepository.totalizarPorTipo)
+ */
+public interface TotaisPorTipo {
+
+    TipoTransacao getTipoTransacao();
+
+    Long getQuantidadeTransacoes();
+
+    BigDecimal getValorTotal();
+
+    BigDecimal getTaxasCorretagem();
+
+    BigDecimal getImpostos();
+
+    LocalDateTime getPrimeiraData();
+
+    LocalDateTime getUltimaData();
+}
@@ -3,8 +3,10 @@ package com.invest.repository;
 import com.invest.model.Carteira;
 import com.invest.model.TipoTransacao;
 import com.invest.model.Transacao;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,6 +21,16 @@ import java.util.List;
 @Repository
 public interface TransacaoRepository extends JpaRepository<Transacao, Long> {
     
+    /**
+     * Colunas da projeção TransacaoResumo usadas pela listagem paginada
+     */
+    String COLUNAS_RESUMO = "t.id AS id, t.tipoTransacao AS tipoTransacao, t.codigoAtivo AS codigoAtivo, "
+            + "t.nomeAtivo AS nomeAtivo, t.tipoAtivo AS tipoAtivo, t.quantidade AS quantidade, "
+            + "t.precoUnitario AS precoUnitario, t.valorTotal AS valorTotal, t.taxasCorretagem AS taxasCorretagem, "
+            + "t.impostos AS impostos, t.valorLiquido AS valorLiquido, t.dataTransacao AS dataTransacao, "
+            + "t.dataLiquidacao AS dataLiquidacao, t.observacoes AS observacoes, c.id AS carteiraId, "
+            + "c.nome AS carteiraNome, t.ativo.id AS ativoId";
+    
     /**
      * Busca todas as transações de uma carteira
      */
@@ -29,6 +41,50 @@ public interface TransacaoRepository extends JpaRepository<Transacao, Long> {
      */
     Page<Transacao> findByCarteira(Carteira carteira, Pageable pageable);
     
+    /**
+     * Busca todas as transações de uma carteira pelo ID, com a carteira no mesmo SELECT
+     */
+    @EntityGraph(attributePaths = "carteira")
+    List<Transacao> findByCarteiraId(Long carteiraId);
+    
+    /**
+     * Busca transações por ID da carteira e tipo, com a carteira no mesmo SELECT
+     */
+    @EntityGraph(attributePaths = "carteira")
+    List<Transacao> findByCarteiraIdAndTipoTransacao(Long carteiraId, TipoTransacao tipoTransacao);
+    
+    /**
+     * Busca transações por ID da carteira e código do ativo, com a carteira no mesmo SELECT
+     */
+    @EntityGraph(attributePaths = "carteira")
+    List<Transacao> findByCarteiraIdAndCodigoAtivo(Long carteiraId, String codigoAtivo);
+    
+    /**
+     * Busca transações por ID da carteira e período, com a carteira no mesmo SELECT
+     */
+    @EntityGraph(attributePaths = "carteira")
+    List<Transacao> findByCarteiraIdAndDataTransacaoBetween(Long carteiraId, LocalDateTime dataInicio, LocalDateTime dataFim);
+    
+    /**
+     * Primeira página da listagem de transações de uma carteira em ordem cronológica (data, id), só com as
+     * colunas da resposta
+     */
+    @Query("SELECT " + COLUNAS_RESUMO + " FROM Transacao t JOIN t.carteira c WHERE c.id = :carteiraId "
+            + "ORDER BY t.dataTransacao, t.id")
+    List<TransacaoResumo> listarResumos(@Param("carteiraId") Long carteiraId, Limit limite);
+    
+    /**
+     * Página seguinte da listagem (paginação por keyset): transações depois de (aposData, aposId), lidas pelo
+     * índice (carteira_id, data_transacao, id) sem OFFSET
+     */
+    @Query("SELECT " + COLUNAS_RESUMO + " FROM Transacao t JOIN t.carteira c WHERE c.id = :carteiraId "
+            + "AND (t.dataTransacao > :aposData OR (t.dataTransacao = :aposData AND t.id > :aposId)) "
+            + "ORDER BY t.dataTransacao, t.id")
+    List<TransacaoResumo> listarResumosApos(@Param("carteiraId") Long carteiraId,
+                                            @Param("aposData") LocalDateTime aposData,
+                                            @Param("aposId") Long aposId,
+                                            Limit limite);
+    
     /**
      * Busca transações por carteira e tipo
      */
@@ -39,6 +95,35 @@ public interface TransacaoRepository extends JpaRepository<Transacao, Long> {
      */
     List<Transacao> findByCarteiraAndCodigoAtivo(Carteira carteira, String codigoAtivo);
     
+    /**
+     * Busca transações de um ativo em uma carteira na ordem do ledger de posição (data, id)
+     */
+    List<Transacao> findByCarteiraIdAndCodigoAtivoOrderByDataTransacaoAscIdAsc(Long carteiraId, String codigoAtivo);
+    
+    /**
+     * Busca todas as transações de uma carteira em ordem cronológica (data, id)
+     */
+    List<Transacao> findByCarteiraIdOrderByDataTransacaoAscIdAsc(Long carteiraId);
+    
+    /**
+     * Busca transações de uma carteira a partir de uma data, em ordem cronológica (data, id)
+     */
+    List<Transacao> findByCarteiraIdAndDataTransacaoGreaterThanEqualOrderByDataTransacaoAscIdAsc(
+            Long carteiraId, LocalDateTime dataInicio);
+    
+    /**
+     * Carteiras com vendas e sem nenhum resumo mensal de IR gravado
+     */
+    @Query("SELECT DISTINCT t.carteira.id FROM Transacao t WHERE t.tipoTransacao = 'VENDA' " +
+           "AND NOT EXISTS (SELECT r.id FROM ResumoImpostoMensal r WHERE r.carteira = t.carteira)")
+    List<Long> findCarteiraIdsComVendasSemResumoImposto();
+    
+    /**
+     * Lista os códigos de ativos que já tiveram transações em uma carteira
+     */
+    @Query("SELECT DISTINCT t.codigoAtivo FROM Transacao t WHERE t.carteira.id = :carteiraId")
+    List<String> findCodigosAtivosByCarteiraId(@Param("carteiraId") Long carteiraId);
+    
     /**
      * Busca transações por carteira e período
      */
@@ -72,6 +157,24 @@ public interface TransacaoRepository extends JpaRepository<Transacao, Long> {
      */
     long countByCarteiraAndTipoTransacao(Carteira carteira, TipoTransacao tipoTransacao);
     
+    /**
+     * Totais da carteira por tipo de transação em uma única consulta (estatísticas e rentabilidade)
+     */
+    @Query("SELECT t.tipoTransacao AS tipoTransacao, COUNT(t) AS quantidadeTransacoes, "
+            + "COALESCE(SUM(t.valorTotal), 0) AS valorTotal, COALESCE(SUM(t.taxasCorretagem), 0) AS taxasCorretagem, "
+            + "COALESCE(SUM(t.impostos), 0) AS impostos, MIN(t.dataTransacao) AS primeiraData, MAX(t.dataTransacao) AS ultimaData "
+            + "FROM Transacao t WHERE t.carteira.id = :carteiraId GROUP BY t.tipoTransacao")
+    List<TotaisPorTipo> totalizarPorTipo(@Param("carteiraId") Long carteiraId);
+    
+    /**
+     * Totais da carteira por ativo e tipo de transação em uma única consulta (rentabilidade por ativo)
+     */
+    @Query("SELECT t.codigoAtivo AS codigoAtivo, t.tipoTransacao AS tipoTransacao, COUNT(t) AS quantidadeTransacoes, "
+            + "COALESCE(SUM(t.valorTotal), 0) AS valorTotal, COALESCE(SUM(t.taxasCorretagem), 0) AS taxasCorretagem, "
+            + "COALESCE(SUM(t.impostos), 0) AS impostos, MIN(t.dataTransacao) AS primeiraData, MAX(t.dataTransacao) AS ultimaData "
+            + "FROM Transacao t WHERE t.carteira.id = :carteiraId GROUP BY t.codigoAtivo, t.tipoTransacao")
+    List<TotaisPorAtivo> totalizarPorAtivo(@Param("carteiraId") Long carteiraId);
+    
     /**
      * Calcula o valor total de compras de uma carteira
      */
@@ -114,6 +217,12 @@ public interface TransacaoRepository extends JpaRepository<Transacao, Long> {
     @Query("SELECT t FROM Transacao t WHERE t.carteira = :carteira AND t.codigoAtivo = :codigoAtivo ORDER BY t.dataTransacao DESC")
     List<Transacao> findUltimaTransacaoByCarteiraAndCodigoAtivo(@Param("carteira") Carteira carteira, @Param("codigoAtivo") String codigoAtivo);
     
+    /**
+     * ID da carteira de uma transação, sem carregar a transação
+     */
+    @Query("SELECT t.carteira.id FROM Transacao t WHERE t.id = :id")
+    java.util.Optional<Long> findCarteiraIdById(@Param("id") Long id);
+    
     /**
      * Busca uma transação por ID com JOIN FETCH para evitar lazy loading
      */
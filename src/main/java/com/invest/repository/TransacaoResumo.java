@@ -0,0 +1,47 @@
+package com.invest.repository;
+
+import com.invest.model.TipoAtivo;
+import com.invest.model.TipoTransacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projeção com as colunas da listagem de transações (TransacaoRepository.listarResumos), sem carregar a entidade
+ */
+public interface TransacaoResumo {
+
+    Long getId();
+
+    TipoTransacao getTipoTransacao();
+
+    String getCodigoAtivo();
+
+    String getNomeAtivo();
+
+    TipoAtivo getTipoAtivo();
+
+    BigDecimal getQuantidade();
+
+    BigDecimal getPrecoUnitario();
+
+    BigDecimal getValorTotal();
+
+    BigDecimal getTaxasCorretagem();
+
+    BigDecimal getImpostos();
+
+    BigDecimal getValorLiquido();
+
+    LocalDateTime getDataTransacao();
+
+    LocalDateTime getDataLiquidacao();
+
+    String getObservacoes();
+
+    Long getCarteiraId();
+
+    String getCarteiraNome();
+
+    Long getAtivoId();
+}
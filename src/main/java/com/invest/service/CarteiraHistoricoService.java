@@ -1,35 +1,71 @@
 package com.invest.service;
 
 import com.invest.dto.CarteiraHistoricoResponse;
-import com.invest.dto.HistoricoCotacaoResponse;
 import com.invest.model.Ativo;
 import com.invest.model.Carteira;
 import com.invest.repository.CarteiraRepository;
+import com.invest.repository.TransacaoRepository;
+import com.invest.service.banco.LeituraReplica;
 import com.invest.service.external.GoogleSheetsService;
+import com.invest.service.historico.CurvaCarteira;
+import com.invest.service.historico.SerieCotacao;
+import com.invest.service.ledger.EvolucaoPosicao;
+import com.invest.service.ledger.PosicaoLedgerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Serviço para cruzar histórico de cotações com carteiras
  * Gera relatórios para gráficos mostrando variação dos ativos nas carteiras
+ *
+ * Os valores históricos usam a posição vigente em cada data/hora (ledger de transações),
+ * não a quantidade atual. A curva consolidada da carteira fica em cache até mudar
+ * o histórico de cotações, as transações ou os ativos da carteira; o cache guarda as
+ * app.historico.curvas.maximo carteiras usadas mais recentemente (carteiras excluídas saem por desuso).
  */
 @Service
+@Transactional(readOnly = true)
+@LeituraReplica
 public class CarteiraHistoricoService {
 
     @Autowired
     private CarteiraRepository carteiraRepository;
 
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
     @Autowired
     private HistoricoCotacaoService historicoCotacaoService;
 
+    @Autowired
+    private PosicaoLedgerService posicaoLedgerService;
+
     @Autowired
     private GoogleSheetsService googleSheetsService;
 
+    @Value("${app.historico.curvas.maximo:256}")
+    private int maximoCurvas;
+
+    // LRU por ordem de acesso
+    private final Map<Long, CurvaEmCache> curvasEmCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CurvaEmCache> maisAntiga) {
+                    return size() > maximoCurvas;
+                }
+            });
+
     /**
      * Retorna histórico de uma carteira cruzado com cotações
      */
@@ -42,15 +78,18 @@ public class CarteiraHistoricoService {
         response.setCarteiraNome(carteira.getNome());
         response.setInvestidorNome(carteira.getInvestidor().getNome());
 
+        // Um único snapshot de cotações para todos os ativos da carteira
+        Map<String, BigDecimal> cotacoes = googleSheetsService.getAllCotacoes();
+
         List<CarteiraHistoricoResponse.AtivoHistorico> ativosHistorico = new ArrayList<>();
         BigDecimal valorTotalInvestido = BigDecimal.ZERO;
         BigDecimal valorTotalAtual = BigDecimal.ZERO;
 
         // Processa cada ativo da carteira
         for (Ativo ativo : carteira.getAtivos()) {
-            CarteiraHistoricoResponse.AtivoHistorico ativoHistorico = 
-                processarAtivoHistorico(ativo);
-            
+            CarteiraHistoricoResponse.AtivoHistorico ativoHistorico =
+                processarAtivoHistorico(carteiraId, ativo, cotacoes);
+
             if (ativoHistorico != null) {
                 ativosHistorico.add(ativoHistorico);
                 valorTotalInvestido = valorTotalInvestido.add(ativoHistorico.getValorInvestido());
@@ -64,10 +103,10 @@ public class CarteiraHistoricoService {
         CarteiraHistoricoResponse.ResumoCarteira resumo = new CarteiraHistoricoResponse.ResumoCarteira();
         resumo.setValorTotalInvestido(valorTotalInvestido);
         resumo.setValorTotalAtual(valorTotalAtual);
-        
+
         BigDecimal ganhoPerda = valorTotalAtual.subtract(valorTotalInvestido);
         resumo.setGanhoPerdaTotal(ganhoPerda);
-        
+
         if (valorTotalInvestido.compareTo(BigDecimal.ZERO) > 0) {
             BigDecimal ganhoPerdaPercentual = ganhoPerda
                 .divide(valorTotalInvestido, 4, RoundingMode.HALF_UP)
@@ -78,33 +117,69 @@ public class CarteiraHistoricoService {
         }
 
         response.setResumo(resumo);
+        response.setCurva(converterCurva(getCurvaCarteira(carteira)));
 
         return response;
     }
 
+    /**
+     * Curva consolidada da carteira, recalculada só quando alguma das versões de origem muda
+     */
+    CurvaCarteira getCurvaCarteira(Carteira carteira) {
+        long versaoHistorico = historicoCotacaoService.getVersaoHistorico();
+        long versaoPosicoes = posicaoLedgerService.getVersaoCarteira(carteira.getId());
+        int assinaturaAtivos = assinaturaAtivos(carteira);
+
+        CurvaEmCache emCache = curvasEmCache.get(carteira.getId());
+        if (emCache != null && emCache.versaoHistorico() == versaoHistorico
+                && emCache.versaoPosicoes() == versaoPosicoes
+                && emCache.assinaturaAtivos() == assinaturaAtivos) {
+            return emCache.curva();
+        }
+
+        // Ativos atuais e ativos que já passaram pela carteira (podem ter sido vendidos)
+        Map<String, Ativo> ativosPorCodigo = new LinkedHashMap<>();
+        for (Ativo ativo : carteira.getAtivos()) {
+            ativosPorCodigo.put(ativo.getCodigo().toUpperCase(), ativo);
+        }
+        for (String codigo : transacaoRepository.findCodigosAtivosByCarteiraId(carteira.getId())) {
+            ativosPorCodigo.putIfAbsent(codigo.toUpperCase(), null);
+        }
+
+        List<SerieCotacao> series = new ArrayList<>(ativosPorCodigo.size());
+        List<EvolucaoPosicao> evolucoes = new ArrayList<>(ativosPorCodigo.size());
+        for (Map.Entry<String, Ativo> entrada : ativosPorCodigo.entrySet()) {
+            series.add(historicoCotacaoService.getSerieCotacao(entrada.getKey()));
+            evolucoes.add(getEvolucao(carteira.getId(), entrada.getKey(), entrada.getValue()));
+        }
+
+        CurvaCarteira curva = CurvaCarteira.construir(series, evolucoes);
+        curvasEmCache.put(carteira.getId(), new CurvaEmCache(versaoHistorico, versaoPosicoes, assinaturaAtivos, curva));
+        return curva;
+    }
+
     /**
      * Processa histórico de um ativo específico
      */
-    private CarteiraHistoricoResponse.AtivoHistorico processarAtivoHistorico(Ativo ativo) {
+    private CarteiraHistoricoResponse.AtivoHistorico processarAtivoHistorico(
+            Long carteiraId, Ativo ativo, Map<String, BigDecimal> cotacoes) {
         try {
-            // Busca histórico de cotações do ativo
-            HistoricoCotacaoResponse historicoCotacao = 
-                historicoCotacaoService.getHistoricoAtivo(ativo.getCodigo());
-
-            if (historicoCotacao == null || historicoCotacao.getHistorico() == null) {
+            // Busca série de cotações do ativo (em cache)
+            SerieCotacao serie = historicoCotacaoService.getSerieCotacao(ativo.getCodigo());
+            if (serie.isVazia()) {
                 return null;
             }
 
-            CarteiraHistoricoResponse.AtivoHistorico ativoHistorico = 
+            CarteiraHistoricoResponse.AtivoHistorico ativoHistorico =
                 new CarteiraHistoricoResponse.AtivoHistorico();
-            
+
             ativoHistorico.setCodigo(ativo.getCodigo());
             ativoHistorico.setNome(ativo.getNome());
             ativoHistorico.setQuantidade(ativo.getQuantidade());
             ativoHistorico.setPrecoMedioCompra(ativo.getPrecoCompra());
 
             // Preço atual
-            BigDecimal precoAtual = googleSheetsService.buscarPrecoAtivo(ativo.getCodigo());
+            BigDecimal precoAtual = cotacoes.get(ativo.getCodigo().toUpperCase());
             if (precoAtual == null) {
                 precoAtual = ativo.getPrecoAtual();
             }
@@ -114,7 +189,7 @@ public class CarteiraHistoricoService {
             BigDecimal valorAtual = precoAtual.multiply(ativo.getQuantidade());
             BigDecimal ganhoPerda = valorAtual.subtract(valorInvestido);
             BigDecimal ganhoPerdaPercentual = BigDecimal.ZERO;
-            
+
             if (valorInvestido.compareTo(BigDecimal.ZERO) > 0) {
                 ganhoPerdaPercentual = ganhoPerda
                     .divide(valorInvestido, 4, RoundingMode.HALF_UP)
@@ -126,34 +201,30 @@ public class CarteiraHistoricoService {
             ativoHistorico.setGanhoPerda(ganhoPerda);
             ativoHistorico.setGanhoPerdaPercentual(ganhoPerdaPercentual);
 
-            // Converte histórico de cotações para histórico da carteira
-            List<CarteiraHistoricoResponse.HistoricoItem> historico = new ArrayList<>();
-            for (HistoricoCotacaoResponse.HistoricoItem item : historicoCotacao.getHistorico()) {
-                CarteiraHistoricoResponse.HistoricoItem historicoItem = 
-                    new CarteiraHistoricoResponse.HistoricoItem();
-                
-                historicoItem.setDataHora(item.getDataHora());
-                historicoItem.setPreco(item.getPreco());
-                
-                // Calcula valores totais para este ativo
-                BigDecimal valorTotalItem = item.getPreco().multiply(ativo.getQuantidade());
-                BigDecimal ganhoPerdaItem = valorTotalItem.subtract(valorInvestido);
-                BigDecimal ganhoPerdaPercentualItem = BigDecimal.ZERO;
-                
-                if (valorInvestido.compareTo(BigDecimal.ZERO) > 0) {
-                    ganhoPerdaPercentualItem = ganhoPerdaItem
-                        .divide(valorInvestido, 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"));
+            // Percorre cotações e posições juntas: cada ponto usa a posição vigente naquela data/hora
+            EvolucaoPosicao evolucao = getEvolucao(carteiraId, ativo.getCodigo(), ativo);
+            CarteiraHistoricoResponse.HistoricoItem[] historico =
+                new CarteiraHistoricoResponse.HistoricoItem[serie.tamanho()];
+            int passo = -1;
+            for (int i = 0; i < serie.tamanho(); i++) {
+                while (passo + 1 < evolucao.tamanho() && evolucao.getInstante(passo + 1) <= serie.getInstante(i)) {
+                    passo++;
                 }
+                double quantidade = passo >= 0 ? evolucao.getQuantidade(passo) : 0;
+                double custo = passo >= 0 ? evolucao.getCusto(passo) : 0;
+                double valorTotalItem = quantidade * serie.getPreco(i);
 
-                historicoItem.setValorTotal(valorTotalItem);
-                historicoItem.setGanhoPerda(ganhoPerdaItem);
-                historicoItem.setGanhoPerdaPercentual(ganhoPerdaPercentualItem);
-
-                historico.add(historicoItem);
+                CarteiraHistoricoResponse.HistoricoItem historicoItem =
+                    new CarteiraHistoricoResponse.HistoricoItem();
+                historicoItem.setDataHora(serie.getDataHora(i));
+                historicoItem.setPreco(serie.getPrecoDecimal(i));
+                historicoItem.setValorTotal(decimal(valorTotalItem));
+                historicoItem.setGanhoPerda(decimal(valorTotalItem - custo));
+                historicoItem.setGanhoPerdaPercentual(percentual(valorTotalItem - custo, custo));
+                historico[i] = historicoItem;
             }
 
-            ativoHistorico.setHistorico(historico.toArray(new CarteiraHistoricoResponse.HistoricoItem[0]));
+            ativoHistorico.setHistorico(historico);
 
             return ativoHistorico;
 
@@ -162,5 +233,53 @@ public class CarteiraHistoricoService {
             return null;
         }
     }
-}
 
+    /**
+     * Evolução da posição pelo ledger; ativos sem transações mantêm a quantidade atual constante
+     */
+    private EvolucaoPosicao getEvolucao(Long carteiraId, String codigo, Ativo ativo) {
+        EvolucaoPosicao evolucao = posicaoLedgerService.getEvolucaoPosicao(carteiraId, codigo);
+        if (evolucao.tamanho() > 0 || ativo == null) {
+            return evolucao;
+        }
+        double quantidade = ativo.getQuantidade().doubleValue();
+        return EvolucaoPosicao.constante(quantidade, quantidade * ativo.getPrecoCompra().doubleValue());
+    }
+
+    private List<CarteiraHistoricoResponse.PontoCurva> converterCurva(CurvaCarteira curva) {
+        List<CarteiraHistoricoResponse.PontoCurva> pontos = new ArrayList<>(curva.tamanho());
+        for (int i = 0; i < curva.tamanho(); i++) {
+            double ganhoPerda = curva.getValor(i) - curva.getCusto(i);
+            pontos.add(new CarteiraHistoricoResponse.PontoCurva(
+                curva.getDataHora(i),
+                decimal(curva.getValor(i)),
+                decimal(curva.getCusto(i)),
+                decimal(ganhoPerda),
+                percentual(ganhoPerda, curva.getCusto(i))
+            ));
+        }
+        return pontos;
+    }
+
+    private int assinaturaAtivos(Carteira carteira) {
+        int assinatura = 1;
+        for (Ativo ativo : carteira.getAtivos()) {
+            assinatura = 31 * assinatura + Objects.hash(ativo.getCodigo(), ativo.getQuantidade(), ativo.getPrecoCompra());
+        }
+        return assinatura;
+    }
+
+    private static BigDecimal decimal(double valor) {
+        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal percentual(double ganhoPerda, double base) {
+        if (base <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(ganhoPerda * 100 / base).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record CurvaEmCache(long versaoHistorico, long versaoPosicoes, int assinaturaAtivos, CurvaCarteira curva) {
+    }
+}
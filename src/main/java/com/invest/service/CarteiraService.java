@@ -4,9 +4,12 @@ import com.invest.dto.CarteiraRequest;
 import com.invest.model.*;
 import com.invest.repository.CarteiraRepository;
 import com.invest.repository.AtivoRepository;
+import com.invest.service.banco.EscritasCarteiraService;
 import com.invest.service.external.GoogleSheetsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -32,6 +35,9 @@ public class CarteiraService {
     @Autowired
     private AtivoRepository ativoRepository;
 
+    @Autowired
+    private EscritasCarteiraService escritasCarteiraService;
+
     /**
      * Cria uma nova carteira para um investidor por ID
      */
@@ -165,9 +171,19 @@ public class CarteiraService {
     }
 
     /**
-     * Atualiza preços de uma carteira com base no JSON local (cotacoes.json)
+     * Atualiza preços de uma carteira com base no JSON local (cotacoes.json). Regrava ativos e valor atual,
+     * então passa pelo EscritasCarteiraService como as transações: repetida se uma compra ou venda
+     * simultânea alterar a mesma carteira
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void atualizarPrecosCarteira(Long carteiraId) {
+        escritasCarteiraService.executar(carteiraId, () -> {
+            atualizarPrecos(carteiraId);
+            return null;
+        });
+    }
+
+    private void atualizarPrecos(Long carteiraId) {
         Carteira carteira = carteiraRepository.findById(carteiraId)
                 .orElseThrow(() -> new RuntimeException("Carteira não encontrada: " + carteiraId));
 
@@ -196,6 +212,9 @@ public class CarteiraService {
             carteiraRepository.save(carteira);
 
             System.out.println("✅ Preços da carteira '" + carteira.getNome() + "' atualizados com sucesso!");
+        } catch (ConcurrencyFailureException e) {
+            // Conflito de versão: repassado sem embrulhar para o EscritasCarteiraService repetir a escrita
+            throw e;
         } catch (Exception e) {
             System.err.println("❌ Erro ao atualizar preços da carteira: " + e.getMessage());
             e.printStackTrace();
@@ -219,22 +238,10 @@ public class CarteiraService {
      * Se o ativo não tiver precoAtual, usa o precoCompra
      */
     public void calcularValorAtualCarteira(Carteira carteira) {
-        // Busca os ativos da carteira diretamente do banco para garantir dados atualizados
-        List<Ativo> ativos = ativoRepository.findByCarteira(carteira);
-        
-        BigDecimal valorTotal = BigDecimal.ZERO;
-        
-        // Itera sobre os ativos da carteira
-        for (Ativo ativo : ativos) {
-            if (ativo.getQuantidade() != null && ativo.getQuantidade().compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal valorAtivo = ativo.getValorTotalAtual(); // Usa precoAtual se disponível, senão precoCompra
-                if (valorAtivo != null && valorAtivo.compareTo(BigDecimal.ZERO) > 0) {
-                    valorTotal = valorTotal.add(valorAtivo);
-                }
-            }
-        }
-        
-        carteira.setValorAtual(valorTotal);
+        // Soma no banco em vez de carregar todos os ativos da carteira
+        carteira.setValorAtual(carteira.getId() != null
+                ? ativoRepository.calcularValorAtualCarteira(carteira.getId())
+                : BigDecimal.ZERO);
     }
 
     /**
@@ -1,30 +1,41 @@
 package com.invest.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invest.event.CotacoesAtualizadasEvent;
+import com.invest.service.dados.DiretorioDados;
+import com.invest.service.dados.RegistroCotacao;
+import com.invest.service.dados.SnapshotCotacoes;
 import com.invest.service.external.GoogleSheetsService;
+import com.invest.service.fonte.FonteCotacoesService;
+import com.invest.service.fonte.FonteResiliente;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
-import java.net.URI;
-import java.nio.charset.StandardCharsets;
+import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Serviço responsável por atualizar automaticamente o arquivo JSON de cotações
- * a partir do Google Sheets a cada hora
+ * Serviço responsável por atualizar o arquivo JSON de cotações a partir do Google Sheets
+ * (agendado pelo AgendadorCotacoes conforme o horário do pregão da B3)
+ *
+ * É o único ponto de atualização: grava o JSON e publica um CotacoesAtualizadasEvent.
+ * Histórico, cache, valor das carteiras e WebSocket reagem ao evento de forma assíncrona.
+ * Se o conteúdo não mudou desde a última gravação (noites, fins de semana), nada é gravado nem publicado.
  */
 @Service
 public class CotacaoUpdateService {
 
-    private static final String URL_CSV = "https://docs.google.com/spreadsheets/d/1Zyzbrjd7mAFDaEKaXURGzA0o0cDA4p35MCcDW-2mwo8/export?format=csv&gid=1706485275";
-    
+    @Autowired
+    private FonteCotacoesService fonteCotacoesService;
+
     @Autowired
     private GoogleSheetsService googleSheetsService;
 
@@ -32,21 +43,39 @@ public class CotacaoUpdateService {
     private ObjectMapper objectMapper;
 
     @Autowired
-    private HistoricoCotacaoService historicoCotacaoService;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DiretorioDados diretorioDados;
+
+    @Value("${app.cotacoes.snapshot.binario:false}")
+    private boolean snapshotBinario;
+
+    // Snapshot da última atualização, base das alterações enviadas no evento
+    private Map<String, BigDecimal> snapshotAnterior = Collections.emptyMap();
+    private long sequencia = 0;
+    // Hash do conteúdo gravado (RegistroCotacao.hashConteudo); null até a primeira atualização
+    private String hashAnterior;
+
+    private final AtomicLong atualizacoes = new AtomicLong();
+    private final AtomicLong atualizacoesSemAlteracao = new AtomicLong();
+
+    // Uma atualização por vez (agendada ou manual)
+    private final ReentrantLock atualizacao = new ReentrantLock();
 
     /**
-     * Atualiza o arquivo JSON de cotações automaticamente a cada hora
-     * Executa no minuto 0 de cada hora (ex: 10:00, 11:00, 12:00)
+     * Atualiza as cotações se nenhuma outra atualização estiver em andamento (usado pelo AgendadorCotacoes)
+     * @return false se a atualização foi ignorada por sobreposição
      */
-    @Scheduled(cron = "0 0 * * * ?")
-    public void atualizarCotacoesAutomaticamente() {
-        System.out.println("🔄 Iniciando atualização automática de cotações...");
+    public boolean tentarAtualizarCotacoes() throws Exception {
+        if (!atualizacao.tryLock()) {
+            return false;
+        }
         try {
-            atualizarCotacoes();
-            System.out.println("✅ Atualização automática concluída com sucesso!");
-        } catch (Exception e) {
-            System.err.println("❌ Erro na atualização automática de cotações: " + e.getMessage());
-            e.printStackTrace();
+            executarAtualizacao();
+            return true;
+        } finally {
+            atualizacao.unlock();
         }
     }
 
@@ -54,109 +83,93 @@ public class CotacaoUpdateService {
      * Atualiza o arquivo JSON de cotações manualmente
      */
     public void atualizarCotacoes() throws Exception {
-        // Busca dados do Google Sheets
-        List<Map<String, String>> dados = buscarDadosDoGoogleSheets();
-        
-        // Salva apenas em resources (onde o Spring Boot lê)
-        salvarJson(dados, "src/main/resources/data/cotacoes.json");
+        atualizacao.lock();
+        try {
+            executarAtualizacao();
+        } finally {
+            atualizacao.unlock();
+        }
+    }
+
+    private void executarAtualizacao() throws Exception {
+        // Busca dados do Google Sheets (com timeouts, novas tentativas e circuit breaker)
+        FonteResiliente.Resultado resultado = fonteCotacoesService.buscar();
+        if (resultado.ultimoValido()) {
+            // Fonte indisponível: o último snapshot válido já está gravado e publicado
+            System.err.println("⚠️ Fonte de cotações indisponível (" + resultado.falha()
+                    + "), mantendo o último snapshot válido");
+            return;
+        }
+        List<Map<String, String>> dados = resultado.dados();
+
+        // Conteúdo igual ao já gravado: evita regravar, duplicar o histórico e invalidar cache/WebSocket
+        String hash = RegistroCotacao.hashConteudo(dados);
+        if (hashAnterior == null) {
+            hashAnterior = hashArquivoAtual();
+        }
+        if (hash.equals(hashAnterior)) {
+            atualizacoesSemAlteracao.incrementAndGet();
+            System.out.println("ℹ️ Cotações sem alteração desde a última atualização, nada a gravar");
+            return;
+        }
         
-        // Força recarregamento do cache
-        googleSheetsService.forcarRecarregamento();
+        // Salva no diretório de dados (app.data.dir), de onde os serviços leem
+        salvarJson(dados);
+        hashAnterior = hash;
+        atualizacoes.incrementAndGet();
         
-        // Salva histórico de cotações
-        historicoCotacaoService.salvarHistoricoAtualizacao();
+        // Publica o snapshot para os assinantes (histórico, cache, carteiras, WebSocket)
+        Map<String, BigDecimal> cotacoes = googleSheetsService.extrairCotacoes(objectMapper.valueToTree(dados));
+        CotacoesAtualizadasEvent evento = CotacoesAtualizadasEvent.de(++sequencia, snapshotAnterior, cotacoes);
+        snapshotAnterior = cotacoes;
+        eventPublisher.publishEvent(evento);
         
-        System.out.println("✅ " + dados.size() + " cotações atualizadas com sucesso!");
+        System.out.println("✅ " + dados.size() + " cotações atualizadas com sucesso ("
+                + evento.getAlteracoes().size() + " alteradas)!");
     }
 
     /**
-     * Busca dados do Google Sheets via CSV
+     * Hash do cotacoes.json já gravado (ex.: antes de reiniciar a aplicação); "" se não houver arquivo legível
      */
-    private List<Map<String, String>> buscarDadosDoGoogleSheets() throws Exception {
-        URI uri = new URI(URL_CSV);
-        List<Map<String, String>> dados = new ArrayList<>();
-        
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(uri.toURL().openStream(), StandardCharsets.UTF_8))) {
-            
-            String linha = reader.readLine(); // Lê cabeçalho
-            if (linha == null) {
-                throw new Exception("CSV vazio ou inválido");
-            }
-            
-            String[] colunas = linha.split(",");
-            
-            while ((linha = reader.readLine()) != null) {
-                Map<String, String> registro = new LinkedHashMap<>();
-                String[] valores = parseCSVLine(linha);
-                
-                for (int i = 0; i < colunas.length && i < valores.length; i++) {
-                    String coluna = colunas[i].trim().replace("\"", "");
-                    String valor = valores[i].trim().replace("\"", "");
-                    registro.put(coluna, valor);
-                }
-                
-                // Adiciona timestamp de atualização
-                registro.put("atualizado_em", LocalDateTime.now()
-                    .format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")));
-                
-                dados.add(registro);
+    private String hashArquivoAtual() {
+        Path arquivo = diretorioDados.getArquivoCotacoes();
+        try {
+            if (!Files.exists(arquivo)) {
+                return "";
             }
+            List<Map<String, String>> gravados = objectMapper.readValue(arquivo.toFile(),
+                    new TypeReference<List<Map<String, String>>>() {});
+            return RegistroCotacao.hashConteudo(gravados);
+        } catch (Exception e) {
+            return "";
         }
-        
-        return dados;
     }
 
     /**
-     * Faz parse de uma linha CSV considerando valores entre aspas
-     * Usa uma abordagem mais robusta para lidar com vírgulas dentro de valores entre aspas
+     * Atualizações gravadas e atualizações ignoradas por conteúdo repetido
      */
-    private String[] parseCSVLine(String linha) {
-        List<String> valores = new ArrayList<>();
-        boolean dentroAspas = false;
-        StringBuilder valorAtual = new StringBuilder();
-        
-        for (int i = 0; i < linha.length(); i++) {
-            char c = linha.charAt(i);
-            
-            if (c == '"') {
-                // Verifica se é uma aspa dupla escapada ("")
-                if (i + 1 < linha.length() && linha.charAt(i + 1) == '"' && dentroAspas) {
-                    valorAtual.append('"');
-                    i++; // Pula a próxima aspa
-                } else {
-                    dentroAspas = !dentroAspas;
-                }
-            } else if (c == ',' && !dentroAspas) {
-                valores.add(valorAtual.toString().trim());
-                valorAtual = new StringBuilder();
-            } else {
-                valorAtual.append(c);
-            }
-        }
-        // Adiciona o último valor
-        valores.add(valorAtual.toString().trim());
-        
-        return valores.toArray(new String[0]);
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("atualizacoes", atualizacoes.get());
+        status.put("atualizacoesSemAlteracao", atualizacoesSemAlteracao.get());
+        status.put("hashConteudo", hashAnterior);
+        return status;
     }
 
     /**
-     * Salva os dados em formato JSON no caminho especificado
+     * Salva os dados em formato JSON no diretório de dados (gravação atômica)
      */
-    private void salvarJson(List<Map<String, String>> dados, String caminhoRelativo) throws Exception {
-        // Obtém o diretório de trabalho atual (raiz do projeto)
-        String diretorioAtual = System.getProperty("user.dir");
-        Path caminhoCompleto = Paths.get(diretorioAtual, caminhoRelativo);
-        
-        // Cria diretórios se não existirem
-        Files.createDirectories(caminhoCompleto.getParent());
-        
-        // Salva o JSON
-        try (FileWriter writer = new FileWriter(caminhoCompleto.toFile(), StandardCharsets.UTF_8)) {
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(writer, dados);
+    private void salvarJson(List<Map<String, String>> dados) throws Exception {
+        Path arquivo = diretorioDados.getArquivoCotacoes();
+        diretorioDados.escreverAtomicamente(arquivo,
+                saida -> objectMapper.writerWithDefaultPrettyPrinter().writeValue(saida, dados));
+
+        System.out.println("📄 JSON salvo em: " + arquivo);
+
+        // Snapshot binário gravado em seguida, para não ficar mais antigo que o JSON
+        if (snapshotBinario) {
+            diretorioDados.escreverAtomicamente(diretorioDados.getArquivoSnapshot(), saida -> SnapshotCotacoes.gravar(saida,
+                    SnapshotCotacoes.linhas(dados), SnapshotCotacoes.dataHora(dados, LocalDateTime.now())));
         }
-        
-        System.out.println("📄 JSON salvo em: " + caminhoCompleto.toAbsolutePath());
     }
 }
-
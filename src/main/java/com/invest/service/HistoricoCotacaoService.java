@@ -3,18 +3,25 @@ package com.invest.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.invest.dto.HistoricoCotacaoResponse;
+import com.invest.event.CotacoesAtualizadasEvent;
+import com.invest.event.MetricasAssinantes;
+import com.invest.service.dados.DiretorioDados;
+import com.invest.service.historico.SerieCotacao;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ResourceLoader;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Serviço para gerenciar histórico de cotações
@@ -24,31 +31,61 @@ import java.util.*;
 public class HistoricoCotacaoService {
 
     @Autowired
-    private ResourceLoader resourceLoader;
+    private DiretorioDados diretorioDados;
 
     @Autowired
     private ObjectMapper objectMapper;
 
-    private static final String HISTORICO_DIR = "src/main/resources/data/historico";
+    @Autowired
+    private MetricasAssinantes metricasAssinantes;
+
     private static final int MAX_HISTORICO_ITENS = 1000; // Limita histórico para não ficar muito grande
 
+    // Séries "as-of" por ativo, revalidadas pela data de modificação do arquivo de histórico
+    private final Map<String, SerieEmCache> seriesEmCache = new ConcurrentHashMap<>();
+
+    // Versão do histórico gravado; muda a cada snapshot de cotações salvo
+    private final AtomicLong versaoHistorico = new AtomicLong();
+
+    /**
+     * Grava o snapshot de cada atualização de cotações no histórico (assinante assíncrono)
+     */
+    @Async("historicoCotacoesExecutor")
+    @EventListener
+    public void onCotacoesAtualizadas(CotacoesAtualizadasEvent evento) {
+        metricasAssinantes.medir("historico", evento,
+                () -> salvarHistoricoAtualizacao(evento.getCotacoes(), evento.getDataHora()));
+    }
+
     /**
-     * Salva o histórico de cotações a partir do cotacoes.json atualizado
+     * Salva o histórico de cotações a partir do cotacoes.json atual
      */
     public void salvarHistoricoAtualizacao() {
         try {
-            // Lê o cotacoes.json atual
-            var resource = resourceLoader.getResource("classpath:data/cotacoes.json");
-            JsonNode rootNode = objectMapper.readTree(resource.getInputStream());
-
-            LocalDateTime agora = LocalDateTime.now();
+            JsonNode rootNode = lerArquivoCotacoes();
 
-            // Processa cada ativo do JSON
+            Map<String, BigDecimal> cotacoes = new LinkedHashMap<>();
             for (JsonNode ativo : rootNode) {
                 String codigo = obterCodigoAtivo(ativo);
-                if (codigo == null) continue;
-
                 BigDecimal precoAtual = obterPrecoAtivo(ativo);
+                if (codigo != null && precoAtual != null) {
+                    cotacoes.put(codigo, precoAtual);
+                }
+            }
+            salvarHistoricoAtualizacao(cotacoes, LocalDateTime.now());
+        } catch (Exception e) {
+            System.err.println("Erro ao salvar histórico de cotações: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Acrescenta um item ao histórico de cada ativo do snapshot
+     */
+    public void salvarHistoricoAtualizacao(Map<String, BigDecimal> cotacoes, LocalDateTime dataHora) {
+        try {
+            for (Map.Entry<String, BigDecimal> cotacao : cotacoes.entrySet()) {
+                String codigo = cotacao.getKey();
+                BigDecimal precoAtual = cotacao.getValue();
                 if (precoAtual == null) continue;
 
                 // Carrega histórico existente
@@ -68,7 +105,7 @@ public class HistoricoCotacaoService {
 
                 // Adiciona novo item ao histórico
                 HistoricoCotacaoResponse.HistoricoItem novoItem = 
-                    new HistoricoCotacaoResponse.HistoricoItem(agora, precoAtual, variacao, variacaoPercentual);
+                    new HistoricoCotacaoResponse.HistoricoItem(dataHora, precoAtual, variacao, variacaoPercentual);
                 historico.add(novoItem);
 
                 // Limita tamanho do histórico
@@ -114,7 +151,7 @@ public class HistoricoCotacaoService {
         List<HistoricoCotacaoResponse> historicos = new ArrayList<>();
         
         try {
-            Path historicoDir = Paths.get(HISTORICO_DIR);
+            Path historicoDir = diretorioDados.getDiretorioHistorico();
             if (!Files.exists(historicoDir)) {
                 return historicos;
             }
@@ -141,12 +178,55 @@ public class HistoricoCotacaoService {
         return historicos;
     }
 
+    /**
+     * Retorna a série de cotações de um ativo para consultas por data (busca binária).
+     * A série fica em memória até o arquivo de histórico do ativo ser alterado.
+     */
+    public SerieCotacao getSerieCotacao(String codigo) {
+        String chave = codigo.toUpperCase();
+        long modificadoEm = ultimaModificacao(arquivoHistorico(chave));
+
+        SerieEmCache emCache = seriesEmCache.get(chave);
+        if (emCache != null && emCache.modificadoEm() == modificadoEm) {
+            return emCache.serie();
+        }
+
+        SerieCotacao serie = SerieCotacao.de(chave, carregarHistoricoAtivo(chave));
+        seriesEmCache.put(chave, new SerieEmCache(modificadoEm, serie));
+        return serie;
+    }
+
+    /**
+     * Versão atual do histórico (para invalidar cálculos derivados das cotações)
+     */
+    public long getVersaoHistorico() {
+        return versaoHistorico.get();
+    }
+
+    private long ultimaModificacao(Path arquivo) {
+        try {
+            return Files.exists(arquivo) ? Files.getLastModifiedTime(arquivo).toMillis() : -1L;
+        } catch (Exception e) {
+            return -1L;
+        }
+    }
+
+    private Path arquivoHistorico(String codigo) {
+        return diretorioDados.getDiretorioHistorico().resolve(codigo.toUpperCase() + ".json");
+    }
+
+    private JsonNode lerArquivoCotacoes() throws Exception {
+        try (InputStream entrada = Files.newInputStream(diretorioDados.getArquivoCotacoes())) {
+            return objectMapper.readTree(entrada);
+        }
+    }
+
     /**
      * Carrega histórico de um ativo do arquivo
      */
     private List<HistoricoCotacaoResponse.HistoricoItem> carregarHistoricoAtivo(String codigo) {
         try {
-            Path arquivo = Paths.get(HISTORICO_DIR, codigo.toUpperCase() + ".json");
+            Path arquivo = arquivoHistorico(codigo);
             if (!Files.exists(arquivo)) {
                 return new ArrayList<>();
             }
@@ -186,10 +266,7 @@ public class HistoricoCotacaoService {
      */
     private void salvarHistoricoAtivo(String codigo, List<HistoricoCotacaoResponse.HistoricoItem> historico) {
         try {
-            Path historicoDir = Paths.get(HISTORICO_DIR);
-            Files.createDirectories(historicoDir);
-
-            Path arquivo = historicoDir.resolve(codigo.toUpperCase() + ".json");
+            Path arquivo = arquivoHistorico(codigo);
 
             Map<String, Object> dados = new HashMap<>();
             dados.put("codigo", codigo.toUpperCase());
@@ -207,7 +284,10 @@ public class HistoricoCotacaoService {
             }
             dados.put("historico", historicoList);
 
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(arquivo.toFile(), dados);
+            diretorioDados.escreverAtomicamente(arquivo,
+                    saida -> objectMapper.writerWithDefaultPrettyPrinter().writeValue(saida, dados));
+            seriesEmCache.remove(codigo.toUpperCase());
+            versaoHistorico.incrementAndGet();
 
         } catch (Exception e) {
             System.err.println("Erro ao salvar histórico do ativo " + codigo + ": " + e.getMessage());
@@ -250,8 +330,7 @@ public class HistoricoCotacaoService {
      */
     private String buscarNomeAtivo(String codigo) {
         try {
-            var resource = resourceLoader.getResource("classpath:data/cotacoes.json");
-            JsonNode rootNode = objectMapper.readTree(resource.getInputStream());
+            JsonNode rootNode = lerArquivoCotacoes();
 
             for (JsonNode ativo : rootNode) {
                 String codigoAtivo = obterCodigoAtivo(ativo);
@@ -266,5 +345,7 @@ public class HistoricoCotacaoService {
         }
         return null;
     }
-}
 
+    private record SerieEmCache(long modificadoEm, SerieCotacao serie) {
+    }
+}
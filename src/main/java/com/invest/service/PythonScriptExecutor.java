@@ -1,5 +1,7 @@
 package com.invest.service;
 
+import com.invest.service.dados.DiretorioDados;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
@@ -15,6 +17,9 @@ public class PythonScriptExecutor {
     private static final String SCRIPT_NAME = "atualiza_cotacoes.py";
     private static final long CACHE_DURATION_MS = 60000; // 1 minuto - evita executar muito frequentemente
     
+    @Autowired
+    private DiretorioDados diretorioDados;
+
     private long lastExecutionTime = 0;
     private boolean lastExecutionSuccess = false;
 
@@ -71,6 +76,10 @@ public class PythonScriptExecutor {
             
             processBuilder.directory(scriptFile.getParentFile());
             processBuilder.redirectErrorStream(true);
+            // O script grava o cotacoes.json no mesmo diretório de dados lido pela aplicação
+            if (diretorioDados != null) {
+                processBuilder.environment().put("INVEST_DATA_DIR", diretorioDados.getRaiz().toString());
+            }
             
             Process process = processBuilder.start();
             
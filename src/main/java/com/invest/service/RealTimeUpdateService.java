@@ -21,9 +21,6 @@ public class RealTimeUpdateService {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
-    @Value("${app.realtime.cotacoes.interval:300000}")
-    private long cotacoesInterval;
-
     @Value("${app.realtime.relatorio.interval:600000}")
     private long relatorioInterval;
 
@@ -33,27 +30,6 @@ public class RealTimeUpdateService {
     @Autowired
     private RelatorioEmpresaService relatorioEmpresaService;
 
-    /**
-     * Atualiza cotações e envia para clientes conectados
-     * Intervalo configurável via app.realtime.cotacoes.interval (padrão: 5 minutos)
-     */
-    @Scheduled(fixedRateString = "${app.realtime.cotacoes.interval:300000}")
-    public void atualizarCotacoesTempoReal() {
-        try {
-            // Atualiza cotações
-            cotacaoUpdateService.atualizarCotacoes();
-            
-            // Envia notificação para clientes
-            messagingTemplate.convertAndSend("/topic/cotacoes/atualizacao", 
-                new AtualizacaoMensagem("Cotações atualizadas com sucesso", System.currentTimeMillis()));
-            
-        } catch (Exception e) {
-            System.err.println("Erro ao atualizar cotações em tempo real: " + e.getMessage());
-            messagingTemplate.convertAndSend("/topic/cotacoes/erro", 
-                new ErroMensagem("Erro ao atualizar cotações: " + e.getMessage()));
-        }
-    }
-
     /**
      * Gera e envia relatório da empresa
      * Intervalo configurável via app.realtime.relatorio.interval (padrão: 10 minutos)
@@ -78,9 +54,8 @@ public class RealTimeUpdateService {
      */
     public void enviarAtualizacaoCotacoes() {
         try {
+            // Os ativos alterados são enviados pelo TickCotacoesService ao receber o evento
             cotacaoUpdateService.atualizarCotacoes();
-            messagingTemplate.convertAndSend("/topic/cotacoes/atualizacao", 
-                new AtualizacaoMensagem("Cotações atualizadas manualmente", System.currentTimeMillis()));
         } catch (Exception e) {
             messagingTemplate.convertAndSend("/topic/cotacoes/erro", 
                 new ErroMensagem("Erro ao atualizar: " + e.getMessage()));
@@ -100,35 +75,6 @@ public class RealTimeUpdateService {
         }
     }
 
-    /**
-     * Classe para mensagens de atualização
-     */
-    public static class AtualizacaoMensagem {
-        private String mensagem;
-        private long timestamp;
-
-        public AtualizacaoMensagem(String mensagem, long timestamp) {
-            this.mensagem = mensagem;
-            this.timestamp = timestamp;
-        }
-
-        public String getMensagem() {
-            return mensagem;
-        }
-
-        public void setMensagem(String mensagem) {
-            this.mensagem = mensagem;
-        }
-
-        public long getTimestamp() {
-            return timestamp;
-        }
-
-        public void setTimestamp(long timestamp) {
-            this.timestamp = timestamp;
-        }
-    }
-
     /**
      * Classe para mensagens de erro
      */
@@ -3,6 +3,7 @@ package com.invest.service;
 import com.invest.dto.RelatorioEmpresaResponse;
 import com.invest.model.*;
 import com.invest.repository.*;
+import com.invest.service.banco.LeituraReplica;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,7 +19,8 @@ import java.util.stream.Collectors;
  * Agrega dados de todos os investidores para processamento no front-end
  */
 @Service
-@Transactional
+@Transactional(readOnly = true)
+@LeituraReplica
 public class RelatorioEmpresaService {
 
     @Autowired
@@ -3,6 +3,7 @@ package com.invest.service;
 import com.invest.dto.RelatorioExibicaoResponse;
 import com.invest.model.*;
 import com.invest.repository.*;
+import com.invest.service.banco.LeituraReplica;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,7 +18,8 @@ import java.util.stream.Collectors;
  * Service para gerar relatório agregado de exibição
  */
 @Service
-@Transactional
+@Transactional(readOnly = true)
+@LeituraReplica
 public class RelatorioExibicaoService {
 
     @Autowired
@@ -4,6 +4,7 @@ import com.invest.dto.CarteiraRentabilidadeResponse;
 import com.invest.dto.RentabilidadeResponse;
 import com.invest.model.*;
 import com.invest.repository.*;
+import com.invest.service.banco.LeituraReplica;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,13 +15,15 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import com.invest.utils.CalculadoraImpostos;
 
 /**
  * Service para cálculos de rentabilidade de ativos e carteiras
  */
 @Service
-@Transactional
+@Transactional(readOnly = true)
+@LeituraReplica
 public class RentabilidadeService {
 
     @Autowired
@@ -42,6 +45,14 @@ public class RentabilidadeService {
         Carteira carteira = ativo.getCarteira();
         List<Transacao> transacoes = transacaoRepository.findByCarteiraAndCodigoAtivo(carteira, ativo.getCodigo());
 
+        return calcularRentabilidadeAtivo(ativo, TotaisTransacoes.somar(transacoes), transacoes);
+    }
+
+    /**
+     * Calcula a rentabilidade de um ativo a partir dos totais das suas transações.
+     * As transações só são usadas na apuração aproximada de impostos (vazia se o ativo não teve vendas).
+     */
+    private RentabilidadeResponse calcularRentabilidadeAtivo(Ativo ativo, TotaisTransacoes totais, List<Transacao> transacoes) {
         RentabilidadeResponse response = new RentabilidadeResponse(
                 ativo.getId(), ativo.getCodigo(), ativo.getNome()
         );
@@ -52,10 +63,10 @@ public class RentabilidadeService {
         response.setPrecoAtual(ativo.getPrecoAtual());
 
         // Cálculos de valores
-        calcularValoresInvestimento(response, transacoes);
+        calcularValoresInvestimento(response, totais, transacoes);
         calcularRentabilidade(response);
-        calcularMetricasAdicionais(response, transacoes);
-        calcularDatas(response, transacoes);
+        calcularMetricasAdicionais(response);
+        calcularDatas(response, totais);
 
         return response;
     }
@@ -78,6 +89,8 @@ public class RentabilidadeService {
         // Calcula rentabilidade de cada ativo
         // Busca ativos diretamente do repository para evitar LazyInitializationException
         List<Ativo> ativos = ativoRepository.findByCarteira(carteira);
+        // Totais de todos os ativos em uma consulta agrupada (ativo, tipo), em vez de carregar as transações de cada um
+        Map<String, TotaisTransacoes> totaisPorAtivo = TotaisTransacoes.porAtivo(transacaoRepository.totalizarPorAtivo(carteiraId));
         
         List<RentabilidadeResponse> ativosRentabilidade = new ArrayList<>();
         BigDecimal valorTotalInvestido = BigDecimal.ZERO;
@@ -90,7 +103,12 @@ public class RentabilidadeService {
         BigDecimal totalImpostos = BigDecimal.ZERO;
 
         for (Ativo ativo : ativos) {
-            RentabilidadeResponse ativoRentabilidade = calcularRentabilidadeAtivo(ativo.getId());
+            TotaisTransacoes totais = totaisPorAtivo.getOrDefault(ativo.getCodigo(), TotaisTransacoes.VAZIO);
+            // Apuração aproximada de impostos precisa das transações, mas só há imposto se houve venda
+            List<Transacao> transacoes = totais.getQuantidadeVendas() > 0
+                    ? transacaoRepository.findByCarteiraAndCodigoAtivo(carteira, ativo.getCodigo())
+                    : List.of();
+            RentabilidadeResponse ativoRentabilidade = calcularRentabilidadeAtivo(ativo, totais, transacoes);
             ativosRentabilidade.add(ativoRentabilidade);
 
             // Acumula valores (com verificação de null)
@@ -152,29 +170,13 @@ public class RentabilidadeService {
     /**
      * Calcula valores de investimento
      */
-    private void calcularValoresInvestimento(RentabilidadeResponse response, List<Transacao> transacoes) {
-        BigDecimal totalCompras = BigDecimal.ZERO;
-        BigDecimal totalVendas = BigDecimal.ZERO;
-        BigDecimal totalProventos = BigDecimal.ZERO;
-        BigDecimal totalTaxas = BigDecimal.ZERO;
-        BigDecimal totalImpostos = BigDecimal.ZERO;
-
-        for (Transacao transacao : transacoes) {
-            if (transacao.getTipoTransacao() == TipoTransacao.COMPRA) {
-                totalCompras = totalCompras.add(transacao.getValorTotal());
-            } else if (transacao.getTipoTransacao() == TipoTransacao.VENDA) {
-                totalVendas = totalVendas.add(transacao.getValorTotal());
-            } else if (transacao.getTipoTransacao().isProvento()) {
-                totalProventos = totalProventos.add(transacao.getValorTotal());
-            }
-
-            if (transacao.getTaxasCorretagem() != null) {
-                totalTaxas = totalTaxas.add(transacao.getTaxasCorretagem());
-            }
-            if (transacao.getImpostos() != null) {
-                totalImpostos = totalImpostos.add(transacao.getImpostos());
-            }
-        }
+    private void calcularValoresInvestimento(RentabilidadeResponse response, TotaisTransacoes totais,
+                                             List<Transacao> transacoes) {
+        BigDecimal totalCompras = totais.getValorTotalCompras();
+        BigDecimal totalVendas = totais.getValorTotalVendas();
+        BigDecimal totalProventos = totais.getValorTotalProventos();
+        BigDecimal totalTaxas = totais.getTotalTaxasCorretagem();
+        BigDecimal totalImpostos = totais.getTotalImpostos();
 
         // Impostos aproximados (quando não informados nas transações ou para completar análise)
         BigDecimal impostosAproximados = CalculadoraImpostos.calcularImpostosAproximados(transacoes);
@@ -275,7 +277,7 @@ public class RentabilidadeService {
     /**
      * Calcula métricas adicionais
      */
-    private void calcularMetricasAdicionais(RentabilidadeResponse response, List<Transacao> transacoes) {
+    private void calcularMetricasAdicionais(RentabilidadeResponse response) {
         // Dividend Yield
         BigDecimal valorAtualMercado = response.getValorAtualMercado();
         BigDecimal valorTotalProventos = response.getValorTotalProventos();
@@ -299,22 +301,14 @@ public class RentabilidadeService {
     /**
      * Calcula datas importantes
      */
-    private void calcularDatas(RentabilidadeResponse response, List<Transacao> transacoes) {
-        if (!transacoes.isEmpty()) {
+    private void calcularDatas(RentabilidadeResponse response, TotaisTransacoes totais) {
+        if (totais.getQuantidadeTransacoes() > 0) {
             // Data da primeira compra
-            LocalDateTime primeiraCompra = transacoes.stream()
-                    .filter(t -> t.getTipoTransacao() == TipoTransacao.COMPRA)
-                    .map(Transacao::getDataTransacao)
-                    .min(LocalDateTime::compareTo)
-                    .orElse(null);
+            LocalDateTime primeiraCompra = totais.getDataPrimeiraCompra();
             response.setDataPrimeiraCompra(primeiraCompra);
 
             // Data da última transação
-            LocalDateTime ultimaTransacao = transacoes.stream()
-                    .map(Transacao::getDataTransacao)
-                    .max(LocalDateTime::compareTo)
-                    .orElse(null);
-            response.setDataUltimaTransacao(ultimaTransacao);
+            response.setDataUltimaTransacao(totais.getDataUltimaTransacao());
 
             // Rentabilidade anual
             if (primeiraCompra != null) {
@@ -0,0 +1,138 @@
+package com.invest.service;
+
+import com.invest.model.TipoTransacao;
+import com.invest.model.Transacao;
+import com.invest.repository.TotaisPorAtivo;
+import com.invest.repository.TotaisPorTipo;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totais de um conjunto de transações (carteira ou ativo): compras, vendas, proventos, custos e datas.
+ * Montado a partir das linhas agrupadas por tipo de TransacaoRepository.totalizarPorTipo / totalizarPorAtivo,
+ * sem carregar as transações.
+ */
+public class TotaisTransacoes {
+
+    public static final TotaisTransacoes VAZIO = new TotaisTransacoes();
+
+    private BigDecimal valorTotalCompras = BigDecimal.ZERO;
+    private BigDecimal valorTotalVendas = BigDecimal.ZERO;
+    private BigDecimal valorTotalProventos = BigDecimal.ZERO;
+    private BigDecimal totalTaxasCorretagem = BigDecimal.ZERO;
+    private BigDecimal totalImpostos = BigDecimal.ZERO;
+    private long quantidadeTransacoes;
+    private long quantidadeVendas;
+    private LocalDateTime dataPrimeiraCompra;
+    private LocalDateTime dataUltimaTransacao;
+
+    private TotaisTransacoes() {
+    }
+
+    /**
+     * Soma as linhas agrupadas por tipo
+     */
+    public static TotaisTransacoes de(Collection<? extends TotaisPorTipo> linhas) {
+        TotaisTransacoes totais = new TotaisTransacoes();
+        for (TotaisPorTipo linha : linhas) {
+            totais.adicionar(linha.getTipoTransacao(), linha.getQuantidadeTransacoes(), linha.getValorTotal(),
+                    linha.getTaxasCorretagem(), linha.getImpostos(), linha.getPrimeiraData(), linha.getUltimaData());
+        }
+        return totais;
+    }
+
+    /**
+     * Separa as linhas agrupadas por ativo e tipo em totais por código do ativo
+     */
+    public static Map<String, TotaisTransacoes> porAtivo(List<TotaisPorAtivo> linhas) {
+        Map<String, List<TotaisPorAtivo>> agrupadas = new HashMap<>();
+        for (TotaisPorAtivo linha : linhas) {
+            agrupadas.computeIfAbsent(linha.getCodigoAtivo(), codigo -> new ArrayList<>()).add(linha);
+        }
+        Map<String, TotaisTransacoes> porAtivo = new HashMap<>();
+        agrupadas.forEach((codigo, linhasAtivo) -> porAtivo.put(codigo, de(linhasAtivo)));
+        return porAtivo;
+    }
+
+    /**
+     * Soma transações já carregadas (mesmo resultado das consultas agrupadas)
+     */
+    public static TotaisTransacoes somar(List<Transacao> transacoes) {
+        TotaisTransacoes totais = new TotaisTransacoes();
+        for (Transacao transacao : transacoes) {
+            totais.adicionar(transacao.getTipoTransacao(), 1L, transacao.getValorTotal(), transacao.getTaxasCorretagem(),
+                    transacao.getImpostos(), transacao.getDataTransacao(), transacao.getDataTransacao());
+        }
+        return totais;
+    }
+
+    private void adicionar(TipoTransacao tipo, Long quantidade, BigDecimal valorTotal, BigDecimal taxas,
+                           BigDecimal impostos, LocalDateTime primeiraData, LocalDateTime ultimaData) {
+        BigDecimal valor = valorTotal != null ? valorTotal : BigDecimal.ZERO;
+        if (tipo == TipoTransacao.COMPRA) {
+            valorTotalCompras = valorTotalCompras.add(valor);
+            if (primeiraData != null && (dataPrimeiraCompra == null || primeiraData.isBefore(dataPrimeiraCompra))) {
+                dataPrimeiraCompra = primeiraData;
+            }
+        } else if (tipo == TipoTransacao.VENDA) {
+            valorTotalVendas = valorTotalVendas.add(valor);
+            quantidadeVendas += quantidade != null ? quantidade : 0;
+        } else if (tipo != null && tipo.isProvento()) {
+            valorTotalProventos = valorTotalProventos.add(valor);
+        }
+
+        if (taxas != null) {
+            totalTaxasCorretagem = totalTaxasCorretagem.add(taxas);
+        }
+        if (impostos != null) {
+            totalImpostos = totalImpostos.add(impostos);
+        }
+        quantidadeTransacoes += quantidade != null ? quantidade : 0;
+        if (ultimaData != null && (dataUltimaTransacao == null || ultimaData.isAfter(dataUltimaTransacao))) {
+            dataUltimaTransacao = ultimaData;
+        }
+    }
+
+    // Getters
+    public BigDecimal getValorTotalCompras() {
+        return valorTotalCompras;
+    }
+
+    public BigDecimal getValorTotalVendas() {
+        return valorTotalVendas;
+    }
+
+    public BigDecimal getValorTotalProventos() {
+        return valorTotalProventos;
+    }
+
+    public BigDecimal getTotalTaxasCorretagem() {
+        return totalTaxasCorretagem;
+    }
+
+    public BigDecimal getTotalImpostos() {
+        return totalImpostos;
+    }
+
+    public long getQuantidadeTransacoes() {
+        return quantidadeTransacoes;
+    }
+
+    public long getQuantidadeVendas() {
+        return quantidadeVendas;
+    }
+
+    public LocalDateTime getDataPrimeiraCompra() {
+        return dataPrimeiraCompra;
+    }
+
+    public LocalDateTime getDataUltimaTransacao() {
+        return dataUltimaTransacao;
+    }
+}
@@ -7,7 +7,9 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.invest.dto.TransacaoRequest;
@@ -18,6 +20,12 @@ import com.invest.model.Transacao;
 import com.invest.repository.AtivoRepository;
 import com.invest.repository.CarteiraRepository;
 import com.invest.repository.TransacaoRepository;
+import com.invest.repository.TransacaoResumo;
+import com.invest.service.banco.EscritasCarteiraService;
+import com.invest.service.cache.CacheEntidadesService;
+import com.invest.service.impostos.ResumoImpostoService;
+import com.invest.service.ledger.PosicaoLedgerService;
+import com.invest.service.ledger.PosicaoSnapshot;
 
 /**
  * Service para lógica de negócio das transações
@@ -26,6 +34,11 @@ import com.invest.repository.TransacaoRepository;
 @Transactional
 public class TransacaoService {
 
+    /**
+     * Maior página aceita na listagem de transações
+     */
+    public static final int TAMANHO_MAXIMO_PAGINA = 200;
+
     @Autowired
     private TransacaoRepository transacaoRepository;
 
@@ -39,10 +52,56 @@ public class TransacaoService {
     @Lazy
     private CarteiraService carteiraService;
 
+    @Autowired
+    private PosicaoLedgerService posicaoLedgerService;
+
+    @Autowired
+    private ResumoImpostoService resumoImpostoService;
+
+    @Autowired
+    private CacheEntidadesService cacheEntidadesService;
+
+    @Autowired
+    private EscritasCarteiraService escritasCarteiraService;
+
     /**
-     * Cria uma nova transação
+     * Cria uma nova transação. Escritas (criar, atualizar, deletar) abrem a própria transação pelo
+     * EscritasCarteiraService, que a repete em caso de conflito de versão do ativo ou da carteira
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Transacao createTransacao(Long carteiraId, TransacaoRequest request) {
+        return escritasCarteiraService.executar(carteiraId, () -> criarTransacao(carteiraId, request));
+    }
+
+    /**
+     * Atualiza uma transação existente
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Transacao updateTransacao(Long id, TransacaoRequest request) {
+        return escritasCarteiraService.executar(carteiraDaTransacao(id), () -> atualizarTransacao(id, request));
+    }
+
+    /**
+     * Deleta uma transação
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void deleteTransacao(Long id) {
+        escritasCarteiraService.executar(carteiraDaTransacao(id), () -> {
+            removerTransacao(id);
+            return null;
+        });
+    }
+
+    /**
+     * Carteira da transação, só quando as escritas são serializadas por carteira
+     */
+    private Long carteiraDaTransacao(Long id) {
+        return escritasCarteiraService.isLockPorCarteira()
+                ? transacaoRepository.findCarteiraIdById(id).orElse(null)
+                : null;
+    }
+
+    private Transacao criarTransacao(Long carteiraId, TransacaoRequest request) {
         Carteira carteira = carteiraRepository.findById(carteiraId)
                 .orElseThrow(() -> new RuntimeException("Carteira não encontrada: " + carteiraId));
 
@@ -76,24 +135,31 @@ public class TransacaoService {
         // Para ativos existentes, atualiza a posição após salvar a transação
         if (!isNovoAtivo) {
             atualizarPosicaoAtivo(ativo, transacao);
+        } else {
+            // Ativo novo entra em Carteira.ativos pelo lado do ativo: a lista em cache ficaria sem ele
+            cacheEntidadesService.removerAtivosDaCarteira(carteira.getId());
+        }
+
+        // Transação com data retroativa: o preço médio incremental não vale mais,
+        // reconstrói a posição a partir do ledger
+        if (posicaoLedgerService.registrarTransacao(savedTransacao)) {
+            reconstruirPosicaoAtivo(ativo);
         }
+        resumoImpostoService.atualizarAPartirDe(carteira.getId(), savedTransacao.getDataTransacao());
 
-        // Recalcula o valor atual da carteira após criar a transação
+        // Recalcula o valor atual da carteira após criar a transação (gravado no flush: a carteira é gerenciada)
         carteiraService.calcularValorAtualCarteira(carteira);
-        carteiraRepository.save(carteira);
 
         return savedTransacao;
     }
 
-    /**
-     * Atualiza uma transação existente
-     */
-    public Transacao updateTransacao(Long id, TransacaoRequest request) {
+    private Transacao atualizarTransacao(Long id, TransacaoRequest request) {
         Transacao transacao = transacaoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Transação não encontrada: " + id));
 
-        // Reverte posição anterior
-        reverterPosicaoAtivo(transacao);
+        String codigoAnterior = transacao.getCodigoAtivo();
+        LocalDateTime dataAnterior = transacao.getDataTransacao();
+        Ativo ativoAnterior = transacao.getAtivo();
 
         // Atualiza dados
         transacao.setTipoTransacao(request.getTipoTransacao());
@@ -110,34 +176,47 @@ public class TransacaoService {
 
         Transacao savedTransacao = transacaoRepository.save(transacao);
 
-        // Atualiza posição do ativo
-        atualizarPosicaoAtivo(transacao.getAtivo(), transacao);
+        // Reposiciona a transação no ledger e reconstrói a posição (quantidade e preço médio)
+        posicaoLedgerService.atualizarTransacao(codigoAnterior, savedTransacao);
+        Carteira carteira = savedTransacao.getCarteira();
+        if (codigoAnterior != null && !codigoAnterior.equals(savedTransacao.getCodigoAtivo())) {
+            // Código alterado: a transação passa para o ativo do novo código (criado se preciso, já com a
+            // posição do ledger) e as posições dos dois ativos são reconstruídas
+            Ativo novoAtivo = buscarOuCriarAtivo(carteira, request);
+            if (novoAtivo.getId() == null) {
+                cacheEntidadesService.removerAtivosDaCarteira(carteira.getId());
+            }
+            reconstruirPosicaoAtivo(novoAtivo);
+            savedTransacao.setAtivo(novoAtivo);
+            reconstruirPosicaoAtivo(ativoAnterior);
+        } else {
+            reconstruirPosicaoAtivo(savedTransacao.getAtivo());
+        }
 
         // Recalcula o valor atual da carteira após atualizar a transação
-        Carteira carteira = savedTransacao.getCarteira();
+        resumoImpostoService.atualizarAPartirDe(carteira.getId(),
+                dataAnterior != null && dataAnterior.isBefore(savedTransacao.getDataTransacao())
+                        ? dataAnterior : savedTransacao.getDataTransacao());
         carteiraService.calcularValorAtualCarteira(carteira);
-        carteiraRepository.save(carteira);
 
         return savedTransacao;
     }
 
-    /**
-     * Deleta uma transação
-     */
-    public void deleteTransacao(Long id) {
+    private void removerTransacao(Long id) {
         Transacao transacao = transacaoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Transação não encontrada: " + id));
 
         Carteira carteira = transacao.getCarteira();
 
-        // Reverte posição do ativo
-        reverterPosicaoAtivo(transacao);
-
         transacaoRepository.deleteById(id);
 
+        // Remove a transação do ledger e reconstrói a posição do ativo
+        posicaoLedgerService.removerTransacao(transacao);
+        reconstruirPosicaoAtivo(transacao.getAtivo());
+        resumoImpostoService.atualizarAPartirDe(carteira.getId(), transacao.getDataTransacao());
+
         // Recalcula o valor atual da carteira após deletar a transação
         carteiraService.calcularValorAtualCarteira(carteira);
-        carteiraRepository.save(carteira);
     }
 
     /**
@@ -152,54 +231,84 @@ public class TransacaoService {
      * Busca transações de uma carteira
      */
     public List<Transacao> getTransacoesByCarteira(Long carteiraId) {
-        Carteira carteira = carteiraRepository.findById(carteiraId)
-                .orElseThrow(() -> new RuntimeException("Carteira não encontrada: " + carteiraId));
+        return verificarCarteira(carteiraId, transacaoRepository.findByCarteiraId(carteiraId));
+    }
 
-        return transacaoRepository.findByCarteira(carteira);
+    /**
+     * Lista uma página de transações da carteira em ordem cronológica (data, id). A página seguinte começa
+     * depois da última transação recebida (aposData, aposId), sem OFFSET: o custo é o do tamanho da página,
+     * qualquer que seja a profundidade
+     */
+    public List<TransacaoResumo> listarTransacoes(Long carteiraId, LocalDateTime aposData, Long aposId, int tamanho) {
+        if ((aposData == null) != (aposId == null)) {
+            throw new IllegalArgumentException("aposData e aposId devem ser informados juntos");
+        }
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero: " + tamanho);
+        }
+
+        Limit limite = Limit.of(Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        return verificarCarteira(carteiraId, aposData == null
+                ? transacaoRepository.listarResumos(carteiraId, limite)
+                : transacaoRepository.listarResumosApos(carteiraId, aposData, aposId, limite));
     }
 
     /**
      * Busca transações por tipo
      */
     public List<Transacao> getTransacoesByTipo(Long carteiraId, TipoTransacao tipoTransacao) {
-        Carteira carteira = carteiraRepository.findById(carteiraId)
-                .orElseThrow(() -> new RuntimeException("Carteira não encontrada: " + carteiraId));
-
-        return transacaoRepository.findByCarteiraAndTipoTransacao(carteira, tipoTransacao);
+        return verificarCarteira(carteiraId, transacaoRepository.findByCarteiraIdAndTipoTransacao(carteiraId, tipoTransacao));
     }
 
     /**
      * Busca transações por ativo
      */
     public List<Transacao> getTransacoesByAtivo(Long carteiraId, String codigoAtivo) {
-        Carteira carteira = carteiraRepository.findById(carteiraId)
-                .orElseThrow(() -> new RuntimeException("Carteira não encontrada: " + carteiraId));
-
-        return transacaoRepository.findByCarteiraAndCodigoAtivo(carteira, codigoAtivo);
+        return verificarCarteira(carteiraId, transacaoRepository.findByCarteiraIdAndCodigoAtivo(carteiraId, codigoAtivo));
     }
 
     /**
      * Busca transações por período
      */
     public List<Transacao> getTransacoesByPeriodo(Long carteiraId, LocalDateTime dataInicio, LocalDateTime dataFim) {
-        Carteira carteira = carteiraRepository.findById(carteiraId)
-                .orElseThrow(() -> new RuntimeException("Carteira não encontrada: " + carteiraId));
+        return verificarCarteira(carteiraId,
+                transacaoRepository.findByCarteiraIdAndDataTransacaoBetween(carteiraId, dataInicio, dataFim));
+    }
+
+    /**
+     * Busca a posição de um ativo em uma data (ou a posição atual se a data for nula)
+     */
+    public PosicaoSnapshot getPosicaoAtivo(Long carteiraId, String codigoAtivo, LocalDateTime data) {
+        if (!carteiraRepository.existsById(carteiraId)) {
+            throw new RuntimeException("Carteira não encontrada: " + carteiraId);
+        }
 
-        return transacaoRepository.findByCarteiraAndDataTransacaoBetween(carteira, dataInicio, dataFim);
+        return data != null
+                ? posicaoLedgerService.getPosicaoEm(carteiraId, codigoAtivo, data)
+                : posicaoLedgerService.getPosicaoAtual(carteiraId, codigoAtivo);
     }
 
     /**
      * Calcula estatísticas de uma carteira
      */
     public CarteiraStats calcularEstatisticasCarteira(Long carteiraId) {
-        Carteira carteira = carteiraRepository.findById(carteiraId)
-                .orElseThrow(() -> new RuntimeException("Carteira não encontrada: " + carteiraId));
+        // Uma consulta agrupada por tipo em vez de um SUM por tipo
+        TotaisTransacoes totais = TotaisTransacoes.de(
+                verificarCarteira(carteiraId, transacaoRepository.totalizarPorTipo(carteiraId)));
 
-        BigDecimal valorTotalCompras = transacaoRepository.calcularValorTotalCompras(carteira);
-        BigDecimal valorTotalVendas = transacaoRepository.calcularValorTotalVendas(carteira);
-        BigDecimal valorTotalProventos = transacaoRepository.calcularValorTotalProventos(carteira);
+        return new CarteiraStats(totais.getValorTotalCompras(), totais.getValorTotalVendas(),
+                totais.getValorTotalProventos());
+    }
 
-        return new CarteiraStats(valorTotalCompras, valorTotalVendas, valorTotalProventos);
+    /**
+     * Devolve o resultado de uma consulta pelo ID da carteira. Resultado vazio pode ser carteira inexistente:
+     * só nesse caso a existência é verificada, sem o SELECT da carteira nas consultas com resultado
+     */
+    private <T> List<T> verificarCarteira(Long carteiraId, List<T> resultado) {
+        if (resultado.isEmpty() && !carteiraRepository.existsById(carteiraId)) {
+            throw new RuntimeException("Carteira não encontrada: " + carteiraId);
+        }
+        return resultado;
     }
 
     /**
@@ -262,21 +371,26 @@ public class TransacaoService {
     }
 
     /**
-     * Reverte posição do ativo (para atualizações/deleções)
+     * Reconstrói quantidade e preço médio do ativo a partir do ledger de posição
+     * (para atualizações, deleções e transações retroativas)
      */
-    private void reverterPosicaoAtivo(Transacao transacao) {
-        if (transacao.getAtivo() != null) {
-            Ativo ativo = transacao.getAtivo();
-            
-            if (transacao.getTipoTransacao().isEntrada()) {
-                ativo.setQuantidade(ativo.getQuantidade().subtract(transacao.getQuantidade()));
-            } else if (transacao.getTipoTransacao().isSaida()) {
-                ativo.setQuantidade(ativo.getQuantidade().add(transacao.getQuantidade()));
-            }
-            
-            ativo.setDataAtualizacao(LocalDateTime.now());
-            ativoRepository.save(ativo);
+    private void reconstruirPosicaoAtivo(Ativo ativo) {
+        if (ativo == null || ativo.getCarteira() == null) {
+            return;
         }
+
+        PosicaoSnapshot posicao = posicaoLedgerService.getPosicaoAtual(ativo.getCarteira().getId(), ativo.getCodigo());
+        if (posicao == null) {
+            return;
+        }
+
+        ativo.setQuantidade(posicao.getQuantidade());
+        // Posição zerada mantém o último preço médio conhecido
+        if (posicao.getPrecoMedio().compareTo(BigDecimal.ZERO) > 0) {
+            ativo.setPrecoCompra(posicao.getPrecoMedio());
+        }
+        ativo.setDataAtualizacao(LocalDateTime.now());
+        ativoRepository.save(ativo);
     }
 
     /**
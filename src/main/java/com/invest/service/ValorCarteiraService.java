@@ -0,0 +1,117 @@
+package com.invest.service;
+
+import com.invest.dto.CarteiraValorResponse;
+import com.invest.model.Carteira;
+import com.invest.repository.CarteiraRepository;
+import com.invest.repository.TransacaoRepository;
+import com.invest.service.historico.SerieCotacao;
+import com.invest.service.ledger.PosicaoLedgerService;
+import com.invest.service.ledger.PosicaoSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service para calcular o valor de uma carteira em uma data
+ *
+ * A quantidade de cada ativo vem do ledger de posições na data (não da posição atual)
+ * e o preço é a cotação vigente na data, localizada por busca binária na série do ativo.
+ */
+@Service
+public class ValorCarteiraService {
+
+    @Autowired
+    private CarteiraRepository carteiraRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private PosicaoLedgerService posicaoLedgerService;
+
+    @Autowired
+    private HistoricoCotacaoService historicoCotacaoService;
+
+    /**
+     * Calcula o valor da carteira na data informada
+     */
+    public CarteiraValorResponse calcularValorEm(Long carteiraId, LocalDateTime data) {
+        return calcular(carteiraId, data, Collections.emptyMap());
+    }
+
+    /**
+     * Calcula o valor atual da carteira usando os preços informados (ex.: último tick de cotações),
+     * com códigos em maiúsculas. Ativos fora do mapa usam a cotação mais recente do histórico.
+     */
+    public CarteiraValorResponse calcularValorAtual(Long carteiraId, Map<String, BigDecimal> precos) {
+        return calcular(carteiraId, LocalDateTime.now(), precos);
+    }
+
+    private CarteiraValorResponse calcular(Long carteiraId, LocalDateTime data, Map<String, BigDecimal> precos) {
+        Carteira carteira = carteiraRepository.findById(carteiraId)
+                .orElseThrow(() -> new RuntimeException("Carteira não encontrada: " + carteiraId));
+
+        List<CarteiraValorResponse.AtivoValor> ativos = new ArrayList<>();
+        BigDecimal valorTotal = BigDecimal.ZERO;
+        BigDecimal custoTotal = BigDecimal.ZERO;
+
+        for (String codigo : transacaoRepository.findCodigosAtivosByCarteiraId(carteiraId)) {
+            PosicaoSnapshot posicao = posicaoLedgerService.getPosicaoEm(carteiraId, codigo, data);
+            if (posicao.isZerada()) {
+                continue;
+            }
+
+            CarteiraValorResponse.AtivoValor ativoValor = valorarPosicao(codigo, posicao, data,
+                    precos.get(codigo.toUpperCase()));
+            ativos.add(ativoValor);
+            valorTotal = valorTotal.add(ativoValor.getValor());
+            custoTotal = custoTotal.add(posicao.getCustoTotal());
+        }
+
+        custoTotal = custoTotal.setScale(2, RoundingMode.HALF_UP);
+        return new CarteiraValorResponse(
+                carteira.getId(),
+                carteira.getNome(),
+                data,
+                valorTotal,
+                custoTotal,
+                valorTotal.subtract(custoTotal),
+                ativos
+        );
+    }
+
+    /**
+     * Valora a posição com o preço informado ou, sem ele, com a cotação vigente na data.
+     * Sem cotação até a data (histórico vazio ou que começa depois), usa o preço médio como referência.
+     */
+    private CarteiraValorResponse.AtivoValor valorarPosicao(String codigo, PosicaoSnapshot posicao,
+                                                            LocalDateTime data, BigDecimal precoInformado) {
+        BigDecimal preco;
+        LocalDateTime dataCotacao;
+        if (precoInformado != null) {
+            preco = precoInformado;
+            dataCotacao = data;
+        } else {
+            SerieCotacao serie = historicoCotacaoService.getSerieCotacao(codigo);
+            int indice = serie.indiceEm(data);
+            if (indice >= 0) {
+                preco = serie.getPrecoDecimal(indice);
+                dataCotacao = serie.getDataHora(indice);
+            } else {
+                preco = posicao.getPrecoMedio();
+                dataCotacao = null;
+            }
+        }
+
+        BigDecimal valor = posicao.getQuantidade().multiply(preco).setScale(2, RoundingMode.HALF_UP);
+        return new CarteiraValorResponse.AtivoValor(
+                codigo, posicao.getQuantidade(), posicao.getPrecoMedio(), preco, dataCotacao, valor);
+    }
+}
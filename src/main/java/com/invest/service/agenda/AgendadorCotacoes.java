@@ -0,0 +1,199 @@
+package com.invest.service.agenda;
+
+import com.invest.service.CotacaoUpdateService;
+import com.invest.service.dados.DiretorioDados;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Agenda a atualização de cotações conforme o pregão da B3.
+ *
+ * Durante o pregão a atualização roda a cada app.cotacoes.agenda.intervalo-pregao, com uma execução
+ * extra no fechamento. Fora dele roda a cada app.cotacoes.agenda.intervalo-fora-pregao (0 = nenhuma)
+ * ou só na próxima abertura. Cada horário recebe um atraso aleatório de até app.cotacoes.agenda.jitter.
+ *
+ * A próxima execução só é calculada ao fim da anterior, e uma atualização manual em andamento faz a
+ * agendada ser ignorada. Recuperação (app.cotacoes.agenda.recuperacao):
+ * - imediata: na inicialização, atualiza na hora se o cotacoes.json estiver desatualizado; horários
+ *   perdidos (ex.: máquina suspensa) viram uma única execução assim que possível
+ * - proxima: não atualiza na inicialização e descarta execuções atrasadas mais de um intervalo
+ */
+@Component
+@ConditionalOnProperty(name = "app.cotacoes.agenda.enabled", havingValue = "true", matchIfMissing = true)
+public class AgendadorCotacoes implements SchedulingConfigurer {
+
+    public static final String RECUPERACAO_IMEDIATA = "imediata";
+
+    @Autowired
+    private CotacaoUpdateService cotacaoUpdateService;
+
+    @Autowired
+    private CalendarioB3 calendarioB3;
+
+    @Autowired
+    private DiretorioDados diretorioDados;
+
+    @Value("${app.cotacoes.agenda.intervalo-pregao:PT1H}")
+    private Duration intervaloPregao;
+
+    @Value("${app.cotacoes.agenda.intervalo-fora-pregao:PT0S}")
+    private Duration intervaloForaPregao;
+
+    @Value("${app.cotacoes.agenda.jitter:PT30S}")
+    private Duration jitter;
+
+    @Value("${app.cotacoes.agenda.recuperacao:proxima}")
+    private String recuperacao;
+
+    private Clock relogio = Clock.systemUTC();
+
+    private final AtomicLong executadas = new AtomicLong();
+    private final AtomicLong ignoradasSobreposicao = new AtomicLong();
+    private final AtomicLong ignoradasAtraso = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+
+    private volatile Instant proximaExecucao;
+    private volatile Instant ultimaExecucao;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addTriggerTask(this::executar, this::calcularProximaExecucao);
+    }
+
+    /**
+     * Execução agendada: descarta se atrasada (política "proxima") ou se já houver atualização em andamento
+     */
+    void executar() {
+        Instant agora = relogio.instant();
+        calendarioB3.verificarCobertura(LocalDate.ofInstant(agora, calendarioB3.getZona()));
+        Instant planejada = proximaExecucao;
+        if (!RECUPERACAO_IMEDIATA.equals(recuperacao) && planejada != null
+                && Duration.between(planejada, agora).compareTo(intervaloAtual(planejada)) > 0) {
+            ignoradasAtraso.incrementAndGet();
+            System.out.println("⏭️ Atualização de cotações de " + planejada + " ignorada (atrasada)");
+            return;
+        }
+
+        try {
+            if (cotacaoUpdateService.tentarAtualizarCotacoes()) {
+                executadas.incrementAndGet();
+                ultimaExecucao = agora;
+            } else {
+                ignoradasSobreposicao.incrementAndGet();
+                System.out.println("⏭️ Atualização de cotações ignorada: outra atualização em andamento");
+            }
+        } catch (Exception e) {
+            falhas.incrementAndGet();
+            System.err.println("❌ Erro na atualização agendada de cotações: " + e.getMessage());
+        }
+    }
+
+    Instant calcularProximaExecucao(TriggerContext contexto) {
+        Instant agora = relogio.instant();
+        Instant ultima = contexto.lastCompletion();
+
+        Instant proxima;
+        if (ultima == null && RECUPERACAO_IMEDIATA.equals(recuperacao) && dadosDesatualizados(agora)) {
+            proxima = agora;
+        } else {
+            proxima = proximoHorario(agora);
+        }
+        proximaExecucao = proxima;
+        return proxima;
+    }
+
+    /**
+     * Próximo horário de atualização depois do instante (com jitter)
+     */
+    Instant proximoHorario(Instant base) {
+        ZonedDateTime momento = base.atZone(calendarioB3.getZona());
+
+        if (calendarioB3.isPregaoAberto(momento)) {
+            ZonedDateTime candidato = momento.plus(intervaloPregao);
+            ZonedDateTime fechamento = calendarioB3.fechamento(momento.toLocalDate());
+            // Garante uma atualização com os preços de fechamento
+            return aplicarJitter(candidato.isAfter(fechamento) ? fechamento : candidato);
+        }
+
+        ZonedDateTime abertura = calendarioB3.proximaAbertura(momento);
+        if (!intervaloForaPregao.isZero()) {
+            ZonedDateTime candidato = momento.plus(intervaloForaPregao);
+            if (candidato.isBefore(abertura)) {
+                return aplicarJitter(candidato);
+            }
+        }
+        return aplicarJitter(abertura);
+    }
+
+    /**
+     * O cotacoes.json está desatualizado se for mais antigo que o intervalo do pregão (com o pregão
+     * aberto) ou anterior ao último fechamento / ao intervalo fora do pregão (com o pregão fechado)
+     */
+    boolean dadosDesatualizados(Instant agora) {
+        Instant modificadoEm;
+        try {
+            Path arquivo = diretorioDados.getArquivoCotacoes();
+            if (!Files.exists(arquivo)) {
+                return true;
+            }
+            modificadoEm = Files.getLastModifiedTime(arquivo).toInstant();
+        } catch (Exception e) {
+            return true;
+        }
+
+        ZonedDateTime momento = agora.atZone(calendarioB3.getZona());
+        if (calendarioB3.isPregaoAberto(momento)) {
+            return modificadoEm.isBefore(agora.minus(intervaloPregao));
+        }
+        if (modificadoEm.isBefore(calendarioB3.ultimoFechamento(momento).toInstant())) {
+            return true;
+        }
+        return !intervaloForaPregao.isZero() && modificadoEm.isBefore(agora.minus(intervaloForaPregao));
+    }
+
+    private Duration intervaloAtual(Instant instante) {
+        if (calendarioB3.isPregaoAberto(instante.atZone(calendarioB3.getZona()))) {
+            return intervaloPregao.plus(jitter);
+        }
+        return (intervaloForaPregao.isZero() ? intervaloPregao : intervaloForaPregao).plus(jitter);
+    }
+
+    private Instant aplicarJitter(ZonedDateTime horario) {
+        long maximo = jitter.toMillis();
+        long atraso = maximo > 0 ? ThreadLocalRandom.current().nextLong(maximo + 1) : 0;
+        return horario.toInstant().plusMillis(atraso);
+    }
+
+    /**
+     * Situação do agendamento (próxima execução e contadores)
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("pregaoAberto", calendarioB3.isPregaoAberto(relogio.instant().atZone(calendarioB3.getZona())));
+        status.put("proximaExecucao", proximaExecucao != null ? proximaExecucao.toString() : null);
+        status.put("ultimaExecucao", ultimaExecucao != null ? ultimaExecucao.toString() : null);
+        status.put("executadas", executadas.get());
+        status.put("ignoradasSobreposicao", ignoradasSobreposicao.get());
+        status.put("ignoradasAtraso", ignoradasAtraso.get());
+        status.put("falhas", falhas.get());
+        status.put("recuperacao", recuperacao);
+        return status;
+    }
+}
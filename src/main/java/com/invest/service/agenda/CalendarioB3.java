@@ -0,0 +1,158 @@
+package com.invest.service.agenda;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Calendário de negociação da B3: dias úteis, feriados e horário do pregão regular.
+ *
+ * Os feriados vêm de um arquivo texto (app.cotacoes.agenda.feriados, padrão classpath:data/feriados-b3.txt),
+ * uma data AAAA-MM-DD por linha. Horários em America/Sao_Paulo, configuráveis via
+ * app.cotacoes.agenda.abertura e app.cotacoes.agenda.fechamento.
+ *
+ * O arquivo precisa ganhar o calendário da B3 de cada novo ano: ano sem nenhuma data seria tratado como
+ * sem feriados, então a carga e cada atualização agendada avisam quando o ano corrente ou o seguinte faltam.
+ */
+@Component
+public class CalendarioB3 {
+
+    // Limite de busca por dias de pregão (evita laço infinito com arquivo de feriados inválido)
+    private static final int MAX_DIAS_BUSCA = 60;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${app.cotacoes.agenda.feriados:classpath:data/feriados-b3.txt}")
+    private String arquivoFeriados;
+
+    @Value("${app.cotacoes.agenda.abertura:10:00}")
+    private String horaAbertura;
+
+    @Value("${app.cotacoes.agenda.fechamento:17:00}")
+    private String horaFechamento;
+
+    @Value("${app.cotacoes.agenda.zona:America/Sao_Paulo}")
+    private String zona;
+
+    private ZoneId zoneId;
+    private LocalTime abertura;
+    private LocalTime fechamento;
+    private Set<LocalDate> feriados = new HashSet<>();
+
+    @PostConstruct
+    public void carregar() throws IOException {
+        zoneId = ZoneId.of(zona);
+        abertura = LocalTime.parse(horaAbertura);
+        fechamento = LocalTime.parse(horaFechamento);
+
+        Resource recurso = resourceLoader.getResource(arquivoFeriados);
+        if (!recurso.exists()) {
+            System.err.println("⚠️ Arquivo de feriados da B3 não encontrado: " + arquivoFeriados);
+            return;
+        }
+        Set<LocalDate> datas = new HashSet<>();
+        try (BufferedReader leitor = new BufferedReader(
+                new InputStreamReader(recurso.getInputStream(), StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                int comentario = linha.indexOf('#');
+                String data = (comentario >= 0 ? linha.substring(0, comentario) : linha).trim();
+                if (!data.isEmpty()) {
+                    datas.add(LocalDate.parse(data));
+                }
+            }
+        }
+        feriados = datas;
+        verificarCobertura(LocalDate.now(zoneId));
+    }
+
+    /**
+     * Avisa se o ano da data ou o seguinte não tem nenhum feriado no arquivo
+     * @return true se os dois anos estão no arquivo
+     */
+    public boolean verificarCobertura(LocalDate hoje) {
+        List<Integer> anosFaltantes = Stream.of(hoje.getYear(), hoje.getYear() + 1)
+                .filter(ano -> feriados.stream().noneMatch(feriado -> feriado.getYear() == ano))
+                .toList();
+        if (anosFaltantes.isEmpty()) {
+            return true;
+        }
+        System.err.println("⚠️ Arquivo de feriados da B3 (" + arquivoFeriados + ") sem datas para " + anosFaltantes
+                + ": feriados desses anos serão tratados como dias de pregão");
+        return false;
+    }
+
+    public ZoneId getZona() {
+        return zoneId;
+    }
+
+    public boolean isFeriado(LocalDate data) {
+        return feriados.contains(data);
+    }
+
+    public boolean isDiaDePregao(LocalDate data) {
+        DayOfWeek dia = data.getDayOfWeek();
+        return dia != DayOfWeek.SATURDAY && dia != DayOfWeek.SUNDAY && !isFeriado(data);
+    }
+
+    /**
+     * Indica se o pregão regular está aberto no instante (abertura inclusiva, fechamento exclusivo)
+     */
+    public boolean isPregaoAberto(ZonedDateTime instante) {
+        ZonedDateTime local = instante.withZoneSameInstant(zoneId);
+        LocalTime hora = local.toLocalTime();
+        return isDiaDePregao(local.toLocalDate()) && !hora.isBefore(abertura) && hora.isBefore(fechamento);
+    }
+
+    public ZonedDateTime fechamento(LocalDate data) {
+        return data.atTime(fechamento).atZone(zoneId);
+    }
+
+    /**
+     * Próxima abertura de pregão estritamente depois do instante
+     */
+    public ZonedDateTime proximaAbertura(ZonedDateTime instante) {
+        ZonedDateTime local = instante.withZoneSameInstant(zoneId);
+        LocalDate data = local.toLocalDate();
+        for (int i = 0; i <= MAX_DIAS_BUSCA; i++, data = data.plusDays(1)) {
+            ZonedDateTime candidata = data.atTime(abertura).atZone(zoneId);
+            if (isDiaDePregao(data) && candidata.isAfter(local)) {
+                return candidata;
+            }
+        }
+        throw new IllegalStateException("Nenhum dia de pregão nos próximos " + MAX_DIAS_BUSCA + " dias");
+    }
+
+    /**
+     * Último fechamento de pregão no instante ou antes dele
+     */
+    public ZonedDateTime ultimoFechamento(ZonedDateTime instante) {
+        ZonedDateTime local = instante.withZoneSameInstant(zoneId);
+        LocalDate data = local.toLocalDate();
+        for (int i = 0; i <= MAX_DIAS_BUSCA; i++, data = data.minusDays(1)) {
+            ZonedDateTime candidato = fechamento(data);
+            if (isDiaDePregao(data) && !candidato.isAfter(local)) {
+                return candidato;
+            }
+        }
+        throw new IllegalStateException("Nenhum dia de pregão nos últimos " + MAX_DIAS_BUSCA + " dias");
+    }
+}
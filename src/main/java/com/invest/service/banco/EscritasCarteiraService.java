@@ -0,0 +1,132 @@
+package com.invest.service.banco;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Executa escritas que alteram a posição de uma carteira (ativos e valor atual, com lock otimista por @Version),
+ * cada tentativa numa transação própria.
+ *
+ * - Conflito (versão desatualizada, timeout de lock ou deadlock): a transação é desfeita e a escrita é repetida
+ *   do zero, até app.transacoes.retry.tentativas vezes, com backoff exponencial e jitter
+ * - app.transacoes.lock-por-carteira (padrão): escritas da mesma carteira são serializadas nesta instância por
+ *   um lock (um de app.transacoes.lock-stripes, escolhido pelo ID), mantido até o commit. Evita os conflitos
+ *   entre compras simultâneas, a criação duplicada de um ativo novo e que uma escrita reconstrua a posição a
+ *   partir de lançamentos ainda não confirmados de outra no PosicaoLedgerService (que é desta instância)
+ * - Chamada dentro de uma transação já aberta: executa direto, sem lock nem novas tentativas (um conflito
+ *   desfaz a transação de quem chamou)
+ */
+@Service
+public class EscritasCarteiraService {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.transacoes.retry.tentativas:5}")
+    private int tentativas;
+
+    @Value("${app.transacoes.retry.backoff:PT0.02S}")
+    private Duration backoff;
+
+    @Value("${app.transacoes.retry.backoff-maximo:PT0.5S}")
+    private Duration backoffMaximo;
+
+    @Value("${app.transacoes.lock-por-carteira:true}")
+    private boolean lockPorCarteira;
+
+    @Value("${app.transacoes.lock-stripes:64}")
+    private int quantidadeStripes;
+
+    private TransactionTemplate transactionTemplate;
+    private ReentrantLock[] stripes;
+
+    private final AtomicLong conflitos = new AtomicLong();
+    private final AtomicLong tentativasEsgotadas = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        stripes = new ReentrantLock[Math.max(1, quantidadeStripes)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean isLockPorCarteira() {
+        return lockPorCarteira;
+    }
+
+    /**
+     * Executa a escrita da carteira (carteiraId nulo: sem lock, só novas tentativas)
+     */
+    public <T> T executar(Long carteiraId, Supplier<T> escrita) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return escrita.get();
+        }
+
+        ReentrantLock lock = lockPorCarteira && carteiraId != null
+                ? stripes[Math.floorMod(carteiraId.hashCode(), stripes.length)]
+                : null;
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            return executarComTentativas(carteiraId, escrita);
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private <T> T executarComTentativas(Long carteiraId, Supplier<T> escrita) {
+        long espera = backoff.toMillis();
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transactionTemplate.execute(status -> escrita.get());
+            } catch (ConcurrencyFailureException e) {
+                conflitos.incrementAndGet();
+                if (tentativa >= tentativas) {
+                    tentativasEsgotadas.incrementAndGet();
+                    System.err.println("❌ Escrita na carteira " + carteiraId + " falhou após " + tentativa
+                            + " tentativas por conflito de concorrência: " + e.getMessage());
+                    throw e;
+                }
+                try {
+                    // Jitter: escritas que colidiram não voltam todas ao mesmo tempo
+                    Thread.sleep(espera / 2 + ThreadLocalRandom.current().nextLong(espera / 2 + 1));
+                } catch (InterruptedException interrompida) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                espera = Math.min(espera * 2, backoffMaximo.toMillis());
+            }
+        }
+    }
+
+    /**
+     * Conflitos de concorrência (cada tentativa desfeita conta um)
+     */
+    public long getConflitos() {
+        return conflitos.get();
+    }
+
+    /**
+     * Escritas que falharam depois de esgotar as tentativas
+     */
+    public long getTentativasEsgotadas() {
+        return tentativasEsgotadas.get();
+    }
+}
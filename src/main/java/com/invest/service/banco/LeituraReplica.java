@@ -0,0 +1,19 @@
+package com.invest.service.banco;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca serviços (ou métodos) cujas transações somente leitura podem ir para a réplica de leitura, quando
+ * configurada (app.banco.replica.url). Só relatórios, rentabilidade e histórico, que toleram o atraso da
+ * réplica: as demais leituras, como as dos repositórios chamadas pelos controllers logo após uma escrita,
+ * ficam no primário.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LeituraReplica {
+}
@@ -0,0 +1,54 @@
+package com.invest.service.banco;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Métricas do pool de conexões (Hikari): conexões ativas, ociosas e threads esperando por uma conexão.
+ * Threads esperando com frequência indicam pool pequeno ou conexões presas (ver leak-detection-threshold).
+ * Com réplica de leitura (app.banco.replica.url), o pool dela aparece em "replica".
+ */
+@Service
+public class PoolConexoesService {
+
+    @Autowired
+    @Qualifier("dataSource")
+    private HikariDataSource dataSource;
+
+    @Autowired(required = false)
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = getStatus(dataSource);
+        if (replicaDataSource != null) {
+            status.put("replica", getStatus(replicaDataSource));
+        }
+        return status;
+    }
+
+    private Map<String, Object> getStatus(HikariDataSource dataSource) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("nome", dataSource.getPoolName());
+        status.put("maximo", dataSource.getMaximumPoolSize());
+        status.put("minimoOcioso", dataSource.getMinimumIdle());
+        status.put("timeoutConexaoMs", dataSource.getConnectionTimeout());
+        status.put("deteccaoVazamentoMs", dataSource.getLeakDetectionThreshold());
+
+        // Nulo até a primeira conexão: o pool é iniciado sob demanda
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool != null) {
+            status.put("ativas", pool.getActiveConnections());
+            status.put("ociosas", pool.getIdleConnections());
+            status.put("total", pool.getTotalConnections());
+            status.put("aguardando", pool.getThreadsAwaitingConnection());
+        }
+        return status;
+    }
+}
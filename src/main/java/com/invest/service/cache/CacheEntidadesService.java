@@ -0,0 +1,107 @@
+package com.invest.service.cache;
+
+import com.invest.model.Carteira;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache de segundo nível do Hibernate (JCache/Caffeine) para Investidor, Carteira, Ativo, a coleção
+ * Carteira.ativos e a consulta CarteiraRepository.findByInvestidor (app.cache.segundo-nivel.enabled).
+ *
+ * Escritas nas entidades pelo Hibernate atualizam o cache (READ_WRITE) e invalidam as consultas em cache
+ * pela tabela. A exceção é a coleção inversa Carteira.ativos: um ativo novo é gravado pelo lado do ativo,
+ * e a entrada da coleção precisa ser removida aqui.
+ */
+@Service
+public class CacheEntidadesService {
+
+    private static final String REGIAO_ATIVOS_DA_CARTEIRA = Carteira.class.getName() + ".ativos";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${app.cache.segundo-nivel.enabled:false}")
+    private boolean habilitado;
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Remove do cache a lista de ativos da carteira, agora e de novo após o commit (uma leitura concorrente
+     * antes do commit recolocaria a lista antiga)
+     */
+    public void removerAtivosDaCarteira(Long carteiraId) {
+        if (!habilitado || carteiraId == null) {
+            return;
+        }
+        evictarAtivos(carteiraId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictarAtivos(carteiraId);
+                }
+            });
+        }
+    }
+
+    private void evictarAtivos(Long carteiraId) {
+        sessionFactory().getCache().evictCollectionData(REGIAO_ATIVOS_DA_CARTEIRA, carteiraId);
+    }
+
+    /**
+     * Acertos, falhas e taxa de acerto por região e do cache de consultas
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("habilitado", habilitado);
+        Statistics estatisticas = sessionFactory().getStatistics();
+        if (!habilitado || !estatisticas.isStatisticsEnabled()) {
+            return status;
+        }
+
+        Map<String, Object> regioes = new LinkedHashMap<>();
+        for (String regiao : estatisticas.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regiaoEstatisticas = estatisticas.getCacheRegionStatistics(regiao);
+            if (regiaoEstatisticas != null) {
+                regioes.put(regiao, contadores(regiaoEstatisticas.getHitCount(), regiaoEstatisticas.getMissCount(),
+                        regiaoEstatisticas.getPutCount()));
+            }
+        }
+        status.put("regioes", regioes);
+        status.put("entidades", contadores(estatisticas.getSecondLevelCacheHitCount(),
+                estatisticas.getSecondLevelCacheMissCount(), estatisticas.getSecondLevelCachePutCount()));
+        status.put("consultas", contadores(estatisticas.getQueryCacheHitCount(),
+                estatisticas.getQueryCacheMissCount(), estatisticas.getQueryCachePutCount()));
+        status.put("entidadesLidasDoBanco", estatisticas.getEntityLoadCount());
+        status.put("colecoesLidasDoBanco", estatisticas.getCollectionLoadCount());
+        return status;
+    }
+
+    private static Map<String, Object> contadores(long acertos, long falhas, long gravacoes) {
+        Map<String, Object> contadores = new LinkedHashMap<>();
+        contadores.put("acertos", acertos);
+        contadores.put("falhas", falhas);
+        contadores.put("gravacoes", gravacoes);
+        contadores.put("taxaAcerto", acertos + falhas == 0 ? BigDecimal.ZERO
+                : BigDecimal.valueOf(acertos).divide(BigDecimal.valueOf(acertos + falhas), 4, RoundingMode.HALF_UP));
+        return contadores;
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
@@ -0,0 +1,103 @@
+package com.invest.service.dados;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Diretório de dados gravados em tempo de execução (cotacoes.json, cotacoes.bin e histórico por ativo).
+ *
+ * Configurável via app.data.dir (padrão: ./data), fora de src/main/resources e do classpath.
+ * Na primeira execução o cotacoes.json é copiado do classpath (data/cotacoes.json) como semente.
+ * Todas as gravações são atômicas: o conteúdo vai para um arquivo temporário no mesmo diretório
+ * e substitui o destino por rename, de modo que leitores nunca veem um arquivo pela metade.
+ */
+@Component
+public class DiretorioDados {
+
+    public static final String ARQUIVO_COTACOES = "cotacoes.json";
+    public static final String ARQUIVO_SNAPSHOT = "cotacoes.bin";
+    private static final String SEMENTE_COTACOES = "classpath:data/cotacoes.json";
+    private static final String DIRETORIO_HISTORICO = "historico";
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${app.data.dir:data}")
+    private String diretorio;
+
+    private Path raiz;
+
+    @PostConstruct
+    public void inicializar() throws IOException {
+        raiz = Paths.get(diretorio).toAbsolutePath().normalize();
+        Files.createDirectories(getDiretorioHistorico());
+
+        Path cotacoes = getArquivoCotacoes();
+        if (!Files.exists(cotacoes)) {
+            Resource semente = resourceLoader.getResource(SEMENTE_COTACOES);
+            if (semente.exists()) {
+                try (InputStream entrada = semente.getInputStream()) {
+                    escreverAtomicamente(cotacoes, saida -> entrada.transferTo(saida));
+                }
+            }
+        }
+    }
+
+    public Path getRaiz() {
+        return raiz;
+    }
+
+    public Path getArquivoCotacoes() {
+        return raiz.resolve(ARQUIVO_COTACOES);
+    }
+
+    public Path getArquivoSnapshot() {
+        return raiz.resolve(ARQUIVO_SNAPSHOT);
+    }
+
+    public Path getDiretorioHistorico() {
+        return raiz.resolve(DIRETORIO_HISTORICO);
+    }
+
+    /**
+     * Grava o arquivo de forma atômica (temporário no mesmo diretório + rename)
+     */
+    public void escreverAtomicamente(Path destino, Escrita escrita) throws IOException {
+        Path pasta = destino.toAbsolutePath().getParent();
+        Files.createDirectories(pasta);
+        Path temporario = Files.createTempFile(pasta, "." + destino.getFileName(), ".tmp");
+        try {
+            try (OutputStream saida = Files.newOutputStream(temporario)) {
+                escrita.escrever(saida);
+            }
+            try {
+                Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    /**
+     * Conteúdo a gravar em um arquivo
+     */
+    @FunctionalInterface
+    public interface Escrita {
+        void escrever(OutputStream saida) throws IOException;
+    }
+}
@@ -0,0 +1,112 @@
+package com.invest.service.dados;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detecta alterações nos arquivos da raiz do diretório de dados via WatchService.
+ *
+ * Cada arquivo tem uma versão, incrementada a cada evento de criação/modificação (inclusive o
+ * rename da gravação atômica). Quem mantém cache compara a versão lida com a carregada e só
+ * relê o arquivo quando ela muda. Sem WatchService disponível, a versão é a data de modificação.
+ * Só são contados os arquivos já consultados por getVersao: os temporários da gravação atômica
+ * (nomes aleatórios) não acumulam entradas.
+ */
+@Component
+public class ObservadorArquivos {
+
+    @Autowired
+    private DiretorioDados diretorioDados;
+
+    private final Map<String, AtomicLong> versoes = new ConcurrentHashMap<>();
+
+    private volatile WatchService watchService;
+
+    @PostConstruct
+    public void iniciar() {
+        try {
+            WatchService servico = FileSystems.getDefault().newWatchService();
+            diretorioDados.getRaiz().register(servico,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watchService = servico;
+
+            Thread observador = new Thread(() -> observar(servico), "observador-dados");
+            observador.setDaemon(true);
+            observador.start();
+        } catch (IOException | UnsupportedOperationException e) {
+            System.err.println("WatchService indisponível, usando data de modificação: " + e.getMessage());
+            watchService = null;
+        }
+    }
+
+    @PreDestroy
+    public void parar() throws IOException {
+        WatchService servico = watchService;
+        watchService = null;
+        if (servico != null) {
+            servico.close();
+        }
+    }
+
+    /**
+     * Versão atual de um arquivo da raiz do diretório de dados
+     */
+    public long getVersao(String nomeArquivo) {
+        if (watchService == null) {
+            return ultimaModificacao(diretorioDados.getRaiz().resolve(nomeArquivo));
+        }
+        return versoes.computeIfAbsent(nomeArquivo, n -> new AtomicLong()).get();
+    }
+
+    private void observar(WatchService servico) {
+        try {
+            while (true) {
+                WatchKey chave = servico.take();
+                for (WatchEvent<?> evento : chave.pollEvents()) {
+                    if (evento.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Eventos perdidos: considera todos os arquivos alterados
+                        versoes.values().forEach(AtomicLong::incrementAndGet);
+                    } else {
+                        String nome = ((Path) evento.context()).getFileName().toString();
+                        AtomicLong versao = versoes.get(nome);
+                        if (versao != null) {
+                            versao.incrementAndGet();
+                        }
+                    }
+                }
+                if (!chave.reset()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Serviço encerrado no desligamento da aplicação
+        }
+    }
+
+    private static long ultimaModificacao(Path arquivo) {
+        try {
+            FileTime modificadoEm = Files.getLastModifiedTime(arquivo);
+            return modificadoEm.toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
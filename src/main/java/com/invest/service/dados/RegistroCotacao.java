@@ -0,0 +1,119 @@
+package com.invest.service.dados;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Leitura dos campos de um registro de cotação (linha da planilha / cotacoes.json).
+ *
+ * Os cabeçalhos variam entre fontes ("Código", "Acao", "PreÃ§o Atual"...), então as chaves são
+ * normalizadas: encoding corrigido, sem acentos e em minúsculas.
+ */
+public final class RegistroCotacao {
+
+    public static final DateTimeFormatter FORMATO_DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    // Metadados da busca, fora do hash: "atualizado_em" muda a cada busca e "fonte" alterna entre
+    // fontes com o mesmo preço
+    private static final Set<String> CAMPOS_FORA_DO_HASH = Set.of("atualizado_em", "fonte");
+
+    private RegistroCotacao() {
+    }
+
+    /**
+     * Código do ativo em maiúsculas, ou null se o registro não tiver campo de código
+     */
+    public static String codigo(Map<String, String> registro) {
+        for (Map.Entry<String, String> campo : registro.entrySet()) {
+            if (campo.getValue() != null && isCampoCodigo(normalizarChave(campo.getKey()))) {
+                String codigo = campo.getValue().trim().toUpperCase();
+                return codigo.isEmpty() ? null : codigo;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Data/hora da cotação ("Data/Hora" da planilha ou, na falta, "atualizado_em" da busca)
+     */
+    public static LocalDateTime dataHora(Map<String, String> registro, LocalDateTime padrao) {
+        String valor = registro.getOrDefault("Data/Hora", registro.get("atualizado_em"));
+        if (valor == null) {
+            return padrao;
+        }
+        try {
+            return LocalDateTime.parse(valor.trim(), FORMATO_DATA_HORA);
+        } catch (RuntimeException e) {
+            return padrao;
+        }
+    }
+
+    public static boolean isCampoCodigo(String chaveNormalizada) {
+        return chaveNormalizada.equals("codigo") || chaveNormalizada.equals("acao");
+    }
+
+    public static String normalizarChave(String chave) {
+        String texto = chave;
+        if (texto.indexOf('Ã') >= 0) {
+            // Cabeçalho UTF-8 lido como ISO-8859-1 ("PreÃ§o" → "Preço")
+            texto = new String(texto.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+        }
+        texto = Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return texto.trim().toLowerCase();
+    }
+
+    /**
+     * Converte um preço da planilha ("31,79", "R$ 31,79" ou "18010" = R$ 180,10)
+     */
+    public static BigDecimal converterPreco(String valor, int escala) {
+        String texto = valor.replace("R$", "").replace(",", ".").trim();
+        // Mesma regra do GoogleSheetsService: "18010" sem separador são centavos (R$ 180,10)
+        if (!texto.contains(".") && texto.length() > 4) {
+            texto = texto.substring(0, texto.length() - 2) + "." + texto.substring(texto.length() - 2);
+        }
+        return converterDecimal(texto, escala);
+    }
+
+    public static BigDecimal converterDecimal(String valor, int escala) {
+        try {
+            return new BigDecimal(valor.replace(",", ".").replace("%", "").trim()).setScale(escala, RoundingMode.HALF_UP);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * SHA-256 do conteúdo das cotações, ignorando os metadados da busca ("atualizado_em" e "fonte")
+     */
+    public static String hashConteudo(List<Map<String, String>> dados) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+        for (Map<String, String> registro : dados) {
+            for (Map.Entry<String, String> campo : registro.entrySet()) {
+                if (CAMPOS_FORA_DO_HASH.contains(campo.getKey())) {
+                    continue;
+                }
+                digest.update(campo.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '=');
+                digest.update(String.valueOf(campo.getValue()).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            digest.update((byte) '\n');
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,303 @@
+package com.invest.service.dados;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Snapshot binário compacto das cotações (cotacoes.bin), lido por memory-map sem desserialização.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * cabeçalho  magic "CTQ1" | versão (short) | escala (short) | quantidade (int) | bytes dos códigos (int) | dataHora (long)
+ * códigos    deslocamentos int[quantidade + 1] | bytes UTF-8 dos códigos (ordenados), alinhados a 8 bytes
+ * colunas    long[quantidade] para preço, máximo, mínimo e variação %, em centésimos
+ * </pre>
+ * Os códigos ficam ordenados, então a busca é binária direto nos bytes mapeados. Valores ausentes
+ * são gravados como Long.MIN_VALUE. O cotacoes.json continua sendo gravado como formato de exportação.
+ */
+public final class SnapshotCotacoes {
+
+    private static final int MAGIC = 0x43545131; // "CTQ1"
+    private static final short VERSAO = 1;
+    private static final short ESCALA = 2;
+    private static final int TAMANHO_CABECALHO = 24;
+    private static final long AUSENTE = Long.MIN_VALUE;
+    private static final DateTimeFormatter FORMATO_DATA_HORA = RegistroCotacao.FORMATO_DATA_HORA;
+
+    private final ByteBuffer buffer;
+    private final int quantidade;
+    private final int inicioCodigos;
+    private final int[] inicioColunas = new int[4];
+    private final LocalDateTime dataHora;
+
+    private SnapshotCotacoes(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < TAMANHO_CABECALHO || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Snapshot de cotações inválido");
+        }
+        if (buffer.getShort(4) != VERSAO || buffer.getShort(6) != ESCALA) {
+            throw new IOException("Versão de snapshot não suportada: " + buffer.getShort(4));
+        }
+        this.quantidade = buffer.getInt(8);
+        int bytesCodigos = buffer.getInt(12);
+        this.dataHora = LocalDateTime.ofEpochSecond(buffer.getLong(16), 0, ZoneOffset.UTC);
+
+        this.inicioCodigos = TAMANHO_CABECALHO + 4 * (quantidade + 1);
+        int coluna = alinhar(inicioCodigos + bytesCodigos);
+        for (int i = 0; i < inicioColunas.length; i++) {
+            inicioColunas[i] = coluna;
+            coluna += 8 * quantidade;
+        }
+        if (buffer.limit() < coluna) {
+            throw new IOException("Snapshot de cotações truncado");
+        }
+    }
+
+    /**
+     * Mapeia o arquivo em memória (somente leitura); o conteúdo só é lido sob demanda
+     */
+    public static SnapshotCotacoes abrir(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            return new SnapshotCotacoes(mapa);
+        }
+    }
+
+    static SnapshotCotacoes de(ByteBuffer buffer) throws IOException {
+        return new SnapshotCotacoes(buffer);
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public LocalDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public String codigo(int indice) {
+        int inicio = deslocamentoCodigo(indice);
+        byte[] bytes = new byte[deslocamentoCodigo(indice + 1) - inicio];
+        buffer.get(inicioCodigos + inicio, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Posição do ativo no snapshot (busca binária nos bytes dos códigos) ou -1 se não existir
+     */
+    public int indice(String codigo) {
+        byte[] procurado = codigo.trim().toUpperCase().getBytes(StandardCharsets.UTF_8);
+        int baixo = 0;
+        int alto = quantidade - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            int comparacao = compararCodigo(meio, procurado);
+            if (comparacao < 0) {
+                baixo = meio + 1;
+            } else if (comparacao > 0) {
+                alto = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+        return -1;
+    }
+
+    public BigDecimal preco(int indice) {
+        return valor(0, indice);
+    }
+
+    public BigDecimal maximo(int indice) {
+        return valor(1, indice);
+    }
+
+    public BigDecimal minimo(int indice) {
+        return valor(2, indice);
+    }
+
+    public BigDecimal variacao(int indice) {
+        return valor(3, indice);
+    }
+
+    /**
+     * Mapa código → preço de todos os ativos com preço
+     */
+    public Map<String, BigDecimal> precos() {
+        Map<String, BigDecimal> precos = new HashMap<>(quantidade * 2);
+        for (int i = 0; i < quantidade; i++) {
+            BigDecimal preco = preco(i);
+            if (preco != null) {
+                precos.put(codigo(i), preco);
+            }
+        }
+        return precos;
+    }
+
+    /**
+     * Dados completos de um ativo, nas mesmas chaves de GoogleSheetsService.buscarCotacaoCompleta
+     */
+    public Map<String, Object> cotacaoCompleta(String codigo) {
+        int indice = indice(codigo);
+        if (indice < 0) {
+            return null;
+        }
+        Map<String, Object> cotacao = new HashMap<>();
+        cotacao.put("codigo", codigo(indice));
+        colocarSePresente(cotacao, "precoAtual", preco(indice));
+        colocarSePresente(cotacao, "variacao", variacao(indice));
+        colocarSePresente(cotacao, "precoMaximo", maximo(indice));
+        colocarSePresente(cotacao, "precoMinimo", minimo(indice));
+        cotacao.put("dataHora", dataHora.format(FORMATO_DATA_HORA));
+        return cotacao;
+    }
+
+    private BigDecimal valor(int coluna, int indice) {
+        long valor = buffer.getLong(inicioColunas[coluna] + 8 * indice);
+        return valor == AUSENTE ? null : BigDecimal.valueOf(valor, ESCALA);
+    }
+
+    private int deslocamentoCodigo(int indice) {
+        return buffer.getInt(TAMANHO_CABECALHO + 4 * indice);
+    }
+
+    private int compararCodigo(int indice, byte[] procurado) {
+        int inicio = inicioCodigos + deslocamentoCodigo(indice);
+        int tamanho = inicioCodigos + deslocamentoCodigo(indice + 1) - inicio;
+        int limite = Math.min(tamanho, procurado.length);
+        for (int i = 0; i < limite; i++) {
+            int diferenca = Byte.toUnsignedInt(buffer.get(inicio + i)) - Byte.toUnsignedInt(procurado[i]);
+            if (diferenca != 0) {
+                return diferenca;
+            }
+        }
+        return tamanho - procurado.length;
+    }
+
+    private static void colocarSePresente(Map<String, Object> mapa, String chave, BigDecimal valor) {
+        if (valor != null) {
+            mapa.put(chave, valor);
+        }
+    }
+
+    private static int alinhar(int posicao) {
+        return (posicao + 7) & ~7;
+    }
+
+    // ==================== GRAVAÇÃO ====================
+
+    /**
+     * Linha de cotação já convertida (valores em reais/percentual, nulos quando ausentes)
+     */
+    public record Linha(String codigo, BigDecimal preco, BigDecimal maximo, BigDecimal minimo, BigDecimal variacao) {
+    }
+
+    /**
+     * Grava o snapshot binário das linhas informadas
+     */
+    public static void gravar(OutputStream destino, List<Linha> linhas, LocalDateTime dataHora) throws IOException {
+        List<Linha> ordenadas = new ArrayList<>(linhas);
+        ordenadas.sort(Comparator.comparing(l -> l.codigo().getBytes(StandardCharsets.UTF_8), Arrays::compareUnsigned));
+        byte[][] codigos = new byte[ordenadas.size()][];
+
+        int bytesCodigos = 0;
+        for (int i = 0; i < ordenadas.size(); i++) {
+            codigos[i] = ordenadas.get(i).codigo().getBytes(StandardCharsets.UTF_8);
+            bytesCodigos += codigos[i].length;
+        }
+
+        DataOutputStream saida = new DataOutputStream(destino);
+        saida.writeInt(MAGIC);
+        saida.writeShort(VERSAO);
+        saida.writeShort(ESCALA);
+        saida.writeInt(ordenadas.size());
+        saida.writeInt(bytesCodigos);
+        saida.writeLong(dataHora.toEpochSecond(ZoneOffset.UTC));
+
+        int deslocamento = 0;
+        saida.writeInt(deslocamento);
+        for (byte[] codigo : codigos) {
+            deslocamento += codigo.length;
+            saida.writeInt(deslocamento);
+        }
+        for (byte[] codigo : codigos) {
+            saida.write(codigo);
+        }
+        int fimCodigos = TAMANHO_CABECALHO + 4 * (codigos.length + 1) + bytesCodigos;
+        saida.write(new byte[alinhar(fimCodigos) - fimCodigos]);
+
+        gravarColuna(saida, ordenadas, Linha::preco);
+        gravarColuna(saida, ordenadas, Linha::maximo);
+        gravarColuna(saida, ordenadas, Linha::minimo);
+        gravarColuna(saida, ordenadas, Linha::variacao);
+        saida.flush();
+    }
+
+    private static void gravarColuna(DataOutputStream saida, List<Linha> linhas,
+                                     Function<Linha, BigDecimal> coluna) throws IOException {
+        for (Linha linha : linhas) {
+            saida.writeLong(escalar(coluna.apply(linha)));
+        }
+    }
+
+    private static long escalar(BigDecimal valor) {
+        return valor == null ? AUSENTE : valor.setScale(ESCALA, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converte as linhas do cotacoes.json (cabeçalhos da planilha, inclusive com encoding quebrado
+     * como "PreÃ§o Atual", e decimais com vírgula) em linhas do snapshot
+     */
+    public static List<Linha> linhas(List<Map<String, String>> dados) {
+        List<Linha> linhas = new ArrayList<>(dados.size());
+        for (Map<String, String> registro : dados) {
+            String codigo = null;
+            BigDecimal preco = null, maximo = null, minimo = null, variacao = null;
+            for (Map.Entry<String, String> campo : registro.entrySet()) {
+                String valor = campo.getValue();
+                if (valor == null) continue;
+                String chave = RegistroCotacao.normalizarChave(campo.getKey());
+                if (RegistroCotacao.isCampoCodigo(chave)) {
+                    codigo = valor.trim().toUpperCase();
+                } else if (chave.equals("preco") || chave.equals("preco atual") || chave.equals("preco_atual")) {
+                    preco = RegistroCotacao.converterPreco(valor, ESCALA);
+                } else if (chave.startsWith("maximo")) {
+                    maximo = RegistroCotacao.converterPreco(valor, ESCALA);
+                } else if (chave.startsWith("minimo")) {
+                    minimo = RegistroCotacao.converterPreco(valor, ESCALA);
+                } else if (chave.startsWith("variacao")) {
+                    variacao = RegistroCotacao.converterDecimal(valor, ESCALA);
+                }
+            }
+            if (codigo != null && !codigo.isEmpty()) {
+                linhas.add(new Linha(codigo, preco, maximo, minimo, variacao));
+            }
+        }
+        return linhas;
+    }
+
+    /**
+     * Data/hora da planilha ("Data/Hora" ou "atualizado_em" do primeiro registro), se houver
+     */
+    public static LocalDateTime dataHora(List<Map<String, String>> dados, LocalDateTime padrao) {
+        return dados.isEmpty() ? padrao : RegistroCotacao.dataHora(dados.get(0), padrao);
+    }
+}
@@ -1,16 +1,27 @@
 package com.invest.service.external;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invest.event.CotacoesAtualizadasEvent;
+import com.invest.event.MetricasAssinantes;
 import com.invest.service.PythonScriptExecutor;
+import com.invest.service.dados.DiretorioDados;
+import com.invest.service.dados.ObservadorArquivos;
+import com.invest.service.dados.SnapshotCotacoes;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,26 +29,39 @@ import java.util.Map;
 /**
  * Serviço para leitura de cotações de ativos a partir de um arquivo JSON local.
  * 
- * O arquivo cotacoes.json é gerado por script Python a partir da planilha Google Sheets.
+ * O arquivo cotacoes.json é gerado por script Python a partir da planilha Google Sheets e fica
+ * no diretório de dados (app.data.dir), fora do classpath.
  */
 @Service
 public class GoogleSheetsService {
 
-    @Autowired
-    private ResourceLoader resourceLoader;
-
     @Autowired
     private ObjectMapper objectMapper;
 
     @Autowired
     private PythonScriptExecutor pythonScriptExecutor;
 
-    private static final String JSON_PATH = "classpath:data/cotacoes.json";
+    @Autowired
+    private MetricasAssinantes metricasAssinantes;
+
+    @Autowired
+    private DiretorioDados diretorioDados;
+
+    @Autowired
+    private ObservadorArquivos observadorArquivos;
+
+    // Lê o snapshot binário mapeado em memória (cotacoes.bin) em vez de interpretar o JSON
+    @Value("${app.cotacoes.snapshot.binario:false}")
+    private boolean snapshotBinario;
 
-    // Cache simples (para evitar leitura frequente do disco)
-    private Map<String, BigDecimal> cotacoesCache = null;
-    private long lastModified = 0;
-    private boolean forceReload = false;
+    private volatile SnapshotCotacoes snapshot;
+    private volatile long versaoSnapshot = -1;
+    private volatile long versaoJsonSnapshot = -1;
+
+    // Cache simples (relido só quando o ObservadorArquivos indica nova versão do cotacoes.json)
+    private volatile Map<String, BigDecimal> cotacoesCache = null;
+    private volatile long versaoCarregada = 0;
+    private volatile boolean forceReload = false;
 
     /**
      * Busca o preço atual de um ativo pelo código (ex: PETR4, MGLU3)
@@ -53,6 +77,12 @@ public class GoogleSheetsService {
             // Atualiza o JSON antes de usar
             pythonScriptExecutor.executarAtualizacaoCotacoes();
             
+            SnapshotCotacoes atual = snapshotAtual();
+            if (atual != null) {
+                int indice = atual.indice(codigoAtivo);
+                return indice < 0 ? null : atual.preco(indice);
+            }
+
             // Recarrega o cache se necessário
             recarregarCotacoesSeNecessario();
 
@@ -95,9 +125,13 @@ public class GoogleSheetsService {
         try {
             // Atualiza o JSON antes de usar
             pythonScriptExecutor.executarAtualizacaoCotacoes();
+
+            SnapshotCotacoes atual = snapshotAtual();
+            if (atual != null) {
+                return atual.cotacaoCompleta(codigoAtivo);
+            }
             
-            Resource resource = resourceLoader.getResource(JSON_PATH);
-            JsonNode rootNode = objectMapper.readTree(resource.getInputStream());
+            JsonNode rootNode = lerArquivoCotacoes();
             String codigoUpper = codigoAtivo.toUpperCase().trim();
 
             for (JsonNode ativo : rootNode) {
@@ -201,37 +235,85 @@ public class GoogleSheetsService {
      * Atualiza o cache de cotações se o arquivo foi modificado
      */
     private void recarregarCotacoesSeNecessario() throws IOException {
-        Resource resource = resourceLoader.getResource(JSON_PATH);
-        long currentLastModified = 0;
-        
-        try {
-            currentLastModified = resource.lastModified();
-        } catch (Exception e) {
-            // Se lastModified não funcionar (arquivo em JAR), força recarregamento
-            currentLastModified = System.currentTimeMillis();
-        }
+        // Versão lida antes do arquivo: uma alteração durante a leitura gera nova releitura depois
+        long versaoAtual = observadorArquivos.getVersao(DiretorioDados.ARQUIVO_COTACOES);
 
-        if (cotacoesCache == null || forceReload || currentLastModified > lastModified) {
-            cotacoesCache = carregarCotacoes(resource);
-            lastModified = currentLastModified;
+        if (cotacoesCache == null || forceReload || versaoAtual != versaoCarregada) {
+            SnapshotCotacoes atual = snapshotAtual();
+            cotacoesCache = atual != null ? atual.precos() : extrairCotacoes(lerArquivoCotacoes());
+            versaoCarregada = versaoAtual;
             forceReload = false;
         }
     }
+
+    private JsonNode lerArquivoCotacoes() throws IOException {
+        try (InputStream entrada = Files.newInputStream(diretorioDados.getArquivoCotacoes())) {
+            return objectMapper.readTree(entrada);
+        }
+    }
     
+    /**
+     * Snapshot binário atual, ou null quando desabilitado/indisponível (leitura volta ao JSON).
+     * Se o cotacoes.json for mais novo (ex: gravado pelo script Python), o snapshot é regenerado.
+     */
+    private SnapshotCotacoes snapshotAtual() {
+        if (!snapshotBinario) {
+            return null;
+        }
+        try {
+            // Chave do cache: versões do .bin e do JSON (um cotacoes.json novo pede regenerar o .bin)
+            long versaoAtual = observadorArquivos.getVersao(DiretorioDados.ARQUIVO_SNAPSHOT);
+            long versaoJson = observadorArquivos.getVersao(DiretorioDados.ARQUIVO_COTACOES);
+            if (snapshot != null && versaoAtual == versaoSnapshot && versaoJson == versaoJsonSnapshot) {
+                return snapshot;
+            }
+
+            Path arquivoSnapshot = diretorioDados.getArquivoSnapshot();
+            Path arquivoJson = diretorioDados.getArquivoCotacoes();
+            if (!Files.exists(arquivoSnapshot) || (Files.exists(arquivoJson)
+                    && Files.getLastModifiedTime(arquivoJson).compareTo(Files.getLastModifiedTime(arquivoSnapshot)) > 0)) {
+                List<Map<String, String>> dados = objectMapper.readValue(arquivoJson.toFile(),
+                        new TypeReference<List<Map<String, String>>>() {});
+                diretorioDados.escreverAtomicamente(arquivoSnapshot, saida -> SnapshotCotacoes.gravar(saida,
+                        SnapshotCotacoes.linhas(dados), SnapshotCotacoes.dataHora(dados, LocalDateTime.now())));
+            }
+
+            snapshot = SnapshotCotacoes.abrir(arquivoSnapshot);
+            versaoSnapshot = versaoAtual;
+            versaoJsonSnapshot = versaoJson;
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Snapshot binário indisponível, usando cotacoes.json: " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Força recarregamento do cache na próxima leitura
      */
     public void forcarRecarregamento() {
         forceReload = true;
         cotacoesCache = null;
-        lastModified = 0;
+        snapshot = null;
+    }
+
+    /**
+     * Substitui o cache pelo snapshot recém-publicado, sem reler o arquivo
+     */
+    @Async("cacheCotacoesExecutor")
+    @EventListener
+    public void onCotacoesAtualizadas(CotacoesAtualizadasEvent evento) {
+        metricasAssinantes.medir("cache", evento, () -> {
+            versaoCarregada = observadorArquivos.getVersao(DiretorioDados.ARQUIVO_COTACOES);
+            cotacoesCache = new HashMap<>(evento.getCotacoes());
+            forceReload = false;
+        });
     }
 
     /**
-     * Lê o arquivo JSON e retorna um mapa de código → preço
+     * Extrai o mapa código → preço de um array JSON de cotações (mesmo formato do cotacoes.json)
      */
-    private Map<String, BigDecimal> carregarCotacoes(Resource resource) throws IOException {
-        JsonNode rootNode = objectMapper.readTree(resource.getInputStream());
+    public Map<String, BigDecimal> extrairCotacoes(JsonNode rootNode) {
         Map<String, BigDecimal> cotacoes = new HashMap<>();
 
         for (JsonNode ativo : rootNode) {
@@ -0,0 +1,73 @@
+package com.invest.service.fonte;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invest.service.dados.RegistroCotacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lê cotações de um arquivo local: .json (array de objetos, como o cotacoes.json) ou CSV.
+ * Enquanto data de modificação e tamanho não mudam, devolve os registros da última leitura.
+ */
+public class ArquivoFonte implements FonteCotacoes {
+
+    private final String nome;
+    private final Path caminho;
+    private final ObjectMapper objectMapper;
+
+    private FileTime ultimaModificacao;
+    private long ultimoTamanho;
+    private List<Map<String, String>> ultimosDados;
+    private final ReentrantLock trava = new ReentrantLock();
+
+    public ArquivoFonte(String nome, Path caminho, ObjectMapper objectMapper) {
+        this.nome = nome;
+        this.caminho = caminho;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getNome() {
+        return nome;
+    }
+
+    @Override
+    public List<Map<String, String>> buscar() throws IOException {
+        trava.lock();
+        try {
+            FileTime modificacao = Files.getLastModifiedTime(caminho);
+            long tamanho = Files.size(caminho);
+            if (ultimosDados != null && modificacao.equals(ultimaModificacao) && tamanho == ultimoTamanho) {
+                return ultimosDados;
+            }
+            ultimosDados = List.copyOf(ler());
+            ultimaModificacao = modificacao;
+            ultimoTamanho = tamanho;
+            return ultimosDados;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private List<Map<String, String>> ler() throws IOException {
+        String atualizadoEm = LocalDateTime.now().format(RegistroCotacao.FORMATO_DATA_HORA);
+        if (caminho.getFileName().toString().toLowerCase().endsWith(".json")) {
+            try (InputStream entrada = Files.newInputStream(caminho)) {
+                return JsonHttpFonte.ler(entrada, objectMapper, atualizadoEm);
+            }
+        }
+        try (BufferedReader reader = Files.newBufferedReader(caminho, StandardCharsets.UTF_8)) {
+            return LeitorCsv.ler(reader, atualizadoEm);
+        }
+    }
+}
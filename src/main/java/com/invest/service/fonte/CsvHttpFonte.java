@@ -0,0 +1,43 @@
+package com.invest.service.fonte;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lê cotações de um CSV via HTTP (ex.: planilha Google Sheets exportada como CSV).
+ *
+ * Conexão e leitura têm timeout (app.cotacoes.fonte.connect-timeout / read-timeout): um servidor
+ * que não responde ou para de enviar dados gera SocketTimeoutException em vez de travar a thread.
+ * O download é condicional (DownloadCondicional): conteúdo repetido não é lido de novo.
+ */
+public class CsvHttpFonte implements FonteCotacoes {
+
+    private final String nome;
+    private final DownloadCondicional download;
+
+    public CsvHttpFonte(String nome, String url, Duration connectTimeout, Duration readTimeout) {
+        this.nome = nome;
+        this.download = new DownloadCondicional(url, connectTimeout, readTimeout);
+    }
+
+    @Override
+    public String getNome() {
+        return nome;
+    }
+
+    @Override
+    public List<Map<String, String>> buscar() throws IOException {
+        return download.buscar((entrada, atualizadoEm) -> LeitorCsv.ler(
+                new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8)), atualizadoEm));
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        return download.getStatus();
+    }
+}
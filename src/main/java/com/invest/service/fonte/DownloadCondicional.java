@@ -0,0 +1,175 @@
+package com.invest.service.fonte;
+
+import com.invest.service.dados.RegistroCotacao;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Download HTTP condicional com os registros da última resposta guardados.
+ *
+ * Envia If-None-Match / If-Modified-Since com o ETag e o Last-Modified recebidos; em 304, ou quando o
+ * corpo tem o mesmo SHA-256 do anterior (servidor sem ETag, como a exportação CSV do Google Sheets),
+ * devolve os registros já lidos sem refazer o parse. O "atualizado_em" carimbado na leitura passa a ser o
+ * da verificação: a fonte confirmou que os dados continuam atuais e não deve perder para outra na mescla.
+ * O hash de conteúdo ignora esse campo, então o CotacaoUpdateService segue reconhecendo o conteúdo repetido.
+ */
+final class DownloadCondicional {
+
+    /**
+     * Converte o corpo da resposta em registros, marcando os que não trazem "atualizado_em" com o carimbo
+     */
+    interface Leitor {
+        List<Map<String, String>> ler(InputStream entrada, String atualizadoEm) throws IOException;
+    }
+
+    private final String url;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Clock relogio;
+
+    private String etag;
+    private String ultimaModificacao;
+    private byte[] hashCorpo;
+    private List<Map<String, String>> ultimosDados;
+    private String ultimoCarimbo;
+
+    // ReentrantLock em vez de synchronized: a busca roda em virtual thread e não deve prender a thread
+    // portadora durante o I/O
+    private final ReentrantLock trava = new ReentrantLock();
+
+    private final AtomicLong downloads = new AtomicLong();
+    private final AtomicLong naoModificados = new AtomicLong();
+    private final AtomicLong corpoRepetido = new AtomicLong();
+
+    DownloadCondicional(String url, Duration connectTimeout, Duration readTimeout) {
+        this(url, connectTimeout, readTimeout, Clock.systemDefaultZone());
+    }
+
+    DownloadCondicional(String url, Duration connectTimeout, Duration readTimeout, Clock relogio) {
+        this.url = url;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.relogio = relogio;
+    }
+
+    List<Map<String, String>> buscar(Leitor leitor) throws IOException {
+        trava.lock();
+        try {
+            return buscarTravado(leitor);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private List<Map<String, String>> buscarTravado(Leitor leitor) throws IOException {
+        HttpURLConnection conexao = (HttpURLConnection) URI.create(url).toURL().openConnection();
+        conexao.setConnectTimeout((int) connectTimeout.toMillis());
+        conexao.setReadTimeout((int) readTimeout.toMillis());
+        if (ultimosDados != null) {
+            if (etag != null) {
+                conexao.setRequestProperty("If-None-Match", etag);
+            }
+            if (ultimaModificacao != null) {
+                conexao.setRequestProperty("If-Modified-Since", ultimaModificacao);
+            }
+        }
+
+        try {
+            int status = conexao.getResponseCode();
+            String carimbo = LocalDateTime.now(relogio).format(RegistroCotacao.FORMATO_DATA_HORA);
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && ultimosDados != null) {
+                naoModificados.incrementAndGet();
+                return recarimbar(carimbo);
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new RespostaInvalidaException(url + " respondeu HTTP " + status, status >= 500 || status == 429);
+            }
+
+            byte[] corpo;
+            try (InputStream entrada = conexao.getInputStream()) {
+                corpo = entrada.readAllBytes();
+            }
+            downloads.incrementAndGet();
+
+            byte[] hash = sha256(corpo);
+            if (ultimosDados != null && Arrays.equals(hash, hashCorpo)) {
+                corpoRepetido.incrementAndGet();
+                guardarValidadores(conexao);
+                return recarimbar(carimbo);
+            }
+            // Validadores só junto com os registros: se o parse falhar, o próximo pedido não pode receber 304
+            // e ficar com os registros da versão anterior
+            List<Map<String, String>> dados = List.copyOf(leitor.ler(new ByteArrayInputStream(corpo), carimbo));
+            guardarValidadores(conexao);
+            hashCorpo = hash;
+            ultimosDados = dados;
+            ultimoCarimbo = carimbo;
+            return dados;
+        } finally {
+            conexao.disconnect();
+        }
+    }
+
+    /**
+     * Cópia dos últimos registros com o carimbo da verificação no lugar do carimbo da leitura.
+     * "atualizado_em" vindo da própria fonte (JSON) é mantido.
+     */
+    private List<Map<String, String>> recarimbar(String carimbo) {
+        if (carimbo.equals(ultimoCarimbo)) {
+            return ultimosDados;
+        }
+        List<Map<String, String>> dados = new ArrayList<>(ultimosDados.size());
+        for (Map<String, String> registro : ultimosDados) {
+            if (ultimoCarimbo.equals(registro.get("atualizado_em"))) {
+                Map<String, String> copia = new LinkedHashMap<>(registro);
+                copia.put("atualizado_em", carimbo);
+                dados.add(copia);
+            } else {
+                dados.add(registro);
+            }
+        }
+        ultimosDados = List.copyOf(dados);
+        ultimoCarimbo = carimbo;
+        return ultimosDados;
+    }
+
+    private void guardarValidadores(HttpURLConnection conexao) {
+        etag = conexao.getHeaderField("ETag");
+        ultimaModificacao = conexao.getHeaderField("Last-Modified");
+    }
+
+    /**
+     * Downloads completos, respostas 304 e corpos repetidos (parse evitado)
+     */
+    Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("downloads", downloads.get());
+        status.put("naoModificados", naoModificados.get());
+        status.put("corpoRepetido", corpoRepetido.get());
+        return status;
+    }
+
+    private static byte[] sha256(byte[] conteudo) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(conteudo);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
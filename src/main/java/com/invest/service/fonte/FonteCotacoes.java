@@ -0,0 +1,22 @@
+package com.invest.service.fonte;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fonte de cotações: devolve as linhas da planilha (cabeçalho → valor), no mesmo formato do cotacoes.json
+ */
+public interface FonteCotacoes {
+
+    String getNome();
+
+    List<Map<String, String>> buscar() throws IOException;
+
+    /**
+     * Contadores próprios da fonte (ex.: downloads evitados), incluídos no status da FonteResiliente
+     */
+    default Map<String, Object> getStatus() {
+        return Map.of();
+    }
+}
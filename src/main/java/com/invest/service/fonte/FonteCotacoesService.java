@@ -0,0 +1,228 @@
+package com.invest.service.fonte;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invest.service.dados.RegistroCotacao;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Ponto de acesso às fontes de cotações usado pelo CotacaoUpdateService.
+ *
+ * Cada fonte configurada (FontesCotacoesProperties) é envolvida por uma FonteResiliente (app.cotacoes.fonte.*:
+ * timeouts, tentativas e circuit breaker). As fontes são consultadas em paralelo, uma virtual thread por
+ * fonte, então a atualização leva o tempo da fonte mais lenta. Os resultados são mesclados por ativo:
+ * vence a cotação mais recente; cotações com diferença de até app.cotacoes.agregacao.tolerancia são
+ * desempatadas pela prioridade da fonte.
+ */
+@Service
+public class FonteCotacoesService {
+
+    static final String URL_CSV = "https://docs.google.com/spreadsheets/d/1Zyzbrjd7mAFDaEKaXURGzA0o0cDA4p35MCcDW-2mwo8/export?format=csv&gid=1706485275";
+
+    @Autowired
+    private FontesCotacoesProperties fontesCotacoesProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.cotacoes.fonte.url:" + URL_CSV + "}")
+    private String urlPadrao;
+
+    @Value("${app.cotacoes.fonte.connect-timeout:PT5S}")
+    private Duration connectTimeout;
+
+    @Value("${app.cotacoes.fonte.read-timeout:PT15S}")
+    private Duration readTimeout;
+
+    @Value("${app.cotacoes.fonte.tentativas:3}")
+    private int tentativas;
+
+    @Value("${app.cotacoes.fonte.backoff:PT1S}")
+    private Duration backoff;
+
+    @Value("${app.cotacoes.fonte.backoff-maximo:PT10S}")
+    private Duration backoffMaximo;
+
+    @Value("${app.cotacoes.fonte.circuito.falhas:3}")
+    private int falhasParaAbrir;
+
+    @Value("${app.cotacoes.fonte.circuito.espera:PT5M}")
+    private Duration esperaCircuito;
+
+    @Value("${app.cotacoes.agregacao.tolerancia:PT15M}")
+    private Duration tolerancia;
+
+    private List<FonteConfigurada> fontes = List.of();
+
+    private volatile long ultimaDuracaoMs;
+    private volatile int ultimoTotalAtivos;
+
+    /**
+     * Fonte com a prioridade usada na mesclagem
+     */
+    record FonteConfigurada(FonteResiliente fonte, int prioridade) {
+    }
+
+    /**
+     * Resultado de uma fonte com a prioridade dela
+     */
+    record ResultadoPriorizado(FonteResiliente.Resultado resultado, int prioridade) {
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        FonteResiliente.Configuracao configuracao = new FonteResiliente.Configuracao(
+                tentativas, backoff, backoffMaximo, falhasParaAbrir, esperaCircuito);
+
+        List<FontesCotacoesProperties.Fonte> definicoes = fontesCotacoesProperties.getFontes();
+        if (definicoes.isEmpty()) {
+            definicoes = List.of(new FontesCotacoesProperties.Fonte("google-sheets", "csv", urlPadrao, null, 1));
+        }
+
+        List<FonteConfigurada> configuradas = new ArrayList<>();
+        for (FontesCotacoesProperties.Fonte definicao : definicoes) {
+            configuradas.add(new FonteConfigurada(
+                    new FonteResiliente(criarFonte(definicao), configuracao), definicao.getPrioridade()));
+        }
+        fontes = List.copyOf(configuradas);
+    }
+
+    private FonteCotacoes criarFonte(FontesCotacoesProperties.Fonte definicao) {
+        String nome = definicao.getNome() != null ? definicao.getNome() : definicao.getTipo();
+        return switch (definicao.getTipo().toLowerCase()) {
+            case "csv" -> new CsvHttpFonte(nome, definicao.getUrl(), connectTimeout, readTimeout);
+            case "json" -> new JsonHttpFonte(nome, definicao.getUrl(), connectTimeout, readTimeout, objectMapper);
+            case "arquivo" -> new ArquivoFonte(nome, Paths.get(definicao.getCaminho()), objectMapper);
+            default -> throw new IllegalArgumentException("Tipo de fonte de cotações desconhecido: " + definicao.getTipo());
+        };
+    }
+
+    /**
+     * Busca todas as fontes em paralelo e mescla o resultado.
+     * ultimoValido = true quando nenhuma fonte trouxe dados novos (todas usaram o último snapshot válido).
+     * @throws IOException se todas as fontes falharem e nenhuma tiver snapshot válido
+     */
+    public FonteResiliente.Resultado buscar() throws IOException {
+        long inicio = System.nanoTime();
+        List<ResultadoPriorizado> resultados = new ArrayList<>();
+        List<String> falhas = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<FonteResiliente.Resultado>> futuros = new ArrayList<>();
+            for (FonteConfigurada configurada : fontes) {
+                futuros.add(executor.submit(configurada.fonte()::buscar));
+            }
+            for (int i = 0; i < futuros.size(); i++) {
+                FonteConfigurada configurada = fontes.get(i);
+                try {
+                    FonteResiliente.Resultado resultado = futuros.get(i).get();
+                    resultados.add(new ResultadoPriorizado(resultado, configurada.prioridade()));
+                    if (resultado.ultimoValido()) {
+                        falhas.add(resultado.fonte() + ": " + resultado.falha());
+                    }
+                } catch (ExecutionException e) {
+                    falhas.add(configurada.fonte().getNome() + ": " + e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Busca de cotações interrompida");
+        }
+
+        ultimaDuracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        if (resultados.isEmpty()) {
+            throw new IOException("Nenhuma fonte de cotações disponível (" + String.join("; ", falhas) + ")");
+        }
+
+        List<Map<String, String>> dados = mesclar(resultados, tolerancia);
+        ultimoTotalAtivos = dados.size();
+        boolean todasUltimoValido = resultados.stream().allMatch(r -> r.resultado().ultimoValido());
+        return new FonteResiliente.Resultado("agregado", dados, todasUltimoValido,
+                falhas.isEmpty() ? null : String.join("; ", falhas));
+    }
+
+    /**
+     * Mescla os registros por código de ativo: mais recente vence; dentro da tolerância, menor prioridade vence.
+     * Cada registro escolhido recebe o campo "fonte".
+     */
+    static List<Map<String, String>> mesclar(List<ResultadoPriorizado> resultados, Duration tolerancia) {
+        Map<String, Candidato> escolhidos = new LinkedHashMap<>();
+        List<ResultadoPriorizado> porPrioridade = new ArrayList<>(resultados);
+        porPrioridade.sort(Comparator.comparingInt(ResultadoPriorizado::prioridade));
+
+        for (ResultadoPriorizado priorizado : porPrioridade) {
+            FonteResiliente.Resultado resultado = priorizado.resultado();
+            for (Map<String, String> registro : resultado.dados()) {
+                String codigo = RegistroCotacao.codigo(registro);
+                if (codigo == null) {
+                    continue;
+                }
+                Candidato candidato = new Candidato(resultado.fonte(), priorizado.prioridade(),
+                        RegistroCotacao.dataHora(registro, LocalDateTime.MIN), registro);
+                Candidato atual = escolhidos.get(codigo);
+                if (atual == null || candidato.melhorQue(atual, tolerancia)) {
+                    escolhidos.put(codigo, candidato);
+                }
+            }
+        }
+
+        List<Map<String, String>> dados = new ArrayList<>(escolhidos.size());
+        for (Candidato candidato : escolhidos.values()) {
+            Map<String, String> registro = new LinkedHashMap<>(candidato.registro());
+            registro.put("fonte", candidato.fonte());
+            dados.add(registro);
+        }
+        return dados;
+    }
+
+    private record Candidato(String fonte, int prioridade, LocalDateTime dataHora, Map<String, String> registro) {
+
+        boolean melhorQue(Candidato outro, Duration tolerancia) {
+            if (dataHora.isAfter(outro.dataHora.plus(tolerancia))) {
+                return true;
+            }
+            if (outro.dataHora.isAfter(dataHora.plus(tolerancia))) {
+                return false;
+            }
+            if (prioridade != outro.prioridade) {
+                return prioridade < outro.prioridade;
+            }
+            return dataHora.isAfter(outro.dataHora);
+        }
+    }
+
+    /**
+     * Estado do circuito, latência e contadores por fonte, mais a duração da última agregação
+     */
+    public Map<String, Map<String, Object>> getStatus() {
+        Map<String, Map<String, Object>> status = new LinkedHashMap<>();
+        for (FonteConfigurada configurada : fontes) {
+            Map<String, Object> fonte = new LinkedHashMap<>(configurada.fonte().getStatus());
+            fonte.put("prioridade", configurada.prioridade());
+            status.put(configurada.fonte().getNome(), fonte);
+        }
+        Map<String, Object> agregacao = new LinkedHashMap<>();
+        agregacao.put("fontes", fontes.size());
+        agregacao.put("ultimaDuracaoMs", ultimaDuracaoMs);
+        agregacao.put("ultimoTotalAtivos", ultimoTotalAtivos);
+        status.put("agregacao", agregacao);
+        return status;
+    }
+}
@@ -0,0 +1,210 @@
+package com.invest.service.fonte;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envolve uma FonteCotacoes com novas tentativas, circuit breaker e fallback para o último snapshot válido.
+ *
+ * - Tentativas: até {@code tentativas} por busca, com backoff exponencial (backoff, 2x, 4x... até backoffMaximo);
+ *   respostas 4xx ou CSV vazio não são repetidas
+ * - Circuito: abre após {@code falhasParaAbrir} buscas seguidas com falha; aberto, rejeita sem acessar a
+ *   fonte até passar {@code esperaCircuito}; então libera uma busca de teste (meio-aberto) que fecha ou reabre
+ * - Fallback: com falha ou circuito aberto, devolve o último resultado válido da fonte (se houver)
+ * - Latência: última, média e máxima de cada busca (incluindo as novas tentativas)
+ */
+public class FonteResiliente {
+
+    public enum EstadoCircuito { FECHADO, ABERTO, MEIO_ABERTO }
+
+    /**
+     * Parâmetros de resiliência de uma fonte
+     */
+    public record Configuracao(int tentativas, Duration backoff, Duration backoffMaximo,
+                               int falhasParaAbrir, Duration esperaCircuito) {
+    }
+
+    /**
+     * Resultado de uma busca: dados novos ou o último snapshot válido (com o motivo da falha)
+     */
+    public record Resultado(String fonte, List<Map<String, String>> dados, boolean ultimoValido, String falha) {
+    }
+
+    private final FonteCotacoes fonte;
+    private final Configuracao configuracao;
+    private final Clock relogio;
+
+    private EstadoCircuito estado = EstadoCircuito.FECHADO;
+    private int falhasConsecutivas;
+    private Instant abertoEm;
+    private boolean testeEmAndamento;
+
+    private volatile List<Map<String, String>> ultimoValido;
+    private volatile Instant ultimoSucesso;
+    private volatile String ultimaFalha;
+
+    private long buscas;
+    private long tentativasRealizadas;
+    private long falhas;
+    private long rejeitadasCircuito;
+    private long fallbacks;
+    private long ultimaLatenciaMs;
+    private long maximaLatenciaMs;
+    private long somaLatenciaMs;
+    private long buscasMedidas;
+
+    public FonteResiliente(FonteCotacoes fonte, Configuracao configuracao) {
+        this(fonte, configuracao, Clock.systemUTC());
+    }
+
+    FonteResiliente(FonteCotacoes fonte, Configuracao configuracao, Clock relogio) {
+        this.fonte = fonte;
+        this.configuracao = configuracao;
+        this.relogio = relogio;
+    }
+
+    public String getNome() {
+        return fonte.getNome();
+    }
+
+    /**
+     * Busca na fonte; em caso de falha devolve o último snapshot válido
+     * @throws IOException se a busca falhar e ainda não houver snapshot válido
+     */
+    public Resultado buscar() throws IOException {
+        IOException erro;
+        if (!permitirBusca()) {
+            erro = new IOException("Circuito aberto para a fonte " + fonte.getNome());
+        } else {
+            long inicio = System.nanoTime();
+            try {
+                List<Map<String, String>> dados = buscarComTentativas();
+                registrarLatencia(inicio);
+                registrarSucesso(dados);
+                return new Resultado(fonte.getNome(), dados, false, null);
+            } catch (InterruptedIOException e) {
+                registrarLatencia(inicio);
+                registrarFalha(e);
+                throw e;
+            } catch (IOException e) {
+                registrarLatencia(inicio);
+                registrarFalha(e);
+                erro = e;
+            }
+        }
+
+        List<Map<String, String>> anterior = ultimoValido;
+        if (anterior == null) {
+            throw erro;
+        }
+        synchronized (this) {
+            fallbacks++;
+        }
+        return new Resultado(fonte.getNome(), anterior, true, erro.getMessage());
+    }
+
+    private List<Map<String, String>> buscarComTentativas() throws IOException {
+        long espera = configuracao.backoff().toMillis();
+        for (int tentativa = 1; ; tentativa++) {
+            synchronized (this) {
+                tentativasRealizadas++;
+            }
+            try {
+                return fonte.buscar();
+            } catch (IOException e) {
+                boolean definitiva = e instanceof RespostaInvalidaException invalida
+                        && !invalida.isTemporaria();
+                if (definitiva || tentativa >= configuracao.tentativas()) {
+                    throw e;
+                }
+            }
+            try {
+                Thread.sleep(espera);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Busca de cotações interrompida");
+            }
+            espera = Math.min(espera * 2, configuracao.backoffMaximo().toMillis());
+        }
+    }
+
+    private synchronized boolean permitirBusca() {
+        buscas++;
+        if (estado == EstadoCircuito.ABERTO) {
+            if (relogio.instant().isBefore(abertoEm.plus(configuracao.esperaCircuito()))) {
+                rejeitadasCircuito++;
+                return false;
+            }
+            estado = EstadoCircuito.MEIO_ABERTO;
+        }
+        if (estado == EstadoCircuito.MEIO_ABERTO) {
+            // Uma única busca de teste por vez
+            if (testeEmAndamento) {
+                rejeitadasCircuito++;
+                return false;
+            }
+            testeEmAndamento = true;
+        }
+        return true;
+    }
+
+    private synchronized void registrarLatencia(long inicioNanos) {
+        ultimaLatenciaMs = (System.nanoTime() - inicioNanos) / 1_000_000;
+        maximaLatenciaMs = Math.max(maximaLatenciaMs, ultimaLatenciaMs);
+        somaLatenciaMs += ultimaLatenciaMs;
+        buscasMedidas++;
+    }
+
+    private synchronized void registrarSucesso(List<Map<String, String>> dados) {
+        ultimoValido = List.copyOf(dados);
+        ultimoSucesso = relogio.instant();
+        falhasConsecutivas = 0;
+        testeEmAndamento = false;
+        estado = EstadoCircuito.FECHADO;
+    }
+
+    private synchronized void registrarFalha(IOException erro) {
+        falhas++;
+        falhasConsecutivas++;
+        ultimaFalha = erro.getMessage();
+        if (estado == EstadoCircuito.MEIO_ABERTO || falhasConsecutivas >= configuracao.falhasParaAbrir()) {
+            if (estado != EstadoCircuito.ABERTO) {
+                System.err.println("⚠️ Circuito aberto para a fonte " + fonte.getNome() + ": " + erro.getMessage());
+            }
+            estado = EstadoCircuito.ABERTO;
+            abertoEm = relogio.instant();
+        }
+        testeEmAndamento = false;
+    }
+
+    public synchronized EstadoCircuito getEstado() {
+        return estado;
+    }
+
+    /**
+     * Estado do circuito e contadores da fonte
+     */
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("circuito", estado.name());
+        status.put("falhasConsecutivas", falhasConsecutivas);
+        status.put("buscas", buscas);
+        status.put("tentativas", tentativasRealizadas);
+        status.put("falhas", falhas);
+        status.put("rejeitadasCircuito", rejeitadasCircuito);
+        status.put("fallbacks", fallbacks);
+        status.put("ultimaLatenciaMs", ultimaLatenciaMs);
+        status.put("mediaLatenciaMs", buscasMedidas > 0 ? somaLatenciaMs / buscasMedidas : 0L);
+        status.put("maximaLatenciaMs", maximaLatenciaMs);
+        status.put("ultimoSucesso", ultimoSucesso != null ? ultimoSucesso.toString() : null);
+        status.put("ultimaFalha", ultimaFalha);
+        status.putAll(fonte.getStatus());
+        return status;
+    }
+}
@@ -0,0 +1,104 @@
+package com.invest.service.fonte;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fontes de cotações configuradas em app.cotacoes.fontes[n].*
+ *
+ * Exemplo:
+ * <pre>
+ * app.cotacoes.fontes[0].nome=google-sheets
+ * app.cotacoes.fontes[0].tipo=csv
+ * app.cotacoes.fontes[0].url=https://docs.google.com/spreadsheets/d/.../export?format=csv&amp;gid=...
+ * app.cotacoes.fontes[0].prioridade=1
+ * app.cotacoes.fontes[1].nome=mock-local
+ * app.cotacoes.fontes[1].tipo=json
+ * app.cotacoes.fontes[1].url=http://localhost:3001/cotacoes
+ * app.cotacoes.fontes[2].nome=arquivo-manual
+ * app.cotacoes.fontes[2].tipo=arquivo
+ * app.cotacoes.fontes[2].caminho=data/cotacoes-manuais.csv
+ * </pre>
+ * Sem fontes configuradas é usada só a planilha padrão (app.cotacoes.fonte.url).
+ */
+@Component
+@ConfigurationProperties(prefix = "app.cotacoes")
+public class FontesCotacoesProperties {
+
+    private List<Fonte> fontes = new ArrayList<>();
+
+    public List<Fonte> getFontes() {
+        return fontes;
+    }
+
+    public void setFontes(List<Fonte> fontes) {
+        this.fontes = fontes;
+    }
+
+    /**
+     * Uma fonte: tipo csv (CSV via HTTP), json (API HTTP com array JSON) ou arquivo (.csv/.json local).
+     * Menor prioridade vence quando duas fontes têm cotações igualmente recentes do mesmo ativo.
+     */
+    public static class Fonte {
+        private String nome;
+        private String tipo = "csv";
+        private String url;
+        private String caminho;
+        private int prioridade = 100;
+
+        public Fonte() {
+        }
+
+        public Fonte(String nome, String tipo, String url, String caminho, int prioridade) {
+            this.nome = nome;
+            this.tipo = tipo;
+            this.url = url;
+            this.caminho = caminho;
+            this.prioridade = prioridade;
+        }
+
+        // Getters e Setters
+        public String getNome() {
+            return nome;
+        }
+
+        public void setNome(String nome) {
+            this.nome = nome;
+        }
+
+        public String getTipo() {
+            return tipo;
+        }
+
+        public void setTipo(String tipo) {
+            this.tipo = tipo;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getCaminho() {
+            return caminho;
+        }
+
+        public void setCaminho(String caminho) {
+            this.caminho = caminho;
+        }
+
+        public int getPrioridade() {
+            return prioridade;
+        }
+
+        public void setPrioridade(int prioridade) {
+            this.prioridade = prioridade;
+        }
+    }
+}
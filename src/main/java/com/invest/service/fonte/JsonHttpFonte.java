@@ -0,0 +1,66 @@
+package com.invest.service.fonte;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lê cotações de uma API HTTP que devolve um array JSON de objetos (mesmo formato do cotacoes.json,
+ * ex.: um mock local da API de cotações). Valores numéricos são convertidos em texto.
+ * O download é condicional (DownloadCondicional), como no CsvHttpFonte.
+ */
+public class JsonHttpFonte implements FonteCotacoes {
+
+    private final String nome;
+    private final DownloadCondicional download;
+    private final ObjectMapper objectMapper;
+
+    public JsonHttpFonte(String nome, String url, Duration connectTimeout, Duration readTimeout,
+                         ObjectMapper objectMapper) {
+        this.nome = nome;
+        this.download = new DownloadCondicional(url, connectTimeout, readTimeout);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getNome() {
+        return nome;
+    }
+
+    @Override
+    public List<Map<String, String>> buscar() throws IOException {
+        return download.buscar((entrada, atualizadoEm) -> ler(entrada, objectMapper, atualizadoEm));
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        return download.getStatus();
+    }
+
+    /**
+     * Converte um array JSON de objetos em registros; marca "atualizado_em" quando ausente
+     */
+    static List<Map<String, String>> ler(InputStream entrada, ObjectMapper objectMapper, String atualizadoEm)
+            throws IOException {
+        JsonNode raiz = objectMapper.readTree(entrada);
+        if (raiz == null || !raiz.isArray() || raiz.isEmpty()) {
+            throw new RespostaInvalidaException("JSON sem cotações", false);
+        }
+
+        List<Map<String, String>> dados = new ArrayList<>(raiz.size());
+        for (JsonNode item : raiz) {
+            Map<String, String> registro = new LinkedHashMap<>();
+            item.fields().forEachRemaining(campo -> registro.put(campo.getKey(), campo.getValue().asText()));
+            registro.putIfAbsent("atualizado_em", atualizadoEm);
+            dados.add(registro);
+        }
+        return dados;
+    }
+}
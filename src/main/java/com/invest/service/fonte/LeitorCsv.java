@@ -0,0 +1,85 @@
+package com.invest.service.fonte;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converte CSV de cotações (primeira linha = cabeçalho) em registros cabeçalho → valor
+ */
+final class LeitorCsv {
+
+    private LeitorCsv() {
+    }
+
+    /**
+     * Lê o CSV e marca cada registro com "atualizado_em"; CSV sem linhas de dados é inválido
+     */
+    static List<Map<String, String>> ler(BufferedReader reader, String atualizadoEm) throws IOException {
+        List<Map<String, String>> dados = new ArrayList<>();
+
+        String linha = reader.readLine(); // Lê cabeçalho
+        if (linha == null) {
+            throw new RespostaInvalidaException("CSV vazio ou inválido", false);
+        }
+
+        String[] colunas = linha.split(",");
+
+        while ((linha = reader.readLine()) != null) {
+            Map<String, String> registro = new LinkedHashMap<>();
+            String[] valores = parseCSVLine(linha);
+
+            for (int i = 0; i < colunas.length && i < valores.length; i++) {
+                String coluna = colunas[i].trim().replace("\"", "");
+                String valor = valores[i].trim().replace("\"", "");
+                registro.put(coluna, valor);
+            }
+
+            // Adiciona timestamp de atualização
+            registro.put("atualizado_em", atualizadoEm);
+
+            dados.add(registro);
+        }
+
+        if (dados.isEmpty()) {
+            throw new RespostaInvalidaException("CSV sem cotações", false);
+        }
+        return dados;
+    }
+
+    /**
+     * Faz parse de uma linha CSV considerando valores entre aspas
+     * Usa uma abordagem mais robusta para lidar com vírgulas dentro de valores entre aspas
+     */
+    private static String[] parseCSVLine(String linha) {
+        List<String> valores = new ArrayList<>();
+        boolean dentroAspas = false;
+        StringBuilder valorAtual = new StringBuilder();
+
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+
+            if (c == '"') {
+                // Verifica se é uma aspa dupla escapada ("")
+                if (i + 1 < linha.length() && linha.charAt(i + 1) == '"' && dentroAspas) {
+                    valorAtual.append('"');
+                    i++; // Pula a próxima aspa
+                } else {
+                    dentroAspas = !dentroAspas;
+                }
+            } else if (c == ',' && !dentroAspas) {
+                valores.add(valorAtual.toString().trim());
+                valorAtual = new StringBuilder();
+            } else {
+                valorAtual.append(c);
+            }
+        }
+        // Adiciona o último valor
+        valores.add(valorAtual.toString().trim());
+
+        return valores.toArray(new String[0]);
+    }
+}
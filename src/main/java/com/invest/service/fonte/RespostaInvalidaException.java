@@ -0,0 +1,23 @@
+package com.invest.service.fonte;
+
+import java.io.IOException;
+
+/**
+ * Resposta recebida da fonte mas inutilizável (HTTP de erro ou CSV vazio)
+ */
+public class RespostaInvalidaException extends IOException {
+
+    private final boolean temporaria;
+
+    public RespostaInvalidaException(String mensagem, boolean temporaria) {
+        super(mensagem);
+        this.temporaria = temporaria;
+    }
+
+    /**
+     * Erros 5xx/429 podem passar com nova tentativa; 4xx e CSV vazio não
+     */
+    public boolean isTemporaria() {
+        return temporaria;
+    }
+}
@@ -0,0 +1,147 @@
+package com.invest.service.historico;
+
+import com.invest.service.ledger.EvolucaoPosicao;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Curva consolidada de valor de uma carteira.
+ *
+ * Construída por merge k-way das séries de cotação e das evoluções de posição de cada ativo:
+ * a cada data/hora com cotação, o valor da carteira é a soma de quantidade vigente x último preço.
+ * Os totais são mantidos em acumuladores primitivos atualizados apenas pela diferença
+ * do ativo que mudou, em uma única passada.
+ */
+public final class CurvaCarteira {
+
+    public static final CurvaCarteira VAZIA = new CurvaCarteira(new long[0], new double[0], new double[0]);
+
+    private final long[] instantes;
+    private final double[] valores;
+    private final double[] custos;
+
+    private CurvaCarteira(long[] instantes, double[] valores, double[] custos) {
+        this.instantes = instantes;
+        this.valores = valores;
+        this.custos = custos;
+    }
+
+    /**
+     * Monta a curva a partir da série de cotações e da evolução da posição de cada ativo
+     * (listas paralelas: o índice i das duas listas se refere ao mesmo ativo)
+     */
+    public static CurvaCarteira construir(List<SerieCotacao> series, List<EvolucaoPosicao> evolucoes) {
+        int k = series.size();
+        if (k != evolucoes.size()) {
+            throw new IllegalArgumentException("Séries e evoluções devem ter o mesmo tamanho");
+        }
+
+        // Fluxos 0..k-1 são cotações, k..2k-1 são mudanças de posição do mesmo ativo
+        int[] cursores = new int[2 * k];
+        PriorityQueue<Integer> fila = new PriorityQueue<>(Math.max(1, 2 * k),
+                (a, b) -> Long.compare(
+                        proximoInstante(series, evolucoes, cursores, a),
+                        proximoInstante(series, evolucoes, cursores, b)));
+        int totalCotacoes = 0;
+        for (int i = 0; i < k; i++) {
+            totalCotacoes += series.get(i).tamanho();
+            if (series.get(i).tamanho() > 0) {
+                fila.add(i);
+            }
+            if (evolucoes.get(i).tamanho() > 0) {
+                fila.add(k + i);
+            }
+        }
+
+        double[] precos = new double[k];
+        boolean[] temPreco = new boolean[k];
+        double[] quantidades = new double[k];
+        double[] custosAtivo = new double[k];
+        double[] valoresAtivo = new double[k];
+
+        long[] instantes = new long[totalCotacoes];
+        double[] valores = new double[totalCotacoes];
+        double[] custos = new double[totalCotacoes];
+        int pontos = 0;
+
+        double valorTotal = 0;
+        double custoTotal = 0;
+
+        while (!fila.isEmpty()) {
+            long instante = proximoInstante(series, evolucoes, cursores, fila.peek());
+            boolean houveCotacao = false;
+
+            // Consome todos os eventos com a mesma data/hora antes de emitir o ponto
+            while (!fila.isEmpty() && proximoInstante(series, evolucoes, cursores, fila.peek()) == instante) {
+                int fluxo = fila.poll();
+                int ativo = fluxo < k ? fluxo : fluxo - k;
+                int cursor = cursores[fluxo]++;
+
+                if (fluxo < k) {
+                    precos[ativo] = series.get(ativo).getPreco(cursor);
+                    temPreco[ativo] = true;
+                    houveCotacao = true;
+                } else {
+                    EvolucaoPosicao evolucao = evolucoes.get(ativo);
+                    quantidades[ativo] = evolucao.getQuantidade(cursor);
+                    custoTotal += evolucao.getCusto(cursor) - custosAtivo[ativo];
+                    custosAtivo[ativo] = evolucao.getCusto(cursor);
+                }
+
+                // Sem cotação ainda, o ativo entra na curva pelo custo
+                double novoValor = temPreco[ativo] ? quantidades[ativo] * precos[ativo] : custosAtivo[ativo];
+                valorTotal += novoValor - valoresAtivo[ativo];
+                valoresAtivo[ativo] = novoValor;
+
+                if (cursores[fluxo] < tamanhoFluxo(series, evolucoes, fluxo)) {
+                    fila.add(fluxo);
+                }
+            }
+
+            if (houveCotacao && (pontos > 0 || valorTotal != 0 || custoTotal != 0)) {
+                instantes[pontos] = instante;
+                valores[pontos] = valorTotal;
+                custos[pontos] = custoTotal;
+                pontos++;
+            }
+        }
+
+        return new CurvaCarteira(
+                Arrays.copyOf(instantes, pontos),
+                Arrays.copyOf(valores, pontos),
+                Arrays.copyOf(custos, pontos));
+    }
+
+    public int tamanho() {
+        return instantes.length;
+    }
+
+    public LocalDateTime getDataHora(int indice) {
+        return LocalDateTime.ofEpochSecond(instantes[indice], 0, ZoneOffset.UTC);
+    }
+
+    public double getValor(int indice) {
+        return valores[indice];
+    }
+
+    public double getCusto(int indice) {
+        return custos[indice];
+    }
+
+    private static long proximoInstante(List<SerieCotacao> series, List<EvolucaoPosicao> evolucoes,
+                                        int[] cursores, int fluxo) {
+        int k = series.size();
+        return fluxo < k
+                ? series.get(fluxo).getInstante(cursores[fluxo])
+                : evolucoes.get(fluxo - k).getInstante(cursores[fluxo]);
+    }
+
+    private static int tamanhoFluxo(List<SerieCotacao> series, List<EvolucaoPosicao> evolucoes, int fluxo) {
+        int k = series.size();
+        return fluxo < k ? series.get(fluxo).tamanho() : evolucoes.get(fluxo - k).tamanho();
+    }
+}
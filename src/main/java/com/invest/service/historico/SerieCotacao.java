@@ -0,0 +1,130 @@
+package com.invest.service.historico;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import com.invest.dto.HistoricoCotacaoResponse;
+
+/**
+ * Série de cotações de um ativo em arrays primitivos ordenados por data/hora.
+ *
+ * Funciona como índice "as-of": a cotação vigente em uma data é encontrada por
+ * busca binária (O(log n)) em vez de percorrer o histórico inteiro.
+ */
+public final class SerieCotacao {
+
+    public static final SerieCotacao VAZIA = new SerieCotacao("", new long[0], new double[0]);
+
+    private final String codigo;
+    private final long[] instantes;
+    private final double[] precos;
+
+    private SerieCotacao(String codigo, long[] instantes, double[] precos) {
+        this.codigo = codigo;
+        this.instantes = instantes;
+        this.precos = precos;
+    }
+
+    /**
+     * Cria a série a partir dos itens de histórico (já em ordem cronológica, como são gravados)
+     */
+    public static SerieCotacao de(String codigo, List<HistoricoCotacaoResponse.HistoricoItem> historico) {
+        long[] instantes = new long[historico.size()];
+        double[] precos = new double[historico.size()];
+        int n = 0;
+        long ultimo = Long.MIN_VALUE;
+        boolean ordenado = true;
+
+        for (HistoricoCotacaoResponse.HistoricoItem item : historico) {
+            if (item.getDataHora() == null || item.getPreco() == null) {
+                continue;
+            }
+            instantes[n] = paraInstante(item.getDataHora());
+            precos[n] = item.getPreco().doubleValue();
+            ordenado &= instantes[n] >= ultimo;
+            ultimo = instantes[n];
+            n++;
+        }
+
+        if (!ordenado) {
+            ordenar(instantes, precos, n);
+        }
+
+        return new SerieCotacao(codigo,
+                Arrays.copyOf(instantes, n),
+                Arrays.copyOf(precos, n));
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public int tamanho() {
+        return instantes.length;
+    }
+
+    public boolean isVazia() {
+        return instantes.length == 0;
+    }
+
+    public long getInstante(int indice) {
+        return instantes[indice];
+    }
+
+    public double getPreco(int indice) {
+        return precos[indice];
+    }
+
+    public LocalDateTime getDataHora(int indice) {
+        return LocalDateTime.ofEpochSecond(instantes[indice], 0, ZoneOffset.UTC);
+    }
+
+    public BigDecimal getPrecoDecimal(int indice) {
+        return BigDecimal.valueOf(precos[indice]).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Índice da última cotação com data/hora menor ou igual à data, ou -1 se não houver
+     */
+    public int indiceEm(LocalDateTime data) {
+        long alvo = paraInstante(data);
+        int baixo = 0;
+        int alto = instantes.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (instantes[meio] > alvo) {
+                alto = meio;
+            } else {
+                baixo = meio + 1;
+            }
+        }
+        return baixo - 1;
+    }
+
+    /**
+     * Converte data/hora local para a chave numérica da série (segundos)
+     */
+    public static long paraInstante(LocalDateTime dataHora) {
+        return dataHora.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static void ordenar(long[] instantes, double[] precos, int n) {
+        // Insertion sort: o histórico chega praticamente ordenado
+        for (int i = 1; i < n; i++) {
+            long instante = instantes[i];
+            double preco = precos[i];
+            int j = i - 1;
+            while (j >= 0 && instantes[j] > instante) {
+                instantes[j + 1] = instantes[j];
+                precos[j + 1] = precos[j];
+                j--;
+            }
+            instantes[j + 1] = instante;
+            precos[j + 1] = preco;
+        }
+    }
+}
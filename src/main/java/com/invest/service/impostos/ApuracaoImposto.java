@@ -0,0 +1,172 @@
+package com.invest.service.impostos;
+
+import com.invest.model.CategoriaImposto;
+import com.invest.model.TipoTransacao;
+import com.invest.model.Transacao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Motor de apuração mensal de IR sobre as transações de uma carteira.
+ *
+ * Percorre as transações uma única vez, em ordem (dataTransacao, id), mantendo o custo médio
+ * de cada ativo no momento da venda (e não o preço médio atual) e o prejuízo a compensar
+ * de cada categoria. O estado ao final de um mês pode ser copiado para retomar a apuração
+ * a partir do mês seguinte sem reprocessar o histórico.
+ */
+public class ApuracaoImposto {
+
+    private static final BigDecimal ZERO = BigDecimal.ZERO;
+    private static final int SCALE = 2;
+    private static final int SCALE_PRECO_MEDIO = 4;
+
+    private final Map<String, CustoMedio> custos;
+    private final EnumMap<CategoriaImposto, BigDecimal> prejuizos;
+
+    public ApuracaoImposto() {
+        this.custos = new HashMap<>();
+        this.prejuizos = new EnumMap<>(CategoriaImposto.class);
+    }
+
+    private ApuracaoImposto(ApuracaoImposto origem) {
+        this.custos = new HashMap<>(origem.custos);
+        this.prejuizos = new EnumMap<>(origem.prejuizos);
+    }
+
+    /**
+     * Apura todos os meses de uma lista de transações já ordenada por (dataTransacao, id)
+     */
+    public static List<ResultadoMensal> apurar(List<Transacao> transacoesOrdenadas) {
+        ApuracaoImposto apuracao = new ApuracaoImposto();
+        List<ResultadoMensal> resultados = new ArrayList<>();
+
+        int inicio = 0;
+        while (inicio < transacoesOrdenadas.size()) {
+            YearMonth mes = YearMonth.from(transacoesOrdenadas.get(inicio).getDataTransacao());
+            int fim = fimDoMes(transacoesOrdenadas, inicio, mes);
+            resultados.addAll(apuracao.processarMes(mes, transacoesOrdenadas.subList(inicio, fim)));
+            inicio = fim;
+        }
+        return resultados;
+    }
+
+    /**
+     * Índice da primeira transação depois do mês informado, a partir de {@code inicio}
+     */
+    public static int fimDoMes(List<Transacao> transacoesOrdenadas, int inicio, YearMonth mes) {
+        int fim = inicio;
+        while (fim < transacoesOrdenadas.size()
+                && YearMonth.from(transacoesOrdenadas.get(fim).getDataTransacao()).equals(mes)) {
+            fim++;
+        }
+        return fim;
+    }
+
+    /**
+     * Aplica as transações de um mês (em ordem) e fecha a apuração do mês
+     * @return um resultado por categoria com vendas no mês
+     */
+    public List<ResultadoMensal> processarMes(YearMonth mes, List<Transacao> transacoesDoMes) {
+        Map<CategoriaImposto, BigDecimal> vendas = new EnumMap<>(CategoriaImposto.class);
+        Map<CategoriaImposto, BigDecimal> ganhos = new EnumMap<>(CategoriaImposto.class);
+
+        for (Transacao transacao : transacoesDoMes) {
+            TipoTransacao tipo = transacao.getTipoTransacao();
+            String codigo = transacao.getCodigoAtivo();
+            CustoMedio custo = custos.getOrDefault(codigo, CustoMedio.ZERADO);
+
+            if (tipo == TipoTransacao.VENDA) {
+                CategoriaImposto categoria = CategoriaImposto.de(transacao.getTipoAtivo());
+                if (categoria != null) {
+                    BigDecimal receita = transacao.getValorLiquido() != null
+                            ? transacao.getValorLiquido() : transacao.getValorTotal();
+                    if (receita != null) {
+                        BigDecimal custoVenda = transacao.getQuantidade().multiply(custo.precoMedio());
+                        vendas.merge(categoria, transacao.getValorTotal() != null ? transacao.getValorTotal() : receita, BigDecimal::add);
+                        ganhos.merge(categoria, receita.subtract(custoVenda), BigDecimal::add);
+                    }
+                }
+            }
+            custos.put(codigo, custo.aplicar(transacao));
+        }
+
+        List<ResultadoMensal> resultados = new ArrayList<>();
+        for (CategoriaImposto categoria : CategoriaImposto.values()) {
+            if (vendas.containsKey(categoria)) {
+                resultados.add(fecharCategoria(mes, categoria, vendas.get(categoria), ganhos.get(categoria)));
+            }
+        }
+        return resultados;
+    }
+
+    /**
+     * Cópia independente do estado atual (custos médios e prejuízos a compensar)
+     */
+    public ApuracaoImposto copiar() {
+        return new ApuracaoImposto(this);
+    }
+
+    public BigDecimal getPrejuizoAcumulado(CategoriaImposto categoria) {
+        return prejuizos.getOrDefault(categoria, ZERO);
+    }
+
+    private ResultadoMensal fecharCategoria(YearMonth mes, CategoriaImposto categoria,
+                                            BigDecimal totalVendas, BigDecimal ganho) {
+        BigDecimal resultado = ganho.setScale(SCALE, RoundingMode.HALF_UP);
+        BigDecimal prejuizoAnterior = getPrejuizoAcumulado(categoria);
+
+        // Prejuízo do mês soma ao saldo a compensar (também em meses isentos)
+        if (resultado.signum() <= 0) {
+            BigDecimal prejuizo = prejuizoAnterior.add(resultado.negate());
+            prejuizos.put(categoria, prejuizo);
+            return new ResultadoMensal(mes, categoria, totalVendas, resultado, ZERO, prejuizo, ZERO, ZERO, false);
+        }
+
+        // Ganho isento não consome prejuízo acumulado
+        BigDecimal limite = categoria.getLimiteIsencao();
+        if (limite != null && totalVendas.compareTo(limite) <= 0) {
+            return new ResultadoMensal(mes, categoria, totalVendas, resultado, ZERO, prejuizoAnterior, ZERO, ZERO, true);
+        }
+
+        BigDecimal compensado = resultado.min(prejuizoAnterior);
+        BigDecimal prejuizo = prejuizoAnterior.subtract(compensado);
+        BigDecimal base = resultado.subtract(compensado);
+        BigDecimal imposto = base.multiply(categoria.getAliquota()).setScale(SCALE, RoundingMode.HALF_UP);
+        prejuizos.put(categoria, prejuizo);
+        return new ResultadoMensal(mes, categoria, totalVendas, resultado, compensado, prejuizo, base, imposto, false);
+    }
+
+    /**
+     * Quantidade e preço médio de um ativo (mesmas regras do ledger de posições)
+     */
+    private record CustoMedio(BigDecimal quantidade, BigDecimal precoMedio) {
+
+        static final CustoMedio ZERADO = new CustoMedio(ZERO, ZERO);
+
+        CustoMedio aplicar(Transacao transacao) {
+            TipoTransacao tipo = transacao.getTipoTransacao();
+            if (tipo.isEntrada()) {
+                BigDecimal novoPreco = precoMedio;
+                if (tipo == TipoTransacao.COMPRA) {
+                    novoPreco = quantidade.signum() <= 0
+                            ? transacao.getPrecoUnitario()
+                            : quantidade.multiply(precoMedio)
+                                    .add(transacao.getQuantidade().multiply(transacao.getPrecoUnitario()))
+                                    .divide(quantidade.add(transacao.getQuantidade()), SCALE_PRECO_MEDIO, RoundingMode.HALF_UP);
+                }
+                return new CustoMedio(quantidade.add(transacao.getQuantidade()), novoPreco);
+            }
+            if (tipo.isSaida()) {
+                return new CustoMedio(quantidade.subtract(transacao.getQuantidade()), precoMedio);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.invest.service.impostos;
+
+import com.invest.model.Transacao;
+import com.invest.repository.TransacaoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service de apuração mensal de IR por carteira.
+ *
+ * Meses já encerrados ficam memorizados junto com o estado da apuração ao final de cada um
+ * (custos médios e prejuízos a compensar). Uma nova consulta só lê do banco as transações
+ * posteriores ao último mês memorizado; na prática, só o mês corrente é recalculado.
+ * Alterações em transações de meses encerrados descartam a memória a partir daquele mês.
+ */
+@Service
+public class ImpostoMensalService {
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    private final Map<Long, MemoriaCarteira> memorias = new ConcurrentHashMap<>();
+
+    /**
+     * Apuração de todos os meses com vendas da carteira, em ordem cronológica
+     */
+    public List<ResultadoMensal> getApuracao(Long carteiraId) {
+        MemoriaCarteira memoria = memorias.computeIfAbsent(carteiraId, id -> new MemoriaCarteira());
+        synchronized (memoria) {
+            YearMonth mesAtual = YearMonth.now();
+            ApuracaoImposto estado;
+            List<Transacao> transacoes;
+
+            if (memoria.meses.isEmpty()) {
+                estado = new ApuracaoImposto();
+                transacoes = transacaoRepository.findByCarteiraIdOrderByDataTransacaoAscIdAsc(carteiraId);
+            } else {
+                YearMonth ultimoFechado = memoria.meses.lastKey();
+                estado = memoria.meses.get(ultimoFechado).estadoFinal().copiar();
+                transacoes = transacaoRepository.findByCarteiraIdAndDataTransacaoGreaterThanEqualOrderByDataTransacaoAscIdAsc(
+                        carteiraId, ultimoFechado.plusMonths(1).atDay(1).atStartOfDay());
+            }
+
+            List<ResultadoMensal> resultados = new ArrayList<>();
+            for (MesApurado mes : memoria.meses.values()) {
+                resultados.addAll(mes.resultados());
+            }
+
+            int inicio = 0;
+            while (inicio < transacoes.size()) {
+                YearMonth mes = YearMonth.from(transacoes.get(inicio).getDataTransacao());
+                int fim = ApuracaoImposto.fimDoMes(transacoes, inicio, mes);
+                List<ResultadoMensal> resultadosMes = estado.processarMes(mes, transacoes.subList(inicio, fim));
+                resultados.addAll(resultadosMes);
+
+                if (mes.isBefore(mesAtual)) {
+                    memoria.meses.put(mes, new MesApurado(List.copyOf(resultadosMes), estado.copiar()));
+                }
+                inicio = fim;
+            }
+
+            return resultados;
+        }
+    }
+
+    /**
+     * Apuração dos meses de um ano
+     */
+    public List<ResultadoMensal> getApuracaoAno(Long carteiraId, int ano) {
+        List<ResultadoMensal> doAno = new ArrayList<>();
+        for (ResultadoMensal resultado : getApuracao(carteiraId)) {
+            if (resultado.getMes().getYear() == ano) {
+                doAno.add(resultado);
+            }
+        }
+        return doAno;
+    }
+
+    /**
+     * Soma do imposto devido em todos os meses apurados
+     */
+    public BigDecimal calcularImpostoTotal(Long carteiraId) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (ResultadoMensal resultado : getApuracao(carteiraId)) {
+            total = total.add(resultado.getImpostoDevido());
+        }
+        return total;
+    }
+
+    /**
+     * Descarta meses memorizados a partir do mês da data (transação criada, editada ou removida).
+     * Dentro de uma transação de banco, descarta de novo após o término, para não manter
+     * meses recalculados por consultas concorrentes antes do commit.
+     */
+    public void invalidarAPartirDe(Long carteiraId, LocalDateTime data) {
+        if (data == null) {
+            return;
+        }
+        YearMonth mes = YearMonth.from(data);
+        descartarMeses(carteiraId, mes);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    descartarMeses(carteiraId, mes);
+                }
+            });
+        }
+    }
+
+    /**
+     * Descarta toda a memória de uma carteira
+     */
+    public void invalidarCarteira(Long carteiraId) {
+        memorias.remove(carteiraId);
+    }
+
+    private void descartarMeses(Long carteiraId, YearMonth aPartirDe) {
+        MemoriaCarteira memoria = memorias.get(carteiraId);
+        if (memoria == null) {
+            return;
+        }
+        synchronized (memoria) {
+            memoria.meses.tailMap(aPartirDe, true).clear();
+        }
+    }
+
+    private static final class MemoriaCarteira {
+        private final TreeMap<YearMonth, MesApurado> meses = new TreeMap<>();
+    }
+
+    private record MesApurado(List<ResultadoMensal> resultados, ApuracaoImposto estadoFinal) {
+    }
+}
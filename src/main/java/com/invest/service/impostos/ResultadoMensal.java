@@ -0,0 +1,81 @@
+package com.invest.service.impostos;
+
+import com.invest.model.CategoriaImposto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Resultado da apuração de IR de uma categoria em um mês
+ */
+public final class ResultadoMensal {
+
+    private final YearMonth mes;
+    private final CategoriaImposto categoria;
+    private final BigDecimal totalVendas;
+    private final BigDecimal resultado;
+    private final BigDecimal prejuizoCompensado;
+    private final BigDecimal prejuizoAcumulado;
+    private final BigDecimal baseCalculo;
+    private final BigDecimal impostoDevido;
+    private final boolean isento;
+
+    public ResultadoMensal(YearMonth mes, CategoriaImposto categoria, BigDecimal totalVendas,
+                           BigDecimal resultado, BigDecimal prejuizoCompensado, BigDecimal prejuizoAcumulado,
+                           BigDecimal baseCalculo, BigDecimal impostoDevido, boolean isento) {
+        this.mes = mes;
+        this.categoria = categoria;
+        this.totalVendas = totalVendas;
+        this.resultado = resultado;
+        this.prejuizoCompensado = prejuizoCompensado;
+        this.prejuizoAcumulado = prejuizoAcumulado;
+        this.baseCalculo = baseCalculo;
+        this.impostoDevido = impostoDevido;
+        this.isento = isento;
+    }
+
+    public YearMonth getMes() {
+        return mes;
+    }
+
+    public CategoriaImposto getCategoria() {
+        return categoria;
+    }
+
+    /**
+     * Soma das vendas da categoria no mês
+     */
+    public BigDecimal getTotalVendas() {
+        return totalVendas;
+    }
+
+    /**
+     * Ganho (positivo) ou perda (negativo) líquido das vendas do mês, pelo custo médio
+     */
+    public BigDecimal getResultado() {
+        return resultado;
+    }
+
+    public BigDecimal getPrejuizoCompensado() {
+        return prejuizoCompensado;
+    }
+
+    /**
+     * Prejuízo a compensar nos meses seguintes, após a apuração deste mês
+     */
+    public BigDecimal getPrejuizoAcumulado() {
+        return prejuizoAcumulado;
+    }
+
+    public BigDecimal getBaseCalculo() {
+        return baseCalculo;
+    }
+
+    public BigDecimal getImpostoDevido() {
+        return impostoDevido;
+    }
+
+    public boolean isIsento() {
+        return isento;
+    }
+}
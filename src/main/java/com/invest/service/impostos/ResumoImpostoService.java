@@ -0,0 +1,130 @@
+package com.invest.service.impostos;
+
+import com.invest.model.CategoriaImposto;
+import com.invest.model.ResumoImpostoMensal;
+import com.invest.repository.CarteiraRepository;
+import com.invest.repository.ResumoImpostoMensalRepository;
+import com.invest.repository.TransacaoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service que mantém a tabela de resumo mensal de IR (base da DARF) por carteira e categoria.
+ *
+ * Cada alteração de transação reapura a partir do mês afetado (os meses anteriores não mudam
+ * e vêm da memória do ImpostoMensalService) e grava apenas as linhas daquele mês em diante.
+ * As consultas só leem a tabela, sem percorrer as vendas da carteira; carteiras com vendas anteriores
+ * à tabela são apuradas na inicialização.
+ */
+@Service
+@Transactional
+public class ResumoImpostoService {
+
+    @Autowired
+    private ResumoImpostoMensalRepository resumoRepository;
+
+    @Autowired
+    private CarteiraRepository carteiraRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private ImpostoMensalService impostoMensalService;
+
+    /**
+     * Atualiza os resumos a partir do mês da data (transação criada, editada ou removida).
+     * Meses seguintes também são regravados porque o prejuízo acumulado se propaga.
+     */
+    public void atualizarAPartirDe(Long carteiraId, LocalDateTime data) {
+        impostoMensalService.invalidarAPartirDe(carteiraId, data);
+
+        // Carteira sem resumo gravado ainda (ex.: transações anteriores à tabela): grava todos os meses
+        YearMonth inicio = resumoRepository.existsByCarteiraId(carteiraId) ? YearMonth.from(data) : null;
+
+        List<ResultadoMensal> resultados = new ArrayList<>();
+        for (ResultadoMensal resultado : impostoMensalService.getApuracao(carteiraId)) {
+            if (inicio == null || !resultado.getMes().isBefore(inicio)) {
+                resultados.add(resultado);
+            }
+        }
+        gravar(carteiraId, inicio, resultados);
+    }
+
+    /**
+     * Apura todos os meses das carteiras com vendas e ainda sem resumo (ex.: vendas anteriores à tabela).
+     * Roda uma vez na inicialização para que as consultas não precisem gravar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void apurarCarteirasSemResumo() {
+        List<Long> carteiras = transacaoRepository.findCarteiraIdsComVendasSemResumoImposto();
+        for (Long carteiraId : carteiras) {
+            gravar(carteiraId, null, impostoMensalService.getApuracao(carteiraId));
+        }
+        if (!carteiras.isEmpty()) {
+            System.out.println("🧾 Resumo de IR apurado para " + carteiras.size() + " carteira(s) sem resumo gravado");
+        }
+    }
+
+    /**
+     * Resumos de um ano
+     */
+    @Transactional(readOnly = true)
+    public List<ResumoImpostoMensal> getResumosAno(Long carteiraId, int ano) {
+        return resumoRepository.findByCarteiraIdAndAnoOrderByMesAscCategoriaAsc(carteiraId, ano);
+    }
+
+    /**
+     * Atualiza, insere ou remove as linhas a partir do mês informado (null = todos os meses)
+     */
+    private void gravar(Long carteiraId, YearMonth inicio, List<ResultadoMensal> resultados) {
+        List<ResumoImpostoMensal> existentes = inicio != null
+                ? resumoRepository.findByCarteiraIdAPartirDe(carteiraId, inicio.getYear(), inicio.getMonthValue())
+                : resumoRepository.findByCarteiraIdAPartirDe(carteiraId, Integer.MIN_VALUE, 1);
+
+        Map<ChaveResumo, ResumoImpostoMensal> porChave = new HashMap<>();
+        for (ResumoImpostoMensal resumo : existentes) {
+            porChave.put(new ChaveResumo(resumo.getAno(), resumo.getMes(), resumo.getCategoria()), resumo);
+        }
+
+        List<ResumoImpostoMensal> alterados = new ArrayList<>();
+        for (ResultadoMensal resultado : resultados) {
+            ChaveResumo chave = new ChaveResumo(
+                    resultado.getMes().getYear(), resultado.getMes().getMonthValue(), resultado.getCategoria());
+            ResumoImpostoMensal resumo = porChave.remove(chave);
+            if (resumo == null) {
+                resumo = new ResumoImpostoMensal(carteiraRepository.getReferenceById(carteiraId),
+                        chave.ano(), chave.mes(), chave.categoria());
+            }
+            preencher(resumo, resultado);
+            alterados.add(resumo);
+        }
+
+        // Linhas que sobraram: o mês/categoria deixou de ter vendas
+        resumoRepository.deleteAll(porChave.values());
+        resumoRepository.saveAll(alterados);
+    }
+
+    private void preencher(ResumoImpostoMensal resumo, ResultadoMensal resultado) {
+        resumo.setTotalVendas(resultado.getTotalVendas());
+        resumo.setResultado(resultado.getResultado());
+        resumo.setPrejuizoCompensado(resultado.getPrejuizoCompensado());
+        resumo.setPrejuizoAcumulado(resultado.getPrejuizoAcumulado());
+        resumo.setBaseCalculo(resultado.getBaseCalculo());
+        resumo.setImpostoDevido(resultado.getImpostoDevido());
+        resumo.setIsento(resultado.isIsento());
+    }
+
+    private record ChaveResumo(int ano, int mes, CategoriaImposto categoria) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.invest.service.ledger;
+
+import java.util.Arrays;
+
+/**
+ * Evolução da posição de um ativo ao longo do tempo, em arrays primitivos.
+ *
+ * Cada índice i representa a posição vigente a partir de {@code instantes[i]}
+ * (segundos, mesma escala de SerieCotacao) até o instante seguinte.
+ * Lançamentos com a mesma data/hora são consolidados em um único passo.
+ */
+public final class EvolucaoPosicao {
+
+    public static final EvolucaoPosicao VAZIA = new EvolucaoPosicao(new long[0], new double[0], new double[0]);
+
+    private final long[] instantes;
+    private final double[] quantidades;
+    private final double[] custos;
+
+    EvolucaoPosicao(long[] instantes, double[] quantidades, double[] custos) {
+        this.instantes = instantes;
+        this.quantidades = quantidades;
+        this.custos = custos;
+    }
+
+    /**
+     * Posição constante desde sempre (ativos sem transações registradas)
+     */
+    public static EvolucaoPosicao constante(double quantidade, double custo) {
+        return new EvolucaoPosicao(new long[] {Long.MIN_VALUE}, new double[] {quantidade}, new double[] {custo});
+    }
+
+    static EvolucaoPosicao de(long[] instantes, double[] quantidades, double[] custos, int tamanho) {
+        return new EvolucaoPosicao(
+                Arrays.copyOf(instantes, tamanho),
+                Arrays.copyOf(quantidades, tamanho),
+                Arrays.copyOf(custos, tamanho));
+    }
+
+    public int tamanho() {
+        return instantes.length;
+    }
+
+    public long getInstante(int indice) {
+        return instantes[indice];
+    }
+
+    public double getQuantidade(int indice) {
+        return quantidades[indice];
+    }
+
+    /**
+     * Custo da posição (quantidade x preço médio) no passo
+     */
+    public double getCusto(int indice) {
+        return custos[indice];
+    }
+}
@@ -0,0 +1,311 @@
+package com.invest.service.ledger;
+
+import com.invest.model.TipoTransacao;
+import com.invest.model.Transacao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ledger ordenado de lançamentos de um ativo em uma carteira (projeção event-sourced da posição).
+ *
+ * Os lançamentos ficam ordenados por (dataTransacao, id) e a cada {@code intervaloCheckpoint}
+ * lançamentos é guardado um checkpoint com a posição acumulada. Consultas e edições reconstroem
+ * a posição a partir do checkpoint mais próximo, em vez de reprocessar todo o histórico.
+ *
+ * As regras de aplicação são as mesmas de TransacaoService: entradas somam quantidade,
+ * compras recalculam o preço médio ponderado e saídas subtraem quantidade.
+ */
+public class PosicaoLedger {
+
+    public static final int INTERVALO_CHECKPOINT_PADRAO = 32;
+
+    private static final int SCALE_PRECO_MEDIO = 4;
+
+    private static final Comparator<Lancamento> ORDEM = Comparator
+            .comparing(Lancamento::getDataTransacao)
+            .thenComparing(Lancamento::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final int intervaloCheckpoint;
+    private final List<Lancamento> lancamentos = new ArrayList<>();
+    private final Map<Long, Lancamento> lancamentosPorId = new HashMap<>();
+
+    // checkpoints.get(k) = posição após os primeiros (k + 1) * intervaloCheckpoint lançamentos.
+    // Só os checkpoints anteriores à última edição são mantidos; os demais são recriados sob demanda.
+    private final List<PosicaoSnapshot> checkpoints = new ArrayList<>();
+
+    public PosicaoLedger() {
+        this(INTERVALO_CHECKPOINT_PADRAO);
+    }
+
+    public PosicaoLedger(int intervaloCheckpoint) {
+        if (intervaloCheckpoint <= 0) {
+            throw new IllegalArgumentException("Intervalo de checkpoint deve ser positivo");
+        }
+        this.intervaloCheckpoint = intervaloCheckpoint;
+    }
+
+    /**
+     * Cria um ledger a partir de transações já ordenadas por (dataTransacao, id)
+     */
+    public static PosicaoLedger deTransacoes(List<Transacao> transacoesOrdenadas) {
+        PosicaoLedger ledger = new PosicaoLedger();
+        for (Transacao transacao : transacoesOrdenadas) {
+            Lancamento lancamento = Lancamento.de(transacao);
+            ledger.lancamentos.add(lancamento);
+            if (lancamento.getId() != null) {
+                ledger.lancamentosPorId.put(lancamento.getId(), lancamento);
+            }
+        }
+        ledger.lancamentos.sort(ORDEM);
+        return ledger;
+    }
+
+    /**
+     * Insere um lançamento na posição correta da ordem cronológica
+     * @return índice em que o lançamento foi inserido
+     */
+    public synchronized int adicionar(Lancamento lancamento) {
+        if (lancamento.getId() != null && lancamentosPorId.containsKey(lancamento.getId())) {
+            remover(lancamento.getId());
+        }
+        int indice = buscarIndiceInsercao(lancamento);
+        lancamentos.add(indice, lancamento);
+        if (lancamento.getId() != null) {
+            lancamentosPorId.put(lancamento.getId(), lancamento);
+        }
+        invalidarCheckpointsApartirDe(indice);
+        return indice;
+    }
+
+    /**
+     * Remove um lançamento pelo ID da transação
+     * @return true se o lançamento existia
+     */
+    public synchronized boolean remover(Long transacaoId) {
+        int indice = indiceDe(transacaoId);
+        if (indice < 0) {
+            return false;
+        }
+        lancamentosPorId.remove(transacaoId);
+        lancamentos.remove(indice);
+        invalidarCheckpointsApartirDe(indice);
+        return true;
+    }
+
+    /**
+     * Índice do lançamento de uma transação no ledger, ou -1 se não existir
+     */
+    public synchronized int indiceDe(Long transacaoId) {
+        Lancamento lancamento = lancamentosPorId.get(transacaoId);
+        if (lancamento == null) {
+            return -1;
+        }
+        int indice = Collections.binarySearch(lancamentos, lancamento, ORDEM);
+        if (indice < 0 || lancamentos.get(indice) != lancamento) {
+            indice = lancamentos.indexOf(lancamento);
+        }
+        return indice;
+    }
+
+    public synchronized int tamanho() {
+        return lancamentos.size();
+    }
+
+    /**
+     * Posição considerando todos os lançamentos
+     */
+    public synchronized PosicaoSnapshot getPosicaoAtual() {
+        return posicaoApos(lancamentos.size());
+    }
+
+    /**
+     * Posição em uma data (inclui lançamentos com dataTransacao menor ou igual à data)
+     */
+    public synchronized PosicaoSnapshot getPosicaoEm(LocalDateTime data) {
+        return posicaoApos(contarLancamentosAte(data));
+    }
+
+    /**
+     * Retorna cópia dos lançamentos na ordem do ledger
+     */
+    public synchronized List<Lancamento> getLancamentos() {
+        return new ArrayList<>(lancamentos);
+    }
+
+    /**
+     * Evolução da posição lançamento a lançamento, em uma única passada pelo ledger
+     */
+    public synchronized EvolucaoPosicao getEvolucao() {
+        int n = lancamentos.size();
+        long[] instantes = new long[n];
+        double[] quantidades = new double[n];
+        double[] custos = new double[n];
+        int passos = 0;
+
+        PosicaoSnapshot posicao = PosicaoSnapshot.VAZIA;
+        for (int i = 0; i < n; i++) {
+            posicao = aplicar(posicao, i, i + 1);
+            long instante = lancamentos.get(i).getDataTransacao().toEpochSecond(ZoneOffset.UTC);
+            if (passos == 0 || instantes[passos - 1] != instante) {
+                passos++;
+            }
+            instantes[passos - 1] = instante;
+            quantidades[passos - 1] = posicao.getQuantidade().doubleValue();
+            custos[passos - 1] = posicao.getCustoTotal().doubleValue();
+        }
+        return EvolucaoPosicao.de(instantes, quantidades, custos, passos);
+    }
+
+    /**
+     * Posição após aplicar os primeiros {@code n} lançamentos,
+     * partindo do checkpoint mais próximo
+     */
+    private PosicaoSnapshot posicaoApos(int n) {
+        int checkpointsNecessarios = n / intervaloCheckpoint;
+        estenderCheckpoints(checkpointsNecessarios);
+
+        PosicaoSnapshot base = checkpointsNecessarios == 0
+                ? PosicaoSnapshot.VAZIA
+                : checkpoints.get(checkpointsNecessarios - 1);
+        return aplicar(base, checkpointsNecessarios * intervaloCheckpoint, n);
+    }
+
+    private void estenderCheckpoints(int quantidade) {
+        while (checkpoints.size() < quantidade) {
+            int k = checkpoints.size();
+            PosicaoSnapshot base = k == 0 ? PosicaoSnapshot.VAZIA : checkpoints.get(k - 1);
+            checkpoints.add(aplicar(base, k * intervaloCheckpoint, (k + 1) * intervaloCheckpoint));
+        }
+    }
+
+    private void invalidarCheckpointsApartirDe(int indice) {
+        int validos = indice / intervaloCheckpoint;
+        while (checkpoints.size() > validos) {
+            checkpoints.remove(checkpoints.size() - 1);
+        }
+    }
+
+    /**
+     * Aplica os lançamentos [inicio, fim) sobre a posição base
+     */
+    private PosicaoSnapshot aplicar(PosicaoSnapshot base, int inicio, int fim) {
+        BigDecimal quantidade = base.getQuantidade();
+        BigDecimal precoMedio = base.getPrecoMedio();
+
+        for (int i = inicio; i < fim; i++) {
+            Lancamento lancamento = lancamentos.get(i);
+            TipoTransacao tipo = lancamento.getTipoTransacao();
+
+            if (tipo.isEntrada()) {
+                if (tipo == TipoTransacao.COMPRA) {
+                    precoMedio = calcularPrecoMedio(quantidade, precoMedio, lancamento);
+                }
+                quantidade = quantidade.add(lancamento.getQuantidade());
+            } else if (tipo.isSaida()) {
+                quantidade = quantidade.subtract(lancamento.getQuantidade());
+            }
+        }
+
+        return new PosicaoSnapshot(quantidade, precoMedio, fim);
+    }
+
+    private BigDecimal calcularPrecoMedio(BigDecimal quantidadeAnterior, BigDecimal precoMedioAnterior, Lancamento compra) {
+        if (quantidadeAnterior.compareTo(BigDecimal.ZERO) <= 0) {
+            return compra.getPrecoUnitario();
+        }
+        BigDecimal quantidadeTotal = quantidadeAnterior.add(compra.getQuantidade());
+        return quantidadeAnterior.multiply(precoMedioAnterior)
+                .add(compra.getQuantidade().multiply(compra.getPrecoUnitario()))
+                .divide(quantidadeTotal, SCALE_PRECO_MEDIO, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Quantidade de lançamentos com dataTransacao <= data (busca binária)
+     */
+    private int contarLancamentosAte(LocalDateTime data) {
+        int baixo = 0;
+        int alto = lancamentos.size();
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (lancamentos.get(meio).getDataTransacao().isAfter(data)) {
+                alto = meio;
+            } else {
+                baixo = meio + 1;
+            }
+        }
+        return baixo;
+    }
+
+    private int buscarIndiceInsercao(Lancamento lancamento) {
+        int baixo = 0;
+        int alto = lancamentos.size();
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (ORDEM.compare(lancamentos.get(meio), lancamento) > 0) {
+                alto = meio;
+            } else {
+                baixo = meio + 1;
+            }
+        }
+        return baixo;
+    }
+
+    /**
+     * Lançamento do ledger: cópia enxuta dos campos da transação que afetam a posição
+     */
+    public static final class Lancamento {
+        private final Long id;
+        private final LocalDateTime dataTransacao;
+        private final TipoTransacao tipoTransacao;
+        private final BigDecimal quantidade;
+        private final BigDecimal precoUnitario;
+
+        public Lancamento(Long id, LocalDateTime dataTransacao, TipoTransacao tipoTransacao,
+                          BigDecimal quantidade, BigDecimal precoUnitario) {
+            this.id = id;
+            this.dataTransacao = dataTransacao;
+            this.tipoTransacao = tipoTransacao;
+            this.quantidade = quantidade;
+            this.precoUnitario = precoUnitario;
+        }
+
+        public static Lancamento de(Transacao transacao) {
+            return new Lancamento(
+                    transacao.getId(),
+                    transacao.getDataTransacao(),
+                    transacao.getTipoTransacao(),
+                    transacao.getQuantidade(),
+                    transacao.getPrecoUnitario()
+            );
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public LocalDateTime getDataTransacao() {
+            return dataTransacao;
+        }
+
+        public TipoTransacao getTipoTransacao() {
+            return tipoTransacao;
+        }
+
+        public BigDecimal getQuantidade() {
+            return quantidade;
+        }
+
+        public BigDecimal getPrecoUnitario() {
+            return precoUnitario;
+        }
+    }
+}
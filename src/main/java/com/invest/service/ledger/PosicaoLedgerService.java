@@ -0,0 +1,192 @@
+package com.invest.service.ledger;
+
+import com.invest.model.Transacao;
+import com.invest.repository.TransacaoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service que mantém a projeção de posições por (carteira, ativo) a partir das transações.
+ *
+ * Cada ledger é carregado do banco na primeira consulta e depois mantido incrementalmente
+ * pelas escritas do TransacaoService. Se a transação de banco for desfeita, o ledger
+ * afetado é descartado e recarregado na próxima consulta.
+ *
+ * Só transações de escrita (no primário) põem ledgers no cache, que recebe as escritas seguintes. Numa
+ * transação somente leitura (ou fora de transação), que pode ir para a réplica atrasada, um ledger ausente
+ * é montado na conexão de quem consulta e usado só naquela chamada.
+ */
+@Service
+public class PosicaoLedgerService {
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    private final Map<ChaveLedger, PosicaoLedger> ledgers = new ConcurrentHashMap<>();
+
+    // Versão das posições de cada carteira, incrementada a cada alteração (usada por caches derivados)
+    private final Map<Long, AtomicLong> versoesCarteira = new ConcurrentHashMap<>();
+    private final AtomicLong versaoGlobal = new AtomicLong();
+
+    /**
+     * Posição atual de um ativo na carteira
+     */
+    public PosicaoSnapshot getPosicaoAtual(Long carteiraId, String codigoAtivo) {
+        return getLedger(carteiraId, codigoAtivo).getPosicaoAtual();
+    }
+
+    /**
+     * Posição de um ativo na carteira em uma data
+     */
+    public PosicaoSnapshot getPosicaoEm(Long carteiraId, String codigoAtivo, LocalDateTime data) {
+        return getLedger(carteiraId, codigoAtivo).getPosicaoEm(data);
+    }
+
+    /**
+     * Evolução da posição de um ativo na carteira ao longo do tempo
+     */
+    public EvolucaoPosicao getEvolucaoPosicao(Long carteiraId, String codigoAtivo) {
+        return getLedger(carteiraId, codigoAtivo).getEvolucao();
+    }
+
+    /**
+     * Versão atual das posições da carteira; muda sempre que algum ledger da carteira é alterado
+     */
+    public long getVersaoCarteira(Long carteiraId) {
+        AtomicLong versao = versoesCarteira.get(carteiraId);
+        return versao != null ? versao.get() : 0L;
+    }
+
+    /**
+     * Carteiras com alguma posição alterada desde o início da aplicação (versão maior que zero)
+     */
+    public Set<Long> getCarteirasAlteradas() {
+        return Set.copyOf(versoesCarteira.keySet());
+    }
+
+    /**
+     * Versão das posições de todas as carteiras; muda sempre que qualquer ledger é alterado
+     */
+    public long getVersaoGlobal() {
+        return versaoGlobal.get();
+    }
+
+    /**
+     * Registra uma transação recém-salva no ledger
+     * @return true se a transação foi inserida antes do último lançamento (data retroativa),
+     *         caso em que a posição calculada incrementalmente deixa de ser válida
+     */
+    public boolean registrarTransacao(Transacao transacao) {
+        ChaveLedger chave = chave(transacao.getCarteira().getId(), transacao.getCodigoAtivo());
+        PosicaoLedger ledger = getLedger(chave);
+        int indice = ledger.indiceDe(transacao.getId());
+        if (indice < 0) {
+            indice = ledger.adicionar(PosicaoLedger.Lancamento.de(transacao));
+        }
+        descartarSeRollback(chave);
+        return indice < ledger.tamanho() - 1;
+    }
+
+    /**
+     * Reposiciona uma transação editada (data, quantidade, preço ou código podem ter mudado)
+     */
+    public void atualizarTransacao(String codigoAnterior, Transacao transacao) {
+        Long carteiraId = transacao.getCarteira().getId();
+        if (codigoAnterior != null && !codigoAnterior.equals(transacao.getCodigoAtivo())) {
+            removerLancamento(chave(carteiraId, codigoAnterior), transacao.getId());
+        }
+        ChaveLedger chave = chave(carteiraId, transacao.getCodigoAtivo());
+        getLedger(chave).adicionar(PosicaoLedger.Lancamento.de(transacao));
+        descartarSeRollback(chave);
+    }
+
+    /**
+     * Remove uma transação excluída do ledger
+     */
+    public void removerTransacao(Transacao transacao) {
+        removerLancamento(chave(transacao.getCarteira().getId(), transacao.getCodigoAtivo()), transacao.getId());
+    }
+
+    /**
+     * Descarta todos os ledgers de uma carteira (serão recarregados sob demanda)
+     */
+    public void invalidarCarteira(Long carteiraId) {
+        ledgers.keySet().removeIf(chave -> chave.carteiraId().equals(carteiraId));
+        incrementarVersao(carteiraId);
+    }
+
+    private void removerLancamento(ChaveLedger chave, Long transacaoId) {
+        PosicaoLedger ledger = ledgers.get(chave);
+        if (ledger != null) {
+            ledger.remover(transacaoId);
+            descartarSeRollback(chave);
+        }
+    }
+
+    private PosicaoLedger getLedger(Long carteiraId, String codigoAtivo) {
+        return getLedger(chave(carteiraId, codigoAtivo));
+    }
+
+    private PosicaoLedger getLedger(ChaveLedger chave) {
+        PosicaoLedger ledger = ledgers.get(chave);
+        if (ledger != null) {
+            return ledger;
+        }
+        // Carga fora do mapa: a consulta não pode rodar segurando o lock do ConcurrentHashMap
+        PosicaoLedger carregado = PosicaoLedger.deTransacoes(buscarTransacoes(chave));
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return carregado;
+        }
+        PosicaoLedger existente = ledgers.putIfAbsent(chave, carregado);
+        return existente != null ? existente : carregado;
+    }
+
+    private List<Transacao> buscarTransacoes(ChaveLedger chave) {
+        return transacaoRepository.findByCarteiraIdAndCodigoAtivoOrderByDataTransacaoAscIdAsc(
+                chave.carteiraId(), chave.codigoAtivo());
+    }
+
+    /**
+     * O ledger é alterado antes do commit; se a transação de banco não for confirmada,
+     * o ledger é descartado para não divergir do que foi persistido.
+     * A versão da carteira é incrementada na alteração e de novo ao fim da transação: quem
+     * relê o banco ao ver a versão mudar (ex.: índice de posições) também enxerga o commit.
+     */
+    private void descartarSeRollback(ChaveLedger chave) {
+        incrementarVersao(chave.carteiraId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    ledgers.remove(chave);
+                }
+                incrementarVersao(chave.carteiraId());
+            }
+        });
+    }
+
+    private void incrementarVersao(Long carteiraId) {
+        versoesCarteira.computeIfAbsent(carteiraId, id -> new AtomicLong()).incrementAndGet();
+        versaoGlobal.incrementAndGet();
+    }
+
+    private static ChaveLedger chave(Long carteiraId, String codigoAtivo) {
+        return new ChaveLedger(carteiraId, codigoAtivo);
+    }
+
+    private record ChaveLedger(Long carteiraId, String codigoAtivo) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.invest.service.ledger;
+
+import java.math.BigDecimal;
+
+/**
+ * Estado imutável da posição de um ativo após aplicar um prefixo do ledger
+ * (quantidade em carteira e preço médio de compra)
+ */
+public final class PosicaoSnapshot {
+
+    public static final PosicaoSnapshot VAZIA = new PosicaoSnapshot(BigDecimal.ZERO, BigDecimal.ZERO, 0);
+
+    private final BigDecimal quantidade;
+    private final BigDecimal precoMedio;
+    private final int lancamentosAplicados;
+
+    public PosicaoSnapshot(BigDecimal quantidade, BigDecimal precoMedio, int lancamentosAplicados) {
+        this.quantidade = quantidade;
+        this.precoMedio = precoMedio;
+        this.lancamentosAplicados = lancamentosAplicados;
+    }
+
+    public BigDecimal getQuantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal getPrecoMedio() {
+        return precoMedio;
+    }
+
+    /**
+     * Número de lançamentos do ledger considerados neste estado
+     */
+    public int getLancamentosAplicados() {
+        return lancamentosAplicados;
+    }
+
+    /**
+     * Custo da posição (quantidade x preço médio)
+     */
+    public BigDecimal getCustoTotal() {
+        return quantidade.multiply(precoMedio);
+    }
+
+    public boolean isZerada() {
+        return quantidade.compareTo(BigDecimal.ZERO) <= 0;
+    }
+}
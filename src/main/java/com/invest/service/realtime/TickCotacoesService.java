@@ -0,0 +1,51 @@
+package com.invest.service.realtime;
+
+import com.invest.dto.CotacoesTickMensagem;
+import com.invest.event.CotacoesAtualizadasEvent;
+import com.invest.event.MetricasAssinantes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Publica via WebSocket apenas as cotações que mudaram entre duas atualizações.
+ *
+ * Cada tick gera um único frame em /topic/cotacoes com todos os ativos alterados (não há tópico por
+ * ativo): os clientes assinam só esse tópico e aplicam os deltas sem consultar a API REST.
+ */
+@Service
+@ConditionalOnProperty(name = "app.realtime.enabled", havingValue = "true", matchIfMissing = false)
+public class TickCotacoesService {
+
+    public static final String TOPICO_COTACOES = "/topic/cotacoes";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private MetricasAssinantes metricasAssinantes;
+
+    /**
+     * Envia os ativos alterados no evento (nada é enviado se nenhum preço mudou)
+     */
+    @Async("websocketCotacoesExecutor")
+    @EventListener
+    public void onCotacoesAtualizadas(CotacoesAtualizadasEvent evento) {
+        metricasAssinantes.medir("websocket", evento, () -> publicar(evento));
+    }
+
+    void publicar(CotacoesAtualizadasEvent evento) {
+        List<CotacoesTickMensagem.Tick> ticks = evento.getAlteracoes();
+        if (ticks.isEmpty()) {
+            return;
+        }
+
+        messagingTemplate.convertAndSend(TOPICO_COTACOES,
+                new CotacoesTickMensagem(evento.getSequencia(), System.currentTimeMillis(), ticks));
+    }
+}
@@ -0,0 +1,200 @@
+package com.invest.service.realtime;
+
+import com.invest.dto.CarteiraValorMensagem;
+import com.invest.dto.CarteiraValorResponse;
+import com.invest.dto.CotacoesTickMensagem;
+import com.invest.event.CotacoesAtualizadasEvent;
+import com.invest.event.MetricasAssinantes;
+import com.invest.repository.AtivoRepository;
+import com.invest.repository.CarteiraRepository;
+import com.invest.service.ValorCarteiraService;
+import com.invest.service.ledger.PosicaoLedgerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publica o valor atualizado das carteiras em /topic/carteira/{id}/valor quando chegam ticks de cotação.
+ *
+ * Um índice reverso ativo → carteiras (posições em aberto, códigos em maiúsculas como nos ticks) limita o
+ * recálculo às carteiras que têm os ativos alterados. O índice é montado com uma consulta na primeira vez e,
+ * depois, só as carteiras cuja versão no ledger mudou são relidas.
+ * Os ticks apenas marcam as carteiras como pendentes; o recálculo roda no intervalo
+ * app.realtime.carteira.interval, de modo que cada carteira é enviada no máximo uma vez por intervalo.
+ */
+@Service
+@ConditionalOnProperty(name = "app.realtime.enabled", havingValue = "true", matchIfMissing = false)
+public class ValorCarteiraTempoRealService {
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private AtivoRepository ativoRepository;
+
+    @Autowired
+    private CarteiraRepository carteiraRepository;
+
+    @Autowired
+    private PosicaoLedgerService posicaoLedgerService;
+
+    @Autowired
+    private ValorCarteiraService valorCarteiraService;
+
+    @Autowired
+    private MetricasAssinantes metricasAssinantes;
+
+    private final Map<String, BigDecimal> ultimosPrecos = new ConcurrentHashMap<>();
+    private final Set<Long> pendentes = ConcurrentHashMap.newKeySet();
+    private final Map<Long, BigDecimal> ultimoValorEnviado = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<Long>> carteirasPorAtivo = new ConcurrentHashMap<>();
+    private final Map<Long, PosicaoIndexada> posicoesIndexadas = new ConcurrentHashMap<>();
+    private long versaoIndexada = -1;
+
+    public static String topico(Long carteiraId) {
+        return "/topic/carteira/" + carteiraId + "/valor";
+    }
+
+    /**
+     * Marca as carteiras afetadas pelas cotações alteradas no evento
+     */
+    @Async("valorCarteirasExecutor")
+    @EventListener
+    public void onCotacoesAtualizadas(CotacoesAtualizadasEvent evento) {
+        metricasAssinantes.medir("carteiras", evento, () -> registrarTicks(evento.getAlteracoes()));
+    }
+
+    /**
+     * Registra os ticks de um lote e marca as carteiras afetadas para o próximo envio
+     */
+    public void registrarTicks(List<CotacoesTickMensagem.Tick> ticks) {
+        if (ticks.isEmpty()) {
+            return;
+        }
+        atualizarIndice();
+        for (CotacoesTickMensagem.Tick tick : ticks) {
+            String codigo = tick.getCodigo().toUpperCase();
+            ultimosPrecos.put(codigo, tick.getPreco());
+            pendentes.addAll(carteirasPorAtivo.getOrDefault(codigo, Collections.emptySet()));
+        }
+    }
+
+    /**
+     * Recalcula e envia o valor das carteiras pendentes (uma vez por carteira, mesmo após vários ticks)
+     */
+    @Scheduled(fixedDelayString = "${app.realtime.carteira.interval:2000}")
+    public void publicarPendentes() {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        List<Long> carteiras = new ArrayList<>(pendentes);
+        pendentes.removeAll(carteiras);
+
+        Map<String, BigDecimal> precos = new HashMap<>(ultimosPrecos);
+        for (Long carteiraId : carteiras) {
+            try {
+                CarteiraValorResponse valor = valorCarteiraService.calcularValorAtual(carteiraId, precos);
+                BigDecimal anterior = ultimoValorEnviado.put(carteiraId, valor.getValorTotal());
+                if (anterior == null || anterior.compareTo(valor.getValorTotal()) != 0) {
+                    messagingTemplate.convertAndSend(topico(carteiraId), mensagem(valor));
+                }
+            } catch (RuntimeException e) {
+                ultimoValorEnviado.remove(carteiraId);
+                System.err.println("Erro ao calcular valor da carteira " + carteiraId + ": " + e.getMessage());
+                // Carteira removida depois de indexada (a exclusão não altera o ledger): sai do índice
+                if (!carteiraRepository.existsById(carteiraId)) {
+                    removerDoIndice(carteiraId);
+                }
+            }
+        }
+    }
+
+    private CarteiraValorMensagem mensagem(CarteiraValorResponse valor) {
+        BigDecimal percentual = valor.getCustoTotal().signum() > 0
+                ? valor.getGanhoPerda().multiply(new BigDecimal("100"))
+                        .divide(valor.getCustoTotal(), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+        return new CarteiraValorMensagem(valor.getCarteiraId(), valor.getValorTotal(), valor.getCustoTotal(),
+                valor.getGanhoPerda(), percentual, System.currentTimeMillis());
+    }
+
+    /**
+     * Atualiza o índice ativo → carteiras: todas as posições em aberto na primeira chamada; depois, só as
+     * carteiras com versão diferente da indexada (nada é consultado se nenhuma posição mudou)
+     */
+    private synchronized void atualizarIndice() {
+        long versaoGlobal = posicaoLedgerService.getVersaoGlobal();
+        if (versaoGlobal == versaoIndexada) {
+            return;
+        }
+
+        // Versões lidas antes das consultas: uma alteração durante a leitura gera nova releitura depois
+        Map<Long, Long> versoes = new HashMap<>();
+        for (Long carteiraId : posicaoLedgerService.getCarteirasAlteradas()) {
+            versoes.put(carteiraId, posicaoLedgerService.getVersaoCarteira(carteiraId));
+        }
+
+        if (versaoIndexada < 0) {
+            Map<Long, Set<String>> codigosPorCarteira = new HashMap<>();
+            for (Object[] par : ativoRepository.findCodigosECarteirasComPosicao()) {
+                codigosPorCarteira.computeIfAbsent((Long) par[1], id -> new HashSet<>()).add((String) par[0]);
+            }
+            codigosPorCarteira.forEach((carteiraId, codigos) ->
+                    indexar(carteiraId, versoes.getOrDefault(carteiraId, 0L), codigos));
+        }
+        versoes.forEach((carteiraId, versao) -> {
+            PosicaoIndexada indexada = posicoesIndexadas.get(carteiraId);
+            if (indexada == null || indexada.versao() != versao) {
+                indexar(carteiraId, versao, new HashSet<>(ativoRepository.findCodigosComPosicao(carteiraId)));
+            }
+        });
+        versaoIndexada = versaoGlobal;
+    }
+
+    private void indexar(Long carteiraId, long versao, Set<String> codigos) {
+        PosicaoIndexada anterior = posicoesIndexadas.put(carteiraId, new PosicaoIndexada(versao, codigos));
+        if (anterior != null) {
+            for (String codigo : anterior.codigos()) {
+                if (!codigos.contains(codigo)) {
+                    removerCarteira(codigo, carteiraId);
+                }
+            }
+        }
+        for (String codigo : codigos) {
+            carteirasPorAtivo.computeIfAbsent(codigo, c -> ConcurrentHashMap.newKeySet()).add(carteiraId);
+        }
+    }
+
+    private synchronized void removerDoIndice(Long carteiraId) {
+        PosicaoIndexada anterior = posicoesIndexadas.remove(carteiraId);
+        if (anterior != null) {
+            anterior.codigos().forEach(codigo -> removerCarteira(codigo, carteiraId));
+        }
+    }
+
+    private void removerCarteira(String codigo, Long carteiraId) {
+        carteirasPorAtivo.computeIfPresent(codigo, (c, carteiras) -> {
+            carteiras.remove(carteiraId);
+            return carteiras.isEmpty() ? null : carteiras;
+        });
+    }
+
+    private record PosicaoIndexada(long versao, Set<String> codigos) {
+    }
+}
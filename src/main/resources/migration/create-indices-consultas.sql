@@ -0,0 +1,16 @@
+-- Script SQL para criar os índices das consultas mais usadas de TransacaoRepository, AtivoRepository e CarteiraRepository
+-- Execute este script no seu banco de dados MySQL/MariaDB (os mesmos índices estão declarados nas entidades)
+
+-- transacoes: ledger por ativo (carteira, código, data, id), filtros por tipo e por período
+CREATE INDEX IF NOT EXISTS idx_transacoes_carteira_ativo_data ON transacoes (carteira_id, codigo_ativo, data_transacao, id);
+CREATE INDEX IF NOT EXISTS idx_transacoes_carteira_tipo_data ON transacoes (carteira_id, tipo_transacao, data_transacao);
+CREATE INDEX IF NOT EXISTS idx_transacoes_carteira_data ON transacoes (carteira_id, data_transacao, id);
+
+-- ativos: um ativo por código em cada carteira (também atende findByCodigoAndCarteira e findByCarteira)
+-- Antes de criar, verifique duplicados com:
+--   SELECT carteira_id, codigo, COUNT(*) FROM ativos GROUP BY carteira_id, codigo HAVING COUNT(*) > 1;
+ALTER TABLE ativos ADD UNIQUE INDEX IF NOT EXISTS uk_ativos_carteira_codigo (carteira_id, codigo);
+CREATE INDEX IF NOT EXISTS idx_ativos_data_atualizacao ON ativos (data_atualizacao);
+
+-- carteiras: findCarteirasParaAtualizacao
+CREATE INDEX IF NOT EXISTS idx_carteiras_data_atualizacao ON carteiras (data_atualizacao);
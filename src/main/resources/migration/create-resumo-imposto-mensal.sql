@@ -0,0 +1,21 @@
+-- Script SQL para criar a tabela resumo_imposto_mensal (apuração mensal de IR por carteira e categoria)
+-- Execute este script no seu banco de dados MySQL/MariaDB se a tabela não existir
+
+CREATE TABLE IF NOT EXISTS resumo_imposto_mensal (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    carteira_id BIGINT NOT NULL,
+    ano INT NOT NULL,
+    mes INT NOT NULL,
+    categoria VARCHAR(20) NOT NULL,
+    total_vendas DECIMAL(15,2) NOT NULL,
+    resultado DECIMAL(15,2) NOT NULL,
+    prejuizo_compensado DECIMAL(15,2) NOT NULL,
+    prejuizo_acumulado DECIMAL(15,2) NOT NULL,
+    base_calculo DECIMAL(15,2) NOT NULL,
+    imposto_devido DECIMAL(15,2) NOT NULL,
+    isento BIT NOT NULL,
+    data_atualizacao DATETIME(6) NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_resumo_imposto_carteira_mes_categoria UNIQUE (carteira_id, ano, mes, categoria),
+    CONSTRAINT fk_resumo_imposto_carteira FOREIGN KEY (carteira_id) REFERENCES carteiras (id)
+);
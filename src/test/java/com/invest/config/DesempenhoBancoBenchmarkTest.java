@@ -0,0 +1,184 @@
+package com.invest.config;
+
+import com.invest.InvestmentPortfolioApplication;
+import com.invest.dto.TransacaoRequest;
+import com.invest.model.*;
+import com.invest.repository.CarteiraRepository;
+import com.invest.repository.InvestidorRepository;
+import com.invest.repository.TransacaoRepository;
+import com.invest.service.TransacaoService;
+import com.invest.service.banco.PoolConexoesService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de carga do caminho de criação de transações (TransacaoService.createTransacao), com várias
+ * threads, no perfil padrão e no perfil perf (pool, auto-commit e lote do Hibernate). Cada perfil sobe
+ * a aplicação com um H2 próprio. As opções do driver MariaDB (cache de statements, bulk) não se aplicam ao H2.
+ *
+ * Executar com: mvn test -Dtest=DesempenhoBancoBenchmarkTest -Dbenchmark=true
+ */
+@DisplayName("Benchmark - Perfil perf x padrão na criação de transações")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DesempenhoBancoBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int AQUECIMENTO = 250;
+    private static final int TRANSACOES_POR_THREAD = 250;
+    private static final String[] CODIGOS = {"PETR4", "VALE3", "ITUB4", "BBDC4", "WEGE3"};
+
+    @Test
+    @DisplayName("Compara transações por segundo no perfil padrão e no perfil perf")
+    void compararPerfis() throws Exception {
+        try (ConfigurableApplicationContext padrao = iniciar("padrao", "test");
+             ConfigurableApplicationContext perf = iniciar("perf", "test", "perf")) {
+            Carga cargaPadrao = new Carga(padrao);
+            Carga cargaPerf = new Carga(perf);
+            cargaPadrao.executar(AQUECIMENTO);
+            cargaPerf.executar(AQUECIMENTO);
+
+            // Ordem A-B-B-A: o JIT e o volume crescente de transações pesam igual nos dois perfis
+            double segundosPadrao = cargaPadrao.executar(TRANSACOES_POR_THREAD);
+            double segundosPerf = cargaPerf.executar(TRANSACOES_POR_THREAD);
+            segundosPerf += cargaPerf.executar(TRANSACOES_POR_THREAD);
+            segundosPadrao += cargaPadrao.executar(TRANSACOES_POR_THREAD);
+
+            cargaPadrao.verificar();
+            cargaPerf.verificar();
+
+            double transacoes = 2.0 * THREADS * TRANSACOES_POR_THREAD;
+            System.out.printf("📊 %d threads x %d transações, duas rodadas por perfil%n", THREADS, TRANSACOES_POR_THREAD);
+            System.out.printf("   Padrão: %8.1f transações/s%n", transacoes / segundosPadrao);
+            System.out.printf("   Perf:   %8.1f transações/s (%+.1f%%)%n", transacoes / segundosPerf,
+                    (segundosPadrao / segundosPerf - 1) * 100);
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciar(String nome, String... perfis) {
+        return new SpringApplicationBuilder(InvestmentPortfolioApplication.class)
+                .profiles(perfis)
+                // Sem MODE=MySQL: nele o H2 repete IDs de IDENTITY em INSERTs concorrentes
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:carga-" + nome + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.com.invest=WARN");
+    }
+
+    /**
+     * Aplicação de um perfil, com uma carteira por thread
+     */
+    private static class Carga {
+
+        private final ConfigurableApplicationContext contexto;
+        private final TransacaoService transacaoService;
+        private final List<Long> carteiras;
+        private int proxima;
+
+        Carga(ConfigurableApplicationContext contexto) {
+            this.contexto = contexto;
+            this.transacaoService = contexto.getBean(TransacaoService.class);
+            this.carteiras = criarCarteiras(contexto);
+        }
+
+        /**
+         * Executa a quantidade de transações em cada thread e devolve o tempo em segundos
+         */
+        double executar(int quantidade) throws Exception {
+            long inicio = System.nanoTime();
+            DesempenhoBancoBenchmarkTest.executar(transacaoService, carteiras, proxima, quantidade);
+            proxima += quantidade;
+            return (System.nanoTime() - inicio) / 1_000_000_000.0;
+        }
+
+        void verificar() {
+            assertEquals((long) THREADS * proxima, contexto.getBean(TransacaoRepository.class).count());
+            // Todas as conexões devolvidas ao pool
+            Map<String, Object> pool = contexto.getBean(PoolConexoesService.class).getStatus();
+            assertEquals(0, pool.get("ativas"));
+            // Com lote, UPDATEs e DELETEs da mesma tabela reaproveitam o statement
+            Statistics estatisticas = contexto.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            System.out.printf("   %.1f statements por transação | pool: %s%n",
+                    (double) estatisticas.getPrepareStatementCount() / (THREADS * proxima), pool);
+        }
+    }
+
+    /**
+     * Uma carteira por thread: mede o caminho de inserção, não a disputa pelas mesmas linhas
+     */
+    private static List<Long> criarCarteiras(ConfigurableApplicationContext contexto) {
+        Investidor investidor = new Investidor();
+        investidor.setNome("Investidor Carga");
+        investidor.setEmail("carga@example.com");
+        investidor.setSenha("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy");
+        investidor = contexto.getBean(InvestidorRepository.class).save(investidor);
+
+        List<Long> carteiras = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Carteira carteira = new Carteira();
+            carteira.setNome("Carteira Carga " + i);
+            carteira.setObjetivo(ObjetivoCarteira.APOSENTADORIA);
+            carteira.setPrazo(PrazoCarteira.LONGO_PRAZO);
+            carteira.setPerfilRisco(PerfilRisco.MODERADO_RISCO);
+            carteira.setValorInicial(new BigDecimal("10000.00"));
+            carteira.setInvestidor(investidor);
+            carteiras.add(contexto.getBean(CarteiraRepository.class).save(carteira).getId());
+        }
+        return carteiras;
+    }
+
+    private static void executar(TransacaoService transacaoService, List<Long> carteiras, int primeira, int quantidade)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (Long carteiraId : carteiras) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = primeira; i < primeira + quantidade; i++) {
+                        transacaoService.createTransacao(carteiraId, request(i));
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Grupos de quatro transações do mesmo ativo: três compras e uma venda (atualiza os resumos mensais de
+     * impostos), em datas crescentes
+     */
+    private static TransacaoRequest request(int i) {
+        boolean venda = i % 4 == 3;
+        String codigo = CODIGOS[i / 4 % CODIGOS.length];
+
+        TransacaoRequest request = new TransacaoRequest();
+        request.setTipoTransacao(venda ? TipoTransacao.VENDA : TipoTransacao.COMPRA);
+        request.setCodigoAtivo(codigo);
+        request.setNomeAtivo(codigo);
+        request.setTipoAtivo(TipoAtivo.ACAO);
+        request.setQuantidade(new BigDecimal(venda ? "5" : "10"));
+        request.setPrecoUnitario(new BigDecimal(20 + i % 7));
+        request.setDataTransacao(LocalDateTime.of(2024, 1, 2, 10, 0).plusDays(i));
+        return request;
+    }
+}
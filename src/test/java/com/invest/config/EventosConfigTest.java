@@ -0,0 +1,62 @@
+package com.invest.config;
+
+import com.invest.event.MetricasAssinantes;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a fila cheia dos executores de eventos
+ */
+@DisplayName("Testes Unitários - EventosConfig")
+class EventosConfigTest {
+
+    @Test
+    @DisplayName("Com a fila cheia deve descartar o evento mais antigo sem rodar na thread de quem publica")
+    void filaCheiaDeveDescartarMaisAntigo() throws Exception {
+        MetricasAssinantes metricas = new MetricasAssinantes();
+        EventosConfig config = new EventosConfig();
+        ReflectionTestUtils.setField(config, "queueCapacity", 2);
+        ReflectionTestUtils.setField(config, "metricasAssinantes", metricas);
+        ThreadPoolTaskExecutor executor = config.historicoCotacoesExecutor();
+        executor.initialize();
+        try {
+            CountDownLatch liberar = new CountDownLatch(1);
+            CountDownLatch ocupado = new CountDownLatch(1);
+            List<String> processados = new CopyOnWriteArrayList<>();
+            Thread publicador = Thread.currentThread();
+            executor.execute(() -> {
+                ocupado.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+
+            for (String evento : List.of("e1", "e2", "e3", "e4")) {
+                executor.execute(() -> {
+                    assertNotSame(publicador, Thread.currentThread());
+                    processados.add(evento);
+                });
+            }
+            liberar.countDown();
+            executor.getThreadPoolExecutor().shutdown();
+            assertTrue(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+
+            assertEquals(List.of("e3", "e4"), processados);
+            assertEquals(2L, metricas.getMetricas().get("historico").get("descartados"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
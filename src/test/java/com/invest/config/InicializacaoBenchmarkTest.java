@@ -0,0 +1,100 @@
+package com.invest.config;
+
+import com.invest.InvestmentPortfolioApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de inicialização: tempo até o contexto subir e até a primeira requisição respondida
+ * (GET /api/investidores, que passa pelo banco), no perfil padrão e no perfil rapido (beans fora da camada
+ * web preguiçosos, repositórios diferidos). Cada inicialização usa um H2 próprio e é encerrada em seguida.
+ * AOT e CDS dependem do empacotamento: medir com run-cds.sh.
+ *
+ * Executar com: mvn test -Dtest=InicializacaoBenchmarkTest -Dbenchmark=true
+ */
+@DisplayName("Benchmark - Tempo até a primeira requisição, perfil rapido x padrão")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InicializacaoBenchmarkTest {
+
+    private static final int RODADAS = 3;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("Compara o tempo até a primeira requisição no perfil padrão e no perfil rapido")
+    void compararPerfis() throws Exception {
+        // Aquecimento: a primeira inicialização da JVM carrega e compila classes comuns aos dois perfis
+        medir("aquecimento", "test");
+
+        Tempos padrao = new Tempos();
+        Tempos rapido = new Tempos();
+        for (int i = 0; i < RODADAS; i++) {
+            // Ordem A-B-B-A: o aquecimento da JVM pesa igual nos dois perfis
+            padrao.somar(medir("padrao-" + i + "a", "test"));
+            rapido.somar(medir("rapido-" + i + "a", "test", "rapido"));
+            rapido.somar(medir("rapido-" + i + "b", "test", "rapido"));
+            padrao.somar(medir("padrao-" + i + "b", "test"));
+        }
+
+        System.out.printf("📊 %d inicializações por perfil (médias)%n", 2 * RODADAS);
+        System.out.printf("   Padrão: contexto %6.0f ms | primeira requisição %6.0f ms%n",
+                padrao.mediaContexto(), padrao.mediaPrimeiraRequisicao());
+        System.out.printf("   Rápido: contexto %6.0f ms | primeira requisição %6.0f ms (%+.1f%%)%n",
+                rapido.mediaContexto(), rapido.mediaPrimeiraRequisicao(),
+                (rapido.mediaPrimeiraRequisicao() / padrao.mediaPrimeiraRequisicao() - 1) * 100);
+    }
+
+    /**
+     * Inicia a aplicação, faz a primeira requisição e devolve {ms até o contexto, ms até a resposta}
+     */
+    private long[] medir(String nome, String... perfis) throws Exception {
+        long inicio = System.nanoTime();
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(InvestmentPortfolioApplication.class)
+                .profiles(perfis)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:inicio-" + nome + ";DB_CLOSE_DELAY=-1",
+                        "--logging.level.com.invest=WARN")) {
+            long contextoPronto = System.nanoTime();
+
+            String porta = contexto.getEnvironment().getProperty("local.server.port");
+            HttpResponse<String> resposta = httpClient.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/investidores")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            long primeiraRequisicao = System.nanoTime();
+
+            assertEquals(200, resposta.statusCode());
+            return new long[]{(contextoPronto - inicio) / 1_000_000, (primeiraRequisicao - inicio) / 1_000_000};
+        }
+    }
+
+    private static class Tempos {
+
+        private long contexto;
+        private long primeiraRequisicao;
+        private int quantidade;
+
+        void somar(long[] tempos) {
+            contexto += tempos[0];
+            primeiraRequisicao += tempos[1];
+            quantidade++;
+        }
+
+        double mediaContexto() {
+            return (double) contexto / quantidade;
+        }
+
+        double mediaPrimeiraRequisicao() {
+            return (double) primeiraRequisicao / quantidade;
+        }
+    }
+}
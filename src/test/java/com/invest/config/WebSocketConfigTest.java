@@ -0,0 +1,139 @@
+package com.invest.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a política de cliente lento e as credenciais do relay do WebSocketConfig
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - WebSocketConfig")
+class WebSocketConfigTest {
+
+    @Mock
+    private MessageChannel canalEntrada;
+
+    @Mock
+    private SubscribableChannel canalSaida;
+
+    @Mock
+    private WebSocketSession sessao;
+
+    @Test
+    @DisplayName("Relay sem credenciais da sessão de sistema não deve subir com um padrão")
+    void relaySemCredenciaisDeSistemaDeveFalhar() {
+        WebSocketConfig config = new WebSocketConfig();
+        ReflectionTestUtils.setField(config, "broker", "relay");
+        ReflectionTestUtils.setField(config, "relayHost", "localhost");
+        ReflectionTestUtils.setField(config, "relayPort", 61613);
+        ReflectionTestUtils.setField(config, "relayLogin", "cliente");
+        ReflectionTestUtils.setField(config, "relayPasscode", "cliente");
+        ReflectionTestUtils.setField(config, "relaySystemLogin", "");
+        ReflectionTestUtils.setField(config, "relaySystemPasscode", "");
+
+        IllegalStateException erro = assertThrows(IllegalStateException.class,
+                () -> config.configureMessageBroker(new MessageBrokerRegistry(canalSaida, canalEntrada)));
+        assertTrue(erro.getMessage().contains("app.websocket.relay.system-login"));
+    }
+
+    @Test
+    @DisplayName("Cliente lento deve descartar mensagens antigas sem bloquear quem envia")
+    void clienteLentoDeveDescartarSemBloquear() throws Exception {
+        CountDownLatch envioIniciado = new CountDownLatch(1);
+        CountDownLatch liberarEnvio = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            envioIniciado.countDown();
+            liberarEnvio.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(sessao).sendMessage(any());
+        ConcurrentWebSocketSessionDecorator sessaoDecorada = decorar(OverflowStrategy.DROP);
+
+        // Primeiro envio fica preso na rede do cliente
+        Thread envioLento = new Thread(() -> {
+            try {
+                sessaoDecorada.sendMessage(new TextMessage("primeiro"));
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+        envioLento.start();
+        assertTrue(envioIniciado.await(5, TimeUnit.SECONDS));
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            sessaoDecorada.sendMessage(new TextMessage("x".repeat(100)));
+        }
+        long duracaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        assertTrue(duracaoMs < 1_000, "envio não deve bloquear: " + duracaoMs + " ms");
+        assertTrue(sessaoDecorada.getBufferSize() <= 1_000);
+        verify(sessao, never()).close(any(CloseStatus.class));
+
+        liberarEnvio.countDown();
+        envioLento.join(5_000);
+    }
+
+    @Test
+    @DisplayName("Na política padrão, buffer estourado deve encerrar a sessão do cliente lento")
+    void clientePadraoDeveSerDesconectado() throws Exception {
+        CountDownLatch envioIniciado = new CountDownLatch(1);
+        CountDownLatch liberarEnvio = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            envioIniciado.countDown();
+            liberarEnvio.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(sessao).sendMessage(any());
+        ConcurrentWebSocketSessionDecorator sessaoDecorada = decorar(OverflowStrategy.TERMINATE);
+
+        Thread envioLento = new Thread(() -> {
+            try {
+                sessaoDecorada.sendMessage(new TextMessage("primeiro"));
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+        envioLento.start();
+        assertTrue(envioIniciado.await(5, TimeUnit.SECONDS));
+
+        // O SubProtocolWebSocketHandler fecha a sessão ao receber a exceção
+        assertThrows(SessionLimitExceededException.class, () -> {
+            for (int i = 0; i < 100; i++) {
+                sessaoDecorada.sendMessage(new TextMessage("x".repeat(100)));
+            }
+        });
+
+        liberarEnvio.countDown();
+        envioLento.join(5_000);
+    }
+
+    /**
+     * Sessão como o handler STOMP do WebSocketConfig a decora, com buffer de 1000 bytes
+     */
+    private ConcurrentWebSocketSessionDecorator decorar(OverflowStrategy estrategia) {
+        WebSocketConfig.ClienteLentoWebSocketHandler handler =
+                new WebSocketConfig.ClienteLentoWebSocketHandler(canalEntrada, canalSaida, estrategia);
+        handler.setSendTimeLimit(10_000);
+        handler.setSendBufferSizeLimit(1_000);
+        return (ConcurrentWebSocketSessionDecorator) handler.decorateSession(sessao);
+    }
+}
@@ -0,0 +1,49 @@
+package com.invest.console;
+
+import com.invest.InvestmentPortfolioApplication;
+import com.invest.model.Carteira;
+import com.invest.model.PerfilRiscoConverter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do perfil console: contexto sem camada web e hints do Spring AOT para a imagem nativa
+ */
+@DisplayName("Testes - Perfil console")
+class ConsolePerfilTest {
+
+    @Test
+    @DisplayName("Perfil console não sobe servidor web, controllers nem broker WebSocket")
+    void perfilConsoleSemCamadaWeb() {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(InvestmentPortfolioApplication.class)
+                .profiles("test", "console")
+                // Sem o CommandLineRunner: ele bloquearia lendo stdin
+                .run("--app.console.enabled=false",
+                        "--spring.datasource.url=jdbc:h2:mem:console;DB_CLOSE_DELAY=-1")) {
+            assertFalse(contexto instanceof WebServerApplicationContext);
+            assertTrue(contexto.getBeansWithAnnotation(RestController.class).isEmpty());
+            assertEquals(0, contexto.getBeanNamesForType(SimpMessagingTemplate.class).length);
+        }
+    }
+
+    @Test
+    @DisplayName("Hints registram entidades, conversor JPA e arquivos de dados")
+    void hintsRegistramEntidadesERecursos() {
+        RuntimeHints hints = new RuntimeHints();
+        new ConsoleRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Carteira.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(PerfilRiscoConverter.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("data/cotacoes.json").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("data/feriados-b3.txt").test(hints));
+    }
+}
@@ -0,0 +1,57 @@
+package com.invest.event;
+
+import com.invest.dto.CotacoesTickMensagem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para CotacoesAtualizadasEvent e MetricasAssinantes
+ */
+@DisplayName("Testes Unitários - CotacoesAtualizadasEvent")
+class CotacoesAtualizadasEventTest {
+
+    @Test
+    @DisplayName("Deve conter apenas ativos novos ou com preço alterado")
+    void deveConterApenasAtivosAlterados() {
+        CotacoesAtualizadasEvent evento = CotacoesAtualizadasEvent.de(1,
+                Map.of("PETR4", new BigDecimal("30.00"), "VALE3", new BigDecimal("60.00"), "BBAS3", new BigDecimal("27.00")),
+                Map.of("PETR4", new BigDecimal("30.0"), "VALE3", new BigDecimal("61.50"), "ITUB4", new BigDecimal("25.00")));
+
+        List<CotacoesTickMensagem.Tick> alteracoes = evento.getAlteracoes();
+        assertEquals(2, alteracoes.size());
+        assertEquals("ITUB4", alteracoes.get(0).getCodigo());
+        assertNull(alteracoes.get(0).getPrecoAnterior());
+        assertEquals("VALE3", alteracoes.get(1).getCodigo());
+        assertEquals(0, new BigDecimal("60.00").compareTo(alteracoes.get(1).getPrecoAnterior()));
+        assertEquals(3, evento.getCotacoes().size());
+    }
+
+    @Test
+    @DisplayName("Deve medir lag por assinante sem propagar falhas")
+    void deveMedirLagSemPropagarFalhas() {
+        MetricasAssinantes metricas = new MetricasAssinantes();
+        CotacoesAtualizadasEvent evento = CotacoesAtualizadasEvent.de(7, Collections.emptyMap(),
+                Map.of("PETR4", new BigDecimal("30.00")));
+        AtomicBoolean executou = new AtomicBoolean();
+
+        metricas.medir("historico", evento, () -> executou.set(true));
+        metricas.medir("websocket", evento, () -> {
+            throw new IllegalStateException("falha simulada");
+        });
+
+        assertTrue(executou.get());
+        Map<String, Map<String, Object>> retrato = metricas.getMetricas();
+        assertEquals(1L, retrato.get("historico").get("eventos"));
+        assertEquals(0L, retrato.get("historico").get("falhas"));
+        assertEquals(7L, retrato.get("historico").get("ultimaSequencia"));
+        assertEquals(1L, retrato.get("websocket").get("falhas"));
+    }
+}
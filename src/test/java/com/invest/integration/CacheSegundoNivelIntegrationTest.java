@@ -0,0 +1,180 @@
+package com.invest.integration;
+
+import com.invest.dto.TransacaoRequest;
+import com.invest.model.*;
+import com.invest.repository.AtivoRepository;
+import com.invest.repository.CarteiraRepository;
+import com.invest.repository.InvestidorRepository;
+import com.invest.repository.TransacaoRepository;
+import com.invest.service.TransacaoService;
+import com.invest.service.cache.CacheEntidadesService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mede as leituras no banco com o cache de segundo nível habilitado: depois da primeira leitura, carteira,
+ * investidor, ativos e a lista de carteiras do investidor vêm do cache. Sem @Transactional: o cache só é
+ * populado e invalidado por transações confirmadas. Banco próprio, porque os dados são confirmados.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.cache.segundo-nivel.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:cache;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@DisplayName("Testes de Integração - Cache de segundo nível")
+class CacheSegundoNivelIntegrationTest {
+
+    private static final int LEITURAS = 5;
+
+    @Autowired
+    private InvestidorRepository investidorRepository;
+
+    @Autowired
+    private CarteiraRepository carteiraRepository;
+
+    @Autowired
+    private AtivoRepository ativoRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private TransacaoService transacaoService;
+
+    @Autowired
+    private CacheEntidadesService cacheEntidadesService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics estatisticas;
+    private Long carteiraId;
+
+    @BeforeEach
+    void setUp() {
+        Investidor investidor = new Investidor();
+        investidor.setNome("Investidor Cache");
+        investidor.setEmail("cache@example.com");
+        investidor.setSenha("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy");
+        investidor = investidorRepository.save(investidor);
+
+        Carteira carteira = new Carteira();
+        carteira.setNome("Carteira Cache");
+        carteira.setObjetivo(ObjetivoCarteira.APOSENTADORIA);
+        carteira.setPrazo(PrazoCarteira.LONGO_PRAZO);
+        carteira.setPerfilRisco(PerfilRisco.MODERADO_RISCO);
+        carteira.setValorInicial(new BigDecimal("10000.00"));
+        carteira.setInvestidor(investidor);
+        carteiraId = carteiraRepository.save(carteira).getId();
+
+        for (String codigo : new String[]{"PETR4", "VALE3", "ITUB4"}) {
+            Ativo ativo = new Ativo();
+            ativo.setCodigo(codigo);
+            ativo.setNome(codigo);
+            ativo.setTipo(TipoAtivo.ACAO);
+            ativo.setQuantidade(new BigDecimal("10"));
+            ativo.setPrecoCompra(new BigDecimal("20.00"));
+            ativo.setCarteira(carteira);
+            ativoRepository.save(ativo);
+        }
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        estatisticas = sessionFactory.getStatistics();
+        estatisticas.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // A limpeza apaga ativos direto pelo repositório, o que a aplicação não faz
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        transacaoRepository.deleteAll();
+        ativoRepository.deleteAll();
+        carteiraRepository.deleteAll();
+        investidorRepository.deleteAll();
+    }
+
+    /**
+     * Leitura típica de uma requisição, em transação própria: carteira, dono, ativos e carteiras do dono
+     */
+    private int lerCarteira() {
+        return transactionTemplate.execute(status -> {
+            Carteira carteira = carteiraRepository.findById(carteiraId).orElseThrow();
+            assertEquals("Investidor Cache", carteira.getInvestidor().getNome());
+            assertEquals(1, carteiraRepository.findByInvestidor(carteira.getInvestidor()).size());
+            return carteira.getAtivos().size();
+        });
+    }
+
+    @Test
+    @DisplayName("Leituras repetidas devem vir do cache, sem novos comandos no banco")
+    void leiturasRepetidasDevemVirDoCache() {
+        lerCarteira();
+        long comandosPrimeiraLeitura = estatisticas.getPrepareStatementCount();
+
+        for (int i = 1; i < LEITURAS; i++) {
+            assertEquals(3, lerCarteira());
+        }
+
+        // Carteira, investidor, consulta por investidor e ativos: só na primeira leitura
+        assertEquals(4, comandosPrimeiraLeitura);
+        assertEquals(comandosPrimeiraLeitura, estatisticas.getPrepareStatementCount());
+        assertEquals(LEITURAS - 1, estatisticas.getQueryCacheHitCount());
+        assertTrue(estatisticas.getSecondLevelCacheHitCount() >= 3L * (LEITURAS - 1));
+    }
+
+    @Test
+    @DisplayName("Ativo criado por transação deve aparecer na lista de ativos em cache")
+    void ativoNovoDeveInvalidarColecao() {
+        assertEquals(3, lerCarteira());
+
+        TransacaoRequest request = new TransacaoRequest();
+        request.setTipoTransacao(TipoTransacao.COMPRA);
+        request.setCodigoAtivo("WEGE3");
+        request.setNomeAtivo("WEG ON");
+        request.setTipoAtivo(TipoAtivo.ACAO);
+        request.setQuantidade(new BigDecimal("10"));
+        request.setPrecoUnitario(new BigDecimal("40.00"));
+        transacaoService.createTransacao(carteiraId, request);
+
+        assertEquals(4, lerCarteira());
+    }
+
+    @Test
+    @DisplayName("Status deve expor taxas de acerto por região e do cache de consultas")
+    @SuppressWarnings("unchecked")
+    void statusDeveExporTaxasDeAcerto() {
+        for (int i = 0; i < LEITURAS; i++) {
+            lerCarteira();
+        }
+
+        Map<String, Object> status = cacheEntidadesService.getStatus();
+
+        assertEquals(true, status.get("habilitado"));
+        Map<String, Object> regioes = (Map<String, Object>) status.get("regioes");
+        Map<String, Object> carteiras = (Map<String, Object>) regioes.get(Carteira.class.getName());
+        assertEquals(LEITURAS - 1L, carteiras.get("acertos"));
+        assertEquals(0, new BigDecimal("0.8000").compareTo((BigDecimal) carteiras.get("taxaAcerto")));
+        Map<String, Object> consultas = (Map<String, Object>) status.get("consultas");
+        assertEquals(0, new BigDecimal("0.8000").compareTo((BigDecimal) consultas.get("taxaAcerto")));
+    }
+}
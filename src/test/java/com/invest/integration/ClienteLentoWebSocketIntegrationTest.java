@@ -0,0 +1,209 @@
+package com.invest.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Política de cliente lento (app.websocket.slow-consumer=drop) pelo servidor e pelo handler STOMP reais:
+ * um cliente WebSocket em socket cru assina um tópico e para de ler enquanto o servidor publica
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.autoconfigure.exclude=",
+        "app.websocket.slow-consumer=drop",
+        "app.websocket.send-buffer-size-limit=65536",
+        // Maior que o teste: só o estouro do buffer entra em jogo
+        "app.websocket.send-time-limit=60000"
+})
+@ActiveProfiles("test")
+@DisplayName("Testes de Integração - WebSocket cliente lento")
+class ClienteLentoWebSocketIntegrationTest {
+
+    private static final String TOPICO = "/topic/cliente-lento";
+    private static final int PUBLICACOES = 2_000;
+    private static final int TAMANHO_MENSAGEM = 16 * 1024;
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private SubProtocolWebSocketHandler subProtocolWebSocketHandler;
+
+    @Autowired
+    @Qualifier("clientOutboundChannelExecutor")
+    private ThreadPoolTaskExecutor executorSaida;
+
+    private Socket cliente;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (cliente != null) {
+            cliente.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Cliente que não lê deve perder mensagens antigas sem ser desconectado nem travar o canal de saída")
+    void clienteQueNaoLeDeveDescartarSemDesconectar() throws Exception {
+        conectarEAssinar();
+
+        // Daqui em diante o cliente não lê: a rede enche e o envio para ele fica preso no servidor
+        String conteudo = "x".repeat(TAMANHO_MENSAGEM);
+        for (int i = 0; i < PUBLICACOES; i++) {
+            messagingTemplate.convertAndSend(TOPICO, conteudo);
+        }
+
+        // Só a thread presa no envio fica ocupada; o resto da fila de saída é esvaziado (mensagens descartadas)
+        aguardar(() -> executorSaida.getThreadPoolExecutor().getQueue().isEmpty()
+                && executorSaida.getActiveCount() <= 1);
+        SubProtocolWebSocketHandler.Stats stats = subProtocolWebSocketHandler.getStats();
+        assertEquals(1, stats.getWebSocketSessions());
+        assertEquals(0, stats.getLimitExceededSessions());
+
+        // Voltando a ler, a sessão continua viva, mas só com parte do que foi publicado
+        int recebidas = contarMensagensRecebidas();
+        assertTrue(recebidas > 0, "cliente deveria continuar conectado");
+        assertTrue(recebidas < PUBLICACOES, "mensagens antigas deveriam ter sido descartadas: " + recebidas);
+    }
+
+    /**
+     * Handshake WebSocket, CONNECT e SUBSCRIBE; lê até receber a primeira mensagem do tópico
+     */
+    private void conectarEAssinar() throws Exception {
+        cliente = new Socket();
+        cliente.setReceiveBufferSize(4096);
+        cliente.connect(new InetSocketAddress("localhost", porta), 5_000);
+        cliente.setSoTimeout(5_000);
+
+        byte[] chave = new byte[16];
+        ThreadLocalRandom.current().nextBytes(chave);
+        OutputStream saida = cliente.getOutputStream();
+        saida.write(("GET /ws-cotacoes/websocket HTTP/1.1\r\n"
+                + "Host: localhost:" + porta + "\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Key: " + Base64.getEncoder().encodeToString(chave) + "\r\n"
+                + "Sec-WebSocket-Version: 13\r\n"
+                + "Sec-WebSocket-Protocol: v12.stomp\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        assertTrue(lerCabecalhos().startsWith("HTTP/1.1 101"));
+        cliente.setSoTimeout(200);
+
+        enviarFrame("CONNECT\naccept-version:1.2\nhost:localhost\nheart-beat:0,0\n\n\0");
+        enviarFrame("SUBSCRIBE\nid:0\ndestination:" + TOPICO + "\n\n\0");
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < limite) {
+            messagingTemplate.convertAndSend(TOPICO, "ping");
+            try {
+                while (true) {
+                    if (lerFrame().startsWith("MESSAGE")) {
+                        return;
+                    }
+                }
+            } catch (SocketTimeoutException e) {
+                // Assinatura ainda não registrada no broker
+            }
+        }
+        fail("assinatura não confirmada");
+    }
+
+    private int contarMensagensRecebidas() throws IOException {
+        cliente.setSoTimeout(2_000);
+        int recebidas = 0;
+        try {
+            while (true) {
+                if (lerFrame().startsWith("MESSAGE")) {
+                    recebidas++;
+                }
+            }
+        } catch (SocketTimeoutException e) {
+            return recebidas;
+        }
+    }
+
+    private String lerCabecalhos() throws IOException {
+        ByteArrayOutputStream cabecalhos = new ByteArrayOutputStream();
+        while (!cabecalhos.toString(StandardCharsets.US_ASCII).endsWith("\r\n\r\n")) {
+            int b = cliente.getInputStream().read();
+            if (b < 0) {
+                break;
+            }
+            cabecalhos.write(b);
+        }
+        return cabecalhos.toString(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Frame de texto do cliente (com máscara, como exige o protocolo)
+     */
+    private void enviarFrame(String texto) throws IOException {
+        byte[] dados = texto.getBytes(StandardCharsets.UTF_8);
+        byte[] mascara = new byte[4];
+        ThreadLocalRandom.current().nextBytes(mascara);
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(0x81);
+        if (dados.length < 126) {
+            frame.write(0x80 | dados.length);
+        } else {
+            frame.write(0x80 | 126);
+            frame.write(dados.length >> 8);
+            frame.write(dados.length);
+        }
+        frame.write(mascara);
+        for (int i = 0; i < dados.length; i++) {
+            frame.write(dados[i] ^ mascara[i % 4]);
+        }
+        cliente.getOutputStream().write(frame.toByteArray());
+    }
+
+    /**
+     * Lê um frame do servidor (sem máscara) e devolve o conteúdo como texto
+     */
+    private String lerFrame() throws IOException {
+        DataInputStream entrada = new DataInputStream(cliente.getInputStream());
+        entrada.readUnsignedByte();
+        long tamanho = entrada.readUnsignedByte() & 0x7F;
+        if (tamanho == 126) {
+            tamanho = entrada.readUnsignedShort();
+        } else if (tamanho == 127) {
+            tamanho = entrada.readLong();
+        }
+        byte[] dados = new byte[(int) tamanho];
+        entrada.readFully(dados);
+        return new String(dados, StandardCharsets.UTF_8);
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "condição não atingida a tempo");
+            Thread.sleep(50);
+        }
+    }
+}
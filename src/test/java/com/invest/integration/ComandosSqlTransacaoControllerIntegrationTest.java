@@ -0,0 +1,185 @@
+package com.invest.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invest.dto.TransacaoRequest;
+import com.invest.model.*;
+import com.invest.repository.AtivoRepository;
+import com.invest.repository.CarteiraRepository;
+import com.invest.repository.InvestidorRepository;
+import com.invest.repository.TransacaoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fixa o número de comandos SQL (estatísticas do Hibernate) de cada endpoint de leitura de TransacaoController
+ * e da criação de transação. Um aumento aqui indica SELECT redundante (ex.: carregar a carteira só para
+ * filtrar pelo ID) ou N+1.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@DisplayName("Testes de Integração - Comandos SQL por endpoint de transações")
+class ComandosSqlTransacaoControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InvestidorRepository investidorRepository;
+
+    @Autowired
+    private CarteiraRepository carteiraRepository;
+
+    @Autowired
+    private AtivoRepository ativoRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Carteira carteira;
+
+    @BeforeEach
+    void setUp() {
+        Investidor investidor = new Investidor();
+        investidor.setNome("Investidor Comandos");
+        investidor.setEmail("comandos@example.com");
+        investidor.setSenha("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy");
+        investidor = investidorRepository.save(investidor);
+
+        carteira = new Carteira();
+        carteira.setNome("Carteira Comandos");
+        carteira.setObjetivo(ObjetivoCarteira.APOSENTADORIA);
+        carteira.setPrazo(PrazoCarteira.LONGO_PRAZO);
+        carteira.setPerfilRisco(PerfilRisco.MODERADO_RISCO);
+        carteira.setValorInicial(new BigDecimal("10000.00"));
+        carteira.setInvestidor(investidor);
+        carteira = carteiraRepository.save(carteira);
+
+        for (String codigo : new String[]{"PETR4", "VALE3", "ITUB4"}) {
+            Ativo ativo = new Ativo();
+            ativo.setCodigo(codigo);
+            ativo.setNome(codigo);
+            ativo.setTipo(TipoAtivo.ACAO);
+            ativo.setQuantidade(new BigDecimal("10"));
+            ativo.setPrecoCompra(new BigDecimal("20.00"));
+            ativo.setCarteira(carteira);
+            ativo = ativoRepository.save(ativo);
+
+            for (int i = 0; i < 3; i++) {
+                Transacao transacao = new Transacao();
+                transacao.setTipoTransacao(i == 2 ? TipoTransacao.DIVIDENDO : TipoTransacao.COMPRA);
+                transacao.setCodigoAtivo(codigo);
+                transacao.setNomeAtivo(codigo);
+                transacao.setTipoAtivo(TipoAtivo.ACAO);
+                transacao.setQuantidade(new BigDecimal("5"));
+                transacao.setPrecoUnitario(new BigDecimal("20.00"));
+                transacao.setDataTransacao(LocalDateTime.of(2025, 1, 10, 10, 0).plusDays(i));
+                transacao.setCarteira(carteira);
+                transacao.setAtivo(ativo);
+                transacaoRepository.save(transacao);
+            }
+        }
+    }
+
+    /**
+     * Executa a requisição com o contexto de persistência vazio e devolve o número de comandos preparados
+     */
+    private long comandos(RequestBuilder requisicao, ResultMatcher esperado) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        mockMvc.perform(requisicao).andExpect(esperado);
+        entityManager.flush();
+
+        return estatisticas.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("Listagem paginada deve usar um comando")
+    void listagemPaginada() throws Exception {
+        assertEquals(1, comandos(get("/api/transacoes/carteira/{id}", carteira.getId()), status().isOk()));
+    }
+
+    @Test
+    @DisplayName("Filtros por tipo, ativo e período devem usar um comando, com a carteira no mesmo SELECT")
+    void filtros() throws Exception {
+        assertEquals(1, comandos(get("/api/transacoes/carteira/{id}/tipo/COMPRA", carteira.getId()), status().isOk()));
+        assertEquals(1, comandos(get("/api/transacoes/carteira/{id}/ativo/PETR4", carteira.getId()), status().isOk()));
+        assertEquals(1, comandos(get("/api/transacoes/carteira/{id}/periodo", carteira.getId())
+                .param("dataInicio", "2025-01-01T00:00:00")
+                .param("dataFim", "2025-12-31T23:59:59"), status().isOk()));
+    }
+
+    @Test
+    @DisplayName("Filtro sem resultado deve verificar a existência da carteira com um comando a mais")
+    void filtroSemResultado() throws Exception {
+        assertEquals(2, comandos(get("/api/transacoes/carteira/{id}/ativo/WEGE3", carteira.getId()), status().isOk()));
+        assertEquals(2, comandos(get("/api/transacoes/carteira/{id}/ativo/WEGE3", 999_999L), status().isBadRequest()));
+    }
+
+    @Test
+    @DisplayName("Transação por ID e estatísticas devem usar um comando")
+    void transacaoEEstatisticas() throws Exception {
+        Long transacaoId = transacaoRepository.findByCarteiraId(carteira.getId()).get(0).getId();
+
+        assertEquals(1, comandos(get("/api/transacoes/{id}", transacaoId), status().isOk()));
+        assertEquals(1, comandos(get("/api/transacoes/carteira/{id}/estatisticas", carteira.getId()), status().isOk()));
+    }
+
+    @Test
+    @DisplayName("Criação de transação não deve carregar os ativos da carteira para o valor atual")
+    void criacaoDeTransacao() throws Exception {
+        TransacaoRequest request = new TransacaoRequest();
+        request.setTipoTransacao(TipoTransacao.COMPRA);
+        request.setCodigoAtivo("PETR4");
+        request.setNomeAtivo("PETR4");
+        request.setTipoAtivo(TipoAtivo.ACAO);
+        request.setQuantidade(new BigDecimal("5"));
+        request.setPrecoUnitario(new BigDecimal("22.00"));
+        request.setDataTransacao(LocalDateTime.of(2025, 2, 1, 10, 0));
+
+        long comandos = comandos(post("/api/transacoes/carteira/{id}", carteira.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)), status().isCreated());
+
+        // Carteira, ativo, INSERT da transação, ledger do ativo, resumo de impostos (3), UPDATE do ativo,
+        // SUM do valor atual e UPDATE da carteira
+        assertEquals(10, comandos);
+    }
+}
@@ -0,0 +1,198 @@
+package com.invest.integration;
+
+import com.invest.dto.TransacaoRequest;
+import com.invest.model.*;
+import com.invest.repository.AtivoRepository;
+import com.invest.repository.CarteiraRepository;
+import com.invest.repository.InvestidorRepository;
+import com.invest.repository.TransacaoRepository;
+import com.invest.service.TransacaoService;
+import com.invest.service.banco.EscritasCarteiraService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compras simultâneas na mesma carteira: nenhuma atualização de quantidade ou de valor atual pode se perder.
+ * Sem @Transactional: cada compra abre a própria transação (e as novas tentativas). Banco próprio e sem
+ * MODE=MySQL, em que o H2 repete IDs de IDENTITY em INSERTs concorrentes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concorrencia;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.transacoes.retry.tentativas=20",
+        "logging.level.com.invest=WARN"
+})
+@DisplayName("Testes de Integração - Concorrência de transações")
+class ConcorrenciaTransacoesIntegrationTest {
+
+    private static final int ESCRITORES = 64;
+    private static final BigDecimal QUANTIDADE_INICIAL = new BigDecimal("10");
+
+    @Autowired
+    private InvestidorRepository investidorRepository;
+
+    @Autowired
+    private CarteiraRepository carteiraRepository;
+
+    @Autowired
+    private AtivoRepository ativoRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private TransacaoService transacaoService;
+
+    @Autowired
+    private EscritasCarteiraService escritasCarteiraService;
+
+    private Carteira carteira;
+
+    @BeforeEach
+    void setUp() {
+        Investidor investidor = new Investidor();
+        investidor.setNome("Investidor Concorrência");
+        investidor.setEmail("concorrencia@example.com");
+        investidor.setSenha("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy");
+        investidor = investidorRepository.save(investidor);
+
+        carteira = new Carteira();
+        carteira.setNome("Carteira Concorrência");
+        carteira.setObjetivo(ObjetivoCarteira.APOSENTADORIA);
+        carteira.setPrazo(PrazoCarteira.LONGO_PRAZO);
+        carteira.setPerfilRisco(PerfilRisco.MODERADO_RISCO);
+        carteira.setValorInicial(new BigDecimal("10000.00"));
+        carteira.setInvestidor(investidor);
+        carteira = carteiraRepository.save(carteira);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(escritasCarteiraService, "lockPorCarteira", true);
+        transacaoRepository.deleteAll();
+        ativoRepository.deleteAll();
+        carteiraRepository.deleteAll();
+        investidorRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Com lock por carteira, 64 compras simultâneas do mesmo ativo devem ser todas confirmadas")
+    void comprasSimultaneasMesmoAtivoComLock() throws Exception {
+        transacaoService.createTransacao(carteira.getId(), compra("PETR4", QUANTIDADE_INICIAL));
+
+        List<Throwable> falhas = executarSimultaneamente(i -> compra("PETR4", BigDecimal.ONE));
+
+        assertEquals(List.of(), falhas);
+        assertEquals(0, QUANTIDADE_INICIAL.add(BigDecimal.valueOf(ESCRITORES)).compareTo(quantidade("PETR4")));
+        assertEquals(ESCRITORES + 1, transacaoRepository.count());
+        assertValorAtualConsistente();
+    }
+
+    @Test
+    @DisplayName("Só com novas tentativas, cada compra confirmada deve aparecer na posição e no valor da carteira")
+    void comprasSimultaneasSemLockComNovasTentativas() throws Exception {
+        // Um ativo por escritor: o conflito é na versão da carteira, regravada a cada compra
+        for (int i = 0; i < ESCRITORES; i++) {
+            transacaoService.createTransacao(carteira.getId(), compra(codigo(i), QUANTIDADE_INICIAL));
+        }
+        ReflectionTestUtils.setField(escritasCarteiraService, "lockPorCarteira", false);
+        long conflitosAntes = escritasCarteiraService.getConflitos();
+
+        List<Throwable> falhas = executarSimultaneamente(i -> compra(codigo(i), BigDecimal.ONE));
+
+        // Compras que esgotaram as tentativas falham por conflito, nunca com a posição parcialmente gravada
+        for (Throwable falha : falhas) {
+            assertInstanceOf(ConcurrencyFailureException.class, falha);
+        }
+        int confirmadas = 0;
+        for (int i = 0; i < ESCRITORES; i++) {
+            BigDecimal quantidade = quantidade(codigo(i));
+            int compras = transacaoRepository.findByCarteiraIdAndCodigoAtivo(carteira.getId(), codigo(i)).size();
+            assertEquals(0, QUANTIDADE_INICIAL.add(BigDecimal.valueOf(compras - 1L)).compareTo(quantidade));
+            confirmadas += compras - 1;
+        }
+        assertEquals(ESCRITORES - falhas.size(), confirmadas);
+        assertValorAtualConsistente();
+        System.out.printf("📊 %d escritores sem lock: %d confirmadas, %d conflitos repetidos%n",
+                ESCRITORES, confirmadas, escritasCarteiraService.getConflitos() - conflitosAntes);
+    }
+
+    /**
+     * Dispara as compras ao mesmo tempo, uma por thread, e devolve as falhas
+     */
+    private List<Throwable> executarSimultaneamente(IntFunction<TransacaoRequest> requisicao) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(ESCRITORES);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int i = 0; i < ESCRITORES; i++) {
+                TransacaoRequest request = requisicao.apply(i);
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    return transacaoService.createTransacao(carteira.getId(), request);
+                }));
+            }
+            largada.countDown();
+
+            List<Throwable> falhas = new ArrayList<>();
+            for (Future<?> tarefa : tarefas) {
+                try {
+                    tarefa.get();
+                } catch (ExecutionException e) {
+                    falhas.add(e.getCause());
+                }
+            }
+            return falhas;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * O valor atual gravado deve ser o da última posição confirmada (nenhum recálculo sobrescrito por outro)
+     */
+    private void assertValorAtualConsistente() {
+        BigDecimal gravado = carteiraRepository.findById(carteira.getId()).orElseThrow().getValorAtual();
+        assertEquals(0, ativoRepository.calcularValorAtualCarteira(carteira.getId()).compareTo(gravado));
+    }
+
+    private BigDecimal quantidade(String codigo) {
+        return ativoRepository.findByCodigoAndCarteira(codigo, carteira).orElseThrow().getQuantidade();
+    }
+
+    private static String codigo(int i) {
+        return "ATV" + i;
+    }
+
+    private static TransacaoRequest compra(String codigo, BigDecimal quantidade) {
+        TransacaoRequest request = new TransacaoRequest();
+        request.setTipoTransacao(TipoTransacao.COMPRA);
+        request.setCodigoAtivo(codigo);
+        request.setNomeAtivo(codigo);
+        request.setTipoAtivo(TipoAtivo.ACAO);
+        request.setQuantidade(quantidade);
+        request.setPrecoUnitario(new BigDecimal("20.00"));
+        return request;
+    }
+}
@@ -0,0 +1,132 @@
+package com.invest.integration;
+
+import com.invest.dto.TransacaoRequest;
+import com.invest.model.*;
+import com.invest.repository.AtivoRepository;
+import com.invest.repository.CarteiraRepository;
+import com.invest.repository.InvestidorRepository;
+import com.invest.repository.TransacaoRepository;
+import com.invest.service.TransacaoService;
+import com.invest.service.ledger.PosicaoLedgerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Edição de transações que muda o código do ativo: a posição sai do ativo antigo e vai para o novo.
+ * Sem @Transactional, como no uso real: cada chamada ao serviço confirma a própria transação.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:edicaotransacao;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "logging.level.com.invest=WARN"
+})
+@DisplayName("Testes de Integração - Edição de transações")
+class EdicaoTransacaoIntegrationTest {
+
+    @Autowired
+    private InvestidorRepository investidorRepository;
+
+    @Autowired
+    private CarteiraRepository carteiraRepository;
+
+    @Autowired
+    private AtivoRepository ativoRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private TransacaoService transacaoService;
+
+    @Autowired
+    private PosicaoLedgerService posicaoLedgerService;
+
+    private Carteira carteira;
+
+    @BeforeEach
+    void setUp() {
+        Investidor investidor = new Investidor();
+        investidor.setNome("Investidor Edição");
+        investidor.setEmail("edicao@example.com");
+        investidor.setSenha("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy");
+        investidor = investidorRepository.save(investidor);
+
+        carteira = new Carteira();
+        carteira.setNome("Carteira Edição");
+        carteira.setObjetivo(ObjetivoCarteira.APOSENTADORIA);
+        carteira.setPrazo(PrazoCarteira.LONGO_PRAZO);
+        carteira.setPerfilRisco(PerfilRisco.MODERADO_RISCO);
+        carteira.setValorInicial(new BigDecimal("10000.00"));
+        carteira.setInvestidor(investidor);
+        carteira = carteiraRepository.save(carteira);
+    }
+
+    @AfterEach
+    void tearDown() {
+        posicaoLedgerService.invalidarCarteira(carteira.getId());
+        transacaoRepository.deleteAll();
+        ativoRepository.deleteAll();
+        carteiraRepository.deleteAll();
+        investidorRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Trocar PETR4 por VALE3 numa compra deve mover a quantidade para um novo ativo VALE3")
+    void trocarCodigoDeveMoverPosicaoParaNovoAtivo() {
+        transacaoService.createTransacao(carteira.getId(), compra("PETR4", "10", "30.00"));
+        Transacao editada = transacaoService.createTransacao(carteira.getId(), compra("PETR4", "5", "30.00"));
+
+        transacaoService.updateTransacao(editada.getId(), compra("VALE3", "5", "60.00"));
+
+        Ativo petr4 = ativo("PETR4");
+        Ativo vale3 = ativo("VALE3");
+        assertEquals(0, new BigDecimal("10").compareTo(petr4.getQuantidade()));
+        assertEquals(0, new BigDecimal("5").compareTo(vale3.getQuantidade()));
+        assertEquals(0, new BigDecimal("60.00").compareTo(vale3.getPrecoCompra()));
+        assertEquals(vale3.getId(), transacaoRepository.findById(editada.getId()).orElseThrow().getAtivo().getId());
+        assertEquals(0, new BigDecimal("10").compareTo(
+                posicaoLedgerService.getPosicaoAtual(carteira.getId(), "PETR4").getQuantidade()));
+        assertEquals(0, new BigDecimal("5").compareTo(
+                posicaoLedgerService.getPosicaoAtual(carteira.getId(), "VALE3").getQuantidade()));
+    }
+
+    @Test
+    @DisplayName("Trocar o código para um ativo já existente deve somar a posição a ele")
+    void trocarCodigoParaAtivoExistenteDeveSomarPosicao() {
+        transacaoService.createTransacao(carteira.getId(), compra("PETR4", "10", "30.00"));
+        transacaoService.createTransacao(carteira.getId(), compra("VALE3", "2", "60.00"));
+        Transacao editada = transacaoService.createTransacao(carteira.getId(), compra("PETR4", "5", "30.00"));
+
+        transacaoService.updateTransacao(editada.getId(), compra("VALE3", "3", "60.00"));
+
+        assertEquals(0, new BigDecimal("10").compareTo(ativo("PETR4").getQuantidade()));
+        assertEquals(0, new BigDecimal("5").compareTo(ativo("VALE3").getQuantidade()));
+        assertEquals(2, ativoRepository.findByCarteira(carteira).size());
+    }
+
+    private Ativo ativo(String codigo) {
+        return ativoRepository.findByCodigoAndCarteira(codigo, carteira).orElseThrow();
+    }
+
+    private static TransacaoRequest compra(String codigo, String quantidade, String preco) {
+        TransacaoRequest request = new TransacaoRequest();
+        request.setTipoTransacao(TipoTransacao.COMPRA);
+        request.setCodigoAtivo(codigo);
+        request.setNomeAtivo(codigo);
+        request.setTipoAtivo(TipoAtivo.ACAO);
+        request.setQuantidade(new BigDecimal(quantidade));
+        request.setPrecoUnitario(new BigDecimal(preco));
+        return request;
+    }
+}
@@ -0,0 +1,153 @@
+package com.invest.integration;
+
+import com.invest.dto.CarteiraRentabilidadeResponse;
+import com.invest.model.*;
+import com.invest.repository.AtivoRepository;
+import com.invest.repository.CarteiraRepository;
+import com.invest.repository.InvestidorRepository;
+import com.invest.repository.TransacaoRepository;
+import com.invest.service.RentabilidadeService;
+import com.invest.service.TransacaoService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Conta os comandos SQL (estatísticas do Hibernate) das estatísticas e da rentabilidade da carteira,
+ * calculadas com as consultas agrupadas de TransacaoRepository
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@DisplayName("Testes de Integração - Estatísticas de transações")
+class EstatisticasTransacoesIntegrationTest {
+
+    @Autowired
+    private TransacaoService transacaoService;
+
+    @Autowired
+    private RentabilidadeService rentabilidadeService;
+
+    @Autowired
+    private InvestidorRepository investidorRepository;
+
+    @Autowired
+    private CarteiraRepository carteiraRepository;
+
+    @Autowired
+    private AtivoRepository ativoRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Carteira carteira;
+
+    @BeforeEach
+    void setUp() {
+        Investidor investidor = new Investidor();
+        investidor.setNome("Investidor Estatísticas");
+        investidor.setEmail("estatisticas@example.com");
+        investidor.setSenha("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy");
+        investidor = investidorRepository.save(investidor);
+
+        carteira = new Carteira();
+        carteira.setNome("Carteira Estatísticas");
+        carteira.setObjetivo(ObjetivoCarteira.APOSENTADORIA);
+        carteira.setPrazo(PrazoCarteira.LONGO_PRAZO);
+        carteira.setPerfilRisco(PerfilRisco.MODERADO_RISCO);
+        carteira.setValorInicial(new BigDecimal("10000.00"));
+        carteira.setInvestidor(investidor);
+        carteira = carteiraRepository.save(carteira);
+
+        String[] codigos = {"PETR4", "VALE3", "ITUB4", "BBAS3"};
+        for (String codigo : codigos) {
+            Ativo ativo = new Ativo();
+            ativo.setCodigo(codigo);
+            ativo.setNome(codigo);
+            ativo.setTipo(TipoAtivo.ACAO);
+            ativo.setQuantidade(new BigDecimal("100"));
+            ativo.setPrecoCompra(new BigDecimal("20.00"));
+            ativo.setPrecoAtual(new BigDecimal("22.00"));
+            ativo.setCarteira(carteira);
+            ativoRepository.save(ativo);
+
+            salvarTransacao(codigo, TipoTransacao.COMPRA, "2000.00", 30);
+            salvarTransacao(codigo, TipoTransacao.DIVIDENDO, "50.00", 10);
+        }
+        salvarTransacao("PETR4", TipoTransacao.COMPRA, "1000.00", 20);
+        salvarTransacao("PETR4", TipoTransacao.VENDA, "600.00", 5);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void salvarTransacao(String codigo, TipoTransacao tipo, String valorTotal, int diasAtras) {
+        Transacao transacao = new Transacao();
+        transacao.setTipoTransacao(tipo);
+        transacao.setCodigoAtivo(codigo);
+        transacao.setNomeAtivo(codigo);
+        transacao.setTipoAtivo(TipoAtivo.ACAO);
+        transacao.setQuantidade(new BigDecimal("10"));
+        transacao.setPrecoUnitario(new BigDecimal(valorTotal).divide(BigDecimal.TEN));
+        transacao.setValorTotal(new BigDecimal(valorTotal));
+        transacao.setDataTransacao(LocalDateTime.now().minusDays(diasAtras));
+        transacao.setCarteira(carteira);
+        transacaoRepository.save(transacao);
+    }
+
+    private Statistics estatisticas() {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        return estatisticas;
+    }
+
+    @Test
+    @DisplayName("Estatísticas da carteira devem usar uma consulta agrupada")
+    void estatisticasDevemUsarUmaConsulta() {
+        Statistics estatisticas = estatisticas();
+
+        TransacaoService.CarteiraStats stats = transacaoService.calcularEstatisticasCarteira(carteira.getId());
+
+        assertEquals(0, new BigDecimal("9000.00").compareTo(stats.getValorTotalCompras()));
+        assertEquals(0, new BigDecimal("600.00").compareTo(stats.getValorTotalVendas()));
+        assertEquals(0, new BigDecimal("200.00").compareTo(stats.getValorTotalProventos()));
+        // Só os totais agrupados por tipo: a existência da carteira só é verificada com resultado vazio
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Rentabilidade da carteira não deve carregar as transações de cada ativo")
+    void rentabilidadeNaoDeveCarregarTransacoesPorAtivo() {
+        Statistics estatisticas = estatisticas();
+
+        CarteiraRentabilidadeResponse response = rentabilidadeService.calcularRentabilidadeCarteira(carteira.getId());
+
+        assertEquals(4, response.getAtivos().size());
+        assertEquals(0, new BigDecimal("9000.00").compareTo(response.getValorTotalCompras()));
+        assertEquals(0, new BigDecimal("200.00").compareTo(response.getValorTotalProventos()));
+        // Carteira + ativos + totais por ativo e tipo + transações do único ativo com venda (impostos);
+        // antes eram carteira + ativos + 2 por ativo
+        assertEquals(4, estatisticas.getPrepareStatementCount());
+    }
+}
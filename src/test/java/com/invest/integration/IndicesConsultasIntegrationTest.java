@@ -0,0 +1,115 @@
+package com.invest.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica com EXPLAIN (H2 em modo MySQL) que as consultas mais usadas dos repositories usam os índices
+ * declarados nas entidades (mesmos de migration/create-indices-consultas.sql).
+ *
+ * Usa um banco próprio: o ANALYZE que dá ao otimizador a seletividade das colunas faz commit da massa.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:indices;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@DisplayName("Testes de Integração - Índices das consultas")
+class IndicesConsultasIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Massa com várias carteiras, ativos, tipos e datas, criada uma vez: sem dados e estatísticas todos os
+     * índices custam o mesmo para o otimizador do H2
+     */
+    @BeforeEach
+    void setUp() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM investidores WHERE id = 900", Integer.class) > 0) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO investidores (id, nome, email, senha, data_criacao) "
+                + "VALUES (900, 'Investidor', 'indices@example.com', 'x', CURRENT_TIMESTAMP)");
+        String[] codigos = {"PETR4", "VALE3", "ITUB4", "BBAS3", "WEGE3", "MGLU3", "BBDC4", "ABEV3"};
+        String[] tipos = {"COMPRA", "VENDA", "DIVIDENDO", "JCP"};
+        for (int carteira = 900; carteira < 910; carteira++) {
+            jdbcTemplate.update("INSERT INTO carteiras (id, nome, objetivo, perfil_risco, data_criacao, data_atualizacao, investidor_id) "
+                    + "VALUES (?, 'Carteira', 'APOSENTADORIA', 'MODERADO_RISCO', CURRENT_TIMESTAMP, "
+                    + "DATEADD('DAY', ?, TIMESTAMP '2024-06-01 00:00:00'), 900)", carteira, carteira * 7 % 365);
+            for (int i = 0; i < 40; i++) {
+                jdbcTemplate.update("INSERT INTO transacoes (tipo_transacao, codigo_ativo, nome_ativo, tipo_ativo, quantidade, "
+                                + "preco_unitario, valor_total, data_transacao, carteira_id) "
+                                + "VALUES (?, ?, 'Ativo', 'ACAO', 10, 30, 300, DATEADD('DAY', ?, TIMESTAMP '2024-01-01 00:00:00'), ?)",
+                        tipos[i % tipos.length], codigos[i % codigos.length], i * 9, carteira);
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private String plano(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toUpperCase();
+    }
+
+    @Test
+    @DisplayName("Ledger por ativo deve usar o índice (carteira, código, data, id)")
+    void ledgerPorAtivoDeveUsarIndice() {
+        String plano = plano("SELECT * FROM transacoes WHERE carteira_id = 901 AND codigo_ativo = 'PETR4' "
+                + "ORDER BY data_transacao, id");
+
+        assertTrue(plano.contains("IDX_TRANSACOES_CARTEIRA_ATIVO_DATA"), plano);
+    }
+
+    @Test
+    @DisplayName("Filtro por tipo de transação deve usar o índice (carteira, tipo, data)")
+    void filtroPorTipoDeveUsarIndice() {
+        String plano = plano("SELECT * FROM transacoes WHERE carteira_id = 901 AND tipo_transacao = 'COMPRA' "
+                + "AND data_transacao BETWEEN TIMESTAMP '2025-01-01 00:00:00' AND TIMESTAMP '2025-12-31 23:59:59'");
+
+        assertTrue(plano.contains("IDX_TRANSACOES_CARTEIRA_TIPO_DATA"), plano);
+    }
+
+    @Test
+    @DisplayName("Transações a partir de uma data devem usar o índice (carteira, data, id)")
+    void filtroPorDataDeveUsarIndice() {
+        String plano = plano("SELECT * FROM transacoes WHERE carteira_id = 901 "
+                + "AND data_transacao >= TIMESTAMP '2025-01-01 00:00:00' ORDER BY data_transacao, id");
+
+        assertTrue(plano.contains("IDX_TRANSACOES_CARTEIRA_DATA"), plano);
+    }
+
+    @Test
+    @DisplayName("Busca de ativo por código e carteira deve usar a restrição única")
+    void ativoPorCodigoDeveUsarRestricaoUnica() {
+        String plano = plano("SELECT * FROM ativos WHERE codigo = 'PETR4' AND carteira_id = 901");
+
+        assertTrue(plano.contains("UK_ATIVOS_CARTEIRA_CODIGO"), plano);
+    }
+
+    @Test
+    @DisplayName("Carteiras desatualizadas devem usar o índice de data de atualização")
+    void carteirasParaAtualizacaoDeveUsarIndice() {
+        String plano = plano("SELECT * FROM carteiras WHERE data_atualizacao < TIMESTAMP '2025-01-01 00:00:00'");
+
+        assertTrue(plano.contains("IDX_CARTEIRAS_DATA_ATUALIZACAO"), plano);
+    }
+
+    @Test
+    @DisplayName("Não deve permitir dois ativos com o mesmo código na mesma carteira")
+    void naoDevePermitirAtivoDuplicado() {
+        String insereAtivo = "INSERT INTO ativos (codigo, nome, tipo, quantidade, preco_compra, data_compra, carteira_id) "
+                + "VALUES ('PETR4', 'Petrobras', 'ACAO', 10, 30, CURRENT_TIMESTAMP, 900)";
+        jdbcTemplate.update(insereAtivo);
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(insereAtivo));
+    }
+}
@@ -0,0 +1,257 @@
+package com.invest.integration;
+
+import com.invest.dto.TransacaoRequest;
+import com.invest.model.*;
+import com.invest.repository.CarteiraRepository;
+import com.invest.repository.InvestidorRepository;
+import com.invest.service.CarteiraHistoricoService;
+import com.invest.service.RelatorioEmpresaService;
+import com.invest.service.RelatorioExibicaoService;
+import com.invest.service.RentabilidadeService;
+import com.invest.service.TransacaoService;
+import com.invest.service.banco.LeituraReplica;
+import com.invest.service.ledger.PosicaoLedgerService;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Roteamento para a réplica de leitura com dois H2: primário e réplica (só serviços com @LeituraReplica). A "replicação" é manual (SCRIPT no
+ * primário, RUNSCRIPT na réplica), de modo que um dado só aparece nas leituras somente leitura depois de replicado.
+ * Sem @Transactional: cada chamada abre a própria transação, que decide o destino.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primario;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.banco.replica.url=" + ReplicaLeituraIntegrationTest.REPLICA_URL
+})
+@DisplayName("Testes de Integração - Réplica de leitura")
+class ReplicaLeituraIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    private static final String SCRIPT_REPLICACAO = "target/replica-leitura.sql";
+    private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+
+    @Autowired
+    private InvestidorRepository investidorRepository;
+
+    @Autowired
+    private CarteiraRepository carteiraRepository;
+
+    @Autowired
+    private TransacaoService transacaoService;
+
+    @Autowired
+    private RentabilidadeService rentabilidadeService;
+
+    @Autowired
+    private RelatorioExibicaoService relatorioExibicaoService;
+
+    @Autowired
+    private CarteiraHistoricoService carteiraHistoricoService;
+
+    @Autowired
+    private PosicaoLedgerService posicaoLedgerService;
+
+    @Autowired
+    @Qualifier("dataSource")
+    private HikariDataSource primario;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long investidorId;
+    private Long carteiraId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // Réplica com o schema criado pelo Hibernate no primário
+        replicar();
+
+        int n = SEQUENCIA.incrementAndGet();
+        Investidor investidor = new Investidor();
+        investidor.setNome("Investidor Réplica " + n);
+        investidor.setEmail("replica" + n + "@example.com");
+        investidor.setSenha("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy");
+        investidor = investidorRepository.save(investidor);
+        investidorId = investidor.getId();
+
+        Carteira carteira = new Carteira();
+        carteira.setNome("Carteira Réplica " + n);
+        carteira.setObjetivo(ObjetivoCarteira.APOSENTADORIA);
+        carteira.setPrazo(PrazoCarteira.LONGO_PRAZO);
+        carteira.setPerfilRisco(PerfilRisco.MODERADO_RISCO);
+        carteira.setValorInicial(new BigDecimal("10000.00"));
+        carteira.setInvestidor(investidor);
+        carteiraId = carteiraRepository.save(carteira).getId();
+    }
+
+    @Test
+    @DisplayName("Serviços de leitura consultam a réplica")
+    void servicosDeLeituraConsultamReplica() throws SQLException {
+        // Gravada só no primário
+        assertEquals(1, contar(primario.getConnection(), "carteiras", carteiraId));
+        assertThrows(RuntimeException.class, () -> rentabilidadeService.calcularRentabilidadeCarteira(carteiraId));
+
+        replicar();
+
+        assertEquals("Carteira Réplica " + SEQUENCIA.get(),
+                rentabilidadeService.calcularRentabilidadeCarteira(carteiraId).getCarteiraNome());
+    }
+
+    @Test
+    @DisplayName("Escritas vão para o primário e só aparecem nos relatórios depois de replicadas")
+    void escritasVaoParaPrimario() throws SQLException {
+        replicar();
+
+        Long transacaoId = transacaoService.createTransacao(carteiraId, compra()).getId();
+
+        assertEquals(1, contar(primario.getConnection(), "transacoes", transacaoId));
+        assertEquals(0, contar(DriverManager.getConnection(REPLICA_URL, "sa", ""), "transacoes", transacaoId));
+        assertEquals(0, relatorioExibicaoService.gerarRelatorioExibicao(investidorId).getTotalTransacoes());
+
+        replicar();
+
+        assertEquals(1, relatorioExibicaoService.gerarRelatorioExibicao(investidorId).getTotalTransacoes());
+    }
+
+    @Test
+    @DisplayName("Leituras fora dos serviços marcados vão para o primário e enxergam o que acabou de ser gravado")
+    void leiturasSemMarcaConsultamPrimario() {
+        // Carteira e investidor gravados no setUp e ainda não replicados (como um GET logo após o POST)
+        assertTrue(carteiraRepository.findById(carteiraId).isPresent());
+        assertTrue(investidorRepository.findById(investidorId).isPresent());
+
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        assertEquals("Carteira Réplica " + SEQUENCIA.get(),
+                leitura.execute(status -> carteiraRepository.findById(carteiraId).orElseThrow().getNome()));
+    }
+
+    @Test
+    @DisplayName("Ledger carregado por uma leitura com a réplica atrasada vem do primário")
+    void ledgerCarregadoNaLeituraVemDoPrimario() throws SQLException {
+        replicar();
+        transacaoService.createTransacao(carteiraId, compra());
+        replicar();
+        transacaoService.createTransacao(carteiraId, compra());
+        // Como após reiniciar a aplicação: o ledger é carregado na próxima consulta, aqui a do histórico
+        posicaoLedgerService.invalidarCarteira(carteiraId);
+
+        carteiraHistoricoService.getHistoricoCarteira(carteiraId);
+
+        // Compra retroativa: a posição é reconstruída a partir do ledger
+        TransacaoRequest retroativa = compra();
+        retroativa.setDataTransacao(LocalDateTime.of(2024, 1, 1, 10, 0));
+        transacaoService.createTransacao(carteiraId, retroativa);
+
+        assertEquals(0, new BigDecimal("30").compareTo(quantidadeNoPrimario("PETR4")));
+        assertEquals(0, new BigDecimal("30").compareTo(
+                posicaoLedgerService.getPosicaoAtual(carteiraId, "PETR4").getQuantidade()));
+    }
+
+    @Test
+    @DisplayName("Transações somente leitura usam flush MANUAL e não gravam entidades alteradas")
+    void transacaoSomenteLeituraSemFlush() throws SQLException {
+        replicar();
+
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        leitura.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+            assertTrue(session.isDefaultReadOnly());
+
+            Carteira carteira = entityManager.find(Carteira.class, carteiraId);
+            assertTrue(session.isReadOnly(carteira));
+            carteira.setNome("Alterada na leitura");
+        });
+
+        assertEquals("Carteira Réplica " + SEQUENCIA.get(),
+                carteiraRepository.findById(carteiraId).orElseThrow().getNome());
+    }
+
+    @Test
+    @DisplayName("Serviços de relatório, rentabilidade e histórico são somente leitura e marcados para a réplica")
+    void servicosDeLeituraSaoSomenteLeitura() {
+        for (Class<?> servico : List.of(RelatorioEmpresaService.class, RelatorioExibicaoService.class,
+                RentabilidadeService.class, CarteiraHistoricoService.class)) {
+            Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(servico, Transactional.class);
+            assertNotNull(transactional, servico.getSimpleName());
+            assertTrue(transactional.readOnly(), servico.getSimpleName());
+            assertTrue(AnnotatedElementUtils.hasAnnotation(servico, LeituraReplica.class), servico.getSimpleName());
+        }
+    }
+
+    /**
+     * Copia schema e dados do primário para a réplica
+     */
+    private void replicar() throws SQLException {
+        try (Connection conexao = primario.getConnection(); Statement stmt = conexao.createStatement()) {
+            stmt.execute("SCRIPT TO '" + SCRIPT_REPLICACAO + "'");
+        }
+        try (Connection conexao = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement stmt = conexao.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+            stmt.execute("RUNSCRIPT FROM '" + SCRIPT_REPLICACAO + "'");
+        }
+    }
+
+    private int contar(Connection conexao, String tabela, Long id) throws SQLException {
+        try (conexao; Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + tabela + " WHERE id = " + id)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private BigDecimal quantidadeNoPrimario(String codigo) throws SQLException {
+        try (Connection conexao = primario.getConnection(); Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT quantidade FROM ativos WHERE carteira_id = " + carteiraId
+                     + " AND codigo = '" + codigo + "'")) {
+            rs.next();
+            return rs.getBigDecimal(1);
+        }
+    }
+
+    private TransacaoRequest compra() {
+        TransacaoRequest request = new TransacaoRequest();
+        request.setTipoTransacao(TipoTransacao.COMPRA);
+        request.setCodigoAtivo("PETR4");
+        request.setNomeAtivo("Petrobras PN");
+        request.setTipoAtivo(TipoAtivo.ACAO);
+        request.setQuantidade(new BigDecimal("10"));
+        request.setPrecoUnitario(new BigDecimal("25.00"));
+        request.setDataTransacao(LocalDateTime.of(2024, 1, 2, 10, 0));
+        return request;
+    }
+}
@@ -1,5 +1,6 @@
 package com.invest.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.invest.dto.TransacaoRequest;
 import com.invest.model.*;
@@ -10,13 +11,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -155,5 +163,56 @@ class TransacaoControllerIntegrationTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
-}
 
+    @Test
+    @DisplayName("Deve paginar transações por keyset seguindo o cabeçalho Link")
+    void devePaginarTransacoesPorKeyset() throws Exception {
+        // Arrange - 5 transações, duas com a mesma data (desempate pelo id)
+        LocalDateTime base = LocalDateTime.of(2025, 3, 10, 10, 0);
+        String[] codigos = {"PETR4", "VALE3", "ITUB4", "BBAS3", "WEGE3"};
+        int[] dias = {0, 1, 1, 2, 3};
+        for (int i = 0; i < codigos.length; i++) {
+            Transacao transacao = new Transacao();
+            transacao.setTipoTransacao(TipoTransacao.COMPRA);
+            transacao.setCodigoAtivo(codigos[i]);
+            transacao.setNomeAtivo(codigos[i]);
+            transacao.setTipoAtivo(TipoAtivo.ACAO);
+            transacao.setQuantidade(new BigDecimal("10"));
+            transacao.setPrecoUnitario(new BigDecimal("20.00"));
+            transacao.setCarteira(carteira);
+            transacao.setDataTransacao(base.plusDays(dias[i]));
+            transacaoRepository.save(transacao);
+        }
+
+        // Act - primeira página e as seguintes pelo link "next"
+        List<String> lidos = new ArrayList<>();
+        String url = "/api/transacoes/carteira/" + carteira.getId() + "?size=2";
+        int paginas = 0;
+        while (url != null) {
+            MvcResult resultado = mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(lessThanOrEqualTo(2)))
+                    .andReturn();
+            paginas++;
+            JsonNode pagina = objectMapper.readTree(resultado.getResponse().getContentAsString());
+            pagina.forEach(t -> {
+                lidos.add(t.get("codigoAtivo").asText());
+                assertEquals(carteira.getNome(), t.get("carteiraNome").asText());
+            });
+            String link = resultado.getResponse().getHeader(HttpHeaders.LINK);
+            url = link != null ? link.substring(link.indexOf('<') + 1, link.indexOf('>')) : null;
+        }
+
+        // Assert - todas as transações, sem repetição, em ordem cronológica
+        assertEquals(List.of(codigos), lidos);
+        assertEquals(3, paginas);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor incompleto na listagem")
+    void deveRejeitarCursorIncompleto() throws Exception {
+        mockMvc.perform(get("/api/transacoes/carteira/{carteiraId}", carteira.getId())
+                        .param("aposData", "2025-03-10T10:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+}
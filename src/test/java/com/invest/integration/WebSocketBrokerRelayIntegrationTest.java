@@ -0,0 +1,158 @@
+package com.invest.integration;
+
+import com.invest.dto.CotacoesTickMensagem;
+import com.invest.service.realtime.TickCotacoesService;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.ReactorNettyTcpStompClient;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de integração do modo relay (app.websocket.broker=relay) com um broker STOMP embarcado
+ */
+@SpringBootTest(properties = {
+        "app.websocket.broker=relay",
+        "app.websocket.relay.login=cliente",
+        "app.websocket.relay.passcode=cliente",
+        "app.websocket.relay.system-login=sistema",
+        "app.websocket.relay.system-passcode=sistema"
+})
+@ActiveProfiles("test")
+@DisplayName("Testes de Integração - WebSocket broker relay")
+class WebSocketBrokerRelayIntegrationTest {
+
+    private static EmbeddedActiveMQ broker;
+    private static int portaStomp;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private StompBrokerRelayMessageHandler relayHandler;
+
+    @DynamicPropertySource
+    static void configurarRelay(DynamicPropertyRegistry registry) throws Exception {
+        iniciarBroker();
+        registry.add("app.websocket.relay.port", () -> portaStomp);
+    }
+
+    private static void iniciarBroker() throws Exception {
+        if (broker != null) {
+            return;
+        }
+        try (ServerSocket socket = new ServerSocket(0)) {
+            portaStomp = socket.getLocalPort();
+        }
+        Path dados = Files.createTempDirectory("artemis-teste");
+        Configuration configuracao = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .setJournalDirectory(dados.resolve("journal").toString())
+                .setBindingsDirectory(dados.resolve("bindings").toString())
+                .setPagingDirectory(dados.resolve("paging").toString())
+                .setLargeMessagesDirectory(dados.resolve("large").toString())
+                .addAcceptorConfiguration("stomp", "tcp://localhost:" + portaStomp
+                        + "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/");
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(configuracao);
+        broker.start();
+    }
+
+    @AfterAll
+    static void pararBroker() throws Exception {
+        if (broker != null) {
+            broker.stop();
+            broker = null;
+        }
+    }
+
+    @Test
+    @DisplayName("Deve entregar ticks publicados pela aplicação através do broker externo")
+    void deveEntregarTicksPeloBrokerExterno() throws Exception {
+        aguardar(() -> relayHandler.isBrokerAvailable());
+
+        ReactorNettyTcpStompClient cliente = new ReactorNettyTcpStompClient("localhost", portaStomp);
+        cliente.setMessageConverter(new MappingJackson2MessageConverter());
+        ThreadPoolTaskScheduler agendador = new ThreadPoolTaskScheduler();
+        agendador.initialize();
+        cliente.setTaskScheduler(agendador);
+        StompHeaders conexao = new StompHeaders();
+        conexao.setLogin("guest");
+        conexao.setPasscode("guest");
+        StompSession sessao = cliente.connectAsync(conexao, new StompSessionHandlerAdapter() {})
+                .get(10, TimeUnit.SECONDS);
+
+        try {
+            BlockingQueue<CotacoesTickMensagem> recebidos = new LinkedBlockingQueue<>();
+            CountDownLatch inscrito = new CountDownLatch(1);
+            sessao.setAutoReceipt(true);
+            sessao.subscribe(TickCotacoesService.TOPICO_COTACOES, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return CotacoesTickMensagem.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    recebidos.add((CotacoesTickMensagem) payload);
+                }
+            }).addReceiptTask(inscrito::countDown);
+            assertTrue(inscrito.await(10, TimeUnit.SECONDS));
+
+            messagingTemplate.convertAndSend(TickCotacoesService.TOPICO_COTACOES, new CotacoesTickMensagem(1L,
+                    System.currentTimeMillis(), List.of(new CotacoesTickMensagem.Tick(
+                            "PETR4", new BigDecimal("31.50"), new BigDecimal("30.00"), 1L))));
+
+            CotacoesTickMensagem lote = recebidos.poll(10, TimeUnit.SECONDS);
+            assertNotNull(lote);
+            assertEquals(1, lote.getCotacoes().size());
+            CotacoesTickMensagem.Tick tick = lote.getCotacoes().get(0);
+            assertEquals("PETR4", tick.getCodigo());
+            assertEquals(0, new BigDecimal("31.50").compareTo(tick.getPreco()));
+        } finally {
+            sessao.disconnect();
+            cliente.shutdown();
+            agendador.shutdown();
+        }
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (!condicao.getAsBoolean()) {
+            if (System.currentTimeMillis() > limite) {
+                fail("Relay não conectou ao broker STOMP");
+            }
+            Thread.sleep(50);
+        }
+    }
+}
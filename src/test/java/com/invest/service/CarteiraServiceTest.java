@@ -4,6 +4,7 @@ import com.invest.dto.CarteiraRequest;
 import com.invest.model.*;
 import com.invest.repository.AtivoRepository;
 import com.invest.repository.CarteiraRepository;
+import com.invest.service.banco.EscritasCarteiraService;
 import com.invest.service.external.GoogleSheetsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,9 +18,11 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -38,6 +41,9 @@ class CarteiraServiceTest {
     @Mock
     private AtivoRepository ativoRepository;
 
+    @Mock
+    private EscritasCarteiraService escritasCarteiraService;
+
     @InjectMocks
     private CarteiraService carteiraService;
 
@@ -193,5 +199,30 @@ class CarteiraServiceTest {
         assertEquals(2, resultado.size());
         verify(carteiraRepository, times(1)).findByInvestidor(any(Investidor.class));
     }
-}
 
+    @Test
+    @DisplayName("Deve atualizar os preços da carteira pelo EscritasCarteiraService")
+    void deveAtualizarPrecosPelasEscritasDaCarteira() {
+        // Arrange
+        Ativo ativo = new Ativo();
+        ativo.setCodigo("PETR4");
+        Carteira carteira = new Carteira();
+        carteira.setId(1L);
+        carteira.setNome("Carteira Teste");
+        carteira.getAtivos().add(ativo);
+        when(escritasCarteiraService.executar(eq(1L), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(carteiraRepository.findById(1L)).thenReturn(Optional.of(carteira));
+        when(googleSheetsService.buscarPrecoAtivo("PETR4")).thenReturn(new BigDecimal("35.10"));
+        when(ativoRepository.calcularValorAtualCarteira(1L)).thenReturn(new BigDecimal("351.00"));
+
+        // Act
+        carteiraService.atualizarPrecosCarteira(1L);
+
+        // Assert
+        verify(escritasCarteiraService).executar(eq(1L), any());
+        assertEquals(new BigDecimal("35.10"), ativo.getPrecoAtual());
+        assertEquals(new BigDecimal("351.00"), carteira.getValorAtual());
+        verify(carteiraRepository).save(carteira);
+    }
+}
@@ -1,21 +1,29 @@
 package com.invest.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invest.event.CotacoesAtualizadasEvent;
+import com.invest.service.dados.DiretorioDados;
 import com.invest.service.external.GoogleSheetsService;
+import com.invest.service.fonte.FonteCotacoesService;
+import com.invest.service.fonte.FonteResiliente;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -31,6 +39,18 @@ class CotacaoUpdateServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private FonteCotacoesService fonteCotacoesService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DiretorioDados diretorioDados;
+
+    @TempDir
+    Path diretorio;
+
     @InjectMocks
     private CotacaoUpdateService cotacaoUpdateService;
 
@@ -96,5 +116,77 @@ class CotacaoUpdateServiceTest {
         // Nota: Este teste pode precisar de ajustes dependendo da implementação real
         assertTrue(true); // Placeholder - teste real requereria refatoração para facilitar mocking
     }
-}
 
+    private static FonteResiliente.Resultado resultado(List<Map<String, String>> dados, String atualizadoEm) {
+        List<Map<String, String>> copia = new ArrayList<>();
+        for (Map<String, String> registro : dados) {
+            Map<String, String> novo = new HashMap<>(registro);
+            novo.put("atualizado_em", atualizadoEm);
+            copia.add(novo);
+        }
+        return new FonteResiliente.Resultado("agregado", copia, false, null);
+    }
+
+    @Test
+    @DisplayName("Não deve regravar nem publicar quando o conteúdo não mudou")
+    void naoDeveRepetirAtualizacaoSemAlteracao() throws Exception {
+        when(diretorioDados.getArquivoCotacoes()).thenReturn(diretorio.resolve("cotacoes.json"));
+        when(fonteCotacoesService.buscar()).thenReturn(
+                resultado(dadosCotacoes, "01/12/2025 20:00:00"),
+                resultado(dadosCotacoes, "01/12/2025 21:00:00"));
+
+        cotacaoUpdateService.atualizarCotacoes();
+        cotacaoUpdateService.atualizarCotacoes();
+
+        verify(diretorioDados, times(1)).escreverAtomicamente(any(), any());
+        verify(eventPublisher, times(1)).publishEvent(any(CotacoesAtualizadasEvent.class));
+        assertEquals(1L, cotacaoUpdateService.getStatus().get("atualizacoes"));
+        assertEquals(1L, cotacaoUpdateService.getStatus().get("atualizacoesSemAlteracao"));
+    }
+
+    @Test
+    @DisplayName("Não deve regravar nem publicar quando só a fonte vencedora mudou")
+    void naoDeveAtualizarQuandoSoAFonteMudar() throws Exception {
+        when(diretorioDados.getArquivoCotacoes()).thenReturn(diretorio.resolve("cotacoes.json"));
+        when(fonteCotacoesService.buscar()).thenReturn(
+                resultado(comFonte(dadosCotacoes, "principal"), "01/12/2025 20:00:00"),
+                resultado(comFonte(dadosCotacoes, "secundaria"), "01/12/2025 20:01:00"));
+
+        cotacaoUpdateService.atualizarCotacoes();
+        cotacaoUpdateService.atualizarCotacoes();
+
+        verify(diretorioDados, times(1)).escreverAtomicamente(any(), any());
+        verify(eventPublisher, times(1)).publishEvent(any(CotacoesAtualizadasEvent.class));
+        assertEquals(1L, cotacaoUpdateService.getStatus().get("atualizacoesSemAlteracao"));
+    }
+
+    private static List<Map<String, String>> comFonte(List<Map<String, String>> dados, String fonte) {
+        List<Map<String, String>> copia = new ArrayList<>();
+        for (Map<String, String> registro : dados) {
+            Map<String, String> novo = new HashMap<>(registro);
+            novo.put("fonte", fonte);
+            copia.add(novo);
+        }
+        return copia;
+    }
+
+    @Test
+    @DisplayName("Deve gravar e publicar quando um preço mudar")
+    void deveAtualizarQuandoConteudoMudar() throws Exception {
+        List<Map<String, String>> alterados = new ArrayList<>(dadosCotacoes);
+        Map<String, String> petr4 = new HashMap<>(dadosCotacoes.get(0));
+        petr4.put("preco", "25.80");
+        alterados.set(0, petr4);
+        when(diretorioDados.getArquivoCotacoes()).thenReturn(diretorio.resolve("cotacoes.json"));
+        when(fonteCotacoesService.buscar()).thenReturn(
+                resultado(dadosCotacoes, "01/12/2025 14:00:00"),
+                resultado(alterados, "01/12/2025 15:00:00"));
+
+        cotacaoUpdateService.atualizarCotacoes();
+        cotacaoUpdateService.atualizarCotacoes();
+
+        verify(diretorioDados, times(2)).escreverAtomicamente(any(), any());
+        verify(eventPublisher, times(2)).publishEvent(any(CotacoesAtualizadasEvent.class));
+        assertEquals(0L, cotacaoUpdateService.getStatus().get("atualizacoesSemAlteracao"));
+    }
+}
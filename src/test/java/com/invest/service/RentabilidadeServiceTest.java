@@ -108,8 +108,8 @@ class RentabilidadeServiceTest {
         // Arrange
         when(carteiraRepository.findById(1L)).thenReturn(Optional.of(carteira));
         when(ativoRepository.findByCarteira(carteira)).thenReturn(Collections.singletonList(ativo));
-        when(transacaoRepository.findByCarteiraAndCodigoAtivo(carteira, "PETR4"))
-                .thenReturn(Collections.singletonList(transacao));
+        when(transacaoRepository.totalizarPorAtivo(1L))
+                .thenReturn(List.of(totais("PETR4", TipoTransacao.COMPRA, new BigDecimal("2500.00"))));
 
         // Act
         CarteiraRentabilidadeResponse response = rentabilidadeService.calcularRentabilidadeCarteira(1L);
@@ -187,10 +187,8 @@ class RentabilidadeServiceTest {
 
         when(carteiraRepository.findById(1L)).thenReturn(Optional.of(carteira));
         when(ativoRepository.findByCarteira(carteira)).thenReturn(List.of(ativo, ativo2));
-        when(transacaoRepository.findByCarteiraAndCodigoAtivo(carteira, "PETR4"))
-                .thenReturn(Collections.singletonList(transacao));
-        when(transacaoRepository.findByCarteiraAndCodigoAtivo(carteira, "VALE3"))
-                .thenReturn(Collections.emptyList());
+        when(transacaoRepository.totalizarPorAtivo(1L))
+                .thenReturn(List.of(totais("PETR4", TipoTransacao.COMPRA, new BigDecimal("2500.00"))));
 
         // Act
         CarteiraRentabilidadeResponse response = rentabilidadeService.calcularRentabilidadeCarteira(1L);
@@ -201,5 +199,50 @@ class RentabilidadeServiceTest {
         assertTrue(response.getValorTotalInvestido().compareTo(BigDecimal.ZERO) > 0);
         assertTrue(response.getValorAtualMercado().compareTo(response.getValorTotalInvestido()) > 0);
     }
-}
 
+    @Test
+    @DisplayName("Deve carregar transações só dos ativos com venda, para a apuração de impostos")
+    void deveCarregarTransacoesSoDeAtivosComVenda() {
+        // Arrange
+        Transacao venda = new Transacao();
+        venda.setId(2L);
+        venda.setTipoTransacao(TipoTransacao.VENDA);
+        venda.setCodigoAtivo("PETR4");
+        venda.setTipoAtivo(TipoAtivo.ACAO);
+        venda.setQuantidade(new BigDecimal("50"));
+        venda.setPrecoUnitario(new BigDecimal("30.00"));
+        venda.setValorTotal(new BigDecimal("1500.00"));
+        venda.setDataTransacao(LocalDateTime.now().minusDays(2));
+        venda.setCarteira(carteira);
+
+        when(carteiraRepository.findById(1L)).thenReturn(Optional.of(carteira));
+        when(ativoRepository.findByCarteira(carteira)).thenReturn(Collections.singletonList(ativo));
+        when(transacaoRepository.totalizarPorAtivo(1L)).thenReturn(List.of(
+                totais("PETR4", TipoTransacao.COMPRA, new BigDecimal("2500.00")),
+                totais("PETR4", TipoTransacao.VENDA, new BigDecimal("1500.00"))));
+        when(transacaoRepository.findByCarteiraAndCodigoAtivo(carteira, "PETR4")).thenReturn(List.of(transacao, venda));
+
+        // Act
+        CarteiraRentabilidadeResponse response = rentabilidadeService.calcularRentabilidadeCarteira(1L);
+
+        // Assert
+        assertEquals(new BigDecimal("2500.00"), response.getValorTotalCompras());
+        assertEquals(new BigDecimal("1500.00"), response.getValorTotalVendas());
+        assertEquals(new BigDecimal("1000.00"), response.getValorTotalInvestido());
+        verify(transacaoRepository, times(1)).findByCarteiraAndCodigoAtivo(carteira, "PETR4");
+    }
+
+    private TotaisPorAtivo totais(String codigo, TipoTransacao tipo, BigDecimal valorTotal) {
+        LocalDateTime data = LocalDateTime.now().minusDays(10);
+        return new TotaisPorAtivo() {
+            public String getCodigoAtivo() { return codigo; }
+            public TipoTransacao getTipoTransacao() { return tipo; }
+            public Long getQuantidadeTransacoes() { return 1L; }
+            public BigDecimal getValorTotal() { return valorTotal; }
+            public BigDecimal getTaxasCorretagem() { return BigDecimal.ZERO; }
+            public BigDecimal getImpostos() { return BigDecimal.ZERO; }
+            public LocalDateTime getPrimeiraData() { return data; }
+            public LocalDateTime getUltimaData() { return data; }
+        };
+    }
+}
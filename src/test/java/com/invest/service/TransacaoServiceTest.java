@@ -4,7 +4,14 @@ import com.invest.dto.TransacaoRequest;
 import com.invest.model.*;
 import com.invest.repository.AtivoRepository;
 import com.invest.repository.CarteiraRepository;
+import com.invest.repository.TotaisPorTipo;
 import com.invest.repository.TransacaoRepository;
+import com.invest.repository.TransacaoResumo;
+import com.invest.service.banco.EscritasCarteiraService;
+import com.invest.service.cache.CacheEntidadesService;
+import com.invest.service.impostos.ResumoImpostoService;
+import com.invest.service.ledger.PosicaoLedgerService;
+import com.invest.service.ledger.PosicaoSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,10 +19,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -40,6 +50,18 @@ class TransacaoServiceTest {
     @Mock
     private CarteiraService carteiraService;
 
+    @Mock
+    private PosicaoLedgerService posicaoLedgerService;
+
+    @Mock
+    private ResumoImpostoService resumoImpostoService;
+
+    @Mock
+    private CacheEntidadesService cacheEntidadesService;
+
+    @Mock
+    private EscritasCarteiraService escritasCarteiraService;
+
     @InjectMocks
     private TransacaoService transacaoService;
 
@@ -48,6 +70,10 @@ class TransacaoServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Escritas executadas direto, sem transação nem novas tentativas
+        lenient().when(escritasCarteiraService.executar(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+
         // Setup carteira
         carteira = new Carteira();
         carteira.setId(1L);
@@ -124,17 +150,22 @@ class TransacaoServiceTest {
         Transacao transacaoExistente = new Transacao();
         transacaoExistente.setId(1L);
         transacaoExistente.setTipoTransacao(TipoTransacao.COMPRA);
+        transacaoExistente.setCodigoAtivo("PETR4");
         transacaoExistente.setQuantidade(new BigDecimal("50"));
         transacaoExistente.setCarteira(carteira);
 
         Ativo ativo = new Ativo();
         ativo.setId(1L);
+        ativo.setCodigo("PETR4");
         ativo.setQuantidade(new BigDecimal("50"));
+        ativo.setCarteira(carteira);
         transacaoExistente.setAtivo(ativo);
 
         when(transacaoRepository.findById(1L)).thenReturn(Optional.of(transacaoExistente));
         when(transacaoRepository.save(any(Transacao.class))).thenReturn(transacaoExistente);
         when(ativoRepository.save(any(Ativo.class))).thenReturn(ativo);
+        when(posicaoLedgerService.getPosicaoAtual(1L, "PETR4"))
+                .thenReturn(new PosicaoSnapshot(new BigDecimal("100"), new BigDecimal("25.50"), 1));
 
         // Atualiza request
         transacaoRequest.setQuantidade(new BigDecimal("100"));
@@ -145,6 +176,9 @@ class TransacaoServiceTest {
         // Assert
         assertNotNull(resultado);
         verify(transacaoRepository, times(1)).save(any(Transacao.class));
+        verify(posicaoLedgerService, times(1)).atualizarTransacao("PETR4", transacaoExistente);
+        assertEquals(new BigDecimal("100"), ativo.getQuantidade());
+        assertEquals(new BigDecimal("25.50"), ativo.getPrecoCompra());
     }
 
     @Test
@@ -155,35 +189,42 @@ class TransacaoServiceTest {
         transacao.setId(1L);
         transacao.setCarteira(carteira);
         transacao.setTipoTransacao(TipoTransacao.COMPRA);
+        transacao.setCodigoAtivo("PETR4");
         transacao.setQuantidade(new BigDecimal("100"));
 
         Ativo ativo = new Ativo();
         ativo.setId(1L);
+        ativo.setCodigo("PETR4");
+        ativo.setCarteira(carteira);
+        ativo.setPrecoCompra(new BigDecimal("20.00"));
         transacao.setAtivo(ativo);
 
         when(transacaoRepository.findById(1L)).thenReturn(Optional.of(transacao));
         doNothing().when(transacaoRepository).deleteById(1L);
         when(ativoRepository.save(any(Ativo.class))).thenReturn(ativo);
+        when(posicaoLedgerService.getPosicaoAtual(1L, "PETR4"))
+                .thenReturn(new PosicaoSnapshot(new BigDecimal("30"), new BigDecimal("22.00"), 2));
 
         // Act
         transacaoService.deleteTransacao(1L);
 
         // Assert
         verify(transacaoRepository, times(1)).deleteById(1L);
+        verify(posicaoLedgerService, times(1)).removerTransacao(transacao);
         verify(carteiraService, times(1)).calcularValorAtualCarteira(carteira);
+        assertEquals(new BigDecimal("30"), ativo.getQuantidade());
+        assertEquals(new BigDecimal("22.00"), ativo.getPrecoCompra());
     }
 
     @Test
     @DisplayName("Deve calcular estatísticas da carteira")
     void deveCalcularEstatisticasCarteira() {
         // Arrange
-        when(carteiraRepository.findById(1L)).thenReturn(Optional.of(carteira));
-        when(transacaoRepository.calcularValorTotalCompras(carteira))
-                .thenReturn(new BigDecimal("5000.00"));
-        when(transacaoRepository.calcularValorTotalVendas(carteira))
-                .thenReturn(new BigDecimal("2000.00"));
-        when(transacaoRepository.calcularValorTotalProventos(carteira))
-                .thenReturn(new BigDecimal("500.00"));
+        when(transacaoRepository.totalizarPorTipo(1L)).thenReturn(List.of(
+                totais(TipoTransacao.COMPRA, "5000.00"),
+                totais(TipoTransacao.VENDA, "2000.00"),
+                totais(TipoTransacao.DIVIDENDO, "300.00"),
+                totais(TipoTransacao.JCP, "200.00")));
 
         // Act
         TransacaoService.CarteiraStats stats = transacaoService.calcularEstatisticasCarteira(1L);
@@ -195,5 +236,33 @@ class TransacaoServiceTest {
         assertEquals(new BigDecimal("500.00"), stats.getValorTotalProventos());
         assertEquals(new BigDecimal("-2500.00"), stats.getValorLiquido());
     }
-}
 
+    @Test
+    @DisplayName("Deve listar a página seguinte pelo cursor (data, id) limitando o tamanho")
+    void deveListarPaginaSeguintePorCursor() {
+        // Arrange
+        LocalDateTime aposData = LocalDateTime.of(2025, 3, 10, 10, 0);
+        when(carteiraRepository.existsById(1L)).thenReturn(true);
+        when(transacaoRepository.listarResumosApos(1L, aposData, 7L, Limit.of(TransacaoService.TAMANHO_MAXIMO_PAGINA)))
+                .thenReturn(List.of());
+
+        // Act
+        List<TransacaoResumo> pagina = transacaoService.listarTransacoes(1L, aposData, 7L, 10_000);
+
+        // Assert
+        assertTrue(pagina.isEmpty());
+        verify(transacaoRepository, never()).listarResumos(any(), any());
+    }
+
+    private TotaisPorTipo totais(TipoTransacao tipo, String valorTotal) {
+        return new TotaisPorTipo() {
+            public TipoTransacao getTipoTransacao() { return tipo; }
+            public Long getQuantidadeTransacoes() { return 1L; }
+            public BigDecimal getValorTotal() { return new BigDecimal(valorTotal); }
+            public BigDecimal getTaxasCorretagem() { return BigDecimal.ZERO; }
+            public BigDecimal getImpostos() { return BigDecimal.ZERO; }
+            public LocalDateTime getPrimeiraData() { return null; }
+            public LocalDateTime getUltimaData() { return null; }
+        };
+    }
+}
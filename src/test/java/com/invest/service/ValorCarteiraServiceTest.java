@@ -0,0 +1,149 @@
+package com.invest.service;
+
+import com.invest.dto.CarteiraValorResponse;
+import com.invest.dto.HistoricoCotacaoResponse;
+import com.invest.model.Carteira;
+import com.invest.repository.CarteiraRepository;
+import com.invest.repository.TransacaoRepository;
+import com.invest.service.historico.SerieCotacao;
+import com.invest.service.ledger.PosicaoLedgerService;
+import com.invest.service.ledger.PosicaoSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para ValorCarteiraService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - ValorCarteiraService")
+class ValorCarteiraServiceTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    @Mock
+    private CarteiraRepository carteiraRepository;
+
+    @Mock
+    private TransacaoRepository transacaoRepository;
+
+    @Mock
+    private PosicaoLedgerService posicaoLedgerService;
+
+    @Mock
+    private HistoricoCotacaoService historicoCotacaoService;
+
+    @InjectMocks
+    private ValorCarteiraService valorCarteiraService;
+
+    private Carteira carteira;
+
+    @BeforeEach
+    void setUp() {
+        carteira = new Carteira();
+        carteira.setId(1L);
+        carteira.setNome("Carteira Teste");
+    }
+
+    private SerieCotacao serie(String codigo, String... precos) {
+        HistoricoCotacaoResponse.HistoricoItem[] itens = new HistoricoCotacaoResponse.HistoricoItem[precos.length];
+        for (int i = 0; i < precos.length; i++) {
+            itens[i] = new HistoricoCotacaoResponse.HistoricoItem(
+                    INICIO.plusDays(i), new BigDecimal(precos[i]), BigDecimal.ZERO, BigDecimal.ZERO);
+        }
+        return SerieCotacao.de(codigo, List.of(itens));
+    }
+
+    @Test
+    @DisplayName("Deve valorar a posição na data com a cotação vigente")
+    void deveValorarPosicaoNaDataComCotacaoVigente() {
+        LocalDateTime data = INICIO.plusDays(2).plusHours(3);
+        when(carteiraRepository.findById(1L)).thenReturn(Optional.of(carteira));
+        when(transacaoRepository.findCodigosAtivosByCarteiraId(1L)).thenReturn(List.of("PETR4"));
+        when(posicaoLedgerService.getPosicaoEm(1L, "PETR4", data))
+                .thenReturn(new PosicaoSnapshot(new BigDecimal("100"), new BigDecimal("20.00"), 1));
+        when(historicoCotacaoService.getSerieCotacao("PETR4"))
+                .thenReturn(serie("PETR4", "21.00", "22.00", "23.00", "24.00"));
+
+        CarteiraValorResponse response = valorCarteiraService.calcularValorEm(1L, data);
+
+        CarteiraValorResponse.AtivoValor ativo = response.getAtivos().get(0);
+        assertEquals(0, new BigDecimal("23.00").compareTo(ativo.getPreco()));
+        assertEquals(INICIO.plusDays(2), ativo.getDataCotacao());
+        assertEquals(0, new BigDecimal("2300.00").compareTo(response.getValorTotal()));
+        assertEquals(0, new BigDecimal("2000.00").compareTo(response.getCustoTotal()));
+        assertEquals(0, new BigDecimal("300.00").compareTo(response.getGanhoPerda()));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar ativos zerados e usar preço médio sem histórico")
+    void deveIgnorarZeradosEUsarPrecoMedioSemHistorico() {
+        LocalDateTime data = INICIO;
+        when(carteiraRepository.findById(1L)).thenReturn(Optional.of(carteira));
+        when(transacaoRepository.findCodigosAtivosByCarteiraId(1L)).thenReturn(List.of("VALE3", "ITUB4"));
+        when(posicaoLedgerService.getPosicaoEm(1L, "VALE3", data)).thenReturn(PosicaoSnapshot.VAZIA);
+        when(posicaoLedgerService.getPosicaoEm(1L, "ITUB4", data))
+                .thenReturn(new PosicaoSnapshot(new BigDecimal("10"), new BigDecimal("30.00"), 2));
+        when(historicoCotacaoService.getSerieCotacao("ITUB4")).thenReturn(SerieCotacao.VAZIA);
+
+        CarteiraValorResponse response = valorCarteiraService.calcularValorEm(1L, data);
+
+        assertEquals(1, response.getAtivos().size());
+        assertNull(response.getAtivos().get(0).getDataCotacao());
+        assertEquals(0, new BigDecimal("300.00").compareTo(response.getValorTotal()));
+        verify(historicoCotacaoService, never()).getSerieCotacao("VALE3");
+    }
+
+    @Test
+    @DisplayName("Deve usar preço médio quando a data é anterior à primeira cotação")
+    void deveUsarPrecoMedioAntesDoHistorico() {
+        LocalDateTime data = INICIO.minusDays(5);
+        when(carteiraRepository.findById(1L)).thenReturn(Optional.of(carteira));
+        when(transacaoRepository.findCodigosAtivosByCarteiraId(1L)).thenReturn(List.of("PETR4"));
+        when(posicaoLedgerService.getPosicaoEm(1L, "PETR4", data))
+                .thenReturn(new PosicaoSnapshot(new BigDecimal("100"), new BigDecimal("20.00"), 1));
+        when(historicoCotacaoService.getSerieCotacao("PETR4"))
+                .thenReturn(serie("PETR4", "21.00", "22.00"));
+
+        CarteiraValorResponse response = valorCarteiraService.calcularValorEm(1L, data);
+
+        CarteiraValorResponse.AtivoValor ativo = response.getAtivos().get(0);
+        assertEquals(0, new BigDecimal("20.00").compareTo(ativo.getPreco()));
+        assertNull(ativo.getDataCotacao());
+        assertEquals(0, new BigDecimal("2000.00").compareTo(response.getValorTotal()));
+    }
+
+    @Test
+    @DisplayName("Deve localizar cotação por data na série")
+    void deveLocalizarCotacaoPorData() {
+        SerieCotacao serie = serie("PETR4", "10.00", "11.00", "12.00");
+
+        assertEquals(-1, serie.indiceEm(INICIO.minusSeconds(1)));
+        assertEquals(0, serie.indiceEm(INICIO));
+        assertEquals(1, serie.indiceEm(INICIO.plusDays(1).plusHours(12)));
+        assertEquals(2, serie.indiceEm(INICIO.plusYears(1)));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando carteira não existe")
+    void deveLancarExcecaoQuandoCarteiraNaoExiste() {
+        when(carteiraRepository.findById(99L)).thenReturn(Optional.empty());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> valorCarteiraService.calcularValorEm(99L, INICIO));
+
+        assertEquals("Carteira não encontrada: 99", exception.getMessage());
+    }
+}
@@ -0,0 +1,182 @@
+package com.invest.service.agenda;
+
+import com.invest.service.CotacaoUpdateService;
+import com.invest.service.dados.DiretorioDados;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para AgendadorCotacoes e CalendarioB3
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - AgendadorCotacoes")
+class AgendadorCotacoesTest {
+
+    private static final ZoneId SAO_PAULO = ZoneId.of("America/Sao_Paulo");
+
+    @Mock
+    private CotacaoUpdateService cotacaoUpdateService;
+
+    @Mock
+    private DiretorioDados diretorioDados;
+
+    @InjectMocks
+    private AgendadorCotacoes agendadorCotacoes;
+
+    @TempDir
+    Path pasta;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CalendarioB3 calendarioB3 = new CalendarioB3();
+        ReflectionTestUtils.setField(calendarioB3, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(calendarioB3, "arquivoFeriados", "classpath:data/feriados-b3.txt");
+        ReflectionTestUtils.setField(calendarioB3, "horaAbertura", "10:00");
+        ReflectionTestUtils.setField(calendarioB3, "horaFechamento", "17:00");
+        ReflectionTestUtils.setField(calendarioB3, "zona", "America/Sao_Paulo");
+        calendarioB3.carregar();
+
+        ReflectionTestUtils.setField(agendadorCotacoes, "calendarioB3", calendarioB3);
+        ReflectionTestUtils.setField(agendadorCotacoes, "intervaloPregao", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(agendadorCotacoes, "intervaloForaPregao", Duration.ZERO);
+        ReflectionTestUtils.setField(agendadorCotacoes, "jitter", Duration.ZERO);
+        ReflectionTestUtils.setField(agendadorCotacoes, "recuperacao", "proxima");
+    }
+
+    @Test
+    @DisplayName("Deve apontar quando o arquivo de feriados não cobre o ano corrente e o seguinte")
+    void deveVerificarCoberturaDosFeriados() {
+        CalendarioB3 calendarioB3 = (CalendarioB3) ReflectionTestUtils.getField(agendadorCotacoes, "calendarioB3");
+
+        assertTrue(calendarioB3.verificarCobertura(LocalDate.of(2026, 10, 19)));
+        assertFalse(calendarioB3.verificarCobertura(LocalDate.of(2027, 6, 1)));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar no intervalo do pregão durante a sessão")
+    void deveUsarIntervaloDoPregao() {
+        assertEquals(horario(2025, 12, 1, 11, 5), agendadorCotacoes.proximoHorario(horario(2025, 12, 1, 11, 0)));
+    }
+
+    @Test
+    @DisplayName("Deve agendar uma atualização no fechamento")
+    void deveAtualizarNoFechamento() {
+        assertEquals(horario(2025, 12, 1, 17, 0), agendadorCotacoes.proximoHorario(horario(2025, 12, 1, 16, 58)));
+    }
+
+    @Test
+    @DisplayName("Deve aguardar a próxima abertura fora do pregão, pulando fim de semana e feriados")
+    void deveAguardarProximaAbertura() {
+        // Sexta após o fechamento → segunda
+        assertEquals(horario(2025, 12, 1, 10, 0), agendadorCotacoes.proximoHorario(horario(2025, 11, 28, 17, 0)));
+        // Antes da abertura no mesmo dia
+        assertEquals(horario(2025, 12, 2, 10, 0), agendadorCotacoes.proximoHorario(horario(2025, 12, 2, 7, 30)));
+        // 23/12 após o fechamento → 24 e 25/12 são feriados → 26/12
+        assertEquals(horario(2025, 12, 26, 10, 0), agendadorCotacoes.proximoHorario(horario(2025, 12, 23, 18, 0)));
+        // Carnaval 2026
+        assertEquals(horario(2026, 2, 18, 10, 0), agendadorCotacoes.proximoHorario(horario(2026, 2, 13, 17, 0)));
+    }
+
+    @Test
+    @DisplayName("Deve usar o intervalo fora do pregão quando configurado")
+    void deveUsarIntervaloForaDoPregao() {
+        ReflectionTestUtils.setField(agendadorCotacoes, "intervaloForaPregao", Duration.ofHours(2));
+
+        assertEquals(horario(2025, 12, 1, 20, 0), agendadorCotacoes.proximoHorario(horario(2025, 12, 1, 18, 0)));
+        assertEquals(horario(2025, 12, 2, 10, 0), agendadorCotacoes.proximoHorario(horario(2025, 12, 2, 9, 0)));
+    }
+
+    @Test
+    @DisplayName("Deve aplicar jitter apenas para frente e dentro do limite")
+    void deveAplicarJitter() {
+        ReflectionTestUtils.setField(agendadorCotacoes, "jitter", Duration.ofSeconds(30));
+        Instant base = horario(2025, 12, 1, 11, 5);
+
+        for (int i = 0; i < 100; i++) {
+            Instant proximo = agendadorCotacoes.proximoHorario(horario(2025, 12, 1, 11, 0));
+            assertFalse(proximo.isBefore(base));
+            assertFalse(proximo.isAfter(base.plusSeconds(30)));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve ignorar a execução quando outra atualização estiver em andamento")
+    void deveIgnorarSobreposicao() throws Exception {
+        fixarRelogio(horario(2025, 12, 1, 11, 0));
+        when(cotacaoUpdateService.tentarAtualizarCotacoes()).thenReturn(false);
+
+        agendadorCotacoes.executar();
+
+        Map<String, Object> status = agendadorCotacoes.getStatus();
+        assertEquals(1L, status.get("ignoradasSobreposicao"));
+        assertEquals(0L, status.get("executadas"));
+    }
+
+    @Test
+    @DisplayName("Deve descartar execução atrasada na política 'proxima' e recuperá-la na 'imediata'")
+    void deveAplicarPoliticaDeRecuperacao() throws Exception {
+        ReflectionTestUtils.setField(agendadorCotacoes, "proximaExecucao", horario(2025, 12, 1, 11, 0));
+        fixarRelogio(horario(2025, 12, 1, 11, 30));
+
+        agendadorCotacoes.executar();
+
+        verify(cotacaoUpdateService, never()).tentarAtualizarCotacoes();
+        assertEquals(1L, agendadorCotacoes.getStatus().get("ignoradasAtraso"));
+
+        ReflectionTestUtils.setField(agendadorCotacoes, "recuperacao", AgendadorCotacoes.RECUPERACAO_IMEDIATA);
+        when(cotacaoUpdateService.tentarAtualizarCotacoes()).thenReturn(true);
+
+        agendadorCotacoes.executar();
+
+        assertEquals(1L, agendadorCotacoes.getStatus().get("executadas"));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar na inicialização se os dados estiverem desatualizados (recuperação imediata)")
+    void deveRecuperarNaInicializacao() throws Exception {
+        ReflectionTestUtils.setField(agendadorCotacoes, "recuperacao", AgendadorCotacoes.RECUPERACAO_IMEDIATA);
+        Path arquivo = Files.writeString(pasta.resolve("cotacoes.json"), "[]");
+        when(diretorioDados.getArquivoCotacoes()).thenReturn(arquivo);
+
+        // Arquivo do dia anterior, com o pregão aberto
+        Files.setLastModifiedTime(arquivo, FileTime.from(horario(2025, 11, 28, 17, 0)));
+        fixarRelogio(horario(2025, 12, 1, 11, 0));
+        assertEquals(horario(2025, 12, 1, 11, 0), agendadorCotacoes.calcularProximaExecucao(new SimpleTriggerContext()));
+
+        // Arquivo posterior ao último fechamento, com o pregão fechado: aguarda a abertura
+        Files.setLastModifiedTime(arquivo, FileTime.from(horario(2025, 11, 28, 17, 1)));
+        fixarRelogio(horario(2025, 11, 29, 12, 0));
+        assertEquals(horario(2025, 12, 1, 10, 0), agendadorCotacoes.calcularProximaExecucao(new SimpleTriggerContext()));
+    }
+
+    private void fixarRelogio(Instant instante) {
+        ReflectionTestUtils.setField(agendadorCotacoes, "relogio", Clock.fixed(instante, SAO_PAULO));
+    }
+
+    private static Instant horario(int ano, int mes, int dia, int hora, int minuto) {
+        return LocalDateTime.of(ano, mes, dia, hora, minuto).atZone(SAO_PAULO).toInstant();
+    }
+}
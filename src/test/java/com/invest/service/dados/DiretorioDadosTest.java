@@ -0,0 +1,125 @@
+package com.invest.service.dados;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para DiretorioDados e ObservadorArquivos
+ */
+@DisplayName("Testes Unitários - DiretorioDados")
+class DiretorioDadosTest {
+
+    @TempDir
+    Path pasta;
+
+    private DiretorioDados diretorioDados;
+    private ObservadorArquivos observadorArquivos;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        diretorioDados = new DiretorioDados();
+        ReflectionTestUtils.setField(diretorioDados, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(diretorioDados, "diretorio", pasta.resolve("dados").toString());
+        diretorioDados.inicializar();
+
+        observadorArquivos = new ObservadorArquivos();
+        ReflectionTestUtils.setField(observadorArquivos, "diretorioDados", diretorioDados);
+        observadorArquivos.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        observadorArquivos.parar();
+    }
+
+    @Test
+    @DisplayName("Deve criar o diretório de histórico e copiar o cotacoes.json do classpath")
+    void deveInicializarDiretorio() {
+        assertTrue(Files.isDirectory(diretorioDados.getDiretorioHistorico()));
+        assertTrue(Files.exists(diretorioDados.getArquivoCotacoes()));
+        assertTrue(diretorioDados.getArquivoCotacoes().startsWith(pasta));
+    }
+
+    @Test
+    @DisplayName("Deve substituir o arquivo atomicamente sem deixar temporários")
+    void deveEscreverAtomicamente() throws IOException {
+        Path destino = diretorioDados.getRaiz().resolve("teste.json");
+        Files.writeString(destino, "[\"antigo\"]");
+
+        diretorioDados.escreverAtomicamente(destino, saida -> saida.write("[\"novo\"]".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("[\"novo\"]", Files.readString(destino));
+        try (Stream<Path> arquivos = Files.list(diretorioDados.getRaiz())) {
+            assertTrue(arquivos.noneMatch(p -> p.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter o conteúdo anterior quando a gravação falha")
+    void deveManterConteudoQuandoGravacaoFalha() throws IOException {
+        Path destino = diretorioDados.getArquivoCotacoes();
+        String original = Files.readString(destino);
+
+        assertThrows(IOException.class, () -> diretorioDados.escreverAtomicamente(destino, saida -> {
+            saida.write("[{\"Código\":".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("falha simulada");
+        }));
+
+        assertEquals(original, Files.readString(destino));
+        try (Stream<Path> arquivos = Files.list(diretorioDados.getRaiz())) {
+            assertTrue(arquivos.noneMatch(p -> p.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve mudar a versão do arquivo após uma gravação")
+    void deveMudarVersaoAposGravacao() throws Exception {
+        long versaoInicial = observadorArquivos.getVersao(DiretorioDados.ARQUIVO_COTACOES);
+
+        // Garante data de modificação diferente quando não há WatchService
+        Thread.sleep(20);
+        diretorioDados.escreverAtomicamente(diretorioDados.getArquivoCotacoes(),
+                saida -> saida.write("[]".getBytes(StandardCharsets.UTF_8)));
+
+        long limite = System.currentTimeMillis() + 10_000;
+        while (observadorArquivos.getVersao(DiretorioDados.ARQUIVO_COTACOES) == versaoInicial
+                && System.currentTimeMillis() < limite) {
+            Thread.sleep(50);
+        }
+        assertNotEquals(versaoInicial, observadorArquivos.getVersao(DiretorioDados.ARQUIVO_COTACOES));
+    }
+
+    @Test
+    @DisplayName("Deve observar só os arquivos consultados, sem acumular os temporários das gravações")
+    @SuppressWarnings("unchecked")
+    void naoDeveAcumularVersoesDeTemporarios() throws Exception {
+        long versaoInicial = observadorArquivos.getVersao(DiretorioDados.ARQUIVO_COTACOES);
+
+        for (int i = 0; i < 5; i++) {
+            diretorioDados.escreverAtomicamente(diretorioDados.getArquivoCotacoes(),
+                    saida -> saida.write("[]".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        long limite = System.currentTimeMillis() + 10_000;
+        while (observadorArquivos.getVersao(DiretorioDados.ARQUIVO_COTACOES) == versaoInicial
+                && System.currentTimeMillis() < limite) {
+            Thread.sleep(50);
+        }
+        Map<String, ?> versoes = (Map<String, ?>) ReflectionTestUtils.getField(observadorArquivos, "versoes");
+        assertTrue(versoes.keySet().stream().allMatch(DiretorioDados.ARQUIVO_COTACOES::equals), versoes.keySet()::toString);
+    }
+}
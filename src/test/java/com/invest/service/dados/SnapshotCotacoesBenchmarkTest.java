@@ -0,0 +1,126 @@
+package com.invest.service.dados;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invest.service.external.GoogleSheetsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de carga e ocupação: cotacoes.json (caminho atual) x snapshot binário mapeado.
+ *
+ * Executar com: mvn test -Dtest=SnapshotCotacoesBenchmarkTest -Dbenchmark=true
+ */
+@DisplayName("Benchmark - SnapshotCotacoes x JSON")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SnapshotCotacoesBenchmarkTest {
+
+    private static final int ATIVOS = 5_000;
+    private static final int AQUECIMENTO = 20;
+    private static final int RODADAS = 50;
+
+    @TempDir
+    Path pasta;
+
+    @Test
+    @DisplayName("Compara tempo de carga e tamanho do JSON e do snapshot binário")
+    void compararJsonEBinario() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        GoogleSheetsService googleSheetsService = new GoogleSheetsService();
+        List<Map<String, String>> dados = gerarDados();
+
+        Path json = pasta.resolve("cotacoes.json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(json.toFile(), dados);
+        Path binario = pasta.resolve("cotacoes.bin");
+        try (OutputStream saida = Files.newOutputStream(binario)) {
+            SnapshotCotacoes.gravar(saida, SnapshotCotacoes.linhas(dados), LocalDateTime.now());
+        }
+
+        // Carga + consulta de todos os ativos, como em getAllCotacoes()/buscarPrecoAtivo()
+        Carga cargaJson = () -> {
+            JsonNode raiz = objectMapper.readTree(json.toFile());
+            Map<String, BigDecimal> cotacoes = googleSheetsService.extrairCotacoes(raiz);
+            return cotacoes.get("T" + (ATIVOS - 1));
+        };
+        Carga cargaBinaria = () -> {
+            SnapshotCotacoes snapshot = SnapshotCotacoes.abrir(binario);
+            return snapshot.preco(snapshot.indice("T" + (ATIVOS - 1)));
+        };
+
+        assertEquals(cargaJson.executar(), cargaBinaria.executar());
+
+        double msJson = medir(cargaJson);
+        double msBinario = medir(cargaBinaria);
+        long heapJson = heapRetido(() -> googleSheetsService.extrairCotacoes(objectMapper.readTree(json.toFile())));
+        long heapBinario = heapRetido(() -> SnapshotCotacoes.abrir(binario));
+
+        System.out.printf("📊 %d ativos%n", ATIVOS);
+        System.out.printf("   JSON:    %,10d bytes em disco | %8.3f ms/carga | ~%,d bytes de heap%n",
+                Files.size(json), msJson, heapJson);
+        System.out.printf("   Binário: %,10d bytes em disco | %8.3f ms/carga | ~%,d bytes de heap%n",
+                Files.size(binario), msBinario, heapBinario);
+
+        assertTrue(Files.size(binario) < Files.size(json));
+    }
+
+    private static double medir(Carga carga) throws Exception {
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            carga.executar();
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < RODADAS; i++) {
+            carga.executar();
+        }
+        return (System.nanoTime() - inicio) / 1_000_000.0 / RODADAS;
+    }
+
+    /**
+     * Estimativa grosseira do heap mantido pelo resultado da carga
+     */
+    private static long heapRetido(Carga carga) throws Exception {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long antes = runtime.totalMemory() - runtime.freeMemory();
+        Object resultado = carga.executar();
+        System.gc();
+        long depois = runtime.totalMemory() - runtime.freeMemory();
+        assertNotNull(resultado);
+        return Math.max(0, depois - antes);
+    }
+
+    private static List<Map<String, String>> gerarDados() {
+        List<Map<String, String>> dados = new ArrayList<>(ATIVOS);
+        for (int i = 0; i < ATIVOS; i++) {
+            Map<String, String> linha = new LinkedHashMap<>();
+            linha.put("Acao", "T" + i);
+            linha.put("PreÃ§o Atual", (10 + i % 90) + "," + String.format("%02d", i % 100));
+            linha.put("VariaÃ§Ã£o %", "-1,88");
+            linha.put("MÃ¡ximo do Dia", (11 + i % 90) + ",31");
+            linha.put("MÃ­nimo do Dia", (9 + i % 90) + ",29");
+            linha.put("Data/Hora", "30/11/2025 20:16:41");
+            linha.put("Risco", "BAIXO");
+            linha.put("atualizado_em", "30/11/2025 20:16:41");
+            dados.add(linha);
+        }
+        return dados;
+    }
+
+    @FunctionalInterface
+    private interface Carga {
+        Object executar() throws Exception;
+    }
+}
@@ -0,0 +1,165 @@
+package com.invest.service.dados;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invest.service.PythonScriptExecutor;
+import com.invest.service.external.GoogleSheetsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Testes unitários para SnapshotCotacoes
+ */
+@DisplayName("Testes Unitários - SnapshotCotacoes")
+class SnapshotCotacoesTest {
+
+    private static final LocalDateTime DATA_HORA = LocalDateTime.of(2025, 11, 30, 20, 16, 41);
+
+    @TempDir
+    Path pasta;
+
+    @Test
+    @DisplayName("Deve gravar e ler o snapshot mapeado em memória")
+    void deveGravarELerSnapshot() throws IOException {
+        Path arquivo = pasta.resolve("cotacoes.bin");
+        try (OutputStream saida = Files.newOutputStream(arquivo)) {
+            SnapshotCotacoes.gravar(saida, List.of(
+                    new SnapshotCotacoes.Linha("VALE3", new BigDecimal("61.50"), new BigDecimal("62.00"),
+                            new BigDecimal("60.10"), new BigDecimal("-1.25")),
+                    new SnapshotCotacoes.Linha("PETR4", new BigDecimal("30.00"), null, null, null),
+                    new SnapshotCotacoes.Linha("ITUB4", new BigDecimal("25.005"), null, null, null)), DATA_HORA);
+        }
+
+        SnapshotCotacoes snapshot = SnapshotCotacoes.abrir(arquivo);
+
+        assertEquals(3, snapshot.getQuantidade());
+        assertEquals(DATA_HORA, snapshot.getDataHora());
+        assertEquals("ITUB4", snapshot.codigo(0));
+        assertEquals(-1, snapshot.indice("BBAS3"));
+
+        int vale = snapshot.indice("vale3");
+        assertEquals(new BigDecimal("61.50"), snapshot.preco(vale));
+        assertEquals(new BigDecimal("62.00"), snapshot.maximo(vale));
+        assertEquals(new BigDecimal("60.10"), snapshot.minimo(vale));
+        assertEquals(new BigDecimal("-1.25"), snapshot.variacao(vale));
+
+        int petr = snapshot.indice("PETR4");
+        assertNull(snapshot.maximo(petr));
+        assertEquals(new BigDecimal("25.01"), snapshot.preco(snapshot.indice("ITUB4")));
+        assertEquals(Map.of("ITUB4", new BigDecimal("25.01"), "PETR4", new BigDecimal("30.00"),
+                "VALE3", new BigDecimal("61.50")), snapshot.precos());
+    }
+
+    @Test
+    @DisplayName("Deve converter o cotacoes.json com cabeçalhos de encoding quebrado")
+    void deveConverterCotacoesJson() throws IOException {
+        List<Map<String, String>> dados = lerSemente();
+
+        List<SnapshotCotacoes.Linha> linhas = SnapshotCotacoes.linhas(dados);
+        SnapshotCotacoes snapshot = SnapshotCotacoes.de(ByteBuffer.wrap(gravar(linhas, SnapshotCotacoes.dataHora(dados, null))));
+
+        assertEquals(dados.size(), snapshot.getQuantidade());
+        assertEquals(DATA_HORA, snapshot.getDataHora());
+
+        Map<String, Object> petr = snapshot.cotacaoCompleta("PETR4");
+        assertEquals(new BigDecimal("31.79"), petr.get("precoAtual"));
+        assertEquals(new BigDecimal("-1.88"), petr.get("variacao"));
+        assertEquals(new BigDecimal("32.31"), petr.get("precoMaximo"));
+        assertEquals(new BigDecimal("31.29"), petr.get("precoMinimo"));
+        assertEquals("30/11/2025 20:16:41", petr.get("dataHora"));
+
+        // Preço sem separador: últimos dois dígitos são centavos
+        assertEquals(new BigDecimal("192.50"), snapshot.preco(snapshot.indice("VALE3")));
+    }
+
+    @Test
+    @DisplayName("Deve ocupar menos espaço que o JSON equivalente")
+    void deveSerMenorQueJson() throws IOException {
+        List<Map<String, String>> dados = lerSemente();
+        byte[] json = new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsBytes(dados);
+
+        byte[] binario = gravar(SnapshotCotacoes.linhas(dados), DATA_HORA);
+
+        assertTrue(binario.length * 4 < json.length,
+                "binário: " + binario.length + " bytes, JSON: " + json.length + " bytes");
+    }
+
+    @Test
+    @DisplayName("Deve regenerar o snapshot em uso quando o cotacoes.json for regravado")
+    void deveRegenerarSnapshotAposNovoJson() throws Exception {
+        DiretorioDados diretorioDados = new DiretorioDados();
+        ReflectionTestUtils.setField(diretorioDados, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(diretorioDados, "diretorio", pasta.resolve("dados").toString());
+        diretorioDados.inicializar();
+        ObservadorArquivos observadorArquivos = new ObservadorArquivos();
+        ReflectionTestUtils.setField(observadorArquivos, "diretorioDados", diretorioDados);
+        observadorArquivos.iniciar();
+        try {
+            GoogleSheetsService googleSheetsService = new GoogleSheetsService();
+            ReflectionTestUtils.setField(googleSheetsService, "objectMapper", new ObjectMapper());
+            ReflectionTestUtils.setField(googleSheetsService, "pythonScriptExecutor", mock(PythonScriptExecutor.class));
+            ReflectionTestUtils.setField(googleSheetsService, "diretorioDados", diretorioDados);
+            ReflectionTestUtils.setField(googleSheetsService, "observadorArquivos", observadorArquivos);
+            ReflectionTestUtils.setField(googleSheetsService, "snapshotBinario", true);
+            assertEquals(new BigDecimal("31.79"), googleSheetsService.buscarPrecoAtivo("PETR4"));
+            // Espera o evento da gravação do cotacoes.bin e carrega o snapshot com a versão definitiva
+            aguardarNovaVersao(observadorArquivos, DiretorioDados.ARQUIVO_SNAPSHOT, 0L);
+            assertEquals(new BigDecimal("31.79"), googleSheetsService.buscarPrecoAtivo("PETR4"));
+
+            // JSON gravado por fora (ex: script Python) depois do snapshot já carregado
+            long versaoJson = observadorArquivos.getVersao(DiretorioDados.ARQUIVO_COTACOES);
+            byte[] json = new ObjectMapper().writeValueAsBytes(List.of(Map.of("Acao", "PETR4", "Preço Atual", "35,10")));
+            diretorioDados.escreverAtomicamente(diretorioDados.getArquivoCotacoes(), saida -> saida.write(json));
+            aguardarNovaVersao(observadorArquivos, DiretorioDados.ARQUIVO_COTACOES, versaoJson);
+
+            assertEquals(new BigDecimal("35.10"), googleSheetsService.buscarPrecoAtivo("PETR4"));
+        } finally {
+            observadorArquivos.parar();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar arquivo que não é snapshot")
+    void deveRejeitarArquivoInvalido() {
+        assertThrows(IOException.class, () -> SnapshotCotacoes.de(ByteBuffer.wrap("[{\"Acao\":1}]".getBytes())));
+    }
+
+    private static void aguardarNovaVersao(ObservadorArquivos observadorArquivos, String arquivo, long versao)
+            throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (observadorArquivos.getVersao(arquivo) == versao) {
+            assertTrue(System.currentTimeMillis() < limite, "sem nova versão de " + arquivo);
+            Thread.sleep(20);
+        }
+    }
+
+    static List<Map<String, String>> lerSemente() throws IOException {
+        try (InputStream entrada = SnapshotCotacoesTest.class.getResourceAsStream("/data/cotacoes.json")) {
+            return new ObjectMapper().readValue(entrada, new TypeReference<List<Map<String, String>>>() {});
+        }
+    }
+
+    static byte[] gravar(List<SnapshotCotacoes.Linha> linhas, LocalDateTime dataHora) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        SnapshotCotacoes.gravar(saida, linhas, dataHora);
+        return saida.toByteArray();
+    }
+}
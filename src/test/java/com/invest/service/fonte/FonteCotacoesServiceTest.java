@@ -0,0 +1,211 @@
+package com.invest.service.fonte;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da agregação de fontes contra um servidor HTTP local (API JSON com atraso) e arquivos temporários
+ */
+@DisplayName("Testes Unitários - FonteCotacoesService")
+class FonteCotacoesServiceTest {
+
+    private static final long ATRASO_MS = 300;
+
+    private HttpServer servidor;
+    private FontesCotacoesProperties properties;
+    private FonteCotacoesService service;
+
+    @TempDir
+    Path diretorio;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/api-a", troca -> responder(troca,
+                "[{\"Acao\":\"PETR4\",\"Preço Atual\":\"31,79\",\"atualizado_em\":\"01/12/2025 14:00:00\"}]"));
+        servidor.createContext("/api-b", troca -> responder(troca,
+                "[{\"Acao\":\"VALE3\",\"Preço Atual\":\"61,50\",\"atualizado_em\":\"01/12/2025 14:00:00\"}]"));
+        servidor.createContext("/api-c", troca -> responder(troca,
+                "[{\"Acao\":\"ITUB4\",\"Preço Atual\":\"34,10\",\"atualizado_em\":\"01/12/2025 14:00:00\"}]"));
+        servidor.createContext("/fora", troca -> {
+            try (troca) {
+                troca.sendResponseHeaders(503, -1);
+            }
+        });
+        servidor.setExecutor(Executors.newCachedThreadPool());
+        servidor.start();
+
+        properties = new FontesCotacoesProperties();
+        service = new FonteCotacoesService();
+        ReflectionTestUtils.setField(service, "fontesCotacoesProperties", properties);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "connectTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(service, "readTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(service, "tentativas", 1);
+        ReflectionTestUtils.setField(service, "backoff", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(service, "backoffMaximo", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(service, "falhasParaAbrir", 3);
+        ReflectionTestUtils.setField(service, "esperaCircuito", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(service, "tolerancia", Duration.ofMinutes(15));
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    private void responder(HttpExchange troca, String json) throws IOException {
+        try (troca) {
+            try {
+                Thread.sleep(ATRASO_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] corpo = json.getBytes(StandardCharsets.UTF_8);
+            troca.sendResponseHeaders(200, corpo.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(corpo);
+            }
+        }
+    }
+
+    private String url(String caminho) {
+        return "http://127.0.0.1:" + servidor.getAddress().getPort() + caminho;
+    }
+
+    private Path arquivo(String nome, String conteudo) throws IOException {
+        return Files.writeString(diretorio.resolve(nome), conteudo, StandardCharsets.UTF_8);
+    }
+
+    private void configurar(FontesCotacoesProperties.Fonte... fontes) {
+        properties.setFontes(List.of(fontes));
+        service.inicializar();
+    }
+
+    private static Map<String, Map<String, String>> porCodigo(List<Map<String, String>> dados) {
+        return dados.stream().collect(Collectors.toMap(r -> r.get("Acao"), Function.identity()));
+    }
+
+    @Test
+    @DisplayName("Deve buscar as fontes em paralelo, no tempo da mais lenta")
+    void deveBuscarEmParalelo() throws IOException {
+        configurar(
+                new FontesCotacoesProperties.Fonte("a", "json", url("/api-a"), null, 1),
+                new FontesCotacoesProperties.Fonte("b", "json", url("/api-b"), null, 2),
+                new FontesCotacoesProperties.Fonte("c", "json", url("/api-c"), null, 3));
+        long inicio = System.nanoTime();
+
+        FonteResiliente.Resultado resultado = service.buscar();
+
+        long duracaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        assertTrue(duracaoMs < 3 * ATRASO_MS, "duração " + duracaoMs + "ms indica busca sequencial");
+        assertFalse(resultado.ultimoValido());
+        assertNull(resultado.falha());
+        assertEquals(3, resultado.dados().size());
+        assertEquals("b", porCodigo(resultado.dados()).get("VALE3").get("fonte"));
+    }
+
+    @Test
+    @DisplayName("Deve preferir a cotação mais recente e, dentro da tolerância, a fonte de menor prioridade")
+    void deveMesclarPorRecenciaEPrioridade() throws IOException {
+        Path principal = arquivo("principal.csv", "Acao,Preço Atual,Data/Hora\n"
+                + "PETR4,\"31,79\",01/12/2025 14:00:00\n"
+                + "VALE3,\"61,50\",01/12/2025 12:00:00\n");
+        Path secundaria = arquivo("secundaria.json", "["
+                + "{\"Acao\":\"PETR4\",\"Preço Atual\":\"31,90\",\"Data/Hora\":\"01/12/2025 14:10:00\"},"
+                + "{\"Acao\":\"VALE3\",\"Preço Atual\":\"62,00\",\"Data/Hora\":\"01/12/2025 14:00:00\"},"
+                + "{\"Acao\":\"BBAS3\",\"Preço Atual\":\"27,40\",\"Data/Hora\":\"01/12/2025 14:00:00\"}]");
+        configurar(
+                new FontesCotacoesProperties.Fonte("principal", "arquivo", null, principal.toString(), 1),
+                new FontesCotacoesProperties.Fonte("secundaria", "arquivo", null, secundaria.toString(), 2));
+
+        Map<String, Map<String, String>> dados = porCodigo(service.buscar().dados());
+
+        // 10 minutos de diferença: dentro da tolerância, vence a prioridade
+        assertEquals("31,79", dados.get("PETR4").get("Preço Atual"));
+        assertEquals("principal", dados.get("PETR4").get("fonte"));
+        // 2 horas de diferença: vence a mais recente
+        assertEquals("62,00", dados.get("VALE3").get("Preço Atual"));
+        assertEquals("secundaria", dados.get("VALE3").get("fonte"));
+        // Só existe em uma fonte
+        assertEquals("secundaria", dados.get("BBAS3").get("fonte"));
+    }
+
+    @Test
+    @DisplayName("Deve seguir com as demais fontes quando uma falhar")
+    void deveTolerarFalhaParcial() throws IOException {
+        configurar(
+                new FontesCotacoesProperties.Fonte("fora", "csv", url("/fora"), null, 1),
+                new FontesCotacoesProperties.Fonte("a", "json", url("/api-a"), null, 2));
+
+        FonteResiliente.Resultado resultado = service.buscar();
+
+        assertFalse(resultado.ultimoValido());
+        assertEquals(1, resultado.dados().size());
+        assertEquals("a", resultado.dados().get(0).get("fonte"));
+        assertTrue(resultado.falha().contains("fora"));
+    }
+
+    @Test
+    @DisplayName("Deve falhar quando nenhuma fonte responder")
+    void deveFalharSemFontes() {
+        configurar(
+                new FontesCotacoesProperties.Fonte("fora", "csv", url("/fora"), null, 1),
+                new FontesCotacoesProperties.Fonte("ausente", "arquivo", null, diretorio.resolve("nao-existe.csv").toString(), 2));
+
+        IOException erro = assertThrows(IOException.class, service::buscar);
+
+        assertTrue(erro.getMessage().contains("fora"));
+        assertTrue(erro.getMessage().contains("ausente"));
+    }
+
+    @Test
+    @DisplayName("Deve expor latência por fonte e duração da agregação no status")
+    void deveExporLatencia() throws IOException {
+        configurar(
+                new FontesCotacoesProperties.Fonte("a", "json", url("/api-a"), null, 1),
+                new FontesCotacoesProperties.Fonte("b", "json", url("/api-b"), null, 5));
+        service.buscar();
+
+        Map<String, Map<String, Object>> status = service.getStatus();
+
+        assertTrue((Long) status.get("a").get("ultimaLatenciaMs") >= ATRASO_MS);
+        assertEquals(5, status.get("b").get("prioridade"));
+        assertEquals(2, status.get("agregacao").get("fontes"));
+        assertEquals(2, status.get("agregacao").get("ultimoTotalAtivos"));
+        assertTrue((Long) status.get("agregacao").get("ultimaDuracaoMs") >= ATRASO_MS);
+    }
+
+    @Test
+    @DisplayName("Deve usar a planilha padrão quando nenhuma fonte estiver configurada")
+    void deveUsarFontePadrao() {
+        ReflectionTestUtils.setField(service, "urlPadrao", url("/fora"));
+        service.inicializar();
+
+        assertTrue(service.getStatus().containsKey("google-sheets"));
+        assertEquals(1, service.getStatus().get("agregacao").get("fontes"));
+    }
+}
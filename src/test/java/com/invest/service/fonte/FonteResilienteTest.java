@@ -0,0 +1,340 @@
+package com.invest.service.fonte;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da FonteResiliente contra um servidor HTTP local que simula respostas lentas e com erro
+ */
+@DisplayName("Testes Unitários - FonteResiliente")
+class FonteResilienteTest {
+
+    private static final String CSV = "Acao,Preço Atual\nPETR4,\"31,79\"\nVALE3,\"61,50\"\n";
+
+    private HttpServer servidor;
+    private final AtomicInteger requisicoes = new AtomicInteger();
+    // Comportamento de cada requisição, em ordem; vazio = responde o CSV
+    private final ConcurrentLinkedQueue<String> roteiro = new ConcurrentLinkedQueue<>();
+    private final CountDownLatch liberarLentas = new CountDownLatch(1);
+    // Versão publicada em /etag-versoes: v1 com o CSV, as seguintes sem cotações
+    private final AtomicInteger versaoPublicada = new AtomicInteger(1);
+
+    private CsvHttpFonte fonte;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/csv", this::responder);
+        servidor.createContext("/etag", this::responderComEtag);
+        servidor.createContext("/etag-versoes", this::responderVersao);
+        servidor.setExecutor(Executors.newCachedThreadPool());
+        servidor.start();
+
+        fonte = new CsvHttpFonte("google-sheets", "http://127.0.0.1:" + servidor.getAddress().getPort() + "/csv",
+                Duration.ofSeconds(2), Duration.ofMillis(300));
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberarLentas.countDown();
+        servidor.stop(0);
+    }
+
+    private void responder(HttpExchange troca) throws IOException {
+        requisicoes.incrementAndGet();
+        String acao = roteiro.poll();
+        try (troca) {
+            if ("lenta".equals(acao)) {
+                try {
+                    liberarLentas.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return;
+            }
+            if (acao != null && acao.startsWith("http")) {
+                int status = Integer.parseInt(acao.substring(4));
+                troca.sendResponseHeaders(status, -1);
+                return;
+            }
+            byte[] corpo = ("vazia".equals(acao) ? "Acao,Preço Atual\n" : CSV).getBytes(StandardCharsets.UTF_8);
+            troca.sendResponseHeaders(200, corpo.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(corpo);
+            }
+        }
+    }
+
+    private void responderComEtag(HttpExchange troca) throws IOException {
+        requisicoes.incrementAndGet();
+        try (troca) {
+            if ("\"v1\"".equals(troca.getRequestHeaders().getFirst("If-None-Match"))) {
+                troca.sendResponseHeaders(304, -1);
+                return;
+            }
+            byte[] corpo = CSV.getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().add("ETag", "\"v1\"");
+            troca.sendResponseHeaders(200, corpo.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(corpo);
+            }
+        }
+    }
+
+    private void responderVersao(HttpExchange troca) throws IOException {
+        requisicoes.incrementAndGet();
+        String etag = "\"v" + versaoPublicada.get() + "\"";
+        try (troca) {
+            if (etag.equals(troca.getRequestHeaders().getFirst("If-None-Match"))) {
+                troca.sendResponseHeaders(304, -1);
+                return;
+            }
+            byte[] corpo = (versaoPublicada.get() == 1 ? CSV : "Acao,Preço Atual\n").getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().add("ETag", etag);
+            troca.sendResponseHeaders(200, corpo.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(corpo);
+            }
+        }
+    }
+
+    private FonteResiliente resiliente(int tentativas, int falhasParaAbrir, Clock relogio) {
+        return new FonteResiliente(fonte, new FonteResiliente.Configuracao(tentativas, Duration.ofMillis(10),
+                Duration.ofMillis(40), falhasParaAbrir, Duration.ofMinutes(5)), relogio);
+    }
+
+    @Test
+    @DisplayName("Deve ler o CSV da fonte")
+    void deveLerCsv() throws IOException {
+        List<Map<String, String>> dados = fonte.buscar();
+
+        assertEquals(2, dados.size());
+        assertEquals("PETR4", dados.get(0).get("Acao"));
+        assertEquals("31,79", dados.get(0).get("Preço Atual"));
+        assertNotNull(dados.get(0).get("atualizado_em"));
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar os registros quando o servidor responder 304")
+    void deveUsarEtag() throws IOException {
+        CsvHttpFonte fonteEtag = new CsvHttpFonte("etag", "http://127.0.0.1:" + servidor.getAddress().getPort() + "/etag",
+                Duration.ofSeconds(2), Duration.ofMillis(300));
+
+        List<Map<String, String>> primeira = fonteEtag.buscar();
+        List<Map<String, String>> segunda = fonteEtag.buscar();
+
+        assertEquals(semCarimbo(primeira), semCarimbo(segunda));
+        assertEquals(2, requisicoes.get());
+        assertEquals(1L, fonteEtag.getStatus().get("downloads"));
+        assertEquals(1L, fonteEtag.getStatus().get("naoModificados"));
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar 304 para uma versão cujo parse falhou")
+    void naoDeveGuardarEtagDeParseComFalha() throws IOException {
+        CsvHttpFonte fonteVersoes = new CsvHttpFonte("versoes",
+                "http://127.0.0.1:" + servidor.getAddress().getPort() + "/etag-versoes",
+                Duration.ofSeconds(2), Duration.ofMillis(300));
+        fonteVersoes.buscar();
+        versaoPublicada.set(2);
+
+        assertThrows(RespostaInvalidaException.class, fonteVersoes::buscar);
+        // Com o ETag da versão 2 guardado, o servidor responderia 304 e voltariam os registros da versão 1
+        assertThrows(RespostaInvalidaException.class, fonteVersoes::buscar);
+
+        assertEquals(3L, fonteVersoes.getStatus().get("downloads"));
+        assertEquals(0L, fonteVersoes.getStatus().get("naoModificados"));
+    }
+
+    @Test
+    @DisplayName("Deve evitar o parse quando o corpo for igual ao anterior")
+    void deveDetectarCorpoRepetido() throws IOException {
+        List<Map<String, String>> primeira = fonte.buscar();
+        List<Map<String, String>> segunda = fonte.buscar();
+
+        assertEquals(semCarimbo(primeira), semCarimbo(segunda));
+        assertEquals(2L, fonte.getStatus().get("downloads"));
+        assertEquals(1L, fonte.getStatus().get("corpoRepetido"));
+        assertEquals(1L, resiliente(1, 3, Clock.systemUTC()).getStatus().get("corpoRepetido"));
+    }
+
+    @Test
+    @DisplayName("Deve carimbar os registros reaproveitados com a hora da verificação")
+    void deveRecarimbarRegistrosReaproveitados() throws IOException {
+        RelogioAjustavel relogio = new RelogioAjustavel(Instant.parse("2025-12-01T14:00:00Z"));
+        String base = "http://127.0.0.1:" + servidor.getAddress().getPort();
+        DownloadCondicional etag = new DownloadCondicional(base + "/etag", Duration.ofSeconds(2),
+                Duration.ofMillis(300), relogio);
+        DownloadCondicional csv = new DownloadCondicional(base + "/csv", Duration.ofSeconds(2),
+                Duration.ofMillis(300), relogio);
+        DownloadCondicional.Leitor leitor = (entrada, atualizadoEm) -> LeitorCsv.ler(
+                new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8)), atualizadoEm);
+
+        List<Map<String, String>> primeiraEtag = etag.buscar(leitor);
+        List<Map<String, String>> primeiraCsv = csv.buscar(leitor);
+        relogio.avancar(Duration.ofMinutes(1));
+        List<Map<String, String>> naoModificada = etag.buscar(leitor);
+        List<Map<String, String>> repetida = csv.buscar(leitor);
+
+        assertEquals("01/12/2025 14:00:00", primeiraEtag.get(0).get("atualizado_em"));
+        assertEquals("01/12/2025 14:00:00", primeiraCsv.get(0).get("atualizado_em"));
+        for (List<Map<String, String>> dados : List.of(naoModificada, repetida)) {
+            assertEquals(2, dados.size());
+            assertTrue(dados.stream().allMatch(r -> "01/12/2025 14:01:00".equals(r.get("atualizado_em"))));
+        }
+        assertEquals(semCarimbo(primeiraEtag), semCarimbo(naoModificada));
+        assertEquals(1L, etag.getStatus().get("naoModificados"));
+        assertEquals(1L, csv.getStatus().get("corpoRepetido"));
+    }
+
+    @Test
+    @DisplayName("Deve falhar por timeout de leitura em vez de travar")
+    void deveRespeitarTimeoutDeLeitura() {
+        roteiro.add("lenta");
+        long inicio = System.nanoTime();
+
+        assertThrows(SocketTimeoutException.class, () -> fonte.buscar());
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 3_000);
+    }
+
+    @Test
+    @DisplayName("Deve repetir após resposta lenta e erro 503")
+    void deveRepetirAposFalhasTemporarias() throws IOException {
+        roteiro.add("lenta");
+        roteiro.add("http503");
+        FonteResiliente resiliente = resiliente(3, 3, Clock.systemUTC());
+
+        FonteResiliente.Resultado resultado = resiliente.buscar();
+
+        assertFalse(resultado.ultimoValido());
+        assertEquals(2, resultado.dados().size());
+        assertEquals(3, requisicoes.get());
+        assertEquals(FonteResiliente.EstadoCircuito.FECHADO, resiliente.getEstado());
+    }
+
+    @Test
+    @DisplayName("Não deve repetir erro 404 nem CSV sem cotações")
+    void naoDeveRepetirFalhasDefinitivas() {
+        roteiro.add("http404");
+        FonteResiliente resiliente = resiliente(3, 3, Clock.systemUTC());
+
+        assertThrows(RespostaInvalidaException.class, resiliente::buscar);
+        assertEquals(1, requisicoes.get());
+
+        roteiro.add("vazia");
+        assertThrows(RespostaInvalidaException.class, resiliente::buscar);
+        assertEquals(2, requisicoes.get());
+    }
+
+    @Test
+    @DisplayName("Deve devolver o último snapshot válido quando a fonte falhar")
+    void deveUsarUltimoSnapshotValido() throws IOException {
+        FonteResiliente resiliente = resiliente(2, 5, Clock.systemUTC());
+        resiliente.buscar();
+        roteiro.add("http500");
+        roteiro.add("http500");
+
+        FonteResiliente.Resultado resultado = resiliente.buscar();
+
+        assertTrue(resultado.ultimoValido());
+        assertEquals(2, resultado.dados().size());
+        assertTrue(resultado.falha().contains("500"));
+        assertEquals(1L, resiliente.getStatus().get("fallbacks"));
+    }
+
+    @Test
+    @DisplayName("Deve abrir o circuito após falhas seguidas e fechar após a busca de teste")
+    void deveAbrirEFecharCircuito() throws IOException {
+        RelogioAjustavel relogio = new RelogioAjustavel(Instant.parse("2025-12-01T14:00:00Z"));
+        FonteResiliente resiliente = resiliente(1, 2, relogio);
+        resiliente.buscar();
+
+        roteiro.add("http500");
+        roteiro.add("http500");
+        resiliente.buscar();
+        resiliente.buscar();
+        assertEquals(FonteResiliente.EstadoCircuito.ABERTO, resiliente.getEstado());
+
+        // Aberto: não acessa a fonte e usa o último snapshot válido
+        int antes = requisicoes.get();
+        FonteResiliente.Resultado rejeitada = resiliente.buscar();
+        assertTrue(rejeitada.ultimoValido());
+        assertEquals(antes, requisicoes.get());
+        assertEquals(1L, resiliente.getStatus().get("rejeitadasCircuito"));
+
+        // Após a espera, a busca de teste com falha reabre o circuito
+        relogio.avancar(Duration.ofMinutes(6));
+        roteiro.add("http503");
+        resiliente.buscar();
+        assertEquals(FonteResiliente.EstadoCircuito.ABERTO, resiliente.getEstado());
+
+        // E a busca de teste com sucesso fecha
+        relogio.avancar(Duration.ofMinutes(6));
+        FonteResiliente.Resultado resultado = resiliente.buscar();
+        assertFalse(resultado.ultimoValido());
+        assertEquals(FonteResiliente.EstadoCircuito.FECHADO, resiliente.getEstado());
+    }
+
+    private static List<Map<String, String>> semCarimbo(List<Map<String, String>> dados) {
+        return dados.stream().map(registro -> {
+            Map<String, String> copia = new LinkedHashMap<>(registro);
+            copia.remove("atualizado_em");
+            return copia;
+        }).toList();
+    }
+
+    private static class RelogioAjustavel extends Clock {
+        private volatile Instant agora;
+
+        RelogioAjustavel(Instant agora) {
+            this.agora = agora;
+        }
+
+        void avancar(Duration duracao) {
+            agora = agora.plus(duracao);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
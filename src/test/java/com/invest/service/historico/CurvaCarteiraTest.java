@@ -0,0 +1,75 @@
+package com.invest.service.historico;
+
+import com.invest.dto.HistoricoCotacaoResponse;
+import com.invest.model.TipoTransacao;
+import com.invest.service.ledger.EvolucaoPosicao;
+import com.invest.service.ledger.PosicaoLedger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para CurvaCarteira
+ */
+@DisplayName("Testes Unitários - CurvaCarteira")
+class CurvaCarteiraTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 2, 10, 0);
+
+    private SerieCotacao serie(String codigo, int[] dias, String[] precos) {
+        List<HistoricoCotacaoResponse.HistoricoItem> itens = new ArrayList<>();
+        for (int i = 0; i < dias.length; i++) {
+            itens.add(new HistoricoCotacaoResponse.HistoricoItem(
+                    INICIO.plusDays(dias[i]), new BigDecimal(precos[i]), BigDecimal.ZERO, BigDecimal.ZERO));
+        }
+        return SerieCotacao.de(codigo, itens);
+    }
+
+    private PosicaoLedger.Lancamento lancamento(long id, int dia, TipoTransacao tipo, String quantidade, String preco) {
+        return new PosicaoLedger.Lancamento(id, INICIO.plusDays(dia), tipo,
+                new BigDecimal(quantidade), new BigDecimal(preco));
+    }
+
+    @Test
+    @DisplayName("Deve somar ativos com a posição vigente em cada cotação")
+    void deveSomarAtivosComPosicaoVigente() {
+        PosicaoLedger ledgerA = new PosicaoLedger();
+        ledgerA.adicionar(lancamento(1, 0, TipoTransacao.COMPRA, "10", "10.00"));
+        PosicaoLedger ledgerB = new PosicaoLedger();
+        ledgerB.adicionar(lancamento(2, 1, TipoTransacao.COMPRA, "5", "20.00"));
+        ledgerB.adicionar(lancamento(3, 3, TipoTransacao.VENDA, "5", "22.00"));
+
+        CurvaCarteira curva = CurvaCarteira.construir(
+                List.of(serie("AAAA3", new int[] {0, 2}, new String[] {"10.00", "12.00"}),
+                        serie("BBBB3", new int[] {1, 3}, new String[] {"21.00", "22.00"})),
+                List.of(ledgerA.getEvolucao(), ledgerB.getEvolucao()));
+
+        assertEquals(4, curva.tamanho());
+        assertEquals(INICIO, curva.getDataHora(0));
+        assertEquals(100.0, curva.getValor(0), 1e-9);
+        assertEquals(205.0, curva.getValor(1), 1e-9);
+        assertEquals(200.0, curva.getCusto(1), 1e-9);
+        assertEquals(225.0, curva.getValor(2), 1e-9);
+        assertEquals(120.0, curva.getValor(3), 1e-9);
+        assertEquals(100.0, curva.getCusto(3), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Deve usar custo para ativo ainda sem cotação")
+    void deveUsarCustoParaAtivoSemCotacao() {
+        CurvaCarteira curva = CurvaCarteira.construir(
+                List.of(serie("AAAA3", new int[] {0, 1}, new String[] {"10.00", "11.00"}), SerieCotacao.VAZIA),
+                List.of(EvolucaoPosicao.constante(10, 100), EvolucaoPosicao.constante(2, 50)));
+
+        assertEquals(2, curva.tamanho());
+        assertEquals(150.0, curva.getValor(0), 1e-9);
+        assertEquals(160.0, curva.getValor(1), 1e-9);
+        assertEquals(150.0, curva.getCusto(1), 1e-9);
+    }
+}
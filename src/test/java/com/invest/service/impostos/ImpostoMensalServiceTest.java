@@ -0,0 +1,146 @@
+package com.invest.service.impostos;
+
+import com.invest.model.CategoriaImposto;
+import com.invest.model.TipoAtivo;
+import com.invest.model.TipoTransacao;
+import com.invest.model.Transacao;
+import com.invest.repository.TransacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para ImpostoMensalService e ApuracaoImposto
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - ImpostoMensalService")
+class ImpostoMensalServiceTest {
+
+    @Mock
+    private TransacaoRepository transacaoRepository;
+
+    @InjectMocks
+    private ImpostoMensalService impostoMensalService;
+
+    private List<Transacao> transacoes;
+
+    @BeforeEach
+    void setUp() {
+        transacoes = new ArrayList<>();
+        transacoes.add(transacao(1L, TipoTransacao.COMPRA, "PETR4", TipoAtivo.ACAO, 1, "1000", "10.00"));
+        transacoes.add(transacao(2L, TipoTransacao.COMPRA, "HGLG11", TipoAtivo.FII, 1, "100", "100.00"));
+        transacoes.add(transacao(3L, TipoTransacao.COMPRA, "PETR4", TipoAtivo.ACAO, 2, "1000", "20.00"));
+        transacoes.add(transacao(4L, TipoTransacao.VENDA, "PETR4", TipoAtivo.ACAO, 3, "1000", "14.00"));
+        transacoes.add(transacao(5L, TipoTransacao.VENDA, "HGLG11", TipoAtivo.FII, 3, "50", "110.00"));
+        transacoes.add(transacao(6L, TipoTransacao.VENDA, "PETR4", TipoAtivo.ACAO, 4, "1000", "25.00"));
+        transacoes.add(transacao(7L, TipoTransacao.COMPRA, "PETR4", TipoAtivo.ACAO, 5, "100", "50.00"));
+    }
+
+    private Transacao transacao(Long id, TipoTransacao tipo, String codigo, TipoAtivo tipoAtivo,
+                                int mes, String quantidade, String preco) {
+        Transacao transacao = new Transacao(tipo, codigo, codigo, tipoAtivo, new BigDecimal(quantidade), new BigDecimal(preco));
+        transacao.setId(id);
+        transacao.setDataTransacao(LocalDateTime.of(2024, mes, 10, 14, 0));
+        return transacao;
+    }
+
+    private ResultadoMensal resultado(List<ResultadoMensal> resultados, int mes, CategoriaImposto categoria) {
+        return resultados.stream()
+                .filter(r -> r.getMes().equals(YearMonth.of(2024, mes)) && r.getCategoria() == categoria)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Deve apurar pelo custo médio da data da venda e compensar prejuízo")
+    void deveApurarPeloCustoMedioECompensarPrejuizo() {
+        List<ResultadoMensal> resultados = ApuracaoImposto.apurar(transacoes);
+
+        // Março: venda de 14.000 (isenta) com prejuízo de 1.000 sobre o custo médio de 15
+        ResultadoMensal marco = resultado(resultados, 3, CategoriaImposto.ACOES);
+        assertEquals(0, new BigDecimal("-1000.00").compareTo(marco.getResultado()));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(marco.getPrejuizoAcumulado()));
+
+        // Abril: ganho de 10.000, compensa 1.000 de prejuízo e paga 15% sobre 9.000
+        ResultadoMensal abril = resultado(resultados, 4, CategoriaImposto.ACOES);
+        assertEquals(0, new BigDecimal("10000.00").compareTo(abril.getResultado()));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(abril.getPrejuizoCompensado()));
+        assertEquals(0, new BigDecimal("1350.00").compareTo(abril.getImpostoDevido()));
+
+        // FII não tem isenção: 20% sobre ganho de 500
+        ResultadoMensal fii = resultado(resultados, 3, CategoriaImposto.FII);
+        assertFalse(fii.isIsento());
+        assertEquals(0, new BigDecimal("100.00").compareTo(fii.getImpostoDevido()));
+        assertEquals(3, resultados.size());
+    }
+
+    @Test
+    @DisplayName("Deve isentar ganho em ações com vendas abaixo de R$ 20 mil")
+    void deveIsentarGanhoAbaixoDoLimite() {
+        List<Transacao> lista = List.of(
+                transacao(1L, TipoTransacao.COMPRA, "VALE3", TipoAtivo.ACAO, 1, "100", "50.00"),
+                transacao(2L, TipoTransacao.VENDA, "VALE3", TipoAtivo.ACAO, 2, "100", "80.00"));
+
+        ResultadoMensal fevereiro = ApuracaoImposto.apurar(lista).get(0);
+
+        assertTrue(fevereiro.isIsento());
+        assertEquals(0, new BigDecimal("3000.00").compareTo(fevereiro.getResultado()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(fevereiro.getImpostoDevido()));
+    }
+
+    @Test
+    @DisplayName("Deve isentar vendas de exatamente R$ 20 mil e tributar acima disso")
+    void deveIsentarVendasNoLimite() {
+        List<Transacao> noLimite = List.of(
+                transacao(1L, TipoTransacao.COMPRA, "VALE3", TipoAtivo.ACAO, 1, "200", "50.00"),
+                transacao(2L, TipoTransacao.VENDA, "VALE3", TipoAtivo.ACAO, 2, "200", "100.00"));
+        List<Transacao> acimaDoLimite = List.of(
+                transacao(1L, TipoTransacao.COMPRA, "VALE3", TipoAtivo.ACAO, 1, "1", "10000.00"),
+                transacao(2L, TipoTransacao.VENDA, "VALE3", TipoAtivo.ACAO, 2, "1", "20000.01"));
+
+        ResultadoMensal isento = ApuracaoImposto.apurar(noLimite).get(0);
+        ResultadoMensal tributado = ApuracaoImposto.apurar(acimaDoLimite).get(0);
+
+        assertEquals(0, new BigDecimal("20000.00").compareTo(isento.getTotalVendas()));
+        assertTrue(isento.isIsento());
+        assertEquals(0, BigDecimal.ZERO.compareTo(isento.getImpostoDevido()));
+        assertFalse(tributado.isIsento());
+        assertEquals(0, new BigDecimal("1500.00").compareTo(tributado.getImpostoDevido()));
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar meses encerrados e recalcular após alteração")
+    void deveReaproveitarMesesEncerrados() {
+        when(transacaoRepository.findByCarteiraIdOrderByDataTransacaoAscIdAsc(1L)).thenReturn(transacoes);
+
+        BigDecimal total = impostoMensalService.calcularImpostoTotal(1L);
+        assertEquals(0, new BigDecimal("1450.00").compareTo(total));
+
+        // Segunda consulta: só busca transações depois do último mês memorizado (maio)
+        when(transacaoRepository.findByCarteiraIdAndDataTransacaoGreaterThanEqualOrderByDataTransacaoAscIdAsc(
+                1L, LocalDateTime.of(2024, 6, 1, 0, 0))).thenReturn(Collections.emptyList());
+        assertEquals(3, impostoMensalService.getApuracao(1L).size());
+
+        // Alteração em março: retoma a partir do estado de fevereiro
+        when(transacaoRepository.findByCarteiraIdAndDataTransacaoGreaterThanEqualOrderByDataTransacaoAscIdAsc(
+                1L, LocalDateTime.of(2024, 3, 1, 0, 0))).thenReturn(transacoes.subList(3, transacoes.size()));
+        impostoMensalService.invalidarAPartirDe(1L, LocalDateTime.of(2024, 3, 20, 9, 0));
+
+        assertEquals(3, impostoMensalService.getApuracaoAno(1L, 2024).size());
+        verify(transacaoRepository, times(1)).findByCarteiraIdOrderByDataTransacaoAscIdAsc(1L);
+    }
+}
@@ -0,0 +1,120 @@
+package com.invest.service.impostos;
+
+import com.invest.model.Carteira;
+import com.invest.model.CategoriaImposto;
+import com.invest.model.ResumoImpostoMensal;
+import com.invest.repository.CarteiraRepository;
+import com.invest.repository.ResumoImpostoMensalRepository;
+import com.invest.repository.TransacaoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para ResumoImpostoService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - ResumoImpostoService")
+class ResumoImpostoServiceTest {
+
+    @Mock
+    private ResumoImpostoMensalRepository resumoRepository;
+
+    @Mock
+    private CarteiraRepository carteiraRepository;
+
+    @Mock
+    private TransacaoRepository transacaoRepository;
+
+    @Mock
+    private ImpostoMensalService impostoMensalService;
+
+    @InjectMocks
+    private ResumoImpostoService resumoImpostoService;
+
+    private ResultadoMensal resultado(int mes, CategoriaImposto categoria, String imposto) {
+        return new ResultadoMensal(YearMonth.of(2024, mes), categoria, new BigDecimal("30000.00"),
+                new BigDecimal("1000.00"), BigDecimal.ZERO, BigDecimal.ZERO,
+                new BigDecimal("1000.00"), new BigDecimal(imposto), false);
+    }
+
+    private ResumoImpostoMensal resumo(int mes, CategoriaImposto categoria) {
+        ResumoImpostoMensal resumo = new ResumoImpostoMensal(new Carteira(), 2024, mes, categoria);
+        resumo.setImpostoDevido(BigDecimal.ZERO);
+        return resumo;
+    }
+
+    @Test
+    @DisplayName("Deve regravar só os meses a partir da alteração")
+    @SuppressWarnings("unchecked")
+    void deveRegravarApenasMesesAPartirDaAlteracao() {
+        LocalDateTime data = LocalDateTime.of(2024, 3, 15, 10, 0);
+        ResumoImpostoMensal marcoAcoes = resumo(3, CategoriaImposto.ACOES);
+        ResumoImpostoMensal abrilFii = resumo(4, CategoriaImposto.FII);
+
+        when(resumoRepository.existsByCarteiraId(1L)).thenReturn(true);
+        when(impostoMensalService.getApuracao(1L)).thenReturn(List.of(
+                resultado(2, CategoriaImposto.ACOES, "100.00"),
+                resultado(3, CategoriaImposto.ACOES, "150.00"),
+                resultado(4, CategoriaImposto.ETF, "200.00")));
+        when(resumoRepository.findByCarteiraIdAPartirDe(1L, 2024, 3))
+                .thenReturn(new ArrayList<>(List.of(marcoAcoes, abrilFii)));
+        when(carteiraRepository.getReferenceById(1L)).thenReturn(new Carteira());
+
+        resumoImpostoService.atualizarAPartirDe(1L, data);
+
+        verify(impostoMensalService).invalidarAPartirDe(1L, data);
+
+        ArgumentCaptor<Iterable<ResumoImpostoMensal>> removidos = ArgumentCaptor.forClass(Iterable.class);
+        verify(resumoRepository).deleteAll(removidos.capture());
+        assertTrue(removidos.getValue().iterator().next() == abrilFii);
+
+        ArgumentCaptor<List<ResumoImpostoMensal>> gravados = ArgumentCaptor.forClass(List.class);
+        verify(resumoRepository).saveAll(gravados.capture());
+        assertEquals(2, gravados.getValue().size());
+        assertSame(marcoAcoes, gravados.getValue().get(0));
+        assertEquals(0, new BigDecimal("150.00").compareTo(marcoAcoes.getImpostoDevido()));
+        assertEquals(CategoriaImposto.ETF, gravados.getValue().get(1).getCategoria());
+    }
+
+    @Test
+    @DisplayName("Deve ler resumos do ano sem reapurar quando já gravados")
+    void deveLerResumosSemReapurar() {
+        when(resumoRepository.findByCarteiraIdAndAnoOrderByMesAscCategoriaAsc(1L, 2024))
+                .thenReturn(List.of(resumo(3, CategoriaImposto.ACOES)));
+
+        List<ResumoImpostoMensal> resumos = resumoImpostoService.getResumosAno(1L, 2024);
+
+        assertEquals(1, resumos.size());
+        verify(impostoMensalService, never()).getApuracao(anyLong());
+        verify(resumoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve apurar na inicialização as carteiras com vendas e sem resumo")
+    void deveApurarCarteirasSemResumoNaInicializacao() {
+        when(transacaoRepository.findCarteiraIdsComVendasSemResumoImposto()).thenReturn(List.of(2L));
+        when(impostoMensalService.getApuracao(2L)).thenReturn(List.of(resultado(5, CategoriaImposto.ACOES, "80.00")));
+        when(resumoRepository.findByCarteiraIdAPartirDe(2L, Integer.MIN_VALUE, 1)).thenReturn(new ArrayList<>());
+        when(carteiraRepository.getReferenceById(2L)).thenReturn(new Carteira());
+
+        resumoImpostoService.apurarCarteirasSemResumo();
+
+        verify(resumoRepository).saveAll(argThat(gravados -> ((List<?>) gravados).size() == 1));
+        verify(impostoMensalService, never()).getApuracao(1L);
+    }
+}
@@ -0,0 +1,120 @@
+package com.invest.service.ledger;
+
+import com.invest.model.TipoTransacao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para PosicaoLedger
+ */
+@DisplayName("Testes Unitários - PosicaoLedger")
+class PosicaoLedgerTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 2, 10, 0);
+
+    private PosicaoLedger.Lancamento compra(long id, int dia, String quantidade, String preco) {
+        return new PosicaoLedger.Lancamento(id, INICIO.plusDays(dia), TipoTransacao.COMPRA,
+                new BigDecimal(quantidade), new BigDecimal(preco));
+    }
+
+    private PosicaoLedger.Lancamento venda(long id, int dia, String quantidade, String preco) {
+        return new PosicaoLedger.Lancamento(id, INICIO.plusDays(dia), TipoTransacao.VENDA,
+                new BigDecimal(quantidade), new BigDecimal(preco));
+    }
+
+    @Test
+    @DisplayName("Deve calcular quantidade e preço médio ponderado")
+    void deveCalcularPrecoMedioPonderado() {
+        PosicaoLedger ledger = new PosicaoLedger();
+        ledger.adicionar(compra(1, 0, "100", "10.00"));
+        ledger.adicionar(compra(2, 1, "100", "20.00"));
+        ledger.adicionar(venda(3, 2, "50", "25.00"));
+
+        PosicaoSnapshot posicao = ledger.getPosicaoAtual();
+
+        assertEquals(0, new BigDecimal("150").compareTo(posicao.getQuantidade()));
+        assertEquals(0, new BigDecimal("15.00").compareTo(posicao.getPrecoMedio()));
+        assertEquals(3, posicao.getLancamentosAplicados());
+    }
+
+    @Test
+    @DisplayName("Deve recalcular preço médio ao editar uma compra antiga")
+    void deveRecalcularPrecoMedioAoEditarCompraAntiga() {
+        PosicaoLedger ledger = new PosicaoLedger();
+        ledger.adicionar(compra(1, 0, "100", "10.00"));
+        ledger.adicionar(compra(2, 1, "100", "20.00"));
+
+        // Edita a primeira compra: preço 10 -> 30
+        ledger.adicionar(compra(1, 0, "100", "30.00"));
+
+        PosicaoSnapshot posicao = ledger.getPosicaoAtual();
+        assertEquals(2, ledger.tamanho());
+        assertEquals(0, new BigDecimal("200").compareTo(posicao.getQuantidade()));
+        assertEquals(0, new BigDecimal("25.00").compareTo(posicao.getPrecoMedio()));
+    }
+
+    @Test
+    @DisplayName("Deve retornar posição em uma data")
+    void deveRetornarPosicaoEmUmaData() {
+        PosicaoLedger ledger = new PosicaoLedger();
+        ledger.adicionar(compra(1, 0, "100", "10.00"));
+        ledger.adicionar(compra(2, 10, "100", "20.00"));
+        ledger.adicionar(venda(3, 20, "150", "25.00"));
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(ledger.getPosicaoEm(INICIO.minusDays(1)).getQuantidade()));
+        assertEquals(0, new BigDecimal("100").compareTo(ledger.getPosicaoEm(INICIO.plusDays(5)).getQuantidade()));
+        assertEquals(0, new BigDecimal("200").compareTo(ledger.getPosicaoEm(INICIO.plusDays(10)).getQuantidade()));
+        assertEquals(0, new BigDecimal("50").compareTo(ledger.getPosicaoEm(INICIO.plusDays(30)).getQuantidade()));
+    }
+
+    @Test
+    @DisplayName("Deve manter checkpoints consistentes após inserção retroativa e remoção")
+    void deveManterCheckpointsConsistentes() {
+        PosicaoLedger comCheckpoints = new PosicaoLedger(4);
+        PosicaoLedger semCheckpoints = new PosicaoLedger(Integer.MAX_VALUE);
+
+        for (int i = 1; i <= 40; i++) {
+            PosicaoLedger.Lancamento lancamento = i % 5 == 0
+                    ? venda(i, i, "3", "12.00")
+                    : compra(i, i, "10", String.valueOf(10 + i));
+            comCheckpoints.adicionar(lancamento);
+            semCheckpoints.adicionar(lancamento);
+        }
+        // Consulta para materializar checkpoints
+        comCheckpoints.getPosicaoAtual();
+
+        PosicaoLedger.Lancamento retroativa = compra(100, 3, "50", "99.00");
+        comCheckpoints.adicionar(retroativa);
+        semCheckpoints.adicionar(retroativa);
+        comCheckpoints.remover(17L);
+        semCheckpoints.remover(17L);
+
+        for (int dia = 0; dia <= 41; dia++) {
+            LocalDateTime data = INICIO.plusDays(dia);
+            PosicaoSnapshot esperado = semCheckpoints.getPosicaoEm(data);
+            PosicaoSnapshot obtido = comCheckpoints.getPosicaoEm(data);
+            assertEquals(0, esperado.getQuantidade().compareTo(obtido.getQuantidade()), "quantidade no dia " + dia);
+            assertEquals(0, esperado.getPrecoMedio().compareTo(obtido.getPrecoMedio()), "preço médio no dia " + dia);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve informar índice de inserção para transação retroativa")
+    void deveInformarIndiceInsercaoRetroativa() {
+        PosicaoLedger ledger = new PosicaoLedger();
+        ledger.adicionar(compra(1, 0, "100", "10.00"));
+        ledger.adicionar(compra(2, 10, "100", "20.00"));
+
+        int indice = ledger.adicionar(compra(3, 5, "100", "30.00"));
+
+        assertEquals(1, indice);
+        assertEquals(1, ledger.indiceDe(3L));
+        assertTrue(ledger.remover(3L));
+        assertFalse(ledger.remover(3L));
+    }
+}
@@ -0,0 +1,63 @@
+package com.invest.service.realtime;
+
+import com.invest.dto.CotacoesTickMensagem;
+import com.invest.event.CotacoesAtualizadasEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para TickCotacoesService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - TickCotacoesService")
+class TickCotacoesServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @InjectMocks
+    private TickCotacoesService tickCotacoesService;
+
+    @Test
+    @DisplayName("Deve publicar apenas os ativos alterados em um único lote")
+    void devePublicarApenasAtivosAlterados() {
+        CotacoesAtualizadasEvent evento = CotacoesAtualizadasEvent.de(2,
+                Map.of("PETR4", new BigDecimal("30.00"), "VALE3", new BigDecimal("60.00")),
+                Map.of("PETR4", new BigDecimal("30.0"), "VALE3", new BigDecimal("61.50"), "ITUB4", new BigDecimal("25.00")));
+
+        tickCotacoesService.publicar(evento);
+
+        ArgumentCaptor<CotacoesTickMensagem> lote = ArgumentCaptor.forClass(CotacoesTickMensagem.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/cotacoes"), lote.capture());
+        assertEquals(2, lote.getValue().getSequencia());
+        assertEquals(List.of("ITUB4", "VALE3"),
+                lote.getValue().getCotacoes().stream().map(CotacoesTickMensagem.Tick::getCodigo).toList());
+        // Um frame por tick: nada por ativo
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    @Test
+    @DisplayName("Não deve enviar nada quando nenhuma cotação mudou")
+    void naoDeveEnviarSemMudancas() {
+        Map<String, BigDecimal> snapshot = Map.of("PETR4", new BigDecimal("30.00"));
+
+        tickCotacoesService.publicar(CotacoesAtualizadasEvent.de(3, snapshot, snapshot));
+
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+}
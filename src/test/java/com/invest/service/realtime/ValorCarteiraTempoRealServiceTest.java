@@ -0,0 +1,147 @@
+package com.invest.service.realtime;
+
+import com.invest.dto.CarteiraValorMensagem;
+import com.invest.dto.CarteiraValorResponse;
+import com.invest.dto.CotacoesTickMensagem;
+import com.invest.repository.AtivoRepository;
+import com.invest.repository.CarteiraRepository;
+import com.invest.service.ValorCarteiraService;
+import com.invest.service.ledger.PosicaoLedgerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para ValorCarteiraTempoRealService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - ValorCarteiraTempoRealService")
+class ValorCarteiraTempoRealServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private AtivoRepository ativoRepository;
+
+    @Mock
+    private CarteiraRepository carteiraRepository;
+
+    @Mock
+    private PosicaoLedgerService posicaoLedgerService;
+
+    @Mock
+    private ValorCarteiraService valorCarteiraService;
+
+    @InjectMocks
+    private ValorCarteiraTempoRealService valorCarteiraTempoRealService;
+
+    private CotacoesTickMensagem.Tick tick(String codigo, String preco) {
+        return new CotacoesTickMensagem.Tick(codigo, new BigDecimal(preco), null, 0L);
+    }
+
+    private CarteiraValorResponse valor(Long carteiraId, String valorTotal) {
+        BigDecimal total = new BigDecimal(valorTotal);
+        BigDecimal custo = new BigDecimal("1000.00");
+        return new CarteiraValorResponse(carteiraId, "Carteira", LocalDateTime.now(),
+                total, custo, total.subtract(custo), List.of());
+    }
+
+    @Test
+    @DisplayName("Deve recalcular só as carteiras com o ativo e agrupar ticks do intervalo")
+    void deveRecalcularSoCarteirasAfetadasUmaVezPorIntervalo() {
+        when(posicaoLedgerService.getVersaoGlobal()).thenReturn(1L);
+        when(ativoRepository.findCodigosECarteirasComPosicao()).thenReturn(List.of(
+                new Object[]{"PETR4", 1L}, new Object[]{"VALE3", 1L}, new Object[]{"VALE3", 2L}));
+        when(valorCarteiraService.calcularValorAtual(eq(1L), anyMap())).thenReturn(valor(1L, "1100.00"));
+
+        valorCarteiraTempoRealService.registrarTicks(List.of(tick("PETR4", "30.00")));
+        valorCarteiraTempoRealService.registrarTicks(List.of(tick("PETR4", "31.00"), tick("ITUB4", "25.00")));
+        valorCarteiraTempoRealService.publicarPendentes();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, BigDecimal>> precos = ArgumentCaptor.forClass(Map.class);
+        verify(valorCarteiraService, times(1)).calcularValorAtual(eq(1L), precos.capture());
+        assertEquals(0, new BigDecimal("31.00").compareTo(precos.getValue().get("PETR4")));
+        verify(valorCarteiraService, never()).calcularValorAtual(eq(2L), anyMap());
+
+        ArgumentCaptor<CarteiraValorMensagem> mensagem = ArgumentCaptor.forClass(CarteiraValorMensagem.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/carteira/1/valor"), mensagem.capture());
+        assertEquals(0, new BigDecimal("100.00").compareTo(mensagem.getValue().getGanhoPerda()));
+        assertEquals(0, new BigDecimal("10.00").compareTo(mensagem.getValue().getGanhoPerdaPercentual()));
+        verify(ativoRepository, times(1)).findCodigosECarteirasComPosicao();
+    }
+
+    @Test
+    @DisplayName("Não deve reenviar valor igual ao último enviado")
+    void naoDeveReenviarValorIgual() {
+        when(posicaoLedgerService.getVersaoGlobal()).thenReturn(1L);
+        when(ativoRepository.findCodigosECarteirasComPosicao()).thenReturn(List.<Object[]>of(new Object[]{"PETR4", 1L}));
+        when(valorCarteiraService.calcularValorAtual(eq(1L), anyMap())).thenReturn(valor(1L, "1100.00"));
+
+        valorCarteiraTempoRealService.registrarTicks(List.of(tick("PETR4", "30.00")));
+        valorCarteiraTempoRealService.publicarPendentes();
+        valorCarteiraTempoRealService.registrarTicks(List.of(tick("PETR4", "30.00")));
+        valorCarteiraTempoRealService.publicarPendentes();
+        valorCarteiraTempoRealService.publicarPendentes();
+
+        verify(valorCarteiraService, times(2)).calcularValorAtual(eq(1L), anyMap());
+        verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Deve reindexar só a carteira alterada e casar códigos sem diferenciar maiúsculas")
+    void deveReindexarSoCarteiraAlterada() {
+        when(posicaoLedgerService.getVersaoGlobal()).thenReturn(1L, 2L);
+        when(posicaoLedgerService.getCarteirasAlteradas()).thenReturn(Set.of(), Set.of(2L));
+        when(posicaoLedgerService.getVersaoCarteira(2L)).thenReturn(1L);
+        when(ativoRepository.findCodigosECarteirasComPosicao()).thenReturn(List.<Object[]>of(new Object[]{"PETR4", 1L}));
+        // Carteira 2 comprou VALE3 depois da montagem do índice
+        when(ativoRepository.findCodigosComPosicao(2L)).thenReturn(List.of("VALE3"));
+        when(valorCarteiraService.calcularValorAtual(anyLong(), anyMap())).thenReturn(valor(1L, "1100.00"));
+
+        valorCarteiraTempoRealService.registrarTicks(List.of(tick("petr4", "30.00")));
+        valorCarteiraTempoRealService.registrarTicks(List.of(tick("vale3", "60.00")));
+        valorCarteiraTempoRealService.publicarPendentes();
+
+        verify(valorCarteiraService).calcularValorAtual(eq(1L), anyMap());
+        verify(valorCarteiraService).calcularValorAtual(eq(2L), anyMap());
+        verify(ativoRepository, times(1)).findCodigosECarteirasComPosicao();
+        verify(ativoRepository, never()).findCodigosComPosicao(1L);
+    }
+
+    @Test
+    @DisplayName("Deve tirar do índice a carteira excluída")
+    void deveRemoverCarteiraExcluidaDoIndice() {
+        when(posicaoLedgerService.getVersaoGlobal()).thenReturn(1L);
+        when(ativoRepository.findCodigosECarteirasComPosicao()).thenReturn(List.<Object[]>of(new Object[]{"PETR4", 1L}));
+        when(valorCarteiraService.calcularValorAtual(eq(1L), anyMap()))
+                .thenThrow(new RuntimeException("Carteira não encontrada: 1"));
+        when(carteiraRepository.existsById(1L)).thenReturn(false);
+
+        valorCarteiraTempoRealService.registrarTicks(List.of(tick("PETR4", "30.00")));
+        valorCarteiraTempoRealService.publicarPendentes();
+        valorCarteiraTempoRealService.registrarTicks(List.of(tick("PETR4", "31.00")));
+        valorCarteiraTempoRealService.publicarPendentes();
+
+        verify(valorCarteiraService, times(1)).calcularValorAtual(eq(1L), anyMap());
+    }
+}